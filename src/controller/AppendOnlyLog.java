@@ -0,0 +1,349 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A local append-only file of checksummed records that survives crashes.
+ * 
+ * Each record is its length, a CRC-32 of its bytes and the bytes. An append
+ * returns only once the record has been forced to disk, but forces are
+ * shared: a background thread forces the file whenever records are waiting,
+ * so appends that arrive during one force are all made durable by the next.
+ * Under load many appends cost one fsync between them.
+ * 
+ * When the file is opened, records are read back up to the first one that is
+ * truncated or fails its checksum. If that record is the last one in the
+ * file, a crash interrupted its write and the file is simply cut there. A
+ * damaged record with more data after it is not a torn write, so everything
+ * from it on is first copied to a ".damaged" file beside the log, where it
+ * can be recovered by hand, and only then cut off.
+ */
+public class AppendOnlyLog implements Closeable {
+    public static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    
+    private static final int MAGIC = 0x4C434A31;
+    private static final int HEADER_SIZE = 4;
+    private static final int RECORD_HEADER_SIZE = 8;
+    
+    private final Path file;
+    private final Object lock = new Object();
+    private final List<byte[]> recovered;
+    private FileChannel channel;
+    private long appendedSequence;
+    private long syncedSequence;
+    private IOException syncFailure;
+    private boolean closed;
+    
+    /**
+     * Open a log, creating it if needed and recovering its records
+     * 
+     * @param file The log file
+     * @throws IOException If the file cannot be opened or is not a log
+     */
+    public AppendOnlyLog(Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recovered = recover();
+        
+        Thread syncThread = new Thread(this::syncLoop, "journal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+    
+    /**
+     * Get the records that were in the file when it was opened
+     * 
+     * @return The records, oldest first
+     */
+    public List<byte[]> getRecoveredRecords() {
+        return recovered;
+    }
+    
+    /**
+     * Append a record and wait until it is on disk
+     * 
+     * @param record The record's bytes
+     * @throws IOException If the record cannot be written or forced to disk
+     */
+    public void append(byte[] record) throws IOException {
+        append(Collections.singletonList(record));
+    }
+    
+    /**
+     * Append several records and wait until all of them are on disk, which
+     * costs one force for the whole group
+     * 
+     * @param records The records' bytes, in order
+     * @throws IOException If the records cannot be written or forced to disk
+     */
+    public void append(List<byte[]> records) throws IOException {
+        for (byte[] record : records) {
+            if (record.length > MAX_RECORD_SIZE) {
+                throw new IOException("Record too large: " + record.length + " bytes");
+            }
+        }
+        
+        long sequence;
+        synchronized (lock) {
+            checkOpen();
+            long start = channel.position();
+            try {
+                for (byte[] record : records) {
+                    writeRecord(channel, record);
+                }
+            } catch (IOException ex) {
+                // Do not leave part of the group in front of the next record
+                channel.truncate(start);
+                channel.position(start);
+                throw ex;
+            }
+            sequence = ++appendedSequence;
+            lock.notifyAll();
+        }
+        
+        synchronized (lock) {
+            while (syncedSequence < sequence) {
+                if (syncFailure != null) {
+                    throw new IOException("Could not force the journal to disk", syncFailure);
+                }
+                checkOpen();
+                try {
+                    lock.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal", ex);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Replace the log's contents with the given records, for example to drop
+     * records that are no longer needed. The new file is written and forced
+     * beside the old one and then moved over it.
+     * 
+     * @param records The records to keep
+     * @throws IOException If the log cannot be rewritten
+     */
+    public void rewrite(List<byte[]> records) throws IOException {
+        synchronized (lock) {
+            checkOpen();
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(out, (ByteBuffer) ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).flip());
+                for (byte[] record : records) {
+                    writeRecord(out, record);
+                }
+                out.force(true);
+            }
+            
+            // Everything appended so far is in the new file, already forced
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            syncedSequence = appendedSequence;
+            lock.notifyAll();
+        }
+    }
+    
+    /**
+     * Get the size of the log file
+     * 
+     * @return The size in bytes
+     * @throws IOException If the size cannot be read
+     */
+    public long size() throws IOException {
+        synchronized (lock) {
+            return channel.size();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+            channel.force(true);
+            channel.close();
+        }
+    }
+    
+    /**
+     * Read back all intact records and cut off a torn tail
+     */
+    private List<byte[]> recover() throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            channel.truncate(0);
+            writeFully(channel, (ByteBuffer) ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).flip(), 0);
+            channel.force(true);
+            channel.position(HEADER_SIZE);
+            return records;
+        }
+        
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, (ByteBuffer) header.limit(HEADER_SIZE), 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a journal file");
+        }
+        
+        long position = HEADER_SIZE;
+        boolean tornTail = true;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(0);
+            int checksum = header.getInt(4);
+            if (length < 0 || length > MAX_RECORD_SIZE) {
+                tornTail = false;
+                break;
+            }
+            long end = position + RECORD_HEADER_SIZE + length;
+            if (end > size) {
+                break;
+            }
+            ByteBuffer data = ByteBuffer.allocate(length);
+            readFully(channel, data, position + RECORD_HEADER_SIZE);
+            crc.reset();
+            crc.update(data.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                // Only the last record can have been torn by a crash
+                tornTail = end == size;
+                break;
+            }
+            records.add(data.array());
+            position = end;
+        }
+        
+        if (position < size) {
+            if (tornTail) {
+                System.err.println("Journal " + file + ": discarding " + (size - position) + " bytes of an incomplete record");
+            } else {
+                Path damaged = saveDamaged(position, size);
+                System.err.println("Journal " + file + ": moved " + (size - position)
+                    + " bytes from a damaged record on to " + damaged);
+            }
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        return records;
+    }
+    
+    /**
+     * Copy the end of the file, from a damaged record on, to a new file beside the log
+     * 
+     * @return The new file
+     */
+    private Path saveDamaged(long position, long size) throws IOException {
+        Path damaged = file.resolveSibling(file.getFileName() + ".damaged-" + System.currentTimeMillis());
+        try (FileChannel out = FileChannel.open(damaged, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+            out.force(true);
+        }
+        return damaged;
+    }
+    
+    /**
+     * Force the file whenever appends are waiting for it
+     */
+    private void syncLoop() {
+        while (true) {
+            long target;
+            FileChannel current;
+            synchronized (lock) {
+                while (appendedSequence == syncedSequence && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                target = appendedSequence;
+                current = channel;
+            }
+            
+            try {
+                current.force(false);
+                synchronized (lock) {
+                    syncedSequence = Math.max(syncedSequence, target);
+                    lock.notifyAll();
+                }
+            } catch (IOException ex) {
+                synchronized (lock) {
+                    if (current == channel) {
+                        syncFailure = ex;
+                        lock.notifyAll();
+                        return;
+                    }
+                    // The channel was swapped by a rewrite, which forced everything itself
+                }
+            }
+        }
+    }
+    
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The journal is closed");
+        }
+        if (syncFailure != null) {
+            throw new IOException("The journal can no longer be written", syncFailure);
+        }
+    }
+    
+    private static void writeRecord(FileChannel out, byte[] record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, record.length);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + record.length);
+        buffer.putInt(record.length).putInt((int) crc.getValue()).put(record).flip();
+        writeFully(out, buffer);
+    }
+    
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+    
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+    }
+    
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+            position += read;
+        }
+    }
+}
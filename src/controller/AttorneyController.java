@@ -30,8 +30,8 @@ public class AttorneyController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stubs
-            attorneyService = (AttorneyService) registry.lookup("attorneyService");
-            caseService = (CaseService) registry.lookup("caseService");
+            attorneyService = (AttorneyService) ServiceStubs.lookup(registry, "attorneyService");
+            caseService = (CaseService) ServiceStubs.lookup(registry, "caseService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -40,16 +40,30 @@ public class AttorneyController {
     }
     
     /**
-     * Get all attorneys
+     * Get the attorneys saved at the last successful load, for showing something
+     * while the current list is fetched
+     * 
+     * @return The saved attorneys, or null if none are saved
+     */
+    public List<Attorney> getSavedAttorneys() {
+        return SnapshotStore.getInstance().load(SnapshotStore.ATTORNEYS);
+    }
+    
+    /**
+     * Get all attorneys. While the server is unreachable, the attorneys saved at the
+     * last successful load are returned instead.
      * 
      * @return List of all attorneys
      */
     public List<Attorney> getAllAttorneys() {
         try {
-            return attorneyService.findAllAttorneys();
+            List<Attorney> attorneys = attorneyService.findAllAttorneys();
+            SnapshotStore.getInstance().save(SnapshotStore.ATTORNEYS, attorneys);
+            return attorneys;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return null;
+            // Fall back to the last loaded list while the server is unreachable
+            return SnapshotStore.getInstance().loadOffline(SnapshotStore.ATTORNEYS, ex);
         }
     }
     
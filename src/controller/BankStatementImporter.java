@@ -0,0 +1,684 @@
+package controller;
+
+import model.Client;
+import model.Invoice;
+import model.Payment;
+import service.InvoiceService;
+import service.PaymentService;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.rmi.RemoteException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Imports incoming payments from a bank statement.
+ * 
+ * The statement is read line by line, as CSV with a header row or as an
+ * OFX/QFX download, and each credit is matched to an open invoice as soon as
+ * it is read. Open invoices are loaded once and indexed in hash maps by
+ * invoice number, by client reference and by outstanding balance, so every
+ * statement line costs a few lookups regardless of how many invoices are open.
+ * 
+ * A line is matched, in order of preference, by an invoice number in its
+ * description or reference, by a client reference when that identifies a
+ * single invoice, or by an outstanding balance equal to the amount with a
+ * due date within {@link #FUZZY_WINDOW_DAYS} days of the payment. Lines that
+ * match more than one invoice equally well are left for manual recording.
+ * All matched payments are then created with a single service call.
+ * 
+ * Whether slash-separated CSV dates are day-first or month-first is decided
+ * once per file from its whole date column, so every line of a statement is
+ * read the same way. When the column does not settle it, lines whose date
+ * could be read either way are skipped rather than guessed.
+ */
+public class BankStatementImporter {
+    public static final String MATCH_INVOICE_NUMBER = "Invoice number";
+    public static final String MATCH_CLIENT_REFERENCE = "Client reference";
+    public static final String MATCH_AMOUNT_AND_DATE = "Amount and date";
+    public static final int FUZZY_WINDOW_DAYS = 45;
+    public static final String PAYMENT_METHOD = "Bank Transfer";
+    
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9/_-]*");
+    private static final Pattern OFX_TAG = Pattern.compile("<(/?)([A-Za-z0-9.]+)>([^<\\r\\n]*)");
+    private static final DateTimeFormatter COMPACT_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final DateTimeFormatter MONTH_FIRST = DateTimeFormatter.ofPattern("M/d/yyyy");
+    
+    private final InvoiceService invoiceService;
+    private final PaymentService paymentService;
+    
+    // Indexes over the open invoices, rebuilt for every statement
+    private final Map<String, Invoice> byInvoiceNumber = new HashMap<>();
+    private final Map<String, List<Invoice>> byClientReference = new HashMap<>();
+    private final Map<Long, List<Invoice>> byBalance = new HashMap<>();
+    private final Map<Integer, Long> remainingBalances = new HashMap<>();
+    
+    /**
+     * One credit or debit read from the statement
+     */
+    public static class StatementLine {
+        private final int lineNumber;
+        private final LocalDate date;
+        private final long amountMinorUnits;
+        private final String description;
+        private final String reference;
+        
+        StatementLine(int lineNumber, LocalDate date, long amountMinorUnits, String description, String reference) {
+            this.lineNumber = lineNumber;
+            this.date = date;
+            this.amountMinorUnits = amountMinorUnits;
+            this.description = description;
+            this.reference = reference;
+        }
+        
+        public int getLineNumber() { return lineNumber; }
+        
+        public LocalDate getDate() { return date; }
+        
+        /**
+         * Get the amount in cents; negative for debits
+         */
+        public long getAmountMinorUnits() { return amountMinorUnits; }
+        
+        public String getDescription() { return description; }
+        
+        public String getReference() { return reference; }
+    }
+    
+    /**
+     * A statement credit and the invoice it was matched to, if any
+     */
+    public static class LineMatch {
+        private final StatementLine line;
+        private final Invoice invoice;
+        private final String method;
+        private final String problem;
+        
+        LineMatch(StatementLine line, Invoice invoice, String method, String problem) {
+            this.line = line;
+            this.invoice = invoice;
+            this.method = method;
+            this.problem = problem;
+        }
+        
+        public StatementLine getLine() { return line; }
+        
+        public Invoice getInvoice() { return invoice; }
+        
+        /**
+         * Get how the invoice was found, one of the MATCH_* constants
+         */
+        public String getMethod() { return method; }
+        
+        /**
+         * Get why the line could not be matched
+         */
+        public String getProblem() { return problem; }
+        
+        public boolean isMatched() {
+            return invoice != null;
+        }
+    }
+    
+    /**
+     * The outcome of reading and matching a statement
+     */
+    public static class Analysis {
+        private final List<LineMatch> matched = new ArrayList<>();
+        private final List<LineMatch> unmatched = new ArrayList<>();
+        private int skippedLines;
+        private long elapsedMillis;
+        
+        public List<LineMatch> getMatched() { return matched; }
+        
+        public List<LineMatch> getUnmatched() { return unmatched; }
+        
+        /**
+         * Get the number of debits and unreadable lines that were ignored
+         */
+        public int getSkippedLines() { return skippedLines; }
+        
+        public long getElapsedMillis() { return elapsedMillis; }
+        
+        /**
+         * Get the statement lines read and matched per second
+         */
+        public double getLinesPerSecond() {
+            int lines = matched.size() + unmatched.size() + skippedLines;
+            return lines * 1000.0 / Math.max(1, elapsedMillis);
+        }
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param invoiceService The remote invoice service
+     * @param paymentService The remote payment service
+     */
+    public BankStatementImporter(InvoiceService invoiceService, PaymentService paymentService) {
+        this.invoiceService = invoiceService;
+        this.paymentService = paymentService;
+    }
+    
+    /**
+     * Read a statement and match its credits to open invoices. Nothing is
+     * recorded until {@link #importPayments} is called.
+     * 
+     * @param file A CSV or OFX statement
+     * @return The matched and unmatched lines
+     * @throws IOException If the file cannot be read or the open invoices cannot be loaded
+     */
+    public Analysis analyze(File file) throws IOException {
+        long start = System.currentTimeMillis();
+        loadOpenInvoices();
+        
+        Analysis analysis = new Analysis();
+        // A decoding reader rather than Files.newBufferedReader, which fails on
+        // the odd Windows-1252 character in bank exports instead of replacing it
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            reader.mark(4096);
+            String first = reader.readLine();
+            reader.reset();
+            if (first != null && (first.contains("OFXHEADER") || first.trim().startsWith("<"))) {
+                readOfx(reader, analysis);
+            } else {
+                readCsv(reader, analysis, detectSlashDateFormat(file));
+            }
+        }
+        analysis.elapsedMillis = System.currentTimeMillis() - start;
+        return analysis;
+    }
+    
+    /**
+     * Record a payment for each matched line in one call
+     * 
+     * @param matches Matched lines from {@link #analyze}
+     * @param source A note naming the statement, stored with each payment
+     * @return The created payments in the same order, with null where a payment was rejected
+     * @throws RemoteException If the payments cannot be sent
+     */
+    public List<Payment> importPayments(List<LineMatch> matches, String source) throws RemoteException {
+        List<Payment> payments = new ArrayList<>();
+        for (LineMatch match : matches) {
+            StatementLine line = match.getLine();
+            Payment payment = new Payment();
+            payment.setInvoice(match.getInvoice());
+            payment.setAmount(BigDecimal.valueOf(line.getAmountMinorUnits(), 2));
+            payment.setPaymentDate(line.getDate());
+            payment.setPaymentMethod(PAYMENT_METHOD);
+            payment.setReference(line.getReference() != null ? line.getReference() : line.getDescription());
+            payment.setNotes("Imported from " + source + " line " + line.getLineNumber() + ": " + line.getDescription());
+            payments.add(payment);
+        }
+        if (payments.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return paymentService.createPayments(payments);
+    }
+    
+    /**
+     * Load every open invoice once and build the lookup indexes
+     */
+    private void loadOpenInvoices() throws RemoteException {
+        byInvoiceNumber.clear();
+        byClientReference.clear();
+        byBalance.clear();
+        remainingBalances.clear();
+        
+        int afterId = 0;
+        while (true) {
+            List<Invoice> page = invoiceService.findOpenInvoicesPage(afterId, ReceivablesAging.PAGE_SIZE);
+            if (page == null || page.isEmpty()) {
+                return;
+            }
+            for (Invoice invoice : page) {
+                long balance = ReceivablesAging.toMinorUnits(invoice.getAmount())
+                    - ReceivablesAging.toMinorUnits(invoice.getAmountPaid());
+                remainingBalances.put(invoice.getId(), balance);
+                if (invoice.getInvoiceNumber() != null) {
+                    byInvoiceNumber.put(normalize(invoice.getInvoiceNumber()), invoice);
+                }
+                Client client = invoice.getClient();
+                if (client != null && client.getClientId() != null) {
+                    byClientReference.computeIfAbsent(normalize(client.getClientId()), key -> new ArrayList<>()).add(invoice);
+                }
+                byBalance.computeIfAbsent(balance, key -> new ArrayList<>()).add(invoice);
+            }
+            afterId = page.get(page.size() - 1).getId();
+            if (page.size() < ReceivablesAging.PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Read a CSV statement whose first row names the columns
+     * 
+     * @param slashFormat The order of slash-separated dates in this file, or null if unknown
+     */
+    private void readCsv(BufferedReader reader, Analysis analysis, DateTimeFormatter slashFormat) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = splitCsv(header);
+        int dateColumn = findColumn(columns, "date");
+        int amountColumn = findAmountColumn(columns);
+        int descriptionColumn = findColumn(columns, "description", "details", "narrative", "memo", "payee", "name");
+        int referenceColumn = findColumn(columns, "reference", "ref");
+        if (dateColumn < 0 || amountColumn < 0) {
+            throw new IOException("The statement needs a date and an amount column");
+        }
+        
+        int lineNumber = 1;
+        for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+            lineNumber++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            List<String> values = splitCsv(text);
+            LocalDate date = parseDate(value(values, dateColumn), slashFormat);
+            Long amount = parseAmount(value(values, amountColumn));
+            if (date == null || amount == null) {
+                analysis.skippedLines++;
+                continue;
+            }
+            match(new StatementLine(lineNumber, date, amount,
+                value(values, descriptionColumn), emptyToNull(value(values, referenceColumn))), analysis);
+        }
+    }
+    
+    /**
+     * Read the transactions of an OFX statement. Both the SGML form, where
+     * closing tags are optional, and the XML form are accepted.
+     */
+    private void readOfx(BufferedReader reader, Analysis analysis) throws IOException {
+        Map<String, String> transaction = null;
+        int transactionLine = 0;
+        int lineNumber = 0;
+        for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+            lineNumber++;
+            Matcher matcher = OFX_TAG.matcher(text);
+            while (matcher.find()) {
+                boolean closing = !matcher.group(1).isEmpty();
+                String tag = matcher.group(2).toUpperCase(Locale.ROOT);
+                if (tag.equals("STMTTRN")) {
+                    if (closing && transaction != null) {
+                        addOfxTransaction(transaction, transactionLine, analysis);
+                        transaction = null;
+                    } else if (!closing) {
+                        transaction = new HashMap<>();
+                        transactionLine = lineNumber;
+                    }
+                } else if (!closing && transaction != null) {
+                    transaction.put(tag, matcher.group(3).trim());
+                }
+            }
+        }
+    }
+    
+    private void addOfxTransaction(Map<String, String> transaction, int lineNumber, Analysis analysis) {
+        String posted = transaction.get("DTPOSTED");
+        LocalDate date = posted != null && posted.length() >= 8 ? parseDate(posted.substring(0, 8), null) : null;
+        Long amount = parseAmount(transaction.get("TRNAMT"));
+        if (date == null || amount == null) {
+            analysis.skippedLines++;
+            return;
+        }
+        
+        StringBuilder description = new StringBuilder();
+        for (String tag : new String[] { "NAME", "MEMO", "REFNUM", "CHECKNUM" }) {
+            String value = transaction.get(tag);
+            if (value != null && !value.isEmpty()) {
+                if (description.length() > 0) {
+                    description.append(' ');
+                }
+                description.append(value);
+            }
+        }
+        match(new StatementLine(lineNumber, date, amount, description.toString(),
+            emptyToNull(transaction.get("FITID"))), analysis);
+    }
+    
+    /**
+     * Match one statement line and reserve the invoice's balance for it
+     */
+    private void match(StatementLine line, Analysis analysis) {
+        if (line.getAmountMinorUnits() <= 0) {
+            analysis.skippedLines++;
+            return;
+        }
+        
+        Set<String> tokens = tokens(line.getDescription() + " " + (line.getReference() != null ? line.getReference() : ""));
+        LineMatch match = null;
+        
+        for (String token : tokens) {
+            Invoice invoice = byInvoiceNumber.get(token);
+            if (invoice != null) {
+                // Same reservation as the other paths: earlier lines may already cover the balance
+                long remaining = remainingBalances.get(invoice.getId());
+                match = line.getAmountMinorUnits() <= remaining
+                    ? new LineMatch(line, invoice, MATCH_INVOICE_NUMBER, null)
+                    : new LineMatch(line, null, null, remaining > 0
+                        ? "Overpayment: the amount is more than the outstanding balance of " + invoice.getInvoiceNumber()
+                        : "Invoice " + invoice.getInvoiceNumber() + " is already paid");
+                break;
+            }
+        }
+        
+        if (match == null) {
+            for (String token : tokens) {
+                List<Invoice> clientInvoices = byClientReference.get(token);
+                if (clientInvoices != null) {
+                    match = matchClientInvoices(line, clientInvoices);
+                    break;
+                }
+            }
+        }
+        
+        if (match == null) {
+            match = matchByAmountAndDate(line, byBalance.get(line.getAmountMinorUnits()));
+        }
+        
+        if (match.isMatched()) {
+            remainingBalances.merge(match.getInvoice().getId(), -line.getAmountMinorUnits(), Long::sum);
+            analysis.matched.add(match);
+        } else {
+            analysis.unmatched.add(match);
+        }
+    }
+    
+    /**
+     * Pick among the open invoices of a client named on the statement line.
+     * A payment larger than any balance is left unmatched.
+     */
+    private LineMatch matchClientInvoices(StatementLine line, List<Invoice> clientInvoices) {
+        List<Invoice> open = new ArrayList<>();
+        for (Invoice invoice : clientInvoices) {
+            if (remainingBalances.get(invoice.getId()) > 0) {
+                open.add(invoice);
+            }
+        }
+        // A single open invoice takes any payment up to its balance, including part payments
+        if (open.size() == 1 && line.getAmountMinorUnits() <= remainingBalances.get(open.get(0).getId())) {
+            return new LineMatch(line, open.get(0), MATCH_CLIENT_REFERENCE, null);
+        }
+        
+        List<Invoice> sameAmount = new ArrayList<>();
+        for (Invoice invoice : open) {
+            if (remainingBalances.get(invoice.getId()) == line.getAmountMinorUnits()) {
+                sameAmount.add(invoice);
+            }
+        }
+        if (sameAmount.size() == 1) {
+            return new LineMatch(line, sameAmount.get(0), MATCH_CLIENT_REFERENCE, null);
+        }
+        if (sameAmount.size() > 1) {
+            return matchByAmountAndDate(line, sameAmount);
+        }
+        return new LineMatch(line, null, null, open.isEmpty()
+            ? "The client has no open invoices"
+            : "The amount does not fit any of the client's open invoices");
+    }
+    
+    /**
+     * Pick the single candidate with an outstanding balance equal to the
+     * amount and a due date close to the payment date
+     */
+    private LineMatch matchByAmountAndDate(StatementLine line, List<Invoice> candidates) {
+        List<Invoice> found = new ArrayList<>();
+        if (candidates != null) {
+            for (Invoice invoice : candidates) {
+                LocalDate dueDate = invoice.getDueDate() != null ? invoice.getDueDate() : invoice.getIssueDate();
+                if (remainingBalances.get(invoice.getId()) == line.getAmountMinorUnits() && dueDate != null
+                        && Math.abs(ChronoUnit.DAYS.between(dueDate, line.getDate())) <= FUZZY_WINDOW_DAYS) {
+                    found.add(invoice);
+                }
+            }
+        }
+        if (found.size() == 1) {
+            return new LineMatch(line, found.get(0), MATCH_AMOUNT_AND_DATE, null);
+        }
+        return new LineMatch(line, null, null, found.isEmpty()
+            ? "No open invoice matches the reference or amount"
+            : found.size() + " open invoices have this amount and a nearby due date");
+    }
+    
+    /**
+     * Split text into normalized words that could be invoice numbers or client
+     * references. Adjacent words are also joined, since payers often write
+     * "INV 1001" for INV-1001.
+     */
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        Matcher matcher = TOKEN.matcher(text);
+        String previous = null;
+        while (matcher.find()) {
+            String token = normalize(matcher.group());
+            tokens.add(token);
+            if (previous != null) {
+                tokens.add(previous + token);
+            }
+            previous = token;
+        }
+        return tokens;
+    }
+    
+    /**
+     * Normalize an identifier so that "inv-1001" and "INV 1001" compare equal
+     */
+    private static String normalize(String identifier) {
+        StringBuilder builder = new StringBuilder(identifier.length());
+        for (int i = 0; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(Character.toUpperCase(c));
+            }
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * Scan the date column of a CSV statement for a slash date that can only
+     * be read one way, which fixes the order for the whole file
+     * 
+     * @return DAY_FIRST or MONTH_FIRST, or null if no date decides it or the column mixes both
+     */
+    private static DateTimeFormatter detectSlashDateFormat(File file) throws IOException {
+        boolean dayFirst = false;
+        boolean monthFirst = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            int dateColumn = header != null ? findColumn(splitCsv(header), "date") : -1;
+            if (dateColumn < 0) {
+                return null;
+            }
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                int[] parts = slashDateParts(value(splitCsv(text), dateColumn));
+                if (parts != null) {
+                    dayFirst |= parts[0] > 12;
+                    monthFirst |= parts[1] > 12;
+                }
+            }
+        }
+        if (dayFirst == monthFirst) {
+            return null;
+        }
+        return dayFirst ? DAY_FIRST : MONTH_FIRST;
+    }
+    
+    /**
+     * Parse a statement date: ISO, yyyyMMdd, or a slash date in the order
+     * detected for the file. Without a detected order a slash date is only
+     * accepted when it can be read just one way.
+     * 
+     * @param slashFormat The order of slash-separated dates, or null if unknown
+     */
+    private static LocalDate parseDate(String text, DateTimeFormatter slashFormat) {
+        if (text == null || text.trim().isEmpty()) {
+            return null;
+        }
+        String value = text.trim();
+        try {
+            if (value.contains("-")) {
+                return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+            }
+            if (value.contains("/")) {
+                DateTimeFormatter format = slashFormat;
+                if (format == null) {
+                    int[] parts = slashDateParts(value);
+                    if (parts == null) {
+                        return null;
+                    } else if (parts[0] > 12 || parts[0] == parts[1]) {
+                        format = DAY_FIRST;
+                    } else if (parts[1] > 12) {
+                        format = MONTH_FIRST;
+                    } else {
+                        // Ambiguous, such as 03/04/2026
+                        return null;
+                    }
+                }
+                return LocalDate.parse(value, format);
+            }
+            return LocalDate.parse(value, COMPACT_DATE);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+    
+    /**
+     * Split a slash date into its first two numbers
+     * 
+     * @return The two numbers, or null if the text is not a slash date
+     */
+    private static int[] slashDateParts(String text) {
+        String[] parts = text != null ? text.trim().split("/") : new String[0];
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+    
+    /**
+     * Parse an amount with optional currency symbol, thousands separators
+     * and accounting-style parentheses for negatives
+     * 
+     * @return The amount in cents, or null if the text is not an amount
+     */
+    private static Long parseAmount(String text) {
+        if (text == null) {
+            return null;
+        }
+        String value = text.trim();
+        boolean negative = value.startsWith("(") && value.endsWith(")");
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isDigit(c) || c == '.' || c == '-') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() == 0) {
+            return null;
+        }
+        try {
+            long amount = ReceivablesAging.toMinorUnits(new BigDecimal(digits.toString()));
+            return negative ? -amount : amount;
+        } catch (NumberFormatException | ArithmeticException ex) {
+            return null;
+        }
+    }
+    
+    /**
+     * Split one CSV record, honouring double-quoted fields
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+    
+    /**
+     * Find the column of money paid in. Statements with separate debit and
+     * credit columns often call both "... Amount", so credit names are tried
+     * first and a debit-only column is never taken as the amount.
+     */
+    private static int findAmountColumn(List<String> columns) {
+        int creditColumn = findColumn(columns, "credit", "paid in", "deposit");
+        if (creditColumn >= 0) {
+            return creditColumn;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            String name = columns.get(i).toLowerCase(Locale.ROOT);
+            if (name.contains("amount") && !name.contains("debit") && !name.contains("paid out")
+                    && !name.contains("withdrawal")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int findColumn(List<String> columns, String... names) {
+        for (String name : names) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).toLowerCase(Locale.ROOT).contains(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    private static String value(List<String> values, int column) {
+        return column >= 0 && column < values.size() ? values.get(column) : "";
+    }
+    
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
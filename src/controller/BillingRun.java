@@ -0,0 +1,448 @@
+package controller;
+
+import model.Case;
+import model.Invoice;
+import model.TimeEntry;
+import service.InvoiceService;
+import service.TimeEntryService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.rmi.RemoteException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Month-end billing: creates a draft invoice for every case with unbilled
+ * time entries up to a cut-off date, in one job.
+ * 
+ * All unbilled entries are loaded with a single call and grouped by case.
+ * Line totals are computed in exact cents as long values, so an invoice
+ * total never depends on how floating-point hours and rates happen to round.
+ * The invoices are then created in batches, several batches at a time, each
+ * with one server call that creates the invoices and marks their entries as
+ * billed together.
+ * 
+ * Progress is written to a journal file after every batch. A run that is
+ * cancelled or interrupted can be resumed later: it bills only the cases it
+ * originally planned, and since billed entries are no longer returned as
+ * unbilled, cases finished before the interruption are not invoiced twice.
+ * The journal is removed once every case is done.
+ */
+public class BillingRun {
+    public static final int DEFAULT_PARALLELISM = 3;
+    public static final int BATCH_SIZE = 20;
+    
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    private final InvoiceService invoiceService;
+    private final TimeEntryService timeEntryService;
+    private final BillingRunListener listener;
+    private final Path journalFile;
+    private final String runId;
+    private final LocalDate throughDate;
+    private final LocalDate dueDate;
+    private final Set<Integer> plannedCases = new LinkedHashSet<>();
+    private final Set<Integer> completedCases = new LinkedHashSet<>();
+    private final AtomicLong billedMinorUnits = new AtomicLong();
+    private volatile boolean cancelled;
+    
+    /**
+     * The outcome of billing one case
+     */
+    public static class CaseResult {
+        private final Case legalCase;
+        private final int entryCount;
+        private final long amountMinorUnits;
+        private Invoice invoice;
+        private String error;
+        
+        public CaseResult(Case legalCase, int entryCount, long amountMinorUnits) {
+            this.legalCase = legalCase;
+            this.entryCount = entryCount;
+            this.amountMinorUnits = amountMinorUnits;
+        }
+        
+        public Case getCase() { return legalCase; }
+        
+        public int getEntryCount() { return entryCount; }
+        
+        /**
+         * Get the invoice total in cents
+         */
+        public long getAmountMinorUnits() { return amountMinorUnits; }
+        
+        public Invoice getInvoice() { return invoice; }
+        
+        public String getError() { return error; }
+        
+        /**
+         * Check if the draft invoice was created
+         */
+        public boolean isSuccess() {
+            return error == null && invoice != null;
+        }
+    }
+    
+    /**
+     * Constructor for a new run
+     * 
+     * @param invoiceService The remote invoice service
+     * @param timeEntryService The remote time entry service
+     * @param listener Progress listener, or null
+     * @param throughDate Time entries dated on or before this date are billed
+     * @param dueDate The due date of the created invoices
+     */
+    public BillingRun(InvoiceService invoiceService, TimeEntryService timeEntryService, BillingRunListener listener,
+            LocalDate throughDate, LocalDate dueDate) {
+        this(invoiceService, timeEntryService, listener, getDefaultJournalFile(),
+            "RUN-" + LocalDateTime.now().format(RUN_ID_FORMAT), throughDate, dueDate);
+    }
+    
+    private BillingRun(InvoiceService invoiceService, TimeEntryService timeEntryService, BillingRunListener listener,
+            Path journalFile, String runId, LocalDate throughDate, LocalDate dueDate) {
+        this.invoiceService = invoiceService;
+        this.timeEntryService = timeEntryService;
+        this.listener = listener;
+        this.journalFile = journalFile;
+        this.runId = runId;
+        this.throughDate = throughDate;
+        this.dueDate = dueDate;
+    }
+    
+    /**
+     * Load the run that was interrupted before finishing, if any
+     * 
+     * @param invoiceService The remote invoice service
+     * @param timeEntryService The remote time entry service
+     * @param listener Progress listener, or null
+     * @return The interrupted run, or null if the last run finished
+     */
+    public static BillingRun loadInterrupted(InvoiceService invoiceService, TimeEntryService timeEntryService,
+            BillingRunListener listener) {
+        Path journalFile = getDefaultJournalFile();
+        if (!Files.isRegularFile(journalFile)) {
+            return null;
+        }
+        
+        Properties journal = new Properties();
+        try (InputStream in = Files.newInputStream(journalFile)) {
+            journal.load(in);
+            BillingRun run = new BillingRun(invoiceService, timeEntryService, listener, journalFile,
+                journal.getProperty("runId"),
+                LocalDate.parse(journal.getProperty("throughDate")),
+                LocalDate.parse(journal.getProperty("dueDate")));
+            run.plannedCases.addAll(parseIds(journal.getProperty("plannedCases", "")));
+            run.completedCases.addAll(parseIds(journal.getProperty("completedCases", "")));
+            run.billedMinorUnits.set(Long.parseLong(journal.getProperty("billedMinorUnits", "0")));
+            return run;
+        } catch (IOException | RuntimeException ex) {
+            // An unreadable journal cannot be resumed; billed entries are safe either way
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Compute the amount of a time entry in cents: the hourly rate times the
+     * exact hours, as the line items show it, rounded half up once
+     * 
+     * @param entry The time entry
+     * @return The amount in cents
+     */
+    public static long toMinorUnits(TimeEntry entry) {
+        if (entry.getHourlyRate() == null) {
+            return 0;
+        }
+        return entry.getHourlyRate().multiply(BigDecimal.valueOf(entry.getHours()))
+            .setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    /**
+     * Bill every planned case that is not finished yet
+     * 
+     * @param parallelism The number of batches sent to the server at the same time
+     * @return One result per case billed in this call, in case number order
+     * @throws RemoteException If the unbilled time entries cannot be loaded
+     * @throws InterruptedException If the billing thread is interrupted
+     */
+    public List<CaseResult> run(int parallelism) throws RemoteException, InterruptedException {
+        Map<Integer, List<TimeEntry>> entriesByCase = loadUnbilledEntries();
+        boolean resuming;
+        synchronized (this) {
+            resuming = !plannedCases.isEmpty();
+            if (!resuming) {
+                plannedCases.addAll(entriesByCase.keySet());
+            }
+            entriesByCase.keySet().retainAll(plannedCases);
+            entriesByCase.keySet().removeAll(completedCases);
+            saveJournal();
+        }
+        
+        List<CaseResult> results = new ArrayList<>();
+        List<Invoice> invoices = new ArrayList<>();
+        for (List<TimeEntry> entries : entriesByCase.values()) {
+            CaseResult result = createDraft(entries);
+            results.add(result);
+            invoices.add(result.invoice);
+        }
+        
+        AtomicInteger completed = new AtomicInteger(getCompletedCaseCount());
+        int total = getPlannedCaseCount();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "billing-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int start = 0; start < results.size(); start += BATCH_SIZE) {
+                int end = Math.min(start + BATCH_SIZE, results.size());
+                List<CaseResult> batch = results.subList(start, end);
+                List<Invoice> batchInvoices = invoices.subList(start, end);
+                futures.add(pool.submit(() -> billBatch(batch, batchInvoices, completed, total)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    // billBatch reports its own failures; this is a programming error
+                    throw new IllegalStateException(ex.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        synchronized (this) {
+            if (completedCases.containsAll(plannedCases)) {
+                deleteJournal();
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Stop the run after the batches already sent. The run can be resumed later.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Check if the run was cancelled
+     * 
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    public String getRunId() { return runId; }
+    
+    public LocalDate getThroughDate() { return throughDate; }
+    
+    public LocalDate getDueDate() { return dueDate; }
+    
+    public synchronized int getPlannedCaseCount() { return plannedCases.size(); }
+    
+    public synchronized int getCompletedCaseCount() { return completedCases.size(); }
+    
+    /**
+     * Get the total invoiced by this run so far, including earlier attempts
+     * 
+     * @return The amount in cents
+     */
+    public long getBilledMinorUnits() {
+        return billedMinorUnits.get();
+    }
+    
+    /**
+     * Load unbilled entries up to the cut-off date, grouped by case in case number order
+     */
+    private Map<Integer, List<TimeEntry>> loadUnbilledEntries() throws RemoteException {
+        List<TimeEntry> entries = timeEntryService.findUnbilledTimeEntries(throughDate);
+        List<TimeEntry> sorted = new ArrayList<>();
+        if (entries != null) {
+            for (TimeEntry entry : entries) {
+                if (entry.getCase() != null && !entry.isBilled()) {
+                    sorted.add(entry);
+                }
+            }
+        }
+        sorted.sort((a, b) -> String.valueOf(a.getCase().getCaseNumber()).compareTo(String.valueOf(b.getCase().getCaseNumber())));
+        
+        Map<Integer, List<TimeEntry>> entriesByCase = new LinkedHashMap<>();
+        for (TimeEntry entry : sorted) {
+            entriesByCase.computeIfAbsent(entry.getCase().getId(), id -> new ArrayList<>()).add(entry);
+        }
+        return entriesByCase;
+    }
+    
+    /**
+     * Build the draft invoice for one case's entries
+     */
+    private CaseResult createDraft(List<TimeEntry> entries) {
+        long total = 0;
+        for (TimeEntry entry : entries) {
+            total = Math.addExact(total, toMinorUnits(entry));
+        }
+        
+        Case legalCase = entries.get(0).getCase();
+        CaseResult result = new CaseResult(legalCase, entries.size(), total);
+        
+        Invoice invoice = new Invoice();
+        invoice.setCase(legalCase);
+        invoice.setClient(legalCase.getClient());
+        invoice.setIssueDate(LocalDate.now());
+        invoice.setDueDate(dueDate);
+        invoice.setStatus(Invoice.STATUS_DRAFT);
+        invoice.setNotes("Billing run " + runId + " for time through " + throughDate);
+        invoice.setTimeEntries(new ArrayList<>(entries));
+        // Replace the floating-point total computed from the entries with the exact one
+        invoice.setAmount(BigDecimal.valueOf(total, 2));
+        result.invoice = invoice;
+        return result;
+    }
+    
+    /**
+     * Create one batch of invoices on the server and record the outcome
+     */
+    private void billBatch(List<CaseResult> batch, List<Invoice> invoices, AtomicInteger completed, int total) {
+        if (cancelled) {
+            for (CaseResult result : batch) {
+                result.invoice = null;
+                result.error = "Cancelled";
+            }
+            return;
+        }
+        
+        List<Invoice> created;
+        try {
+            created = invoiceService.createDraftInvoices(new ArrayList<>(invoices));
+        } catch (RemoteException | RuntimeException ex) {
+            // The cases stay pending in the journal and are retried on resume
+            ex.printStackTrace();
+            for (CaseResult result : batch) {
+                result.invoice = null;
+                result.error = "Could not reach the server: " + ex.getMessage();
+                notifyCaseBilled(result);
+            }
+            return;
+        }
+        
+        synchronized (this) {
+            for (int i = 0; i < batch.size(); i++) {
+                CaseResult result = batch.get(i);
+                Invoice invoice = created != null && i < created.size() ? created.get(i) : null;
+                if (invoice == null) {
+                    // Usually entries billed since they were loaded; retrying would not help
+                    result.invoice = null;
+                    result.error = "The server could not create the invoice";
+                } else {
+                    result.invoice = invoice;
+                    billedMinorUnits.addAndGet(result.amountMinorUnits);
+                }
+                completedCases.add(result.legalCase.getId());
+            }
+            saveJournal();
+        }
+        
+        for (CaseResult result : batch) {
+            if (result.isSuccess()) {
+                InvoiceController.fireInvoiceChanged(result.invoice);
+            }
+            notifyCaseBilled(result);
+        }
+        if (listener != null) {
+            listener.onProgress(completed.addAndGet(batch.size()), total, billedMinorUnits.get());
+        }
+    }
+    
+    private void notifyCaseBilled(CaseResult result) {
+        if (listener != null) {
+            listener.onCaseBilled(result);
+        }
+    }
+    
+    /**
+     * Write the run's state, replacing the previous journal atomically
+     */
+    private void saveJournal() {
+        Properties journal = new Properties();
+        journal.setProperty("runId", runId);
+        journal.setProperty("throughDate", throughDate.toString());
+        journal.setProperty("dueDate", dueDate.toString());
+        journal.setProperty("plannedCases", joinIds(plannedCases));
+        journal.setProperty("completedCases", joinIds(completedCases));
+        journal.setProperty("billedMinorUnits", Long.toString(billedMinorUnits.get()));
+        
+        try {
+            Files.createDirectories(journalFile.getParent());
+            Path temp = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                journal.store(out, "Billing run in progress");
+            }
+            Files.move(temp, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    private void deleteJournal() {
+        try {
+            Files.deleteIfExists(journalFile);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    private static Path getDefaultJournalFile() {
+        return Paths.get(System.getProperty("legalcase.billing.journal",
+            Paths.get(System.getProperty("user.home"), ".legalcase", "billing-run.properties").toString()));
+    }
+    
+    private static String joinIds(Set<Integer> ids) {
+        StringBuilder builder = new StringBuilder();
+        for (Integer id : ids) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(id);
+        }
+        return builder.toString();
+    }
+    
+    private static List<Integer> parseIds(String text) {
+        if (text.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (String part : text.split(",")) {
+            ids.add(Integer.parseInt(part.trim()));
+        }
+        return ids;
+    }
+}
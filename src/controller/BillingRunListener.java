@@ -0,0 +1,24 @@
+package controller;
+
+/**
+ * Receives progress updates for a batch billing run.
+ * Called on the threads performing the run.
+ */
+public interface BillingRunListener {
+    
+    /**
+     * Called after each batch of cases has been invoiced
+     * 
+     * @param completedCases Cases finished so far, including failures
+     * @param totalCases Cases in the run
+     * @param billedMinorUnits Total invoiced so far, in cents
+     */
+    void onProgress(int completedCases, int totalCases, long billedMinorUnits);
+    
+    /**
+     * Called when a case has been invoiced or its invoice could not be created
+     * 
+     * @param result The case's result
+     */
+    void onCaseBilled(BillingRun.CaseResult result);
+}
@@ -0,0 +1,361 @@
+package controller;
+
+import model.BlockSignature;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * rsync-style binary deltas between two revisions of a file.
+ * 
+ * The base file is described by a {@link BlockSignature}: a weak rolling
+ * checksum and a strong checksum per fixed-size block. The encoder slides a
+ * block-sized window over the new file one byte at a time, updating the weak
+ * checksum in constant time, and wherever it matches a base block confirmed
+ * by the strong checksum it emits a reference to that block instead of the
+ * data. Everything else is sent as literal bytes. Inserting or removing data
+ * therefore only costs the changed bytes, not everything after them.
+ * 
+ * Delta format, big-endian: the magic number, the block size and the target
+ * size, followed by operations. COPY (1) has the first block index and the
+ * number of consecutive blocks; LITERAL (2) has a length and the bytes; END (0)
+ * closes the delta.
+ */
+public class BinaryDelta {
+    public static final int MIN_BLOCK_SIZE = 2 * 1024;
+    public static final int MAX_BLOCK_SIZE = 64 * 1024;
+    
+    private static final int MAGIC = 0x4C434431;
+    private static final int OP_END = 0;
+    private static final int OP_COPY = 1;
+    private static final int OP_LITERAL = 2;
+    private static final int MAX_LITERAL = 64 * 1024;
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private BinaryDelta() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Choose a block size for a file: about the square root of its size, so
+     * the signature and the expected delta stay small together
+     * 
+     * @param fileSize The size of the base file
+     * @return A power of two between MIN_BLOCK_SIZE and MAX_BLOCK_SIZE
+     */
+    public static int chooseBlockSize(long fileSize) {
+        int blockSize = MIN_BLOCK_SIZE;
+        while (blockSize < MAX_BLOCK_SIZE && (long) blockSize * blockSize < fileSize) {
+            blockSize *= 2;
+        }
+        return blockSize;
+    }
+    
+    /**
+     * Compute the block signature of a file
+     * 
+     * @param file The file
+     * @param contentHash The file's SHA-256 content hash
+     * @param blockSize The block size
+     * @return The signature
+     * @throws IOException If the file cannot be read
+     */
+    public static BlockSignature signature(Path file, String contentHash, int blockSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int blocks = (int) ((size + blockSize - 1) / blockSize);
+            int[] weakSums = new int[blocks];
+            long[] strongSums = new long[blocks];
+            
+            MessageDigest digest = ContentHasher.newDigest();
+            ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+            for (int i = 0; i < blocks; i++) {
+                buffer.clear();
+                readFully(channel, buffer, (long) i * blockSize);
+                buffer.flip();
+                weakSums[i] = weakSum(buffer.array(), 0, buffer.limit());
+                strongSums[i] = strongSum(digest, buffer.array(), 0, buffer.limit());
+            }
+            return new BlockSignature(contentHash, size, blockSize, weakSums, strongSums);
+        }
+    }
+    
+    /**
+     * Write the delta that turns the signed base file into the target file
+     * 
+     * @param base The signature of the base file
+     * @param target The new revision
+     * @param out The stream to write the delta to
+     * @return The number of literal bytes in the delta, which the base did not contain
+     * @throws IOException If the target cannot be read or the delta cannot be written
+     */
+    public static long encode(BlockSignature base, Path target, OutputStream out) throws IOException {
+        int blockSize = base.getBlockSize();
+        int fullBlocks = (int) (base.getFileSize() / blockSize);
+        int tailLength = (int) (base.getFileSize() % blockSize);
+        
+        // Weak checksum to the first full block with it; collisions chain through nextBlock
+        Map<Integer, Integer> firstBlock = new HashMap<>();
+        int[] nextBlock = new int[fullBlocks];
+        for (int i = fullBlocks - 1; i >= 0; i--) {
+            Integer previous = firstBlock.put(base.getWeakSums()[i], i);
+            nextBlock[i] = previous != null ? previous : -1;
+        }
+        
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large for a delta: " + size + " bytes");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int length = (int) size;
+            
+            DeltaWriter writer = new DeltaWriter(new DataOutputStream(out), data);
+            writer.out.writeInt(MAGIC);
+            writer.out.writeInt(blockSize);
+            writer.out.writeLong(size);
+            
+            MessageDigest digest = ContentHasher.newDigest();
+            byte[] window = new byte[blockSize];
+            int literalStart = 0;
+            int position = 0;
+            int a = 0;
+            int b = 0;
+            boolean fresh = true;
+            
+            while (position + blockSize <= length) {
+                if (fresh) {
+                    a = 0;
+                    b = 0;
+                    for (int i = 0; i < blockSize; i++) {
+                        int value = data.get(position + i) & 0xFF;
+                        a += value;
+                        b += (blockSize - i) * value;
+                    }
+                    fresh = false;
+                }
+                
+                int match = -1;
+                Integer candidate = firstBlock.get(((b & 0xFFFF) << 16) | (a & 0xFFFF));
+                if (candidate != null) {
+                    read(data, position, window, blockSize);
+                    long strong = strongSum(digest, window, 0, blockSize);
+                    for (int block = candidate; block >= 0; block = nextBlock[block]) {
+                        if (base.getStrongSums()[block] == strong) {
+                            match = block;
+                            break;
+                        }
+                    }
+                }
+                
+                if (match >= 0) {
+                    writer.literal(literalStart, position);
+                    writer.copy(match);
+                    position += blockSize;
+                    literalStart = position;
+                    fresh = true;
+                } else {
+                    // Roll the window forward by one byte
+                    int out0 = data.get(position) & 0xFF;
+                    if (position + blockSize < length) {
+                        int in = data.get(position + blockSize) & 0xFF;
+                        a += in - out0;
+                        b += a - blockSize * out0;
+                    }
+                    position++;
+                }
+            }
+            
+            // The base's short last block can only match the target's end
+            if (tailLength > 0 && length - literalStart >= tailLength) {
+                int tailStart = length - tailLength;
+                byte[] tail = new byte[tailLength];
+                read(data, tailStart, tail, tailLength);
+                if (weakSum(tail, 0, tailLength) == base.getWeakSums()[fullBlocks]
+                        && strongSum(digest, tail, 0, tailLength) == base.getStrongSums()[fullBlocks]) {
+                    writer.literal(literalStart, tailStart);
+                    writer.copy(fullBlocks);
+                    literalStart = length;
+                }
+            }
+            
+            writer.literal(literalStart, length);
+            writer.flushCopy();
+            writer.out.writeByte(OP_END);
+            writer.out.flush();
+            return writer.literalBytes;
+        }
+    }
+    
+    /**
+     * Rebuild a revision from its base file and a delta
+     * 
+     * @param base The base file the delta was made against
+     * @param delta The delta
+     * @param out The stream to write the rebuilt file to
+     * @return The number of bytes written
+     * @throws IOException If the delta is malformed or does not fit the base file
+     */
+    public static long apply(Path base, InputStream delta, OutputStream out) throws IOException {
+        DataInputStream in = new DataInputStream(delta);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a document delta");
+        }
+        int blockSize = in.readInt();
+        long targetSize = in.readLong();
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IOException("Invalid delta block size " + blockSize);
+        }
+        
+        byte[] buffer = new byte[Math.max(blockSize, MAX_LITERAL)];
+        ByteBuffer blockBuffer = ByteBuffer.wrap(buffer);
+        long written = 0;
+        
+        try (FileChannel channel = FileChannel.open(base, StandardOpenOption.READ)) {
+            for (int op = in.readUnsignedByte(); op != OP_END; op = in.readUnsignedByte()) {
+                if (op == OP_COPY) {
+                    int block = in.readInt();
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        long offset = (long) (block + i) * blockSize;
+                        if (block < 0 || offset >= channel.size()) {
+                            throw new IOException("Delta refers to block " + (block + i) + " beyond the base file");
+                        }
+                        blockBuffer.clear();
+                        blockBuffer.limit(blockSize);
+                        int length = readFully(channel, blockBuffer, offset);
+                        out.write(buffer, 0, length);
+                        written += length;
+                    }
+                } else if (op == OP_LITERAL) {
+                    int length = in.readInt();
+                    if (length < 0 || length > buffer.length) {
+                        throw new IOException("Invalid literal length " + length);
+                    }
+                    in.readFully(buffer, 0, length);
+                    out.write(buffer, 0, length);
+                    written += length;
+                } else {
+                    throw new IOException("Unknown delta operation " + op);
+                }
+            }
+        }
+        
+        if (written != targetSize) {
+            throw new IOException("Delta produced " + written + " bytes instead of " + targetSize);
+        }
+        return written;
+    }
+    
+    /**
+     * Compute the weak checksum of a block: two 16-bit sums as in rsync
+     */
+    private static int weakSum(byte[] data, int offset, int length) {
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < length; i++) {
+            int value = data[offset + i] & 0xFF;
+            a += value;
+            b += (length - i) * value;
+        }
+        return ((b & 0xFFFF) << 16) | (a & 0xFFFF);
+    }
+    
+    /**
+     * Compute the strong checksum of a block: the first 8 bytes of its SHA-256
+     */
+    private static long strongSum(MessageDigest digest, byte[] data, int offset, int length) {
+        digest.reset();
+        digest.update(data, offset, length);
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+    
+    /**
+     * Copy bytes out of a mapped buffer without moving its position
+     */
+    private static void read(MappedByteBuffer data, int position, byte[] target, int length) {
+        for (int i = 0; i < length; i++) {
+            target[i] = data.get(position + i);
+        }
+    }
+    
+    /**
+     * Read from a position until the buffer is full or the file ends
+     * 
+     * @return The number of bytes read
+     */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position() - start);
+            if (read < 0) {
+                break;
+            }
+        }
+        return buffer.position() - start;
+    }
+    
+    /**
+     * Writes operations, merging consecutive block copies into one
+     */
+    private static class DeltaWriter {
+        private final DataOutputStream out;
+        private final MappedByteBuffer data;
+        private final byte[] buffer = new byte[MAX_LITERAL];
+        private int copyStart = -1;
+        private int copyCount;
+        private long literalBytes;
+        
+        DeltaWriter(DataOutputStream out, MappedByteBuffer data) {
+            this.out = out;
+            this.data = data;
+        }
+        
+        void copy(int block) throws IOException {
+            if (copyStart >= 0 && copyStart + copyCount == block) {
+                copyCount++;
+                return;
+            }
+            flushCopy();
+            copyStart = block;
+            copyCount = 1;
+        }
+        
+        void literal(int start, int end) throws IOException {
+            if (start >= end) {
+                return;
+            }
+            flushCopy();
+            for (int offset = start; offset < end; offset += MAX_LITERAL) {
+                int length = Math.min(MAX_LITERAL, end - offset);
+                read(data, offset, buffer, length);
+                out.writeByte(OP_LITERAL);
+                out.writeInt(length);
+                out.write(buffer, 0, length);
+                literalBytes += length;
+            }
+        }
+        
+        void flushCopy() throws IOException {
+            if (copyStart >= 0) {
+                out.writeByte(OP_COPY);
+                out.writeInt(copyStart);
+                out.writeInt(copyCount);
+                copyStart = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package controller;
+
+/**
+ * Receives progress updates for a bulk document import.
+ * Called on the threads performing the import.
+ */
+public interface BulkImportListener {
+    
+    /**
+     * Called as file content is uploaded
+     * 
+     * @param transferredBytes Bytes of all files uploaded so far
+     * @param totalBytes Total size of all files
+     * @param bytesPerSecond Average throughput since the import started
+     */
+    void onProgress(long transferredBytes, long totalBytes, double bytesPerSecond);
+    
+    /**
+     * Called when a file's content has been uploaded or its upload has failed
+     * 
+     * @param result The file's result so far
+     */
+    void onFileUploaded(DocumentBulkImporter.FileResult result);
+}
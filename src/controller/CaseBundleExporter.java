@@ -0,0 +1,476 @@
+package controller;
+
+import model.Case;
+import model.Document;
+import model.Event;
+import model.TimeEntry;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports everything filed for a case into one ZIP bundle: every document,
+ * an index sheet of the documents' metadata, and the case's events and time
+ * entries as CSV.
+ * 
+ * Documents are downloaded to temporary files by a few parallel workers
+ * while the bundle is written strictly in order, and each file is deleted
+ * once it is written, so an export neither fills nor evicts the shared
+ * document cache. The workers stay a
+ * bounded number of documents ahead of the writer and file content is
+ * streamed through a fixed buffer, so memory use does not depend on the size
+ * of the case. Formats that are already compressed, such as PDF, images and
+ * Office files, are stored as they are; the workers compute their checksums
+ * up front so the writer only deflates content that actually shrinks.
+ * 
+ * The bundle is written to a ".part" file that replaces the target only once
+ * complete. An exporter is used for a single export and can be cancelled
+ * from any thread.
+ */
+public class CaseBundleExporter {
+    public static final int DEFAULT_PARALLELISM = 3;
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+        "pdf", "jpg", "jpeg", "png", "gif", "zip", "gz", "7z", "rar",
+        "docx", "xlsx", "pptx", "odt", "ods", "mp3", "mp4", "mov", "msg"));
+    
+    private final DocumentController documentController;
+    private final CaseController caseController;
+    private final TransferListener listener;
+    private final int parallelism;
+    private final List<DocumentDownloader> downloaders = new CopyOnWriteArrayList<>();
+    private final Set<File> tempFiles = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+    
+    /**
+     * The outcome of an export
+     */
+    public static class Summary {
+        private final int documentCount;
+        private final List<String> missingDocuments;
+        private final long bundleBytes;
+        
+        public Summary(int documentCount, List<String> missingDocuments, long bundleBytes) {
+            this.documentCount = documentCount;
+            this.missingDocuments = missingDocuments;
+            this.bundleBytes = bundleBytes;
+        }
+        
+        /**
+         * Get the number of documents written to the bundle
+         */
+        public int getDocumentCount() { return documentCount; }
+        
+        /**
+         * Get the titles of documents that could not be fetched
+         */
+        public List<String> getMissingDocuments() { return missingDocuments; }
+        
+        public long getBundleBytes() { return bundleBytes; }
+    }
+    
+    /**
+     * A document fetched by a worker and ready to be written
+     */
+    private static class PreparedDocument {
+        private final Document document;
+        private final String entryName;
+        private File file;
+        private boolean stored;
+        private long crc;
+        private long size;
+        private String error;
+        
+        PreparedDocument(Document document, String entryName) {
+            this.document = document;
+            this.entryName = entryName;
+        }
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param documentController The controller used to fetch document content
+     * @param caseController The controller used to load the case's records
+     * @param listener Progress listener, or null
+     * @param parallelism The number of documents fetched at the same time
+     */
+    public CaseBundleExporter(DocumentController documentController, CaseController caseController,
+            TransferListener listener, int parallelism) {
+        this.documentController = documentController;
+        this.caseController = caseController;
+        this.listener = listener;
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    /**
+     * Write the bundle for a case
+     * 
+     * @param legalCase The case to export
+     * @param target The ZIP file to write
+     * @return A summary of the export
+     * @throws IOException If the bundle cannot be written or the export is cancelled
+     * @throws InterruptedException If the exporting thread is interrupted
+     */
+    public Summary export(Case legalCase, File target) throws IOException, InterruptedException {
+        List<Document> documents = orEmpty(caseController.getCaseDocuments(legalCase.getId()));
+        List<Event> events = orEmpty(caseController.getCaseEvents(legalCase.getId()));
+        List<TimeEntry> timeEntries = orEmpty(caseController.getCaseTimeEntries(legalCase.getId()));
+        
+        File part = new File(target.getPath() + ".part");
+        boolean complete = false;
+        try {
+            List<PreparedDocument> written;
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(part), BUFFER_SIZE))) {
+                zip.setComment("Case " + legalCase.getCaseNumber() + " - " + legalCase.getTitle());
+                written = writeDocuments(zip, documents);
+                checkCancelled();
+                
+                writeTextEntry(zip, "index.csv", createIndex(legalCase, written));
+                writeTextEntry(zip, "events.csv", createEventSheet(events));
+                writeTextEntry(zip, "time-entries.csv", createTimeEntrySheet(timeEntries));
+            }
+            
+            Files.move(part.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            complete = true;
+            
+            List<String> missing = new ArrayList<>();
+            for (PreparedDocument prepared : written) {
+                if (prepared.error != null) {
+                    missing.add(prepared.document.getTitle());
+                }
+            }
+            return new Summary(written.size() - missing.size(), missing, target.length());
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(part.toPath());
+            }
+        }
+    }
+    
+    /**
+     * Cancel the export. Downloads in progress stop at their next chunk and
+     * no bundle is left behind.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (DocumentDownloader downloader : downloaders) {
+            downloader.cancel();
+        }
+    }
+    
+    /**
+     * Check if the export was cancelled
+     * 
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Fetch documents in parallel and write them to the bundle in order
+     * 
+     * @return One entry per document, in order, with the error for documents that could not be fetched
+     */
+    private List<PreparedDocument> writeDocuments(ZipOutputStream zip, List<Document> documents)
+            throws IOException, InterruptedException {
+        List<PreparedDocument> results = new ArrayList<>();
+        if (documents.isEmpty()) {
+            return results;
+        }
+        
+        long totalBytes = 0;
+        for (Document document : documents) {
+            totalBytes += Math.max(document.getFileSize(), 0);
+        }
+        long writtenBytes = 0;
+        long startNanos = System.nanoTime();
+        
+        Set<String> entryNames = new HashSet<>();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, documents.size()), runnable -> {
+            Thread thread = new Thread(runnable, "case-bundle-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Keep only a bounded number of fetched documents waiting for the writer
+            int lookahead = parallelism * 2;
+            Queue<Future<PreparedDocument>> inFlight = new ArrayDeque<>();
+            int next = 0;
+            
+            while (next < documents.size() || !inFlight.isEmpty()) {
+                while (next < documents.size() && inFlight.size() < lookahead) {
+                    PreparedDocument prepared = new PreparedDocument(documents.get(next),
+                        createEntryName(documents.get(next), entryNames));
+                    inFlight.add(pool.submit(() -> prepare(prepared)));
+                    next++;
+                }
+                
+                PreparedDocument prepared;
+                try {
+                    prepared = inFlight.poll().get();
+                } catch (ExecutionException ex) {
+                    // prepare reports its own failures; this is a programming error
+                    throw new IllegalStateException(ex.getCause());
+                }
+                checkCancelled();
+                
+                if (prepared.error == null) {
+                    writeDocumentEntry(zip, prepared, buffer);
+                    deleteTempFile(prepared.file);
+                }
+                results.add(prepared);
+                
+                writtenBytes += Math.max(prepared.document.getFileSize(), 0);
+                if (listener != null) {
+                    double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1_000_000_000.0;
+                    listener.onProgress(writtenBytes, totalBytes, writtenBytes / seconds);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            // Downloads not written because the export failed or was cancelled
+            for (File file : tempFiles) {
+                deleteTempFile(file);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Fetch one document and, for formats stored without compression, compute its checksum
+     */
+    private PreparedDocument prepare(PreparedDocument prepared) {
+        if (cancelled) {
+            prepared.error = "Cancelled";
+            return prepared;
+        }
+        
+        DocumentDownloader downloader = documentController.createDownloader(null);
+        downloaders.add(downloader);
+        try {
+            String extension = prepared.document.getFileExtension().toLowerCase();
+            prepared.file = File.createTempFile("export", extension.isEmpty() ? null : "." + extension);
+            tempFiles.add(prepared.file);
+            try {
+                downloader.download(prepared.document.getId(), prepared.file);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                deleteTempFile(prepared.file);
+                prepared.error = cancelled ? "Cancelled" : "The document could not be downloaded";
+                return prepared;
+            }
+            
+            prepared.stored = COMPRESSED_EXTENSIONS.contains(prepared.document.getFileExtension().toLowerCase());
+            if (prepared.stored) {
+                checksum(prepared);
+            }
+        } catch (IOException ex) {
+            if (prepared.file != null) {
+                deleteTempFile(prepared.file);
+            }
+            prepared.error = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+        } finally {
+            downloaders.remove(downloader);
+        }
+        return prepared;
+    }
+    
+    private void deleteTempFile(File file) {
+        tempFiles.remove(file);
+        file.delete();
+    }
+    
+    /**
+     * Compute the CRC32 and size a stored entry needs before its data is written
+     */
+    private void checksum(PreparedDocument prepared) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (InputStream in = new FileInputStream(prepared.file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        prepared.crc = crc.getValue();
+        prepared.size = size;
+    }
+    
+    /**
+     * Stream one fetched document into the bundle
+     */
+    private void writeDocumentEntry(ZipOutputStream zip, PreparedDocument prepared, byte[] buffer) throws IOException {
+        ZipEntry entry = new ZipEntry(prepared.entryName);
+        if (prepared.document.getDateAdded() != null) {
+            entry.setTime(prepared.document.getDateAdded().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        if (prepared.stored) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(prepared.size);
+            entry.setCompressedSize(prepared.size);
+            entry.setCrc(prepared.crc);
+        }
+        
+        zip.putNextEntry(entry);
+        try (InputStream in = new FileInputStream(prepared.file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                checkCancelled();
+                zip.write(buffer, 0, read);
+            }
+        }
+        zip.closeEntry();
+    }
+    
+    /**
+     * Write a text entry in UTF-8
+     */
+    private void writeTextEntry(ZipOutputStream zip, String name, List<String[]> rows) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        // Flushed but not closed, since closing would close the whole bundle
+        Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escapeCsv(row[i]));
+            }
+            writer.write("\r\n");
+        }
+        writer.flush();
+        zip.closeEntry();
+    }
+    
+    /**
+     * Build the index sheet listing every document of the case
+     */
+    private List<String[]> createIndex(Case legalCase, List<PreparedDocument> documents) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] { "Case Number", "Case Title", "Document ID", "Title", "Type", "Status",
+            "Document Date", "Date Added", "Size", "SHA-256", "Bundle Path", "Description" });
+        for (PreparedDocument prepared : documents) {
+            Document document = prepared.document;
+            rows.add(new String[] {
+                legalCase.getCaseNumber(), legalCase.getTitle(), document.getDocumentId(), document.getTitle(),
+                document.getDocumentType(), document.getStatus(), text(document.getDocumentDate()),
+                text(document.getDateAdded()), Long.toString(document.getFileSize()), document.getContentHash(),
+                prepared.error == null ? prepared.entryName : "Not included: " + prepared.error,
+                document.getDescription()
+            });
+        }
+        return rows;
+    }
+    
+    /**
+     * Build the events sheet
+     */
+    private List<String[]> createEventSheet(List<Event> events) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] { "Event ID", "Title", "Type", "Date", "Start", "End", "Location", "Status", "Description" });
+        for (Event event : events) {
+            rows.add(new String[] {
+                event.getEventId(), event.getTitle(), event.getEventType(), text(event.getEventDate()),
+                text(event.getStartTime()), text(event.getEndTime()), event.getLocation(), event.getStatus(),
+                event.getDescription()
+            });
+        }
+        return rows;
+    }
+    
+    /**
+     * Build the time entries sheet
+     */
+    private List<String[]> createTimeEntrySheet(List<TimeEntry> timeEntries) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] { "Entry ID", "Date", "Attorney", "Hours", "Rate", "Amount", "Activity", "Billed", "Description" });
+        for (TimeEntry entry : timeEntries) {
+            rows.add(new String[] {
+                entry.getEntryId(), text(entry.getEntryDate()),
+                entry.getAttorney() != null ? entry.getAttorney().getFullName() : "",
+                Double.toString(entry.getHours()), text(entry.getHourlyRate()), text(entry.getAmount()),
+                entry.getActivityCode(), entry.getInvoice() != null ? "Yes" : "No", entry.getDescription()
+            });
+        }
+        return rows;
+    }
+    
+    /**
+     * Create a unique path for a document inside the bundle
+     */
+    private String createEntryName(Document document, Set<String> usedNames) {
+        String base = document.getTitle() != null && !document.getTitle().trim().isEmpty()
+            ? document.getTitle().trim() : document.getDocumentId();
+        base = base.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_");
+        String extension = document.getFileExtension().toLowerCase();
+        String suffix = extension.isEmpty() ? "" : "." + extension;
+        
+        String name = "documents/" + base + suffix;
+        for (int i = 2; !usedNames.add(name.toLowerCase()); i++) {
+            name = "documents/" + base + " (" + i + ")" + suffix;
+        }
+        return name;
+    }
+    
+    private void checkCancelled() throws InterruptedIOException {
+        if (cancelled) {
+            throw new InterruptedIOException("Export cancelled");
+        }
+    }
+    
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : Collections.<T>emptyList();
+    }
+    
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+    
+    /**
+     * Quote a CSV value if it contains a separator, quote or line break
+     */
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains("\"") || value.contains(",") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
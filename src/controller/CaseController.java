@@ -5,6 +5,7 @@ import model.Client;
 import model.Attorney;
 import model.Document;
 import model.Event;
+import model.Mutation;
 import model.TimeEntry;
 import service.CaseService;
 import service.ClientService;
@@ -16,6 +17,8 @@ import service.TimeEntryService;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.time.LocalDate;
 
 /**
@@ -30,6 +33,12 @@ public class CaseController {
     private TimeEntryService timeEntryService;
     private Registry registry;
     
+    // Shared by all instances, since each panel creates its own controller
+    private static final List<Consumer<Case>> changeListeners = new CopyOnWriteArrayList<>();
+    
+    // Case graphs from getCaseWithDetails, reused while their version is current
+    private static final DetailsCache<Case> caseDetails = new DetailsCache<>(50);
+    
     // RMI server configuration
     private static final String RMI_HOST = "127.0.0.1";
     private static final int RMI_PORT = 5555;
@@ -43,12 +52,12 @@ public class CaseController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stubs
-            caseService = (CaseService) registry.lookup("caseService");
-            clientService = (ClientService) registry.lookup("clientService");
-            attorneyService = (AttorneyService) registry.lookup("attorneyService");
-            documentService = (DocumentService) registry.lookup("documentService");
-            eventService = (EventService) registry.lookup("eventService");
-            timeEntryService = (TimeEntryService) registry.lookup("timeEntryService");
+            caseService = (CaseService) ServiceStubs.lookup(registry, "caseService");
+            clientService = (ClientService) ServiceStubs.lookup(registry, "clientService");
+            attorneyService = (AttorneyService) ServiceStubs.lookup(registry, "attorneyService");
+            documentService = (DocumentService) ServiceStubs.lookup(registry, "documentService");
+            eventService = (EventService) ServiceStubs.lookup(registry, "eventService");
+            timeEntryService = (TimeEntryService) ServiceStubs.lookup(registry, "timeEntryService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -57,16 +66,60 @@ public class CaseController {
     }
     
     /**
-     * Get all cases
+     * Register a listener notified after a case is created, updated or deleted.
+     * For a deleted case the listener receives a case with only its ID set.
+     * 
+     * @param listener The listener to add
+     */
+    public static void addCaseChangeListener(Consumer<Case> listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered change listener
+     * 
+     * @param listener The listener to remove
+     */
+    public static void removeCaseChangeListener(Consumer<Case> listener) {
+        changeListeners.remove(listener);
+    }
+    
+    /**
+     * Notify change listeners about a case
+     * 
+     * @param legalCase The changed case
+     */
+    static void fireCaseChanged(Case legalCase) {
+        for (Consumer<Case> listener : changeListeners) {
+            listener.accept(legalCase);
+        }
+    }
+    
+    /**
+     * Get the cases saved at the last successful load, for showing something
+     * while the current list is fetched
+     * 
+     * @return The saved cases, or null if none are saved
+     */
+    public List<Case> getSavedCases() {
+        return SnapshotStore.getInstance().load(SnapshotStore.CASES);
+    }
+    
+    /**
+     * Get all cases. While the server is unreachable, the cases saved at the
+     * last successful load are returned instead.
      * 
      * @return List of all cases
      */
     public List<Case> getAllCases() {
         try {
-            return caseService.findAllCases();
+            List<Case> cases = caseService.findAllCases();
+            SnapshotStore.getInstance().save(SnapshotStore.CASES, cases);
+            return cases;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return null;
+            // Fall back to the last loaded list while the server is unreachable
+            return SnapshotStore.getInstance().loadOffline(SnapshotStore.CASES, ex);
         }
     }
     
@@ -110,9 +163,8 @@ public class CaseController {
      */
     public Case getCaseWithDetails(int id) {
         try {
-            Case searchCase = new Case();
-            searchCase.setId(id);
-            return caseService.getCaseWithDetails(searchCase);
+            // Only transferred again if something in the graph changed
+            return caseDetails.fetch(id, knownVersion -> caseService.getCaseWithDetailsIfModified(id, knownVersion));
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -211,10 +263,11 @@ public class CaseController {
     }
     
     /**
-     * Create a new case
+     * Create a new case. While the server cannot be reached, or earlier changes
+     * are still queued, the change is queued in the outbox and sent later.
      * 
      * @param legalCase The case to create
-     * @return true if successful
+     * @return true if saved or queued
      */
     public boolean createCase(Case legalCase) {
         try {
@@ -223,27 +276,43 @@ public class CaseController {
                 legalCase.setFileDate(LocalDate.now());
             }
             
+            if (MutationOutbox.enqueueIfQueueing(Mutation.CREATE, Mutation.CASE, 0, 0, legalCase)) {
+                return true;
+            }
+            
             Case result = caseService.createCase(legalCase);
+            if (result != null) {
+                fireCaseChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return false;
+            return MutationOutbox.queueIfUnreachable(ex, Mutation.CREATE, Mutation.CASE, 0, 0, legalCase);
         }
     }
     
     /**
-     * Update an existing case
+     * Update an existing case. While the server cannot be reached, or earlier changes
+     * are still queued, the change is queued in the outbox and sent later.
      * 
      * @param legalCase The case to update
-     * @return true if successful
+     * @return true if saved or queued
      */
     public boolean updateCase(Case legalCase) {
         try {
+            if (MutationOutbox.enqueueIfQueueing(Mutation.UPDATE, Mutation.CASE, legalCase.getId(), legalCase.getVersion(), legalCase)) {
+                return true;
+            }
+            
             Case result = caseService.updateCase(legalCase);
+            if (result != null) {
+                fireCaseChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return false;
+            return MutationOutbox.queueIfUnreachable(ex, Mutation.UPDATE, Mutation.CASE,
+                                                     legalCase.getId(), legalCase.getVersion(), legalCase);
         }
     }
     
@@ -259,6 +328,9 @@ public class CaseController {
             Case searchCase = new Case();
             searchCase.setId(caseId);
             Case result = caseService.updateCaseStatus(searchCase, status);
+            if (result != null) {
+                fireCaseChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -277,6 +349,9 @@ public class CaseController {
             Case searchCase = new Case();
             searchCase.setId(caseId);
             Case result = caseService.deleteCase(searchCase);
+            if (result != null) {
+                fireCaseChanged(searchCase);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -0,0 +1,414 @@
+package controller;
+
+import model.Case;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Finds case numbers and client IDs in file names and document text, to
+ * suggest which case a document belongs to.
+ * 
+ * All patterns are combined in one Aho-Corasick automaton, so a text is
+ * scanned once in time linear in its length no matter how many cases exist.
+ * Matching ignores case and only accepts whole tokens, so "CV-2023-1" is not
+ * found inside "CV-2023-15". Cases are added and removed incrementally as
+ * they change through {@link CaseController}; new patterns are inserted into
+ * the trie directly and the failure links are recomputed on the next scan.
+ * Only open cases take part; closed and archived cases are left out.
+ */
+public class CaseNumberMatcher {
+    private static final int FILE_NAME_CASE_SCORE = 10;
+    private static final int TEXT_CASE_SCORE = 3;
+    private static final int FILE_NAME_CLIENT_SCORE = 2;
+    private static final int TEXT_CLIENT_SCORE = 1;
+    private static final int MAX_TEXT_SCORE = 15;
+    
+    // Larger files are routed by name only, to keep imports fast
+    private static final long MAX_SCAN_BYTES = 5L * 1024 * 1024;
+    private static CaseNumberMatcher instance;
+    
+    private final Node root = new Node(0);
+    private final Map<Integer, Case> cases = new HashMap<>();
+    private boolean linksValid = true;
+    private boolean loaded;
+    
+    /**
+     * A pattern found in a text
+     */
+    public static class Match {
+        private final Case legalCase;
+        private final int start;
+        private final int length;
+        private final boolean caseNumber;
+        
+        public Match(Case legalCase, int start, int length, boolean caseNumber) {
+            this.legalCase = legalCase;
+            this.start = start;
+            this.length = length;
+            this.caseNumber = caseNumber;
+        }
+        
+        public Case getCase() { return legalCase; }
+        
+        public int getStart() { return start; }
+        
+        public int getLength() { return length; }
+        
+        /**
+         * Check if the case number matched, rather than the client ID
+         */
+        public boolean isCaseNumber() { return caseNumber; }
+    }
+    
+    /**
+     * Trie node. Outputs are the cases whose pattern ends here.
+     */
+    private static class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+        private final List<Output> outputs = new ArrayList<>(1);
+        private final int depth;
+        private Node fail;
+        
+        // Nearest node along the failure chain that has outputs
+        private Node outputLink;
+        
+        Node(int depth) {
+            this.depth = depth;
+        }
+    }
+    
+    /**
+     * A case attached to a pattern
+     */
+    private static class Output {
+        private final int caseId;
+        private final boolean caseNumber;
+        
+        Output(int caseId, boolean caseNumber) {
+            this.caseId = caseId;
+            this.caseNumber = caseNumber;
+        }
+    }
+    
+    /**
+     * Get the shared matcher. The first call loads all cases from the server,
+     * and the matcher then follows case changes made through CaseController.
+     * Cases are loaded again whenever the server becomes reachable after an
+     * outage, since they may have come from an offline snapshot.
+     * 
+     * @return The matcher instance
+     */
+    public static synchronized CaseNumberMatcher getInstance() {
+        if (instance == null) {
+            instance = new CaseNumberMatcher();
+            CaseController.addCaseChangeListener(instance::updateCase);
+            SnapshotStore.getInstance().addConnectionListener(offline -> {
+                if (!offline) {
+                    instance.invalidate();
+                }
+            });
+        }
+        instance.loadIfNeeded();
+        return instance;
+    }
+    
+    /**
+     * Add a case or replace its patterns after a change. Cases that are
+     * closed, archived or deleted are removed.
+     * 
+     * @param legalCase The changed case; a case with only an ID set counts as deleted
+     */
+    public synchronized void updateCase(Case legalCase) {
+        removeCase(legalCase.getId());
+        if (legalCase.getCaseNumber() == null || !isOpen(legalCase)) {
+            return;
+        }
+        
+        cases.put(legalCase.getId(), legalCase);
+        insert(legalCase.getCaseNumber(), new Output(legalCase.getId(), true));
+        if (legalCase.getClient() != null && legalCase.getClient().getClientId() != null) {
+            insert(legalCase.getClient().getClientId(), new Output(legalCase.getId(), false));
+        }
+    }
+    
+    /**
+     * Remove a case
+     * 
+     * @param caseId The case ID
+     */
+    public synchronized void removeCase(int caseId) {
+        Case removed = cases.remove(caseId);
+        if (removed == null) {
+            return;
+        }
+        
+        removeOutput(removed.getCaseNumber(), caseId);
+        if (removed.getClient() != null && removed.getClient().getClientId() != null) {
+            removeOutput(removed.getClient().getClientId(), caseId);
+        }
+    }
+    
+    /**
+     * Find every case number and client ID in a text
+     * 
+     * @param text The text to scan
+     * @return The matches in order of their end position
+     */
+    public synchronized List<Match> findMatches(String text) {
+        List<Match> matches = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return matches;
+        }
+        ensureLinks();
+        
+        Node state = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            while (state != root && !state.next.containsKey(c)) {
+                state = state.fail;
+            }
+            state = state.next.getOrDefault(c, root);
+            
+            Node output = state.outputs.isEmpty() ? state.outputLink : state;
+            for (; output != null; output = output.outputLink) {
+                int start = i - output.depth + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    for (Output target : output.outputs) {
+                        matches.add(new Match(cases.get(target.caseId), start, output.depth, target.caseNumber));
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Suggest the case a document belongs to. Case numbers count more than
+     * client IDs, and the file name counts more than the content.
+     * 
+     * @param fileName The file name, or null
+     * @param text The extracted document text, or null
+     * @return The best matching case, or null if nothing matched or two cases are equally likely
+     */
+    public Case suggestCase(String fileName, String text) {
+        Map<Integer, Integer> scores = new LinkedHashMap<>();
+        for (Match match : findMatches(fileName)) {
+            scores.merge(match.getCase().getId(),
+                match.isCaseNumber() ? FILE_NAME_CASE_SCORE : FILE_NAME_CLIENT_SCORE, Integer::sum);
+        }
+        
+        // Cap the content score so a long text repeating one number cannot outweigh the file name
+        Map<Integer, Integer> textScores = new HashMap<>();
+        for (Match match : findMatches(text)) {
+            textScores.merge(match.getCase().getId(),
+                match.isCaseNumber() ? TEXT_CASE_SCORE : TEXT_CLIENT_SCORE, Integer::sum);
+        }
+        for (Map.Entry<Integer, Integer> entry : textScores.entrySet()) {
+            scores.merge(entry.getKey(), Math.min(entry.getValue(), MAX_TEXT_SCORE), Integer::sum);
+        }
+        
+        int bestId = -1;
+        int bestScore = 0;
+        int secondScore = 0;
+        for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+            if (entry.getValue() > bestScore) {
+                secondScore = bestScore;
+                bestScore = entry.getValue();
+                bestId = entry.getKey();
+            } else if (entry.getValue() > secondScore) {
+                secondScore = entry.getValue();
+            }
+        }
+        
+        if (bestScore == 0 || bestScore == secondScore) {
+            return null;
+        }
+        synchronized (this) {
+            return cases.get(bestId);
+        }
+    }
+    
+    /**
+     * Suggest the case a file belongs to from its name and, for file types
+     * whose text can be extracted, its content
+     * 
+     * @param file The file
+     * @return The best matching case, or null if there is no clear match
+     */
+    public Case suggestCase(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String extension = dot > 0 ? name.substring(dot + 1) : "";
+        
+        String text = null;
+        DocumentTextIndex index = DocumentTextIndex.getInstance();
+        if (file.length() <= MAX_SCAN_BYTES && index.canExtract(extension)) {
+            try {
+                text = index.extractText(file.toPath(), extension);
+            } catch (IOException ex) {
+                // Fall back to the file name alone
+                ex.printStackTrace();
+            }
+        }
+        return suggestCase(name, text);
+    }
+    
+    /**
+     * Get the number of cases being matched
+     * 
+     * @return The case count
+     */
+    public synchronized int size() {
+        return cases.size();
+    }
+    
+    /**
+     * Load the cases again on next use
+     */
+    private synchronized void invalidate() {
+        loaded = false;
+    }
+    
+    /**
+     * Load all cases the first time, retrying on later calls if the server was
+     * unreachable. Cases that are gone since an earlier load are removed.
+     */
+    private synchronized void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+        try {
+            List<Case> allCases = new CaseController().getAllCases();
+            if (allCases != null) {
+                Set<Integer> currentIds = new HashSet<>();
+                for (Case legalCase : allCases) {
+                    updateCase(legalCase);
+                    currentIds.add(legalCase.getId());
+                }
+                for (Integer caseId : new ArrayList<>(cases.keySet())) {
+                    if (!currentIds.contains(caseId)) {
+                        removeCase(caseId);
+                    }
+                }
+                loaded = true;
+            }
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Check if a case should take part in matching
+     */
+    private boolean isOpen(Case legalCase) {
+        return !"Closed".equalsIgnoreCase(legalCase.getStatus()) && !"Archived".equalsIgnoreCase(legalCase.getStatus());
+    }
+    
+    /**
+     * Check if a position is outside the text or holds a character that cannot be part of a token
+     */
+    private boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+    
+    /**
+     * Add a pattern to the trie
+     */
+    private void insert(String pattern, Output output) {
+        String normalized = pattern.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        
+        Node node = root;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            Node child = node.next.get(c);
+            if (child == null) {
+                child = new Node(node.depth + 1);
+                node.next.put(c, child);
+                linksValid = false;
+            }
+            node = child;
+        }
+        
+        if (node.outputs.isEmpty()) {
+            // The node becomes a new output target for the failure chains through it
+            linksValid = false;
+        }
+        node.outputs.add(output);
+    }
+    
+    /**
+     * Detach a case from a pattern. Trie nodes are kept; they are cheap and
+     * the pattern is often added again when the case is updated.
+     */
+    private void removeOutput(String pattern, int caseId) {
+        Node node = root;
+        String normalized = pattern.trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.next.get(normalized.charAt(i));
+        }
+        if (node == null) {
+            return;
+        }
+        
+        Iterator<Output> iterator = node.outputs.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().caseId == caseId) {
+                iterator.remove();
+            }
+        }
+        if (node.outputs.isEmpty()) {
+            linksValid = false;
+        }
+    }
+    
+    /**
+     * Recompute failure and output links breadth-first if the trie changed
+     */
+    private void ensureLinks() {
+        if (linksValid) {
+            return;
+        }
+        
+        Queue<Node> queue = new ArrayDeque<>();
+        root.fail = root;
+        root.outputLink = null;
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            child.outputLink = null;
+            queue.add(child);
+        }
+        
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.next.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+                
+                Node fail = node.fail;
+                while (fail != root && !fail.next.containsKey(c)) {
+                    fail = fail.fail;
+                }
+                Node target = fail.next.get(c);
+                child.fail = target != null && target != child ? target : root;
+                child.outputLink = child.fail.outputs.isEmpty() ? child.fail.outputLink : child.fail;
+                queue.add(child);
+            }
+        }
+        linksValid = true;
+    }
+}
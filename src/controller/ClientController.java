@@ -2,12 +2,15 @@ package controller;
 
 import model.Client;
 import model.Case;
+import model.Mutation;
 import service.ClientService;
 import service.CaseService;
 
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.time.LocalDate;
 
 /**
@@ -17,6 +20,10 @@ public class ClientController {
     private ClientService clientService;
     private CaseService caseService;
     private Registry registry;
+    private static final List<Consumer<Client>> changeListeners = new CopyOnWriteArrayList<>();
+    
+    // Client graphs from getClientWithCases, reused while their version is current
+    private static final DetailsCache<Client> clientDetails = new DetailsCache<>(50);
     
     // RMI server configuration
     private static final String RMI_HOST = "127.0.0.1";
@@ -31,8 +38,8 @@ public class ClientController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stubs
-            clientService = (ClientService) registry.lookup("clientService");
-            caseService = (CaseService) registry.lookup("caseService");
+            clientService = (ClientService) ServiceStubs.lookup(registry, "clientService");
+            caseService = (CaseService) ServiceStubs.lookup(registry, "caseService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -41,16 +48,60 @@ public class ClientController {
     }
     
     /**
-     * Get all clients
+     * Register a listener notified after a client is created or updated through
+     * any controller, or a queued change to it reaches the server
+     * 
+     * @param listener The listener, called with the changed client
+     */
+    public static void addClientChangeListener(Consumer<Client> listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered change listener
+     * 
+     * @param listener The listener to remove
+     */
+    public static void removeClientChangeListener(Consumer<Client> listener) {
+        changeListeners.remove(listener);
+    }
+    
+    /**
+     * Notify change listeners about a client
+     * 
+     * @param client The changed client
+     */
+    static void fireClientChanged(Client client) {
+        for (Consumer<Client> listener : changeListeners) {
+            listener.accept(client);
+        }
+    }
+    
+    /**
+     * Get the clients saved at the last successful load, for showing something
+     * while the current list is fetched
+     * 
+     * @return The saved clients, or null if none are saved
+     */
+    public List<Client> getSavedClients() {
+        return SnapshotStore.getInstance().load(SnapshotStore.CLIENTS);
+    }
+    
+    /**
+     * Get all clients. While the server is unreachable, the clients saved at the
+     * last successful load are returned instead.
      * 
      * @return List of all clients
      */
     public List<Client> getAllClients() {
         try {
-            return clientService.findAllClients();
+            List<Client> clients = clientService.findAllClients();
+            SnapshotStore.getInstance().save(SnapshotStore.CLIENTS, clients);
+            return clients;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return null;
+            // Fall back to the last loaded list while the server is unreachable
+            return SnapshotStore.getInstance().loadOffline(SnapshotStore.CLIENTS, ex);
         }
     }
     
@@ -94,9 +145,8 @@ public class ClientController {
      */
     public Client getClientWithCases(int id) {
         try {
-            Client searchClient = new Client();
-            searchClient.setId(id);
-            return clientService.getClientWithCases(searchClient);
+            // Only transferred again if the client or one of its cases changed
+            return clientDetails.fetch(id, knownVersion -> clientService.getClientWithCasesIfModified(id, knownVersion));
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -134,10 +184,11 @@ public class ClientController {
     }
     
     /**
-     * Create a new client
+     * Create a new client. While the server cannot be reached, or earlier changes
+     * are still queued, the change is queued in the outbox and sent later.
      * 
      * @param client The client to create
-     * @return true if successful
+     * @return true if saved or queued
      */
     public boolean createClient(Client client) {
         try {
@@ -146,27 +197,43 @@ public class ClientController {
                 client.setRegistrationDate(LocalDate.now());
             }
             
+            if (MutationOutbox.enqueueIfQueueing(Mutation.CREATE, Mutation.CLIENT, 0, 0, client)) {
+                return true;
+            }
+            
             Client result = clientService.createClient(client);
+            if (result != null) {
+                fireClientChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return false;
+            return MutationOutbox.queueIfUnreachable(ex, Mutation.CREATE, Mutation.CLIENT, 0, 0, client);
         }
     }
     
     /**
-     * Update an existing client
+     * Update an existing client. While the server cannot be reached, or earlier changes
+     * are still queued, the change is queued in the outbox and sent later.
      * 
      * @param client The client to update
-     * @return true if successful
+     * @return true if saved or queued
      */
     public boolean updateClient(Client client) {
         try {
+            if (MutationOutbox.enqueueIfQueueing(Mutation.UPDATE, Mutation.CLIENT, client.getId(), client.getVersion(), client)) {
+                return true;
+            }
+            
             Client result = clientService.updateClient(client);
+            if (result != null) {
+                fireClientChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return false;
+            return MutationOutbox.queueIfUnreachable(ex, Mutation.UPDATE, Mutation.CLIENT,
+                                                     client.getId(), client.getVersion(), client);
         }
     }
     
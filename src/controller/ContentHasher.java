@@ -0,0 +1,76 @@
+package controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes SHA-256 content hashes of document files. Files are streamed
+ * through a FileChannel and a fixed-size direct buffer, so hashing does not
+ * load the file into memory.
+ */
+public class ContentHasher {
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private ContentHasher() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Compute the SHA-256 hash of a file
+     * 
+     * @param file The file to hash
+     * @return The hash as lowercase hex
+     * @throws IOException If the file cannot be read
+     */
+    public static String sha256(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * Create a SHA-256 message digest
+     * 
+     * @return A new digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    /**
+     * Encode bytes as lowercase hex
+     * 
+     * @param bytes The bytes to encode
+     * @return Hex string
+     */
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,134 @@
+package controller;
+
+import model.ConditionalResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client-side copies of entity graphs loaded by the "with details" calls,
+ * each kept with the version the server gave it. A fetch sends the known
+ * version, and when the server answers that it is still current the copy is
+ * used instead of transferring the whole graph again.
+ * 
+ * Copies are kept serialized so that every caller gets its own objects and
+ * changes a dialog makes to them never leak into the cache. The least
+ * recently used copies are dropped once the cache is full.
+ */
+public class DetailsCache<T extends Serializable> {
+    private final Map<Integer, CachedGraph> entries;
+    
+    /**
+     * Loads a graph from the server given the version the client has
+     */
+    public interface Fetcher<T extends Serializable> {
+        ConditionalResult<T> fetch(long knownVersion) throws Exception;
+    }
+    
+    private static class CachedGraph {
+        private final long version;
+        private final byte[] data;
+        
+        CachedGraph(long version, byte[] data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param capacity The number of graphs to keep
+     */
+    public DetailsCache(int capacity) {
+        this.entries = new LinkedHashMap<Integer, CachedGraph>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedGraph> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+    
+    /**
+     * Load a graph, reusing the cached copy if the server reports it is current
+     * 
+     * @param id The entity ID
+     * @param fetcher The conditional server call
+     * @return The graph, or null if the entity does not exist
+     * @throws Exception If the server call fails
+     */
+    public T fetch(int id, Fetcher<T> fetcher) throws Exception {
+        ConditionalResult<T> result = fetcher.fetch(getKnownVersion(id));
+        if (result.isNotModified()) {
+            T cached = get(id);
+            if (cached != null) {
+                return cached;
+            }
+            // Dropped since the version was read; ask for the whole graph
+            result = fetcher.fetch(ConditionalResult.NO_VERSION);
+        }
+        
+        T value = result.getValue();
+        if (value == null) {
+            invalidate(id);
+        } else {
+            put(id, result.getVersion(), value);
+        }
+        return value;
+    }
+    
+    /**
+     * Get a copy of a cached graph without asking the server
+     * 
+     * @param id The entity ID
+     * @return A fresh copy of the graph, or null if it is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        CachedGraph entry;
+        synchronized (this) {
+            entry = entries.get(id);
+        }
+        if (entry == null) {
+            return null;
+        }
+        
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(entry.data))) {
+            return (T) in.readObject();
+        } catch (IOException | ClassNotFoundException ex) {
+            ex.printStackTrace();
+            invalidate(id);
+            return null;
+        }
+    }
+    
+    /**
+     * Drop the cached graph of an entity
+     * 
+     * @param id The entity ID
+     */
+    public synchronized void invalidate(int id) {
+        entries.remove(id);
+    }
+    
+    private synchronized long getKnownVersion(int id) {
+        CachedGraph entry = entries.get(id);
+        return entry != null ? entry.version : ConditionalResult.NO_VERSION;
+    }
+    
+    private void put(int id, long version, T value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        synchronized (this) {
+            entries.put(id, new CachedGraph(version, bytes.toByteArray()));
+        }
+    }
+}
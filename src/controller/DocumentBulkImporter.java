@@ -0,0 +1,350 @@
+package controller;
+
+import model.Case;
+import model.Document;
+import service.DocumentService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports many files as documents at once. File contents are hashed and
+ * uploaded by a fixed number of parallel uploaders, skipping content the
+ * server already stores, and all document records are then created with a
+ * single batched service call instead of one call per file.
+ * An importer is used for a single import and can be cancelled from any thread.
+ */
+public class DocumentBulkImporter {
+    public static final int DEFAULT_PARALLELISM = 4;
+    
+    private final DocumentService documentService;
+    private final BulkImportListener listener;
+    private final int parallelism;
+    private final List<DocumentUploader> uploaders = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+    private volatile CaseNumberMatcher caseMatcher;
+    private volatile boolean indexing = true;
+    
+    /**
+     * The outcome of importing one file
+     */
+    public static class FileResult {
+        private final File file;
+        private Document document;
+        private String error;
+        private boolean deduplicated;
+        private boolean routed;
+        private boolean unreachable;
+        
+        public FileResult(File file) {
+            this.file = file;
+        }
+        
+        public File getFile() { return file; }
+        
+        public Document getDocument() { return document; }
+        
+        public String getError() { return error; }
+        
+        public boolean isDeduplicated() { return deduplicated; }
+        
+        /**
+         * Check if the case was taken from a case number found in the file
+         * instead of from the template
+         */
+        public boolean isRouted() { return routed; }
+        
+        /**
+         * Check if the file failed because the server could not be reached,
+         * rather than because of the file itself
+         */
+        public boolean isUnreachable() { return unreachable; }
+        
+        /**
+         * Check if the file was imported
+         */
+        public boolean isSuccess() {
+            return error == null && document != null && document.getId() > 0;
+        }
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param documentService The remote document service
+     * @param listener Progress listener, or null
+     * @param parallelism The number of files uploaded at the same time
+     */
+    public DocumentBulkImporter(DocumentService documentService, BulkImportListener listener, int parallelism) {
+        this.documentService = documentService;
+        this.listener = listener;
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    /**
+     * Assign each file to the case whose case number or client ID is found in
+     * its name or content. Files without a clear match keep the template's case.
+     * 
+     * @param caseMatcher The matcher to use, or null to use the template's case for every file
+     */
+    public void setCaseMatcher(CaseNumberMatcher caseMatcher) {
+        this.caseMatcher = caseMatcher;
+    }
+    
+    /**
+     * Choose whether the text of imported files is added to the search index.
+     * A caller that moves the files after the import turns this off and
+     * indexes the moved files itself.
+     * 
+     * @param indexing false to leave indexing to the caller
+     */
+    public void setIndexing(boolean indexing) {
+        this.indexing = indexing;
+    }
+    
+    /**
+     * Expand a selection of files and folders into the files to import.
+     * Folders are searched recursively; hidden files are skipped.
+     * 
+     * @param selection The selected files and folders
+     * @return The files, in name order within each folder
+     */
+    public static List<File> collectFiles(List<File> selection) {
+        List<File> files = new ArrayList<>();
+        for (File file : selection) {
+            collectFiles(file, files);
+        }
+        return files;
+    }
+    
+    /**
+     * Upload the files and create a document record for each
+     * 
+     * @param files The files to import
+     * @param template Case, type, status, dates and creator applied to every document
+     * @return One result per file, in the same order
+     * @throws InterruptedException If the importing thread is interrupted
+     */
+    public List<FileResult> importFiles(List<File> files, Document template) throws InterruptedException {
+        List<FileResult> results = new ArrayList<>();
+        if (files.isEmpty()) {
+            return results;
+        }
+        
+        long totalBytes = 0;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        AtomicLong transferredBytes = new AtomicLong();
+        long startNanos = System.nanoTime();
+        
+        // Each document gets a unique ID within the batch
+        String batchPrefix = "DOC-" + LocalDate.now().getYear() + "-" + (1000 + (int) (Math.random() * 9000));
+        
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, files.size()), runnable -> {
+            Thread thread = new Thread(runnable, "document-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>();
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                Document document = createDocument(template, file, String.format("%s-%03d", batchPrefix, i + 1));
+                long total = totalBytes;
+                futures.add(pool.submit(() -> uploadFile(file, document, transferredBytes, total, startNanos)));
+            }
+            
+            for (Future<FileResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ex) {
+                    // uploadFile reports its own failures; this is a programming error
+                    throw new IllegalStateException(ex.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        createRecords(results);
+        return results;
+    }
+    
+    /**
+     * Cancel the import. Uploads in progress stop at their next chunk and no
+     * document records are created.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (DocumentUploader uploader : uploaders) {
+            uploader.cancel();
+        }
+    }
+    
+    /**
+     * Check if the import was cancelled
+     * 
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Build the document record for a file from the template
+     */
+    private Document createDocument(Document template, File file, String documentId) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        
+        Document document = new Document();
+        document.setDocumentId(documentId);
+        document.setTitle(dot > 0 ? name.substring(0, dot) : name);
+        document.setFilePath(name);
+        document.setDocumentType(template.getDocumentType());
+        document.setCase(template.getCase());
+        document.setStatus(template.getStatus());
+        document.setDescription(template.getDescription());
+        document.setDocumentDate(template.getDocumentDate());
+        document.setDateAdded(template.getDateAdded() != null ? template.getDateAdded() : LocalDate.now());
+        document.setCreatedBy(template.getCreatedBy());
+        return document;
+    }
+    
+    /**
+     * Upload one file's content, adding its progress to the import total
+     */
+    private FileResult uploadFile(File file, Document document, AtomicLong transferredBytes, long totalBytes, long startNanos) {
+        FileResult result = new FileResult(file);
+        result.document = document;
+        
+        // Positions reported for this file; only the increase is added to the total
+        long[] lastPosition = new long[1];
+        DocumentUploader uploader = new DocumentUploader(documentService, (position, fileBytes, bytesPerSecond) -> {
+            long delta = position - lastPosition[0];
+            if (delta > 0) {
+                lastPosition[0] = position;
+                long transferred = transferredBytes.addAndGet(delta);
+                if (listener != null) {
+                    double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1_000_000_000.0;
+                    listener.onProgress(transferred, totalBytes, transferred / seconds);
+                }
+            }
+        });
+        uploaders.add(uploader);
+        
+        try {
+            if (cancelled) {
+                throw new InterruptedIOException("Import cancelled");
+            }
+            routeToCase(result);
+            document.setContentHash(uploader.uploadContent(file));
+            document.setFileSize(file.length());
+            result.deduplicated = uploader.isDeduplicated();
+        } catch (IOException | RuntimeException ex) {
+            result.error = cancelled ? "Cancelled" : ex.getMessage() != null ? ex.getMessage() : ex.toString();
+            result.unreachable = !cancelled && ServiceStubs.isUnreachable(ex);
+        } finally {
+            uploaders.remove(uploader);
+        }
+        
+        if (listener != null) {
+            listener.onFileUploaded(result);
+        }
+        return result;
+    }
+    
+    /**
+     * Replace the template's case with the case detected in the file, if any
+     */
+    private void routeToCase(FileResult result) {
+        CaseNumberMatcher matcher = caseMatcher;
+        if (matcher == null) {
+            return;
+        }
+        
+        Case detected = matcher.suggestCase(result.file);
+        if (detected != null && (result.document.getCase() == null || detected.getId() != result.document.getCase().getId())) {
+            result.document.setCase(detected);
+            result.routed = true;
+        }
+    }
+    
+    /**
+     * Create the records of all uploaded files in one call
+     */
+    private void createRecords(List<FileResult> results) {
+        List<FileResult> uploaded = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
+        for (FileResult result : results) {
+            if (result.error == null) {
+                uploaded.add(result);
+                documents.add(result.document);
+            }
+        }
+        if (documents.isEmpty()) {
+            return;
+        }
+        
+        if (cancelled) {
+            for (FileResult result : uploaded) {
+                result.error = "Cancelled";
+            }
+            return;
+        }
+        
+        try {
+            List<Document> created = documentService.createDocuments(documents);
+            for (int i = 0; i < uploaded.size(); i++) {
+                FileResult result = uploaded.get(i);
+                Document document = created != null && i < created.size() ? created.get(i) : null;
+                if (document == null) {
+                    result.error = "The server could not create the document record";
+                } else {
+                    result.document = document;
+                    if (indexing) {
+                        DocumentIndexer.getInstance().indexFile(document, result.file);
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            for (FileResult result : uploaded) {
+                result.error = "Could not create document records: " + ex.getMessage();
+                result.unreachable = ServiceStubs.isUnreachable(ex);
+            }
+        }
+    }
+    
+    /**
+     * Add a file, or the files inside a folder, to the list
+     */
+    private static void collectFiles(File file, List<File> files) {
+        if (file.isHidden()) {
+            return;
+        }
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                Arrays.sort(children);
+                for (File child : children) {
+                    collectFiles(child, files);
+                }
+            }
+        } else if (file.isFile()) {
+            files.add(file);
+        }
+    }
+}
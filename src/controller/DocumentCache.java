@@ -0,0 +1,319 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local on-disk cache of document files, keyed by SHA-256 content hash.
+ * The cache keeps its total size under a configurable budget by evicting
+ * the least recently used files. Each cached file is checked against its
+ * hash the first time it is used in a session, so a corrupted or edited
+ * file is dropped and fetched again instead of being served.
+ * Reads for previews go through memory-mapped buffers.
+ * The directory and budget can be set with the legalcase.cache.dir and
+ * legalcase.cache.maxBytes system properties.
+ */
+public class DocumentCache {
+    private static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+    private static final String TEMP_SUFFIX = ".download";
+    private static DocumentCache instance;
+    
+    private final Path directory;
+    private long maxBytes;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    
+    // Iteration order is least recently used first
+    private final LinkedHashMap<String, Path> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> sizes = new HashMap<>();
+    private final Set<String> verified = new HashSet<>();
+    
+    /**
+     * Get the shared document cache
+     * 
+     * @return The cache instance
+     */
+    public static synchronized DocumentCache getInstance() {
+        if (instance == null) {
+            String dir = System.getProperty("legalcase.cache.dir",
+                Paths.get(System.getProperty("user.home"), ".legalcase", "documents").toString());
+            long maxBytes = Long.getLong("legalcase.cache.maxBytes", DEFAULT_MAX_BYTES);
+            instance = new DocumentCache(Paths.get(dir), maxBytes);
+        }
+        return instance;
+    }
+    
+    /**
+     * Constructor - opens the cache directory and rebuilds the LRU order from file times
+     * 
+     * @param directory The cache directory
+     * @param maxBytes The size budget in bytes
+     */
+    public DocumentCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        
+        try {
+            Files.createDirectories(directory);
+            scan();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Look up a cached file by content hash. A hit refreshes the file's position in the LRU order.
+     * 
+     * @param contentHash The SHA-256 content hash
+     * @return The cached file, or null on a miss
+     */
+    public synchronized Path lookup(String contentHash) {
+        Path file = entries.get(contentHash);
+        if (file == null) {
+            misses++;
+            return null;
+        }
+        
+        if (!verified.contains(contentHash)) {
+            if (!matchesHash(file, contentHash)) {
+                remove(contentHash);
+                misses++;
+                return null;
+            }
+            verified.add(contentHash);
+        }
+        
+        hits++;
+        file.toFile().setLastModified(System.currentTimeMillis());
+        return file;
+    }
+    
+    /**
+     * Look up a cached file for background work, such as indexing, without
+     * counting a hit or miss or changing its position in the LRU order
+     * 
+     * @param contentHash The SHA-256 content hash
+     * @param extension The file extension the content was stored with
+     * @return The cached file, or null if it is not cached under this extension
+     */
+    public synchronized Path peek(String contentHash, String extension) {
+        // entries.get would count as an access and refresh the LRU order
+        Path file = directory.resolve(fileName(contentHash, extension));
+        if (!entries.containsKey(contentHash) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        
+        if (!verified.contains(contentHash)) {
+            if (!matchesHash(file, contentHash)) {
+                remove(contentHash);
+                return null;
+            }
+            verified.add(contentHash);
+        }
+        return file;
+    }
+    
+    /**
+     * Check if a file is cached, without counting a hit or miss
+     * 
+     * @param contentHash The SHA-256 content hash
+     * @return true if the cache holds a file for this hash
+     */
+    public synchronized boolean contains(String contentHash) {
+        return entries.containsKey(contentHash);
+    }
+    
+    /**
+     * Create a temporary file inside the cache directory for a download in progress
+     * 
+     * @return The temporary file
+     * @throws IOException If the file cannot be created
+     */
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(directory, "document", TEMP_SUFFIX);
+    }
+    
+    /**
+     * Move a downloaded file into the cache after checking it against its hash,
+     * then evict older files until the cache fits its budget again
+     * 
+     * @param contentHash The expected SHA-256 content hash
+     * @param extension The file extension to keep, so the file opens in the right application
+     * @param downloaded The downloaded file
+     * @return The cached file
+     * @throws IOException If the content does not match the hash or the file cannot be moved
+     */
+    public Path store(String contentHash, String extension, Path downloaded) throws IOException {
+        if (!matchesHash(downloaded, contentHash)) {
+            Files.deleteIfExists(downloaded);
+            throw new IOException("Downloaded content does not match hash " + contentHash);
+        }
+        
+        Path target = directory.resolve(fileName(contentHash, extension));
+        
+        synchronized (this) {
+            remove(contentHash);
+            Files.move(downloaded, target, StandardCopyOption.REPLACE_EXISTING);
+            // Cached files are shared by every document with this content
+            target.toFile().setReadOnly();
+            
+            entries.put(contentHash, target);
+            sizes.put(contentHash, Files.size(target));
+            usedBytes += Files.size(target);
+            verified.add(contentHash);
+            evict(contentHash);
+        }
+        return target;
+    }
+    
+    private static String fileName(String contentHash, String extension) {
+        return extension == null || extension.isEmpty() ? contentHash : contentHash + "." + extension.toLowerCase();
+    }
+    
+    /**
+     * Map the start of a cached file into memory for reading
+     * 
+     * @param file The cached file
+     * @param maxBytes The maximum number of bytes to map
+     * @return A read-only buffer over the file's first bytes
+     * @throws IOException If the file cannot be mapped
+     */
+    public MappedByteBuffer map(Path file, int maxBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), maxBytes));
+        }
+    }
+    
+    /**
+     * Change the size budget, evicting files if the cache is now over it
+     * 
+     * @param maxBytes The new budget in bytes
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict(null);
+    }
+    
+    /**
+     * Get cache statistics for display
+     * 
+     * @return Map with hits, misses, hitRate, entryCount, usedBytes and maxBytes
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("entryCount", entries.size());
+        stats.put("usedBytes", usedBytes);
+        stats.put("maxBytes", maxBytes);
+        return stats;
+    }
+    
+    /**
+     * Evict least recently used files until the cache fits its budget
+     * 
+     * @param keep A content hash that must not be evicted, or null
+     */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Path>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Path> entry = iterator.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            deleteFile(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    /**
+     * Remove a cached file
+     */
+    private void remove(String contentHash) {
+        Path file = entries.remove(contentHash);
+        if (file != null) {
+            deleteFile(contentHash, file);
+        }
+    }
+    
+    /**
+     * Delete a cached file from disk and drop its accounting
+     */
+    private void deleteFile(String contentHash, Path file) {
+        Long size = sizes.remove(contentHash);
+        usedBytes -= size != null ? size : 0;
+        verified.remove(contentHash);
+        try {
+            file.toFile().setWritable(true);
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            // A file still mapped by a preview cannot be deleted on some platforms
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Check a file's content against a SHA-256 hash
+     */
+    private boolean matchesHash(Path file, String contentHash) {
+        try {
+            return Files.isRegularFile(file) && contentHash.equalsIgnoreCase(ContentHasher.sha256(file.toFile()));
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Load the existing cache files, oldest first, and clear out abandoned downloads
+     */
+    private void scan() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)
+                        || file.getFileName().toString().endsWith(TEMP_SUFFIX + ".part")) {
+                    Files.deleteIfExists(file);
+                } else if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        
+        files.sort((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            int dot = name.indexOf('.');
+            String contentHash = dot > 0 ? name.substring(0, dot) : name;
+            long size = Files.size(file);
+            
+            // Keep only the most recent copy if the same content was cached under two extensions
+            Path duplicate = entries.remove(contentHash);
+            if (duplicate != null) {
+                deleteFile(contentHash, duplicate);
+            }
+            
+            entries.put(contentHash, file);
+            sizes.put(contentHash, size);
+            usedBytes += size;
+        }
+        evict(null);
+    }
+}
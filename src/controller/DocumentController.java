@@ -1,19 +1,25 @@
 package controller;
 
 import model.Document;
+import model.DocumentSearchResult;
+import model.DocumentVersion;
 import model.Case;
 import service.DocumentService;
 import service.CaseService;
 
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.time.LocalDate;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 
 /**
@@ -23,7 +29,9 @@ public class DocumentController {
     private DocumentService documentService;
     private CaseService caseService;
     private Registry registry;
-    private final String UPLOAD_DIRECTORY = "uploads/documents/";
+    
+    // Upload bytes skipped by content deduplication and version deltas during this session
+    private static final AtomicLong transferBytesSaved = new AtomicLong();
     
     // RMI server configuration
     private static final String RMI_HOST = "127.0.0.1";
@@ -38,14 +46,8 @@ public class DocumentController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stubs
-            documentService = (DocumentService) registry.lookup("documentService");
-            caseService = (CaseService) registry.lookup("caseService");
-            
-            // Ensure upload directory exists
-            File directory = new File(UPLOAD_DIRECTORY);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
+            documentService = (DocumentService) ServiceStubs.lookup(registry, "documentService");
+            caseService = (CaseService) ServiceStubs.lookup(registry, "caseService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -178,32 +180,133 @@ public class DocumentController {
     }
     
     /**
-     * Create a new document record and save the file
+     * Search the text content of documents. Results are ranked by relevance
+     * and carry an excerpt of the text stored with the index. The documents
+     * of all hits are loaded with a single server call.
+     * 
+     * @param query Words to search for; text in double quotes must match as a phrase
+     * @param maxResults The maximum number of results
+     * @return List of results, best first
+     */
+    public List<DocumentSearchResult> searchDocumentContent(String query, int maxResults) {
+        List<DocumentSearchResult> results = new ArrayList<>();
+        DocumentTextIndex index = DocumentTextIndex.getInstance();
+        List<DocumentTextIndex.Hit> hits = index.search(query, maxResults);
+        if (hits.isEmpty()) {
+            return results;
+        }
+        
+        int[] ids = new int[hits.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = hits.get(i).getDocumentId();
+        }
+        Map<Integer, Document> documentsById = new HashMap<>();
+        try {
+            for (Document document : documentService.findDocumentsByIds(ids)) {
+                documentsById.put(document.getId(), document);
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return results;
+        }
+        
+        for (DocumentTextIndex.Hit hit : hits) {
+            Document document = documentsById.get(hit.getDocumentId());
+            if (document == null) {
+                // Deleted elsewhere since it was indexed
+                DocumentIndexer.getInstance().remove(hit.getDocumentId());
+                continue;
+            }
+            String text = index.getText(hit.getDocumentId());
+            String snippet = text != null ? DocumentTextIndex.createSnippet(text, query, 200) : null;
+            results.add(new DocumentSearchResult(document, hit.getScore(), snippet));
+        }
+        return results;
+    }
+    
+    /**
+     * Start bringing the full-text index up to date in the background
+     * 
+     * @param documents All documents
+     */
+    public void updateContentIndex(List<Document> documents) {
+        DocumentIndexer.getInstance().indexAll(documents);
+    }
+    
+    /**
+     * Get full-text index statistics
+     * 
+     * @return Map with documentCount, termCount and postingsBytes
+     */
+    public Map<String, Object> getContentIndexStatistics() {
+        return DocumentTextIndex.getInstance().getStatistics();
+    }
+    
+    /**
+     * Create an uploader for streaming a document file to the server
+     * 
+     * @param listener Progress listener, or null
+     * @return A new uploader
+     */
+    public DocumentUploader createUploader(TransferListener listener) {
+        return new DocumentUploader(documentService, listener);
+    }
+    
+    /**
+     * Create an importer for uploading many files as documents at once
+     * 
+     * @param listener Progress listener, or null
+     * @return A new bulk importer
+     */
+    public DocumentBulkImporter createBulkImporter(BulkImportListener listener) {
+        return new DocumentBulkImporter(documentService, listener, DocumentBulkImporter.DEFAULT_PARALLELISM);
+    }
+    
+    /**
+     * Create an uploader for sending new versions of documents as deltas
+     * 
+     * @param listener Progress listener, or null
+     * @return A new version uploader
+     */
+    public DocumentVersionUploader createVersionUploader(TransferListener listener) {
+        return new DocumentVersionUploader(documentService, listener);
+    }
+    
+    /**
+     * Create a new document record and upload the file to the server
      * 
      * @param document The document to create
      * @param file The uploaded file
      * @return true if successful
      */
     public boolean createDocument(Document document, File file) {
+        return createDocument(document, file, createUploader(null));
+    }
+    
+    /**
+     * Create a new document record and upload the file to the server using
+     * the given uploader, so the caller can follow progress or cancel
+     * 
+     * @param document The document to create
+     * @param file The uploaded file
+     * @param uploader The uploader to stream the file with
+     * @return true if successful
+     */
+    public boolean createDocument(Document document, File file, DocumentUploader uploader) {
         try {
-            // Generate file path
-            String fileName = System.currentTimeMillis() + "_" + file.getName();
-            String filePath = UPLOAD_DIRECTORY + fileName;
-            
-            // Copy file to upload directory
-            Path targetPath = Paths.get(filePath);
-            Files.copy(file.toPath(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-            
-            // Set file path in document
-            document.setFilePath(filePath);
-            
             // Set date added if not set
             if (document.getDateAdded() == null) {
                 document.setDateAdded(LocalDate.now());
             }
             
-            // Save document record via RMI
-            Document result = documentService.createDocument(document);
+            // Stream the file and create the document record via RMI
+            Document result = uploader.upload(file, document);
+            if (result != null && uploader.isDeduplicated()) {
+                transferBytesSaved.addAndGet(file.length());
+            }
+            if (result != null) {
+                DocumentIndexer.getInstance().indexFile(result, file);
+            }
             return result != null;
             
         } catch (IOException e) {
@@ -281,23 +384,127 @@ public class DocumentController {
      */
     public boolean deleteDocument(int documentId) {
         try {
-            // Get document to get file path
             Document document = getDocumentById(documentId);
             if (document == null) {
                 return false;
             }
             
-            // Delete file if exists
-            String filePath = document.getFilePath();
-            if (filePath != null && !filePath.isEmpty()) {
-                Path path = Paths.get(filePath);
-                Files.deleteIfExists(path);
-            }
-            
-            // Delete database record via RMI
+            // Delete database record via RMI. The stored file is shared by every
+            // document with the same content, so the server decides when to remove it.
             Document result = documentService.deleteDocument(document);
+            if (result != null) {
+                DocumentIndexer.getInstance().remove(documentId);
+            }
             return result != null;
+        
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Get the file content of a document. The whole document is held in memory,
+     * so this is meant for small content; use downloadDocument to save files.
+     * 
+     * @param documentId The document ID
+     * @return The file content as byte array, or null if error
+     */
+    public byte[] getDocumentContent(int documentId) {
+        try {
+            long size = documentService.getDocumentSize(documentId);
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
             
+            byte[] content = new byte[(int) size];
+            int offset = 0;
+            while (offset < content.length) {
+                byte[] chunk = documentService.downloadChunk(
+                    documentId, offset, Math.min(DocumentTransfer.CHUNK_SIZE, content.length - offset));
+                if (chunk == null || chunk.length == 0) {
+                    return null;
+                }
+                System.arraycopy(chunk, 0, content, offset, chunk.length);
+                offset += chunk.length;
+            }
+            return content;
+        
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Get the versions of a document, oldest first
+     * 
+     * @param documentId The document ID
+     * @return List of versions
+     */
+    public List<DocumentVersion> getDocumentVersions(int documentId) {
+        try {
+            return documentService.findDocumentVersions(documentId);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Upload a file as the newest version of a document. Only the changes
+     * against the current version are transferred. On success the document
+     * refers to the new content.
+     * 
+     * @param document The document
+     * @param file The new version
+     * @param comment A note describing the change, or null
+     * @param uploader The uploader to send the version with
+     * @return The created version, or null if error
+     */
+    public DocumentVersion uploadNewVersion(Document document, File file, String comment, DocumentVersionUploader uploader) {
+        try {
+            DocumentVersion version = new DocumentVersion();
+            version.setComment(comment);
+            version.setCreatedBy(1); // Default to user ID 1, as for new documents
+            
+            DocumentVersion result = uploader.uploadVersion(document, file, version);
+            if (result != null) {
+                transferBytesSaved.addAndGet(Math.max(file.length() - uploader.getTransferredBytes(), 0));
+                document.setContentHash(result.getContentHash());
+                document.setFileSize(result.getFileSize());
+                DocumentIndexer.getInstance().indexFile(document, file);
+            }
+            return result;
+        
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Save a version of a document to the given location, copying it from the
+     * local document cache when present and downloading it otherwise
+     * 
+     * @param version The version
+     * @param outputFile The file to write
+     * @param downloader The downloader to use on a cache miss
+     * @return true if successful
+     */
+    public boolean downloadVersion(DocumentVersion version, File outputFile, DocumentDownloader downloader) {
+        try {
+            Path cached = DocumentCache.getInstance().lookup(version.getContentHash());
+            if (cached != null) {
+                Files.copy(cached, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                outputFile.setWritable(true);
+            } else {
+                downloader.downloadBlob(version.getContentHash(), outputFile);
+            }
+            return true;
         } catch (IOException e) {
             e.printStackTrace();
             return false;
@@ -308,30 +515,163 @@ public class DocumentController {
     }
     
     /**
-     * Get the file content of a document
+     * Create a downloader for streaming a document to a local file
+     * 
+     * @param listener Progress listener, or null
+     * @return A new downloader
+     */
+    public DocumentDownloader createDownloader(TransferListener listener) {
+        return new DocumentDownloader(documentService, listener);
+    }
+    
+    /**
+     * Download a document's file to the given location using the given
+     * downloader, so the caller can follow progress or cancel
      * 
      * @param documentId The document ID
-     * @return The file content as byte array, or null if error
+     * @param outputFile The file to write
+     * @param downloader The downloader to stream the file with
+     * @return true if successful
      */
-    public byte[] getDocumentContent(int documentId) {
+    public boolean downloadDocument(int documentId, File outputFile, DocumentDownloader downloader) {
         try {
-            Document document = getDocumentById(documentId);
-            if (document == null || document.getFilePath() == null) {
-                return null;
+            downloader.download(documentId, outputFile);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Save a document to the given location, copying it from the local
+     * document cache when present and downloading it otherwise
+     * 
+     * @param document The document
+     * @param outputFile The file to write
+     * @param downloader The downloader to use on a cache miss
+     * @return true if successful
+     */
+    public boolean downloadDocument(Document document, File outputFile, DocumentDownloader downloader) {
+        try {
+            if (document.getContentHash() != null) {
+                Path cached = DocumentCache.getInstance().lookup(document.getContentHash());
+                if (cached != null) {
+                    Files.copy(cached, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    outputFile.setWritable(true);
+                    return true;
+                }
             }
+            return downloadDocument(document.getId(), outputFile, downloader);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Get a local copy of a document for opening or previewing. Documents are
+     * served from the local document cache, downloading them into it on a miss;
+     * documents without a content hash are downloaded to a temporary file.
+     * 
+     * @param document The document
+     * @param downloader The downloader to use on a cache miss
+     * @return The local file, or null if error
+     */
+    public File fetchDocument(Document document, DocumentDownloader downloader) {
+        try {
+            String extension = document.getFileExtension().toLowerCase();
             
-            Path path = Paths.get(document.getFilePath());
-            return Files.readAllBytes(path);
+            if (document.getContentHash() == null) {
+                File temp = File.createTempFile("document", extension.isEmpty() ? null : "." + extension);
+                temp.deleteOnExit();
+                downloader.download(document.getId(), temp);
+                return temp;
+            }
             
+            DocumentCache cache = DocumentCache.getInstance();
+            Path cached = cache.lookup(document.getContentHash());
+            if (cached == null) {
+                Path temp = cache.createTempFile();
+                try {
+                    downloader.download(document.getId(), temp.toFile());
+                    cached = cache.store(document.getContentHash(), extension, temp);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            return cached.toFile();
+            
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Read the start of a document for previewing. The content is memory-mapped
+     * from the local document cache, so a cached document is previewed without
+     * any network transfer and without copying it onto the heap.
+     * 
+     * @param document The document
+     * @param maxBytes The maximum number of bytes to read
+     * @return A read-only buffer over the document's first bytes, or null if error
+     */
+    public ByteBuffer readDocumentPreview(Document document, int maxBytes) {
+        try {
+            File file = fetchDocument(document, createDownloader(null));
+            if (file == null) {
+                return null;
+            }
+            return DocumentCache.getInstance().map(file.toPath(), maxBytes);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
+        }
+    }
+    
+    /**
+     * Get local document cache statistics
+     * 
+     * @return Map with hits, misses, hitRate, entryCount, usedBytes and maxBytes
+     */
+    public Map<String, Object> getCacheStatistics() {
+        return DocumentCache.getInstance().getStatistics();
+    }
+    
+    /**
+     * Get document storage statistics from the server
+     * 
+     * @return Map with logicalBytes, storedBytes, blobCount and documentCount, or null if error
+     */
+    public Map<String, Object> getStorageStatistics() {
+        try {
+            return documentService.getStorageStatistics();
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
         }
     }
     
+    /**
+     * Get the number of upload bytes skipped this session because the server
+     * already stored the same content or only a version delta was sent
+     * 
+     * @return Bytes not transferred
+     */
+    public static long getTransferBytesSaved() {
+        return transferBytesSaved.get();
+    }
+    
     /**
      * Get available document types
      * 
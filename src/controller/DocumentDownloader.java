@@ -0,0 +1,125 @@
+package controller;
+
+import service.DocumentService;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.rmi.RemoteException;
+
+/**
+ * Streams a document from the server to a local file chunk by chunk.
+ * Each chunk is written through a FileChannel as soon as it arrives, so only
+ * the chunk in flight is held in memory whatever the document size. The data
+ * goes to a ".part" file that replaces the target only once complete, so a
+ * cancelled or failed download never leaves a truncated file behind.
+ */
+public class DocumentDownloader extends DocumentTransfer {
+    
+    /**
+     * Constructor
+     * 
+     * @param documentService The remote document service
+     * @param listener Progress listener, or null
+     */
+    public DocumentDownloader(DocumentService documentService, TransferListener listener) {
+        super(documentService, listener);
+    }
+    
+    /**
+     * Download a document's content into a file
+     * 
+     * @param documentId The document ID
+     * @param target The file to write
+     * @return The number of bytes written
+     * @throws IOException If the download keeps failing, is cancelled or the file cannot be written
+     */
+    public long download(int documentId, File target) throws IOException {
+        long size = documentService.getDocumentSize(documentId);
+        return download(target, size, (offset, length) -> documentService.downloadChunk(documentId, offset, length));
+    }
+    
+    /**
+     * Download a stored file by content hash, such as an earlier version of a document
+     * 
+     * @param contentHash The SHA-256 content hash
+     * @param target The file to write
+     * @return The number of bytes written
+     * @throws IOException If the download keeps failing, is cancelled or the file cannot be written
+     */
+    public long downloadBlob(String contentHash, File target) throws IOException {
+        long size = documentService.getBlobSize(contentHash);
+        return download(target, size, (offset, length) -> documentService.downloadBlobChunk(contentHash, offset, length));
+    }
+    
+    /**
+     * Reads one chunk of the file being downloaded
+     */
+    private interface ChunkSource {
+        byte[] read(long offset, int length) throws RemoteException;
+    }
+    
+    /**
+     * Download into a ".part" file and move it over the target once complete
+     */
+    private long download(File target, long size, ChunkSource source) throws IOException {
+        Path part = target.toPath().resolveSibling(target.getName() + ".part");
+        boolean complete = false;
+        
+        try {
+            try (FileChannel channel = FileChannel.open(part,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                receiveChunks(channel, source, size);
+            }
+            Files.move(part, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            complete = true;
+            return size;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+    
+    /**
+     * Fetch chunks in order and write each one at its offset, retrying dropped requests
+     */
+    private void receiveChunks(FileChannel channel, ChunkSource source, long size) throws IOException {
+        long offset = 0;
+        long startNanos = System.nanoTime();
+        int failures = 0;
+        
+        while (offset < size) {
+            checkCancelled();
+            
+            byte[] chunk;
+            try {
+                chunk = source.read(offset, (int) Math.min(CHUNK_SIZE, size - offset));
+            } catch (RemoteException ex) {
+                if (++failures > MAX_RETRIES) {
+                    throw new IOException("Download failed after " + MAX_RETRIES + " retries", ex);
+                }
+                pause(failures);
+                continue;
+            }
+            
+            if (chunk == null || chunk.length == 0) {
+                throw new EOFException("Document ended at offset " + offset + " of " + size);
+            }
+            
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            while (buffer.hasRemaining()) {
+                offset += channel.write(buffer, offset);
+            }
+            
+            failures = 0;
+            reportProgress(offset, offset, size, startNanos);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package controller;
+
+import model.Document;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the {@link DocumentTextIndex} up to date in the background.
+ * 
+ * Newly uploaded files are indexed straight from the local file. A full pass
+ * over the document list indexes every document whose type has a text
+ * extractor and that is missing from the index or whose content hash has
+ * changed, and drops documents that no longer exist. A pass reads a document
+ * from the local document cache if it is there and otherwise downloads it to
+ * a temporary file, so indexing never evicts the files the user is working
+ * on. All work runs on one daemon thread, so indexing never blocks the user
+ * interface and never competes with itself.
+ */
+public class DocumentIndexer {
+    private static final long MAX_FILE_BYTES = 20L * 1024 * 1024;
+    private static final int SAVE_INTERVAL = 200;
+    private static DocumentIndexer instance;
+    
+    private final DocumentTextIndex index;
+    private final ExecutorService executor;
+    private final AtomicReference<List<Document>> pendingPass = new AtomicReference<>();
+    
+    // Only used on the indexing thread
+    private DocumentController documentController;
+    
+    /**
+     * Get the shared indexer
+     * 
+     * @return The indexer instance
+     */
+    public static synchronized DocumentIndexer getInstance() {
+        if (instance == null) {
+            instance = new DocumentIndexer(DocumentTextIndex.getInstance());
+        }
+        return instance;
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param index The index to maintain
+     */
+    public DocumentIndexer(DocumentTextIndex index) {
+        this.index = index;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "document-indexer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+    
+    /**
+     * Bring the index in line with the complete list of documents. If a pass is
+     * already waiting, it is given the newer list instead of queueing another.
+     * 
+     * @param documents All documents
+     */
+    public void indexAll(List<Document> documents) {
+        if (pendingPass.getAndSet(new ArrayList<>(documents)) == null) {
+            executor.submit(this::runPass);
+        }
+    }
+    
+    /**
+     * Index a document from a file that is already available locally
+     * 
+     * @param document The document
+     * @param file The document's file
+     */
+    public void indexFile(Document document, File file) {
+        executor.submit(() -> {
+            indexLocalFile(document, file.toPath());
+            save();
+        });
+    }
+    
+    /**
+     * Remove a document from the index
+     * 
+     * @param documentId The document ID
+     */
+    public void remove(int documentId) {
+        executor.submit(() -> {
+            index.removeDocument(documentId);
+            save();
+        });
+    }
+    
+    /**
+     * Index the documents of the latest pending list
+     */
+    private void runPass() {
+        List<Document> documents = pendingPass.getAndSet(null);
+        if (documents == null) {
+            return;
+        }
+        
+        Set<Integer> currentIds = new HashSet<>();
+        int indexed = 0;
+        for (Document document : documents) {
+            // A newer list has been queued; let its pass finish the work
+            if (pendingPass.get() != null) {
+                save();
+                return;
+            }
+            
+            currentIds.add(document.getId());
+            if (needsIndexing(document)) {
+                fetchAndIndex(document);
+                if (++indexed % SAVE_INTERVAL == 0) {
+                    save();
+                }
+            }
+        }
+        
+        for (Integer documentId : index.getIndexedDocumentIds()) {
+            if (!currentIds.contains(documentId)) {
+                index.removeDocument(documentId);
+            }
+        }
+        save();
+    }
+    
+    /**
+     * Check if a document can be indexed and is not indexed with its current content
+     */
+    private boolean needsIndexing(Document document) {
+        return index.canExtract(document.getFileExtension())
+            && document.getFileSize() <= MAX_FILE_BYTES
+            && !index.isIndexed(document.getId(), document.getContentHash());
+    }
+    
+    /**
+     * Fetch a document's file and index it, without adding it to the document cache
+     */
+    private void fetchAndIndex(Document document) {
+        String contentHash = document.getContentHash();
+        Path cached = contentHash != null
+            ? DocumentCache.getInstance().peek(contentHash, document.getFileExtension()) : null;
+        if (cached != null) {
+            indexLocalFile(document, cached);
+            return;
+        }
+        
+        if (documentController == null) {
+            documentController = new DocumentController();
+        }
+        
+        File temp = null;
+        try {
+            String extension = document.getFileExtension().toLowerCase();
+            temp = File.createTempFile("index", extension.isEmpty() ? null : "." + extension);
+            documentController.createDownloader(null).download(document.getId(), temp);
+            indexLocalFile(document, temp.toPath());
+        } catch (IOException | RuntimeException ex) {
+            ex.printStackTrace();
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+    
+    /**
+     * Extract and index a local file
+     */
+    private void indexLocalFile(Document document, Path file) {
+        try {
+            String text = index.extractText(file, document.getFileExtension());
+            if (text != null) {
+                index.addDocument(document.getId(), document.getContentHash(), text);
+            }
+        } catch (IOException | RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Save the index, logging failures
+     */
+    private void save() {
+        try {
+            index.save();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package controller;
+
+import model.Document;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates and caches document preview images.
+ * 
+ * Image documents are scaled down to a thumbnail and text documents are
+ * rendered as the start of their first page. Other types get a generic page
+ * showing the file type, which needs no download. Previews are rendered on a
+ * small fixed pool of background threads, saved as PNG files keyed by content
+ * hash, by default under ~/.legalcase/previews (set with the
+ * legalcase.preview.dir system property), and the most recently used ones are
+ * kept in memory. Callers never wait for rendering: they ask for a cached
+ * preview and, on a miss, request one and are notified when it is ready.
+ */
+public class DocumentPreviewCache {
+    public static final int PREVIEW_WIDTH = 160;
+    public static final int PREVIEW_HEIGHT = 200;
+    private static final int WORKER_THREADS = 2;
+    private static final int MEMORY_ENTRIES = 256;
+    private static final long MAX_SOURCE_BYTES = 20L * 1024 * 1024;
+    private static final int MAX_TEXT_CHARS = 4096;
+    private static final Set<String> IMAGE_EXTENSIONS = new HashSet<>(
+        Arrays.asList("PNG", "JPG", "JPEG", "GIF", "BMP"));
+    private static DocumentPreviewCache instance;
+    
+    private final Path directory;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<BufferedImage>> pending = new ConcurrentHashMap<>();
+    private final Map<String, BufferedImage> memory = Collections.synchronizedMap(
+        new LinkedHashMap<String, BufferedImage>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+                return size() > MEMORY_ENTRIES;
+            }
+        });
+    private DocumentController documentController;
+    
+    /**
+     * Get the shared preview cache
+     * 
+     * @return The cache instance
+     */
+    public static synchronized DocumentPreviewCache getInstance() {
+        if (instance == null) {
+            String dir = System.getProperty("legalcase.preview.dir",
+                Paths.get(System.getProperty("user.home"), ".legalcase", "previews").toString());
+            instance = new DocumentPreviewCache(Paths.get(dir));
+        }
+        return instance;
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param directory The directory preview images are saved in
+     */
+    public DocumentPreviewCache(Path directory) {
+        this.directory = directory;
+        this.executor = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "document-preview");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+    
+    /**
+     * Get a preview if it is already in memory. Never blocks.
+     * 
+     * @param document The document
+     * @return The preview image, or null if it has to be requested
+     */
+    public BufferedImage getCachedPreview(Document document) {
+        return memory.get(keyFor(document));
+    }
+    
+    /**
+     * Request a preview, loading it from disk or rendering it in the background.
+     * Repeated requests for the same content share one rendering.
+     * 
+     * @param document The document
+     * @return A future completed with the preview image
+     */
+    public CompletableFuture<BufferedImage> requestPreview(Document document) {
+        String key = keyFor(document);
+        BufferedImage cached = memory.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = pending.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        
+        executor.execute(() -> {
+            try {
+                BufferedImage preview = loadOrRender(document);
+                memory.put(key, preview);
+                future.complete(preview);
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                pending.remove(key, future);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Cache key: the content hash when the preview may depend on the content,
+     * otherwise the file type. This runs on the event dispatch thread, so it
+     * does not ask the text index whether the type can be rendered; that is
+     * decided when the preview is loaded.
+     */
+    private String keyFor(Document document) {
+        return document.getContentHash() != null && document.getFileSize() <= MAX_SOURCE_BYTES
+            ? document.getContentHash() : "type:" + document.getFileExtension();
+    }
+    
+    /**
+     * Check if a preview is rendered from the document's content. Documents
+     * without a content hash cannot be cached on disk and only get a type preview.
+     * Called on the preview threads only, since the text index is loaded on first use.
+     */
+    private boolean needsContent(Document document) {
+        String extension = document.getFileExtension();
+        return document.getContentHash() != null
+            && document.getFileSize() <= MAX_SOURCE_BYTES
+            && (IMAGE_EXTENSIONS.contains(extension) || DocumentTextIndex.getInstance().canExtract(extension));
+    }
+    
+    /**
+     * Load a saved preview or render a new one, falling back to a type preview on errors
+     */
+    private BufferedImage loadOrRender(Document document) {
+        if (!needsContent(document)) {
+            return typePreview(document.getFileExtension());
+        }
+        
+        Path previewFile = directory.resolve(document.getContentHash() + ".png");
+        File file = null;
+        try {
+            if (Files.isRegularFile(previewFile)) {
+                BufferedImage saved = ImageIO.read(previewFile.toFile());
+                if (saved != null) {
+                    return saved;
+                }
+            }
+            
+            // Download to a temporary file rather than through the document cache,
+            // so rendering previews does not evict the documents the user opened
+            String extension = document.getFileExtension().toLowerCase();
+            file = File.createTempFile("preview", extension.isEmpty() ? null : "." + extension);
+            getDocumentController().createDownloader(null).download(document.getId(), file);
+            BufferedImage preview = renderContentPreview(document, file);
+            if (preview == null) {
+                return typePreview(document.getFileExtension());
+            }
+            
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "preview", ".tmp");
+            ImageIO.write(preview, "png", temp.toFile());
+            Files.move(temp, previewFile, StandardCopyOption.REPLACE_EXISTING);
+            return preview;
+        
+        } catch (IOException | RuntimeException ex) {
+            ex.printStackTrace();
+            return typePreview(document.getFileExtension());
+        } finally {
+            if (file != null) {
+                file.delete();
+            }
+        }
+    }
+    
+    /**
+     * Render a preview from the document file, or return null if it cannot be read
+     */
+    private BufferedImage renderContentPreview(Document document, File file) throws IOException {
+        String extension = document.getFileExtension();
+        if (IMAGE_EXTENSIONS.contains(extension)) {
+            BufferedImage image = ImageIO.read(file);
+            return image != null ? scaleImage(image) : null;
+        }
+        
+        String text = DocumentTextIndex.getInstance().extractText(file.toPath(), extension);
+        return text != null ? renderText(text.length() > MAX_TEXT_CHARS ? text.substring(0, MAX_TEXT_CHARS) : text) : null;
+    }
+    
+    /**
+     * Scale an image to fit the preview size, keeping its aspect ratio
+     */
+    private BufferedImage scaleImage(BufferedImage image) {
+        double scale = Math.min(1.0, Math.min(
+            (double) PREVIEW_WIDTH / image.getWidth(), (double) PREVIEW_HEIGHT / image.getHeight()));
+        int width = Math.max(1, (int) (image.getWidth() * scale));
+        int height = Math.max(1, (int) (image.getHeight() * scale));
+        
+        BufferedImage preview = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = preview.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return preview;
+    }
+    
+    /**
+     * Render the start of a text as a page
+     */
+    private BufferedImage renderText(String text) {
+        BufferedImage preview = createPage();
+        Graphics2D g = preview.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 8));
+        g.setColor(Color.DARK_GRAY);
+        
+        FontMetrics metrics = g.getFontMetrics();
+        int margin = 8;
+        int maxWidth = PREVIEW_WIDTH - 2 * margin;
+        int y = margin + metrics.getAscent();
+        
+        for (String paragraph : text.split("\\r?\\n")) {
+            StringBuilder line = new StringBuilder();
+            for (String word : paragraph.trim().split("\\s+")) {
+                if (line.length() > 0 && metrics.stringWidth(line + " " + word) > maxWidth) {
+                    g.drawString(line.toString(), margin, y);
+                    y += metrics.getHeight();
+                    line.setLength(0);
+                }
+                if (y > PREVIEW_HEIGHT - margin) {
+                    break;
+                }
+                line.append(line.length() > 0 ? " " : "").append(word);
+            }
+            if (y > PREVIEW_HEIGHT - margin) {
+                break;
+            }
+            g.drawString(line.toString(), margin, y);
+            y += metrics.getHeight();
+        }
+        
+        g.dispose();
+        return preview;
+    }
+    
+    /**
+     * Get the generic page for a file type, shared by all documents of that type
+     */
+    private BufferedImage typePreview(String extension) {
+        return memory.computeIfAbsent("type:" + extension, key -> renderTypePreview(extension));
+    }
+    
+    /**
+     * Render a generic page labelled with the file type
+     */
+    private BufferedImage renderTypePreview(String extension) {
+        BufferedImage preview = createPage();
+        Graphics2D g = preview.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        
+        String label = extension == null || extension.isEmpty() ? "FILE" : extension;
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 28));
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(new Color(150, 160, 180));
+        g.drawString(label, (PREVIEW_WIDTH - metrics.stringWidth(label)) / 2, PREVIEW_HEIGHT / 2 + metrics.getAscent() / 2);
+        
+        g.dispose();
+        return preview;
+    }
+    
+    /**
+     * Create a blank page image with a border
+     */
+    private BufferedImage createPage() {
+        BufferedImage page = new BufferedImage(PREVIEW_WIDTH, PREVIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = page.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, PREVIEW_WIDTH, PREVIEW_HEIGHT);
+        g.setColor(Color.LIGHT_GRAY);
+        g.drawRect(0, 0, PREVIEW_WIDTH - 1, PREVIEW_HEIGHT - 1);
+        g.dispose();
+        return page;
+    }
+    
+    /**
+     * Get the controller used to fetch document files, creating it on first use
+     */
+    private synchronized DocumentController getDocumentController() {
+        if (documentController == null) {
+            documentController = new DocumentController();
+        }
+        return documentController;
+    }
+}
@@ -0,0 +1,725 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Inverted index over the extracted text of documents, with BM25 ranking.
+ * 
+ * Every indexed document gets an internal document number in the order it was
+ * added, and each term maps to a {@link PostingsList} of the documents and
+ * positions where it occurs. Replacing or removing a document only marks its
+ * old number as deleted; the index is compacted once deleted entries make up
+ * a quarter of it. Queries are lists of words, optionally with quoted
+ * phrases; documents are ranked by BM25 over all query words and must contain
+ * every quoted phrase.
+ * 
+ * Text is obtained from files through pluggable {@link TextExtractor}s.
+ * The index is kept in memory and saved to a single file, by default under
+ * ~/.legalcase/index; the location can be set with the legalcase.index.dir
+ * system property. The extracted text of each document is kept compressed
+ * in a directory beside the index file, so search excerpts can be built
+ * without reading the documents again.
+ */
+public class DocumentTextIndex {
+    private static final int MAGIC = 0x4C434958;
+    private static final int VERSION = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MIN_COMPACT_DELETED = 64;
+    private static DocumentTextIndex instance;
+    
+    private final Path indexFile;
+    private final Path textDirectory;
+    private final List<TextExtractor> extractors = new CopyOnWriteArrayList<>();
+    private final Map<String, PostingsList> postings = new HashMap<>();
+    
+    // Indexed by document number
+    private int[] documentIds = new int[256];
+    private int[] lengths = new int[256];
+    private String[] contentHashes = new String[256];
+    private final BitSet deleted = new BitSet();
+    private int documentCount;
+    
+    // Live documents only
+    private final Map<Integer, Integer> numbersById = new HashMap<>();
+    private long totalLength;
+    private boolean dirty;
+    
+    /**
+     * A ranked search result
+     */
+    public static class Hit {
+        private final int documentId;
+        private final double score;
+        
+        public Hit(int documentId, double score) {
+            this.documentId = documentId;
+            this.score = score;
+        }
+        
+        public int getDocumentId() { return documentId; }
+        
+        public double getScore() { return score; }
+    }
+    
+    /**
+     * Get the shared index, loading it from disk on first use
+     * 
+     * @return The index instance
+     */
+    public static synchronized DocumentTextIndex getInstance() {
+        if (instance == null) {
+            String dir = System.getProperty("legalcase.index.dir",
+                Paths.get(System.getProperty("user.home"), ".legalcase", "index").toString());
+            instance = new DocumentTextIndex(Paths.get(dir, "documents.idx"));
+            instance.registerExtractor(new PlainTextExtractor());
+            instance.registerExtractor(new HtmlTextExtractor());
+            instance.registerExtractor(new RtfTextExtractor());
+        }
+        return instance;
+    }
+    
+    /**
+     * Constructor - loads the index file if it exists
+     * 
+     * @param indexFile The file the index is saved to
+     */
+    public DocumentTextIndex(Path indexFile) {
+        this.indexFile = indexFile;
+        this.textDirectory = indexFile.resolveSibling(indexFile.getFileName() + ".text");
+        
+        if (Files.isRegularFile(indexFile)) {
+            try {
+                load();
+            } catch (IOException ex) {
+                // An unreadable index is rebuilt from the documents
+                ex.printStackTrace();
+                clear();
+            }
+        }
+    }
+    
+    /**
+     * Register a text extractor. Extractors registered later take precedence,
+     * so a more capable extractor can replace a built-in one.
+     * 
+     * @param extractor The extractor to add
+     */
+    public void registerExtractor(TextExtractor extractor) {
+        extractors.add(0, extractor);
+    }
+    
+    /**
+     * Check if any registered extractor handles the given file extension
+     * 
+     * @param extension The file extension, in any case
+     * @return true if documents of this type can be indexed
+     */
+    public boolean canExtract(String extension) {
+        return findExtractor(extension) != null;
+    }
+    
+    /**
+     * Extract the text of a file with the extractor for its extension
+     * 
+     * @param file The file to read
+     * @param extension The file extension, in any case
+     * @return The text, or null if no extractor handles the extension
+     * @throws IOException If the file cannot be read
+     */
+    public String extractText(Path file, String extension) throws IOException {
+        TextExtractor extractor = findExtractor(extension);
+        return extractor != null ? extractor.extract(file) : null;
+    }
+    
+    /**
+     * Check if a document is indexed with its current content
+     * 
+     * @param documentId The document ID
+     * @param contentHash The document's content hash, or null
+     * @return true if no re-indexing is needed
+     */
+    public synchronized boolean isIndexed(int documentId, String contentHash) {
+        Integer number = numbersById.get(documentId);
+        return number != null && Objects.equals(contentHashes[number], contentHash);
+    }
+    
+    /**
+     * Get the IDs of all indexed documents
+     * 
+     * @return A copy of the indexed document IDs
+     */
+    public synchronized Set<Integer> getIndexedDocumentIds() {
+        return new HashSet<>(numbersById.keySet());
+    }
+    
+    /**
+     * Add a document's text to the index, replacing any earlier version of it
+     * 
+     * @param documentId The document ID
+     * @param contentHash The content hash of the indexed file, or null
+     * @param text The extracted text
+     */
+    public void addDocument(int documentId, String contentHash, String text) {
+        // Tokenize outside the lock so searches are not held up by large documents
+        Map<String, int[]> termPositions = new HashMap<>();
+        Map<String, Integer> termCounts = new HashMap<>();
+        List<String> tokens = tokenize(text);
+        for (int position = 0; position < tokens.size(); position++) {
+            String token = tokens.get(position);
+            int count = termCounts.getOrDefault(token, 0);
+            int[] positions = termPositions.get(token);
+            if (positions == null) {
+                positions = new int[4];
+            } else if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count] = position;
+            termPositions.put(token, positions);
+            termCounts.put(token, count + 1);
+        }
+        
+        synchronized (this) {
+            removeDocument(documentId);
+            
+            int number = documentCount++;
+            if (number >= documentIds.length) {
+                int capacity = number * 2;
+                documentIds = Arrays.copyOf(documentIds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                contentHashes = Arrays.copyOf(contentHashes, capacity);
+            }
+            documentIds[number] = documentId;
+            lengths[number] = tokens.size();
+            contentHashes[number] = contentHash;
+            
+            for (Map.Entry<String, int[]> entry : termPositions.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingsList())
+                    .add(number, entry.getValue(), termCounts.get(entry.getKey()));
+            }
+            
+            numbersById.put(documentId, number);
+            totalLength += tokens.size();
+            dirty = true;
+        }
+        
+        storeText(documentId, text);
+    }
+    
+    /**
+     * Get the text a document was indexed with
+     * 
+     * @param documentId The document ID
+     * @return The text, or null if the document is not indexed or its text is not stored
+     */
+    public String getText(int documentId) {
+        Path file = textFile(documentId);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                bytes.write(buffer, 0, read);
+            }
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Remove a document from the index
+     * 
+     * @param documentId The document ID
+     */
+    public synchronized void removeDocument(int documentId) {
+        Integer number = numbersById.remove(documentId);
+        if (number == null) {
+            return;
+        }
+        
+        deleted.set(number);
+        totalLength -= lengths[number];
+        contentHashes[number] = null;
+        dirty = true;
+        
+        try {
+            Files.deleteIfExists(textFile(documentId));
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        
+        int deletedCount = deleted.cardinality();
+        if (deletedCount >= MIN_COMPACT_DELETED && deletedCount * 4 >= documentCount) {
+            compact();
+        }
+    }
+    
+    /**
+     * Search the index
+     * 
+     * @param query Words to search for; text in double quotes must match as a phrase
+     * @param maxResults The maximum number of results
+     * @return Results ordered by descending BM25 score
+     */
+    public synchronized List<Hit> search(String query, int maxResults) {
+        List<List<String>> clauses = parseQuery(query);
+        int liveCount = numbersById.size();
+        if (clauses.isEmpty() || liveCount == 0 || maxResults <= 0) {
+            return Collections.emptyList();
+        }
+        
+        float[] scores = new float[documentCount];
+        BitSet matched = new BitSet(documentCount);
+        BitSet required = null;
+        double averageLength = Math.max(1.0, (double) totalLength / liveCount);
+        Set<String> scoredTerms = new HashSet<>();
+        
+        for (List<String> clause : clauses) {
+            for (String term : clause) {
+                if (scoredTerms.add(term)) {
+                    scoreTerm(term, liveCount, averageLength, scores, matched);
+                }
+            }
+            if (clause.size() > 1) {
+                BitSet phraseMatches = matchPhrase(clause);
+                if (required == null) {
+                    required = phraseMatches;
+                } else {
+                    required.and(phraseMatches);
+                }
+            }
+        }
+        if (required != null) {
+            matched.and(required);
+        }
+        
+        // Keep the best results in a min-heap so the worst is dropped first
+        PriorityQueue<Hit> best = new PriorityQueue<>(maxResults + 1, (a, b) -> Double.compare(a.getScore(), b.getScore()));
+        for (int number = matched.nextSetBit(0); number >= 0; number = matched.nextSetBit(number + 1)) {
+            if (best.size() < maxResults) {
+                best.add(new Hit(documentIds[number], scores[number]));
+            } else if (scores[number] > best.peek().getScore()) {
+                best.poll();
+                best.add(new Hit(documentIds[number], scores[number]));
+            }
+        }
+        
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return hits;
+    }
+    
+    /**
+     * Write the index to its file if it changed since it was last saved.
+     * The file is replaced atomically, so a crash never leaves a partial index.
+     * 
+     * @throws IOException If the index cannot be written
+     */
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        
+        Files.createDirectories(indexFile.getParent());
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            
+            out.writeInt(documentCount);
+            for (int number = 0; number < documentCount; number++) {
+                out.writeInt(documentIds[number]);
+                out.writeInt(lengths[number]);
+                out.writeBoolean(deleted.get(number));
+                out.writeUTF(contentHashes[number] != null ? contentHashes[number] : "");
+            }
+            
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingsList> entry : postings.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dirty = false;
+    }
+    
+    /**
+     * Get index statistics for display
+     * 
+     * @return Map with documentCount, termCount and postingsBytes
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        long postingsBytes = 0;
+        for (PostingsList list : postings.values()) {
+            postingsBytes += list.getSizeInBytes();
+        }
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("documentCount", numbersById.size());
+        stats.put("termCount", postings.size());
+        stats.put("postingsBytes", postingsBytes);
+        return stats;
+    }
+    
+    /**
+     * Create a short excerpt of a document's text around the first query match
+     * 
+     * @param text The document text
+     * @param query The search query
+     * @param maxChars The maximum excerpt length
+     * @return The excerpt, with ellipses where text was cut
+     */
+    public static String createSnippet(String text, String query, int maxChars) {
+        Set<String> terms = new HashSet<>();
+        for (List<String> clause : parseQuery(query)) {
+            terms.addAll(clause);
+        }
+        
+        int match = 0;
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (terms.contains(normalize(text.substring(start, i)))) {
+                match = start;
+                break;
+            }
+        }
+        
+        // Start a little before the match and cut both ends at word boundaries
+        int from = Math.max(0, match - maxChars / 4);
+        if (from > 0) {
+            int boundary = from;
+            while (boundary < match && !Character.isWhitespace(text.charAt(boundary))) {
+                boundary++;
+            }
+            from = boundary < match ? boundary + 1 : from;
+        }
+        int to = Math.min(text.length(), from + maxChars);
+        if (to < text.length()) {
+            int boundary = to;
+            while (boundary > match && !Character.isWhitespace(text.charAt(boundary))) {
+                boundary--;
+            }
+            to = boundary > match ? boundary : to;
+        }
+        
+        String snippet = text.substring(from, to).replaceAll("\\s+", " ").trim();
+        return (from > 0 ? "..." : "") + snippet + (to < text.length() ? "..." : "");
+    }
+    
+    /**
+     * Split text into lower-case words of letters and digits
+     * 
+     * @param text The text
+     * @return The words in order
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i - start <= MAX_TOKEN_LENGTH) {
+                tokens.add(normalize(text.substring(start, i)));
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * Normalize a word for indexing and lookup
+     */
+    private static String normalize(String word) {
+        return word.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Split a query into clauses: a single word, or the words of a quoted phrase
+     */
+    private static List<List<String>> parseQuery(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> words = tokenize(parts[i]);
+            if (i % 2 == 1 && words.size() > 1) {
+                clauses.add(words);
+            } else {
+                for (String word : new LinkedHashSet<>(words)) {
+                    clauses.add(Collections.singletonList(word));
+                }
+            }
+        }
+        return clauses;
+    }
+    
+    /**
+     * Add one term's BM25 contribution to the document scores
+     */
+    private void scoreTerm(String term, int liveCount, double averageLength, float[] scores, BitSet matched) {
+        PostingsList list = postings.get(term);
+        if (list == null) {
+            return;
+        }
+        
+        // The document frequency still counts deleted entries until the next
+        // compaction, which slightly lowers the weight of frequently replaced terms
+        int frequency = Math.min(list.getDocumentCount(), liveCount);
+        double idf = Math.log(1 + (liveCount - frequency + 0.5) / (frequency + 0.5));
+        
+        PostingsList.Cursor cursor = list.cursor();
+        while (cursor.next()) {
+            int number = cursor.document();
+            if (deleted.get(number)) {
+                continue;
+            }
+            int tf = cursor.frequency();
+            double norm = K1 * (1 - B + B * lengths[number] / averageLength);
+            scores[number] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+            matched.set(number);
+        }
+    }
+    
+    /**
+     * Find the documents containing the given words as consecutive words
+     */
+    private BitSet matchPhrase(List<String> words) {
+        BitSet result = new BitSet();
+        PostingsList.Cursor[] cursors = new PostingsList.Cursor[words.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            PostingsList list = postings.get(words.get(i));
+            if (list == null) {
+                return result;
+            }
+            cursors[i] = list.cursor();
+        }
+        
+        int target = 0;
+        while (true) {
+            boolean aligned = true;
+            for (PostingsList.Cursor cursor : cursors) {
+                if (!cursor.advanceTo(target)) {
+                    return result;
+                }
+                if (cursor.document() > target) {
+                    target = cursor.document();
+                    aligned = false;
+                }
+            }
+            
+            if (aligned) {
+                if (!deleted.get(target) && containsPhrase(cursors)) {
+                    result.set(target);
+                }
+                target++;
+            }
+        }
+    }
+    
+    /**
+     * Check if the cursors' current document has the words at consecutive positions
+     */
+    private boolean containsPhrase(PostingsList.Cursor[] cursors) {
+        int[][] positions = new int[cursors.length][];
+        for (int i = 0; i < cursors.length; i++) {
+            positions[i] = cursors[i].positions();
+        }
+        
+        for (int start : positions[0]) {
+            boolean found = true;
+            for (int i = 1; i < positions.length && found; i++) {
+                found = Arrays.binarySearch(positions[i], start + i) >= 0;
+            }
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Rewrite all postings without deleted documents and renumber the rest
+     */
+    private void compact() {
+        int[] newNumbers = new int[documentCount];
+        int liveCount = 0;
+        for (int number = 0; number < documentCount; number++) {
+            newNumbers[number] = deleted.get(number) ? -1 : liveCount++;
+        }
+        
+        Map<String, PostingsList> compacted = new HashMap<>();
+        for (Map.Entry<String, PostingsList> entry : postings.entrySet()) {
+            PostingsList list = new PostingsList();
+            PostingsList.Cursor cursor = entry.getValue().cursor();
+            while (cursor.next()) {
+                int newNumber = newNumbers[cursor.document()];
+                if (newNumber >= 0) {
+                    list.add(newNumber, cursor.positions(), cursor.frequency());
+                }
+            }
+            if (list.getDocumentCount() > 0) {
+                compacted.put(entry.getKey(), list);
+            }
+        }
+        postings.clear();
+        postings.putAll(compacted);
+        
+        int capacity = Math.max(256, liveCount * 2);
+        int[] newIds = new int[capacity];
+        int[] newLengths = new int[capacity];
+        String[] newHashes = new String[capacity];
+        numbersById.clear();
+        for (int number = 0; number < documentCount; number++) {
+            int newNumber = newNumbers[number];
+            if (newNumber >= 0) {
+                newIds[newNumber] = documentIds[number];
+                newLengths[newNumber] = lengths[number];
+                newHashes[newNumber] = contentHashes[number];
+                numbersById.put(documentIds[number], newNumber);
+            }
+        }
+        documentIds = newIds;
+        lengths = newLengths;
+        contentHashes = newHashes;
+        documentCount = liveCount;
+        deleted.clear();
+    }
+    
+    /**
+     * Read the index file
+     */
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported index file " + indexFile);
+            }
+            
+            documentCount = in.readInt();
+            int capacity = Math.max(256, documentCount * 2);
+            documentIds = new int[capacity];
+            lengths = new int[capacity];
+            contentHashes = new String[capacity];
+            for (int number = 0; number < documentCount; number++) {
+                documentIds[number] = in.readInt();
+                lengths[number] = in.readInt();
+                boolean isDeleted = in.readBoolean();
+                String contentHash = in.readUTF();
+                if (isDeleted) {
+                    deleted.set(number);
+                } else {
+                    contentHashes[number] = contentHash.isEmpty() ? null : contentHash;
+                    numbersById.put(documentIds[number], number);
+                    totalLength += lengths[number];
+                }
+            }
+            
+            int termCount = in.readInt();
+            for (int i = 0; i < termCount; i++) {
+                String term = in.readUTF();
+                postings.put(term, PostingsList.read(in));
+            }
+        }
+    }
+    
+    /**
+     * Reset to an empty index
+     */
+    private void clear() {
+        postings.clear();
+        numbersById.clear();
+        deleted.clear();
+        documentIds = new int[256];
+        lengths = new int[256];
+        contentHashes = new String[256];
+        documentCount = 0;
+        totalLength = 0;
+        dirty = true;
+    }
+    
+    /**
+     * Write a document's text to the text directory, replacing it atomically.
+     * A failure only costs the document its search excerpts.
+     */
+    private void storeText(int documentId, String text) {
+        Path file = textFile(documentId);
+        try {
+            Files.createDirectories(textDirectory);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    private Path textFile(int documentId) {
+        return textDirectory.resolve(documentId + ".gz");
+    }
+    
+    /**
+     * Find the first extractor that handles an extension
+     */
+    private TextExtractor findExtractor(String extension) {
+        String normalized = extension != null ? extension.toUpperCase() : "";
+        for (TextExtractor extractor : extractors) {
+            if (extractor.supports(normalized)) {
+                return extractor;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package controller;
+
+import service.DocumentService;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Common state for chunked document transfers: the chunk size, retry policy,
+ * progress reporting and cancellation shared by uploads and downloads.
+ * A transfer object is used for a single transfer and can be cancelled from any thread.
+ */
+public abstract class DocumentTransfer {
+    public static final int CHUNK_SIZE = 1024 * 1024;
+    protected static final int MAX_RETRIES = 5;
+    private static final long RETRY_DELAY_MILLIS = 500;
+    
+    protected final DocumentService documentService;
+    private final TransferListener listener;
+    private volatile boolean cancelled;
+    
+    /**
+     * Constructor
+     * 
+     * @param documentService The remote document service
+     * @param listener Progress listener, or null
+     */
+    protected DocumentTransfer(DocumentService documentService, TransferListener listener) {
+        this.documentService = documentService;
+        this.listener = listener;
+    }
+    
+    /**
+     * Cancel the transfer in progress
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Check if the transfer was cancelled
+     * 
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Stop the transfer if it has been cancelled
+     * 
+     * @throws InterruptedIOException If the transfer was cancelled
+     */
+    protected void checkCancelled() throws InterruptedIOException {
+        if (cancelled) {
+            throw new InterruptedIOException("Transfer cancelled");
+        }
+    }
+    
+    /**
+     * Wait before retrying, backing off with each consecutive failure
+     * 
+     * @param failures Number of consecutive failures so far
+     * @throws InterruptedIOException If the thread is interrupted while waiting
+     */
+    protected void pause(int failures) throws InterruptedIOException {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS * failures);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Transfer interrupted");
+        }
+    }
+    
+    /**
+     * Report progress and average throughput since the transfer started
+     * 
+     * @param movedBytes Bytes moved during this run
+     * @param position Current position in the file
+     * @param totalBytes Total size of the file
+     * @param startNanos System.nanoTime() when the run started
+     */
+    protected void reportProgress(long movedBytes, long position, long totalBytes, long startNanos) {
+        if (listener == null) {
+            return;
+        }
+        double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1_000_000_000.0;
+        listener.onProgress(position, totalBytes, movedBytes / seconds);
+    }
+}
@@ -0,0 +1,211 @@
+package controller;
+
+import model.Document;
+import model.UploadSession;
+import service.DocumentService;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.rmi.RemoteException;
+import java.util.zip.CRC32;
+
+/**
+ * Streams a file to the server through the chunked upload API of
+ * {@link DocumentService}. The file is read through a FileChannel into one
+ * fixed-size direct buffer, so memory use does not depend on the file size.
+ * Every chunk carries a CRC32 checksum; rejected chunks and dropped
+ * connections are retried from the offset the server reports.
+ * 
+ * Files are stored on the server by SHA-256 content hash. The hash is computed
+ * locally first, and when the server already holds the same content the
+ * transfer is skipped and the new document only references the stored file.
+ */
+public class DocumentUploader extends DocumentTransfer {
+    protected boolean deduplicated;
+    
+    /**
+     * Constructor
+     * 
+     * @param documentService The remote document service
+     * @param listener Progress listener, or null
+     */
+    public DocumentUploader(DocumentService documentService, TransferListener listener) {
+        super(documentService, listener);
+    }
+    
+    /**
+     * Upload a file and create its document record
+     * 
+     * @param file The file to upload
+     * @param document The document metadata
+     * @return The created document
+     * @throws IOException If the file cannot be read, the upload keeps failing or is cancelled
+     */
+    public Document upload(File file, Document document) throws IOException {
+        deduplicated = false;
+        String contentHash = ContentHasher.sha256(file);
+        document.setContentHash(contentHash);
+        document.setFileSize(file.length());
+        
+        if (documentService.hasBlob(contentHash)) {
+            checkCancelled();
+            Document result = documentService.createDocumentFromBlob(contentHash, document);
+            if (result != null) {
+                deduplicated = true;
+                return result;
+            }
+            // The stored copy disappeared in the meantime; upload it again
+        }
+        
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            UploadSession session = documentService.beginUpload(contentHash, file.getName(), fileSize, CHUNK_SIZE);
+            
+            try {
+                sendChunks(channel, session, fileSize);
+                return documentService.commitUpload(session.getSessionId(), document);
+            } catch (IOException | RuntimeException ex) {
+                abortQuietly(session);
+                throw ex;
+            }
+        }
+    }
+    
+    /**
+     * Upload a file's content without creating a document record, so several
+     * records can later be created in one call. Content the server already
+     * holds is not transferred again.
+     * 
+     * @param file The file to upload
+     * @return The SHA-256 content hash the server stored the file under
+     * @throws IOException If the file cannot be read, the upload keeps failing or is cancelled
+     */
+    public String uploadContent(File file) throws IOException {
+        deduplicated = false;
+        String contentHash = ContentHasher.sha256(file);
+        checkCancelled();
+        
+        if (documentService.hasBlob(contentHash)) {
+            deduplicated = true;
+            reportProgress(0, file.length(), file.length(), System.nanoTime());
+            return contentHash;
+        }
+        
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            UploadSession session = documentService.beginUpload(contentHash, file.getName(), fileSize, CHUNK_SIZE);
+            
+            try {
+                sendChunks(channel, session, fileSize);
+                return documentService.commitBlob(session.getSessionId());
+            } catch (IOException | RuntimeException ex) {
+                abortQuietly(session);
+                throw ex;
+            }
+        }
+    }
+    
+    /**
+     * Check if the last upload was skipped because the server already had the content
+     * 
+     * @return true if no file data was transferred
+     */
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+    
+    /**
+     * Send the file chunk by chunk, starting from what the server already has
+     */
+    protected void sendChunks(FileChannel channel, UploadSession session, long fileSize) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        CRC32 crc = new CRC32();
+        
+        long offset = session.getReceivedBytes();
+        long startOffset = offset;
+        long startNanos = System.nanoTime();
+        int failures = 0;
+        IOException lastError = null;
+        
+        while (offset < fileSize) {
+            checkCancelled();
+            
+            int length = readChunk(channel, buffer, offset);
+            crc.reset();
+            crc.update(buffer);
+            buffer.rewind();
+            
+            // Full chunks reuse one array; only the final short chunk needs its own
+            byte[] data = length == CHUNK_SIZE ? chunk : new byte[length];
+            buffer.get(data, 0, length);
+            
+            try {
+                long received = documentService.uploadChunk(
+                    session.getSessionId(), offset, data, crc.getValue()).getReceivedBytes();
+                if (received > offset) {
+                    offset = received;
+                    failures = 0;
+                    reportProgress(offset - startOffset, offset, fileSize, startNanos);
+                    continue;
+                }
+                lastError = new IOException("Chunk at offset " + offset + " was rejected by the server");
+            } catch (RemoteException ex) {
+                lastError = ex;
+            }
+            
+            if (++failures > MAX_RETRIES) {
+                throw new IOException("Upload failed after " + MAX_RETRIES + " retries", lastError);
+            }
+            pause(failures);
+            offset = resumeOffset(session, offset);
+        }
+    }
+    
+    /**
+     * Read one chunk at the given file position into the buffer, leaving it ready for reading
+     */
+    private int readChunk(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        long remaining = channel.size() - position;
+        if (remaining < buffer.capacity()) {
+            buffer.limit((int) remaining);
+        }
+        
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("File ended before offset " + (position + buffer.limit()));
+            }
+        }
+        
+        buffer.flip();
+        return buffer.limit();
+    }
+    
+    /**
+     * Ask the server how much it has received, keeping the current offset if it cannot be reached
+     */
+    private long resumeOffset(UploadSession session, long offset) {
+        try {
+            return documentService.getUploadSession(session.getSessionId()).getReceivedBytes();
+        } catch (RemoteException ex) {
+            return offset;
+        }
+    }
+    
+    /**
+     * Discard a failed or cancelled session on the server
+     */
+    protected void abortQuietly(UploadSession session) {
+        try {
+            documentService.abortUpload(session.getSessionId());
+        } catch (RemoteException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
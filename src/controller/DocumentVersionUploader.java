@@ -0,0 +1,143 @@
+package controller;
+
+import model.BlockSignature;
+import model.Document;
+import model.DocumentVersion;
+import model.UploadSession;
+import service.DocumentService;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Uploads a new revision of an existing document. Instead of the whole file
+ * only a {@link BinaryDelta} against the current revision is sent: the block
+ * signature of the current revision is computed from the local document
+ * cache when it holds the file, or fetched from the server otherwise, and
+ * the delta goes through the usual chunked upload with checksums and resume.
+ * The server applies the delta, checks the result against the new content
+ * hash and keeps the revision stored as a delta.
+ * 
+ * A full upload is used instead when the document has no stored content to
+ * diff against or when the delta would not be smaller than the file.
+ */
+public class DocumentVersionUploader extends DocumentUploader {
+    private long transferredBytes;
+    
+    /**
+     * Constructor
+     * 
+     * @param documentService The remote document service
+     * @param listener Progress listener, or null
+     */
+    public DocumentVersionUploader(DocumentService documentService, TransferListener listener) {
+        super(documentService, listener);
+    }
+    
+    /**
+     * Upload a file as the newest revision of a document
+     * 
+     * @param document The document, with the content hash of its current revision
+     * @param file The new revision
+     * @param version The version metadata; content hash and size are filled in from the file
+     * @return The created version
+     * @throws IOException If the file is unchanged, cannot be read, or the upload keeps failing or is cancelled
+     */
+    public DocumentVersion uploadVersion(Document document, File file, DocumentVersion version) throws IOException {
+        deduplicated = false;
+        String contentHash = ContentHasher.sha256(file);
+        if (contentHash.equals(document.getContentHash())) {
+            throw new IOException("The file is identical to the current version");
+        }
+        version.setDocumentId(document.getId());
+        version.setContentHash(contentHash);
+        version.setFileSize(file.length());
+        
+        if (documentService.hasBlob(contentHash)) {
+            checkCancelled();
+            DocumentVersion result = documentService.createVersionFromBlob(version);
+            if (result != null) {
+                deduplicated = true;
+                transferredBytes = 0;
+                return result;
+            }
+        }
+        
+        BlockSignature signature = getSignature(document);
+        if (signature != null) {
+            Path delta = Files.createTempFile("document", ".delta");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(delta))) {
+                    BinaryDelta.encode(signature, file.toPath(), out);
+                }
+                if (Files.size(delta) < file.length()) {
+                    version.setBaseHash(signature.getContentHash());
+                    return uploadDelta(delta, version);
+                }
+            } finally {
+                Files.deleteIfExists(delta);
+            }
+        }
+        
+        // Nothing to diff against, or the revision shares too little with the previous one
+        version.setBaseHash(null);
+        uploadContent(file);
+        transferredBytes = deduplicated ? 0 : file.length();
+        checkCancelled();
+        return documentService.createVersionFromBlob(version);
+    }
+    
+    /**
+     * Get the number of bytes sent for the last upload: the delta size, or the
+     * file size if the file was sent in full
+     * 
+     * @return The bytes transferred
+     */
+    public long getTransferredBytes() {
+        return transferredBytes;
+    }
+    
+    /**
+     * Get the block signature of the document's current revision, preferring
+     * the local cache over a round trip to the server
+     */
+    private BlockSignature getSignature(Document document) throws IOException {
+        if (document.getContentHash() == null) {
+            return null;
+        }
+        
+        int blockSize = BinaryDelta.chooseBlockSize(document.getFileSize());
+        Path cached = DocumentCache.getInstance().lookup(document.getContentHash());
+        if (cached != null) {
+            return BinaryDelta.signature(cached, document.getContentHash(), blockSize);
+        }
+        checkCancelled();
+        return documentService.getBlockSignature(document.getContentHash(), blockSize);
+    }
+    
+    /**
+     * Send a delta file and commit it as a new version
+     */
+    private DocumentVersion uploadDelta(Path delta, DocumentVersion version) throws IOException {
+        try (FileChannel channel = FileChannel.open(delta, StandardOpenOption.READ)) {
+            long deltaSize = channel.size();
+            UploadSession session = documentService.beginDeltaUpload(
+                version.getBaseHash(), version.getContentHash(), deltaSize, CHUNK_SIZE);
+            
+            try {
+                sendChunks(channel, session, deltaSize);
+                transferredBytes = deltaSize;
+                return documentService.commitVersion(session.getSessionId(), version);
+            } catch (IOException | RuntimeException ex) {
+                abortQuietly(session);
+                throw ex;
+            }
+        }
+    }
+}
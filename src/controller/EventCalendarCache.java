@@ -0,0 +1,207 @@
+package controller;
+
+import model.Event;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side cache of calendar events organised in month windows.
+ * Each loaded month is held as an {@link EventIntervalIndex}; the months on
+ * either side of the one being viewed can be prefetched in the background so
+ * that month navigation does not wait on the server. Windows are dropped
+ * whenever {@link EventController} reports an event change.
+ */
+public class EventCalendarCache {
+    private final EventController eventController;
+    private final Map<YearMonth, EventIntervalIndex> windows = new ConcurrentHashMap<>();
+    private final Map<YearMonth, Future<EventIntervalIndex>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService prefetchExecutor;
+    
+    /**
+     * Constructor
+     * 
+     * @param eventController The controller used to load events and to listen for changes
+     */
+    public EventCalendarCache(EventController eventController) {
+        this.eventController = eventController;
+        this.prefetchExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "calendar-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        EventController.addEventChangeListener(this::invalidateEvent);
+    }
+    
+    /**
+     * Get a month window only if it is already loaded
+     * 
+     * @param month The month
+     * @return The month's index, or null if it has not been loaded
+     */
+    public EventIntervalIndex getCachedMonth(YearMonth month) {
+        return windows.get(month);
+    }
+    
+    /**
+     * Get a month window as it was last loaded from the server, possibly in
+     * an earlier session, for showing while the month is fetched
+     * 
+     * @param month The month
+     * @return The saved month's index, or null if the month was never saved
+     */
+    public EventIntervalIndex getSavedMonth(YearMonth month) {
+        List<Event> events = SnapshotStore.getInstance().load(SnapshotStore.eventMonthKey(month));
+        return events != null ? new EventIntervalIndex(events) : null;
+    }
+    
+    /**
+     * Get a month window, loading it from the server if needed. This call may
+     * block and should not be made on the event dispatch thread.
+     * 
+     * @param month The month
+     * @return The month's index, or null if the events could not be loaded
+     */
+    public EventIntervalIndex getMonth(YearMonth month) {
+        EventIntervalIndex cached = windows.get(month);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Future<EventIntervalIndex> inFlight = pending.get(month);
+        if (inFlight != null) {
+            try {
+                EventIntervalIndex prefetched = inFlight.get();
+                if (prefetched != null) {
+                    return prefetched;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException ex) {
+                ex.printStackTrace();
+            }
+        }
+        
+        return loadMonth(month);
+    }
+    
+    /**
+     * Load the months before and after the given month in the background
+     * 
+     * @param month The month being viewed
+     */
+    public void prefetchAdjacent(YearMonth month) {
+        prefetch(month.minusMonths(1));
+        prefetch(month.plusMonths(1));
+    }
+    
+    /**
+     * Find all events touching an inclusive date range, loading any months
+     * that are not cached yet. Suitable for week and agenda views.
+     * 
+     * @param startDate First day of the range
+     * @param endDate Last day of the range
+     * @return Events ordered by start, or null if a month could not be loaded
+     */
+    public List<Event> findEvents(LocalDate startDate, LocalDate endDate) {
+        Map<Integer, Event> found = new LinkedHashMap<>();
+        YearMonth last = YearMonth.from(endDate);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+            EventIntervalIndex index = getMonth(month);
+            if (index == null) {
+                return null;
+            }
+            for (Event event : index.findInRange(startDate, endDate)) {
+                found.putIfAbsent(event.getId(), event);
+            }
+        }
+        
+        List<Event> result = new ArrayList<>(found.values());
+        result.sort(Comparator.comparing(Event::getStartDateTime));
+        return result;
+    }
+    
+    /**
+     * Drop the windows an event belongs to, both where it is now and wherever
+     * it was cached before a change
+     * 
+     * @param event The created, updated or deleted event
+     */
+    public void invalidateEvent(Event event) {
+        generation.incrementAndGet();
+        pending.clear();
+        
+        if (event.getEventDate() != null) {
+            // A window also holds the last day of the previous month
+            windows.remove(YearMonth.from(event.getEventDate()));
+            windows.remove(YearMonth.from(event.getEventDate().plusDays(1)));
+        }
+        windows.values().removeIf(index -> index.containsEvent(event.getId()));
+    }
+    
+    /**
+     * Drop every cached window
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        pending.clear();
+        windows.clear();
+    }
+    
+    /**
+     * Schedule a background load of a month unless it is cached or already loading
+     */
+    private void prefetch(YearMonth month) {
+        if (windows.containsKey(month)) {
+            return;
+        }
+        
+        FutureTask<EventIntervalIndex> task = new FutureTask<EventIntervalIndex>(() -> loadMonth(month)) {
+            @Override
+            protected void done() {
+                pending.remove(month, this);
+            }
+        };
+        
+        if (pending.putIfAbsent(month, task) == null) {
+            prefetchExecutor.execute(task);
+        }
+    }
+    
+    /**
+     * Load a month window from the server. The window covers the whole month
+     * plus the day before it, so events running past midnight into the 1st are
+     * included. The result is only cached if no invalidation happened meanwhile
+     * and it came from the server rather than from the saved snapshot.
+     */
+    private EventIntervalIndex loadMonth(YearMonth month) {
+        long loadGeneration = generation.get();
+        
+        List<Event> events = eventController.findEventsByDateRange(
+            month.atDay(1).minusDays(1), month.atEndOfMonth(), SnapshotStore.eventMonthKey(month));
+        if (events == null) {
+            return null;
+        }
+        
+        EventIntervalIndex index = new EventIntervalIndex(events);
+        if (generation.get() == loadGeneration && !SnapshotStore.getInstance().isOffline()) {
+            windows.put(month, index);
+        }
+        return index;
+    }
+}
@@ -2,12 +2,15 @@ package controller;
 
 import model.Event;
 import model.Case;
+import model.Mutation;
 import service.EventService;
 import service.CaseService;
 
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.time.LocalDate;
 
 /**
@@ -17,6 +20,7 @@ public class EventController {
     private EventService eventService;
     private CaseService caseService;
     private Registry registry;
+    private static final List<Consumer<Event>> changeListeners = new CopyOnWriteArrayList<>();
     
     // RMI server configuration
     private static final String RMI_HOST = "127.0.0.1";
@@ -31,8 +35,8 @@ public class EventController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stubs
-            eventService = (EventService) registry.lookup("eventService");
-            caseService = (CaseService) registry.lookup("caseService");
+            eventService = (EventService) ServiceStubs.lookup(registry, "eventService");
+            caseService = (CaseService) ServiceStubs.lookup(registry, "caseService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -40,6 +44,36 @@ public class EventController {
         }
     }
     
+    /**
+     * Register a listener notified after an event is created, updated or deleted
+     * through any controller, or a queued change to it reaches the server
+     * 
+     * @param listener The listener, called with the changed event
+     */
+    public static void addEventChangeListener(Consumer<Event> listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered change listener
+     * 
+     * @param listener The listener to remove
+     */
+    public static void removeEventChangeListener(Consumer<Event> listener) {
+        changeListeners.remove(listener);
+    }
+    
+    /**
+     * Notify change listeners about an event
+     * 
+     * @param event The changed event
+     */
+    static void fireEventChanged(Event event) {
+        for (Consumer<Event> listener : changeListeners) {
+            listener.accept(event);
+        }
+    }
+    
     /**
      * Get all events
      * 
@@ -149,6 +183,26 @@ public class EventController {
         }
     }
     
+    /**
+     * Find events by date range and save them under a snapshot key. While the
+     * server is unreachable, the events saved under the key are returned instead.
+     * 
+     * @param startDate Start date of the range
+     * @param endDate End date of the range
+     * @param snapshotKey The key the range is saved under
+     * @return List of events in the date range
+     */
+    public List<Event> findEventsByDateRange(LocalDate startDate, LocalDate endDate, String snapshotKey) {
+        try {
+            List<Event> events = eventService.findEventsByDateRange(startDate, endDate);
+            SnapshotStore.getInstance().save(snapshotKey, events);
+            return events;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return SnapshotStore.getInstance().loadOffline(snapshotKey, ex);
+        }
+    }
+    
     /**
      * Find events by status
      * 
@@ -179,34 +233,51 @@ public class EventController {
     }
     
     /**
-     * Create a new event
+     * Create a new event. While the server cannot be reached, or earlier changes
+     * are still queued, the change is queued in the outbox and sent later.
      * 
      * @param event The event to create
-     * @return true if successful
+     * @return true if saved or queued
      */
     public boolean createEvent(Event event) {
         try {
+            if (MutationOutbox.enqueueIfQueueing(Mutation.CREATE, Mutation.EVENT, 0, 0, event)) {
+                return true;
+            }
+            
             Event result = eventService.createEvent(event);
+            if (result != null) {
+                fireEventChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return false;
+            return MutationOutbox.queueIfUnreachable(ex, Mutation.CREATE, Mutation.EVENT, 0, 0, event);
         }
     }
     
     /**
-     * Update an existing event
+     * Update an existing event. While the server cannot be reached, or earlier changes
+     * are still queued, the change is queued in the outbox and sent later.
      * 
      * @param event The event to update
-     * @return true if successful
+     * @return true if saved or queued
      */
     public boolean updateEvent(Event event) {
         try {
+            if (MutationOutbox.enqueueIfQueueing(Mutation.UPDATE, Mutation.EVENT, event.getId(), event.getVersion(), event)) {
+                return true;
+            }
+            
             Event result = eventService.updateEvent(event);
+            if (result != null) {
+                fireEventChanged(event);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return false;
+            return MutationOutbox.queueIfUnreachable(ex, Mutation.UPDATE, Mutation.EVENT,
+                                                     event.getId(), event.getVersion(), event);
         }
     }
     
@@ -222,6 +293,9 @@ public class EventController {
             Event searchEvent = new Event();
             searchEvent.setId(eventId);
             Event result = eventService.updateEventStatus(searchEvent, status);
+            if (result != null) {
+                fireEventChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -240,6 +314,9 @@ public class EventController {
             Event searchEvent = new Event();
             searchEvent.setId(eventId);
             Event result = eventService.deleteEvent(searchEvent);
+            if (result != null) {
+                fireEventChanged(searchEvent);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -0,0 +1,145 @@
+package controller;
+
+import model.Event;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only interval index over events, keyed by the span from each event's
+ * start to its end. Events are kept sorted by start together with the longest
+ * span in the set, so an overlap query only scans the events that can
+ * possibly reach into the requested range.
+ */
+public class EventIntervalIndex {
+    private final Event[] events;
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+    private final Duration longestSpan;
+    
+    /**
+     * Build an index over the given events. Events without a date are ignored.
+     * 
+     * @param source The events to index
+     */
+    public EventIntervalIndex(Collection<Event> source) {
+        List<Event> dated = new ArrayList<>();
+        if (source != null) {
+            for (Event event : source) {
+                if (event != null && event.getEventDate() != null) {
+                    dated.add(event);
+                }
+            }
+        }
+        dated.sort(Comparator.comparing(Event::getStartDateTime));
+        
+        this.events = dated.toArray(new Event[0]);
+        this.starts = new LocalDateTime[events.length];
+        this.ends = new LocalDateTime[events.length];
+        
+        Duration longest = Duration.ZERO;
+        for (int i = 0; i < events.length; i++) {
+            starts[i] = events[i].getStartDateTime();
+            ends[i] = events[i].getEndDateTime();
+            Duration span = Duration.between(starts[i], ends[i]);
+            if (span.compareTo(longest) > 0) {
+                longest = span;
+            }
+        }
+        this.longestSpan = longest;
+    }
+    
+    /**
+     * Find the events overlapping the half-open range [from, to). Events with no
+     * duration match when their start falls inside the range.
+     * 
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @return Matching events ordered by start
+     */
+    public List<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        if (events.length == 0 || !from.isBefore(to)) {
+            return Collections.emptyList();
+        }
+        
+        List<Event> result = new ArrayList<>();
+        for (int i = firstStartAtOrAfter(from.minus(longestSpan)); i < events.length; i++) {
+            if (!starts[i].isBefore(to)) {
+                break;
+            }
+            if (ends[i].isAfter(from) || !starts[i].isBefore(from)) {
+                result.add(events[i]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Find the events touching a single day
+     * 
+     * @param date The day
+     * @return Matching events ordered by start
+     */
+    public List<Event> findOnDate(LocalDate date) {
+        return findInRange(date, date);
+    }
+    
+    /**
+     * Find the events touching any day of an inclusive date range, as used by
+     * week and agenda views
+     * 
+     * @param startDate First day of the range
+     * @param endDate Last day of the range
+     * @return Matching events ordered by start
+     */
+    public List<Event> findInRange(LocalDate startDate, LocalDate endDate) {
+        return findOverlapping(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    /**
+     * Check whether an event with the given ID is indexed
+     * 
+     * @param eventId The event ID
+     * @return true if the event is in this index
+     */
+    public boolean containsEvent(int eventId) {
+        for (Event event : events) {
+            if (event.getId() == eventId) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Get the number of indexed events
+     * 
+     * @return The event count
+     */
+    public int size() {
+        return events.length;
+    }
+    
+    /**
+     * Binary search for the first event starting at or after the given moment
+     */
+    private int firstStartAtOrAfter(LocalDateTime moment) {
+        int low = 0;
+        int high = events.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid].isBefore(moment)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
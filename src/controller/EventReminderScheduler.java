@@ -0,0 +1,138 @@
+package controller;
+
+import model.Event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Schedules event reminders locally. Upcoming reminder-bearing events are
+ * fetched from the server once when the scheduler starts; after that each
+ * reminder is timed on the client and kept in step through the change
+ * notifications of the {@link EventController}, so the server is never polled.
+ */
+public class EventReminderScheduler {
+    private final EventController eventController;
+    private final Consumer<Event> reminderHandler;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Integer, PendingReminder> scheduledReminders = new ConcurrentHashMap<>();
+    private final Consumer<Event> changeListener = this::reschedule;
+    
+    /**
+     * Constructor
+     * 
+     * @param eventController The controller used for the initial fetch and change notifications
+     * @param reminderHandler Called on the scheduler thread when a reminder is due
+     */
+    public EventReminderScheduler(EventController eventController, Consumer<Event> reminderHandler) {
+        this.eventController = eventController;
+        this.reminderHandler = reminderHandler;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Fetch the upcoming reminders in the background and start tracking event changes
+     */
+    public void start() {
+        EventController.addEventChangeListener(changeListener);
+        scheduler.execute(() -> {
+            List<Event> events = eventController.findUpcomingEventsWithReminders();
+            if (events != null) {
+                for (Event event : events) {
+                    reschedule(event);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Stop tracking changes and cancel all pending reminders
+     */
+    public void shutdown() {
+        EventController.removeEventChangeListener(changeListener);
+        scheduler.shutdownNow();
+        scheduledReminders.clear();
+    }
+    
+    /**
+     * Get the number of reminders waiting to fire
+     * 
+     * @return Pending reminder count
+     */
+    public int getPendingCount() {
+        return scheduledReminders.size();
+    }
+    
+    /**
+     * Replace any reminder scheduled for the event with one matching its
+     * current state. Deleted, completed or cancelled events and events that
+     * have already started are only cancelled.
+     * 
+     * @param event The created, updated or deleted event
+     */
+    public synchronized void reschedule(Event event) {
+        PendingReminder previous = scheduledReminders.remove(event.getId());
+        if (previous != null) {
+            previous.future.cancel(false);
+        }
+        
+        if (!isReminderPending(event) || scheduler.isShutdown()) {
+            return;
+        }
+        
+        // A reminder whose time has already passed fires right away
+        LocalDateTime remindAt = event.getStartDateTime().minusDays(event.getReminderDays());
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), remindAt).toMillis());
+        
+        PendingReminder reminder = new PendingReminder(event);
+        reminder.future = scheduler.schedule(reminder, delayMillis, TimeUnit.MILLISECONDS);
+        scheduledReminders.put(event.getId(), reminder);
+    }
+    
+    /**
+     * Check whether an event still needs a reminder
+     */
+    private boolean isReminderPending(Event event) {
+        if (!event.isReminderSet() || event.getEventDate() == null) {
+            return false;
+        }
+        if ("Completed".equalsIgnoreCase(event.getStatus()) || "Cancelled".equalsIgnoreCase(event.getStatus())) {
+            return false;
+        }
+        return event.getStartDateTime().isAfter(LocalDateTime.now());
+    }
+    
+    /**
+     * A scheduled reminder for one event
+     */
+    private class PendingReminder implements Runnable {
+        private final Event event;
+        private ScheduledFuture<?> future;
+        
+        PendingReminder(Event event) {
+            this.event = event;
+        }
+        
+        @Override
+        public void run() {
+            synchronized (EventReminderScheduler.this) {
+                if (!scheduledReminders.remove(event.getId(), this)) {
+                    return;
+                }
+            }
+            reminderHandler.accept(event);
+        }
+    }
+}
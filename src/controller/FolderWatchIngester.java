@@ -0,0 +1,585 @@
+package controller;
+
+import model.Case;
+import model.Document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in ingestion of documents dropped into watched folders, such as the
+ * output folder of a network scanner.
+ * 
+ * Each watched folder is tied to a default case and a document type; a file
+ * that mentions another open case's number goes to that case instead. A WatchService
+ * reports new and changed files; a file is only picked up once its size and
+ * modification time have stayed the same for a quiet period, so files still
+ * being written by the scanner are left alone. Ready files are uploaded in
+ * batches through {@link DocumentBulkImporter}, which streams their content
+ * and creates all records of a batch in one call.
+ * 
+ * Before upload each file is claimed by an atomic move into a "Processing"
+ * subfolder and imported from there, never from the watched folder itself.
+ * When several clients watch the same shared folder only the one whose move
+ * succeeds imports the file; the others skip it. Imported files are then
+ * moved on to "Imported" and files that keep failing to "Failed". A file
+ * that cannot be moved on stays in "Processing" and is not imported again.
+ * 
+ * The configuration is kept in ~/.legalcase/watch-folders.properties.
+ */
+public class FolderWatchIngester {
+    private static final long QUIET_PERIOD_MILLIS = 3000;
+    private static final long CHECK_INTERVAL_MILLIS = 1000;
+    private static final int BATCH_SIZE = 25;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 30000;
+    private static final String PROCESSING_FOLDER = "Processing";
+    private static final String IMPORTED_FOLDER = "Imported";
+    private static final String FAILED_FOLDER = "Failed";
+    private static FolderWatchIngester instance;
+    
+    private final Path configFile;
+    private final List<WatchedFolder> folders = new CopyOnWriteArrayList<>();
+    private final Map<Path, PendingFile> pending = new ConcurrentHashMap<>();
+    private boolean enabled;
+    
+    private WatchService watchService;
+    private ScheduledExecutorService scheduler;
+    private Thread watchThread;
+    private DocumentController documentController;
+    
+    // Statistics, guarded by this
+    private long ingestedCount;
+    private long failedCount;
+    private long lastLagMillis;
+    private long totalLagMillis;
+    
+    /**
+     * A folder watched for new documents
+     */
+    public static class WatchedFolder {
+        private final Path directory;
+        private final int caseId;
+        private final String caseLabel;
+        private final String documentType;
+        
+        public WatchedFolder(Path directory, int caseId, String caseLabel, String documentType) {
+            this.directory = directory;
+            this.caseId = caseId;
+            this.caseLabel = caseLabel;
+            this.documentType = documentType;
+        }
+        
+        public Path getDirectory() { return directory; }
+        
+        public int getCaseId() { return caseId; }
+        
+        public String getCaseLabel() { return caseLabel; }
+        
+        public String getDocumentType() { return documentType; }
+    }
+    
+    /**
+     * A file seen in a watched folder that has not been ingested yet
+     */
+    private static class PendingFile {
+        private final WatchedFolder folder;
+        private final long firstSeenMillis;
+        private long size = -1;
+        private long lastModified = -1;
+        private long stableSinceMillis;
+        private long retryAtMillis;
+        private int attempts;
+        private boolean claimed;
+        
+        PendingFile(WatchedFolder folder, long now) {
+            this.folder = folder;
+            this.firstSeenMillis = now;
+            this.stableSinceMillis = now;
+        }
+    }
+    
+    /**
+     * Get the shared ingester, loading the saved configuration on first use
+     * 
+     * @return The ingester instance
+     */
+    public static synchronized FolderWatchIngester getInstance() {
+        if (instance == null) {
+            instance = new FolderWatchIngester(
+                Paths.get(System.getProperty("user.home"), ".legalcase", "watch-folders.properties"));
+        }
+        return instance;
+    }
+    
+    /**
+     * Constructor - loads the configuration from the given file
+     * 
+     * @param configFile The configuration file
+     */
+    public FolderWatchIngester(Path configFile) {
+        this.configFile = configFile;
+        loadConfiguration();
+    }
+    
+    /**
+     * Check if ingestion is switched on
+     * 
+     * @return true if enabled
+     */
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Switch ingestion on or off and save the setting. Starts or stops watching as needed.
+     * 
+     * @param enabled true to ingest from the watched folders
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        saveConfiguration();
+        if (enabled) {
+            start();
+        } else {
+            stop();
+        }
+    }
+    
+    /**
+     * Get the watched folders
+     * 
+     * @return The folders
+     */
+    public List<WatchedFolder> getFolders() {
+        return new ArrayList<>(folders);
+    }
+    
+    /**
+     * Replace the watched folders and save them. Restarts watching if it is running.
+     * 
+     * @param newFolders The folders to watch
+     */
+    public synchronized void setFolders(List<WatchedFolder> newFolders) {
+        folders.clear();
+        folders.addAll(newFolders);
+        saveConfiguration();
+        if (isRunning()) {
+            stop();
+            start();
+        }
+    }
+    
+    /**
+     * Start watching if ingestion is enabled and there are folders to watch
+     */
+    public synchronized void start() {
+        if (!enabled || isRunning() || folders.isEmpty()) {
+            return;
+        }
+        
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (WatchedFolder folder : folders) {
+                if (Files.isDirectory(folder.getDirectory())) {
+                    folder.getDirectory().register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                    // Pick up files dropped while the application was not running
+                    scanFolder(folder);
+                }
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            closeWatchService();
+            return;
+        }
+        
+        WatchService service = watchService;
+        watchThread = new Thread(() -> watchLoop(service), "folder-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "folder-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::ingestReadyFiles,
+            CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stop watching. Files already detected are picked up again on the next start;
+     * files already claimed stay queued so they are finished after a restart.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        closeWatchService();
+        watchThread = null;
+        pending.values().removeIf(state -> !state.claimed);
+    }
+    
+    /**
+     * Check if the folders are being watched
+     * 
+     * @return true if running
+     */
+    public synchronized boolean isRunning() {
+        return watchService != null;
+    }
+    
+    /**
+     * Get ingestion statistics for display
+     * 
+     * @return Map with queueDepth, ingestedCount, failedCount, lastLagMillis and averageLagMillis
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", pending.size());
+        stats.put("ingestedCount", ingestedCount);
+        stats.put("failedCount", failedCount);
+        stats.put("lastLagMillis", lastLagMillis);
+        stats.put("averageLagMillis", ingestedCount == 0 ? 0L : totalLagMillis / ingestedCount);
+        return stats;
+    }
+    
+    /**
+     * Receive file events until the watch service is closed
+     */
+    private void watchLoop(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                WatchedFolder folder = findFolder(directory);
+                
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost; rescan the folder
+                        if (folder != null) {
+                            scanFolder(folder);
+                        }
+                    } else if (folder != null) {
+                        addPending(folder, directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // Stopped
+        }
+    }
+    
+    /**
+     * Queue every file currently in a folder
+     */
+    private void scanFolder(WatchedFolder folder) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder.getDirectory())) {
+            for (Path file : stream) {
+                addPending(folder, file);
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Track a file for ingestion unless it is a folder, hidden or a temporary file
+     */
+    private void addPending(WatchedFolder folder, Path file) {
+        String name = file.getFileName().toString();
+        if (name.startsWith(".") || name.startsWith("~") || name.endsWith(".tmp") || name.endsWith(".part")
+                || !Files.isRegularFile(file)) {
+            return;
+        }
+        pending.putIfAbsent(file, new PendingFile(folder, System.currentTimeMillis()));
+    }
+    
+    /**
+     * Upload the files that have stopped changing, in batches per folder
+     */
+    private void ingestReadyFiles() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<WatchedFolder, List<Path>> batches = new LinkedHashMap<>();
+            
+            Iterator<Map.Entry<Path, PendingFile>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, PendingFile> entry = iterator.next();
+                Path file = entry.getKey();
+                PendingFile state = entry.getValue();
+                if (!Files.isRegularFile(file)) {
+                    iterator.remove();
+                    continue;
+                }
+                
+                long size = Files.size(file);
+                long lastModified = Files.getLastModifiedTime(file).toMillis();
+                if (size != state.size || lastModified != state.lastModified) {
+                    state.size = size;
+                    state.lastModified = lastModified;
+                    state.stableSinceMillis = now;
+                } else if (size > 0 && now - state.stableSinceMillis >= QUIET_PERIOD_MILLIS && now >= state.retryAtMillis) {
+                    List<Path> batch = batches.computeIfAbsent(state.folder, f -> new ArrayList<>());
+                    if (batch.size() < BATCH_SIZE) {
+                        batch.add(file);
+                    }
+                }
+            }
+            
+            for (Map.Entry<WatchedFolder, List<Path>> batch : batches.entrySet()) {
+                ingestBatch(batch.getKey(), batch.getValue());
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Keep the scheduled task alive; the files are retried on the next check
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Upload one batch of files into the folder's case, or the case each file mentions
+     */
+    private void ingestBatch(WatchedFolder folder, List<Path> batch) {
+        Case legalCase = new Case();
+        legalCase.setId(folder.getCaseId());
+        Document template = new Document();
+        template.setCase(legalCase);
+        template.setDocumentType(folder.getDocumentType());
+        template.setStatus("Active");
+        template.setDescription("Imported from " + folder.getDirectory());
+        template.setCreatedBy(1);
+        
+        List<File> files = new ArrayList<>();
+        for (Path file : batch) {
+            Path claimed = claim(folder, file);
+            if (claimed != null) {
+                files.add(claimed.toFile());
+            }
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+        
+        List<DocumentBulkImporter.FileResult> results;
+        try {
+            if (documentController == null) {
+                documentController = new DocumentController();
+            }
+            DocumentBulkImporter importer = documentController.createBulkImporter(null);
+            importer.setCaseMatcher(CaseNumberMatcher.getInstance());
+            importer.setIndexing(false);
+            results = importer.importFiles(files, template);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException ex) {
+            // The server cannot be reached; wait before trying the batch again,
+            // without counting it against the files
+            ex.printStackTrace();
+            long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+            for (File file : files) {
+                PendingFile state = pending.get(file.toPath());
+                if (state != null) {
+                    state.retryAtMillis = retryAt;
+                }
+            }
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        for (DocumentBulkImporter.FileResult result : results) {
+            Path file = result.getFile().toPath();
+            PendingFile state = pending.get(file);
+            if (result.isSuccess()) {
+                pending.remove(file);
+                // Index the file where it ends up, since indexing reads it in the background
+                Path moved = moveToSubfolder(folder, file, IMPORTED_FOLDER);
+                DocumentIndexer.getInstance().indexFile(result.getDocument(), (moved != null ? moved : file).toFile());
+                recordIngested(state != null ? now - state.firstSeenMillis : 0);
+            } else if (result.isUnreachable()) {
+                // Lost connection, not a bad file; retry without counting the attempt
+                if (state != null) {
+                    state.retryAtMillis = now + RETRY_DELAY_MILLIS;
+                }
+            } else if (state != null && ++state.attempts >= MAX_ATTEMPTS) {
+                pending.remove(file);
+                moveToSubfolder(folder, file, FAILED_FOLDER);
+                recordFailed();
+            } else if (state != null) {
+                state.retryAtMillis = now + RETRY_DELAY_MILLIS * state.attempts;
+            }
+        }
+    }
+    
+    private synchronized void recordIngested(long lagMillis) {
+        ingestedCount++;
+        lastLagMillis = lagMillis;
+        totalLagMillis += lagMillis;
+    }
+    
+    private synchronized void recordFailed() {
+        failedCount++;
+    }
+    
+    /**
+     * Claim a ready file for this client by moving it into the Processing subfolder
+     * 
+     * @return The claimed path to import from, or null to skip the file
+     */
+    private Path claim(WatchedFolder folder, Path file) {
+        PendingFile state = pending.get(file);
+        if (state == null) {
+            return null;
+        }
+        if (state.claimed) {
+            // Claimed on an earlier attempt
+            return file;
+        }
+        
+        Path claimed = moveToSubfolder(folder, file, PROCESSING_FOLDER);
+        if (claimed == null) {
+            if (Files.exists(file)) {
+                // Still locked by the writer; try to claim it again later
+                state.retryAtMillis = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+            } else {
+                // Another client claimed it first
+                pending.remove(file);
+            }
+            return null;
+        }
+        pending.remove(file);
+        state.claimed = true;
+        pending.put(claimed, state);
+        return claimed;
+    }
+    
+    /**
+     * Move a file into a subfolder of its watched folder, keeping its name unique
+     * 
+     * @return The new path, or null if the file could not be moved
+     */
+    private Path moveToSubfolder(WatchedFolder folder, Path file, String subfolder) {
+        try {
+            Path directory = Files.createDirectories(folder.getDirectory().resolve(subfolder));
+            Path target = directory.resolve(file.getFileName());
+            for (int i = 1; Files.exists(target); i++) {
+                target = directory.resolve(i + "-" + file.getFileName());
+            }
+            return Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Find the configuration of a watched directory
+     */
+    private WatchedFolder findFolder(Path directory) {
+        for (WatchedFolder folder : folders) {
+            if (folder.getDirectory().equals(directory)) {
+                return folder;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Close the watch service, which ends the watch thread
+     */
+    private void closeWatchService() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+            watchService = null;
+        }
+    }
+    
+    /**
+     * Load the enabled flag and watched folders
+     */
+    private void loadConfiguration() {
+        if (!Files.isRegularFile(configFile)) {
+            return;
+        }
+        
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(configFile)) {
+            properties.load(in);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return;
+        }
+        
+        enabled = Boolean.parseBoolean(properties.getProperty("enabled", "false"));
+        int count = Integer.parseInt(properties.getProperty("folder.count", "0"));
+        for (int i = 0; i < count; i++) {
+            String prefix = "folder." + i + ".";
+            String path = properties.getProperty(prefix + "path");
+            if (path == null) {
+                continue;
+            }
+            folders.add(new WatchedFolder(
+                Paths.get(path),
+                Integer.parseInt(properties.getProperty(prefix + "caseId", "0")),
+                properties.getProperty(prefix + "caseLabel", ""),
+                properties.getProperty(prefix + "documentType", "Other")));
+        }
+    }
+    
+    /**
+     * Save the enabled flag and watched folders
+     */
+    private void saveConfiguration() {
+        Properties properties = new Properties();
+        properties.setProperty("enabled", Boolean.toString(enabled));
+        properties.setProperty("folder.count", Integer.toString(folders.size()));
+        for (int i = 0; i < folders.size(); i++) {
+            WatchedFolder folder = folders.get(i);
+            String prefix = "folder." + i + ".";
+            properties.setProperty(prefix + "path", folder.getDirectory().toString());
+            properties.setProperty(prefix + "caseId", Integer.toString(folder.getCaseId()));
+            properties.setProperty(prefix + "caseLabel", folder.getCaseLabel());
+            properties.setProperty(prefix + "documentType", folder.getDocumentType());
+        }
+        
+        try {
+            Files.createDirectories(configFile.getParent());
+            try (OutputStream out = Files.newOutputStream(configFile)) {
+                properties.store(out, "Watched document folders");
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Text extractor for HTML files. Scripts, styles and comments are dropped,
+ * tags are replaced by spaces and character entities are decoded.
+ */
+public class HtmlTextExtractor implements TextExtractor {
+    private static final Pattern HIDDEN = Pattern.compile(
+        "<!--.*?-->|<(script|style)\\b[^>]*>.*?</\\1\\s*>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern ENTITY = Pattern.compile("&(#[xX]?[0-9a-fA-F]+|[a-zA-Z]+);");
+    
+    @Override
+    public boolean supports(String extension) {
+        return "HTML".equals(extension) || "HTM".equals(extension);
+    }
+    
+    @Override
+    public String extract(Path file) throws IOException {
+        String html = PlainTextExtractor.decode(Files.readAllBytes(file));
+        String text = TAG.matcher(HIDDEN.matcher(html).replaceAll(" ")).replaceAll(" ");
+        return decodeEntities(text);
+    }
+    
+    /**
+     * Replace character entities with the characters they stand for
+     */
+    private String decodeEntities(String text) {
+        Matcher matcher = ENTITY.matcher(text);
+        StringBuffer result = new StringBuffer(text.length());
+        while (matcher.find()) {
+            String replacement = decodeEntity(matcher.group(1));
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement != null ? replacement : matcher.group()));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+    
+    /**
+     * Decode a single entity name or numeric reference, or return null if unknown
+     */
+    private String decodeEntity(String entity) {
+        if (entity.startsWith("#")) {
+            try {
+                boolean hex = entity.length() > 1 && (entity.charAt(1) == 'x' || entity.charAt(1) == 'X');
+                int codePoint = hex ? Integer.parseInt(entity.substring(2), 16) : Integer.parseInt(entity.substring(1));
+                return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : null;
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        
+        switch (entity.toLowerCase()) {
+            case "amp": return "&";
+            case "lt": return "<";
+            case "gt": return ">";
+            case "quot": return "\"";
+            case "apos": return "'";
+            case "nbsp": return " ";
+            case "sect": return "§";
+            case "para": return "¶";
+            case "copy": return "©";
+            case "mdash": return "—";
+            case "ndash": return "–";
+            default: return null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package controller;
 
 import model.Invoice;
+import model.InvoiceEditorContext;
 import model.Payment;
 import model.TimeEntry;
 import service.InvoiceService;
@@ -10,6 +11,8 @@ import service.TimeEntryService;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.time.LocalDate;
 import java.math.BigDecimal;
 
@@ -22,6 +25,12 @@ public class InvoiceController {
     private TimeEntryService timeEntryService;
     private Registry registry;
     
+    private static final List<Consumer<Invoice>> changeListeners = new CopyOnWriteArrayList<>();
+    
+    // Invoice graphs from getInvoiceWithDetails, reused while their version is current
+    private static final DetailsCache<Invoice> invoiceDetails = new DetailsCache<>(50);
+    private static ReceivablesAging receivablesAging;
+    
     // RMI server configuration
     private static final String RMI_HOST = "127.0.0.1";
     private static final int RMI_PORT = 5555;
@@ -35,9 +44,9 @@ public class InvoiceController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stubs
-            invoiceService = (InvoiceService) registry.lookup("invoiceService");
-            paymentService = (PaymentService) registry.lookup("paymentService");
-            timeEntryService = (TimeEntryService) registry.lookup("timeEntryService");
+            invoiceService = (InvoiceService) ServiceStubs.lookup(registry, "invoiceService");
+            paymentService = (PaymentService) ServiceStubs.lookup(registry, "paymentService");
+            timeEntryService = (TimeEntryService) ServiceStubs.lookup(registry, "timeEntryService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -46,16 +55,72 @@ public class InvoiceController {
     }
     
     /**
-     * Get all invoices
+     * Register a listener notified after an invoice or one of its payments is
+     * created, updated or deleted. The listener may receive an invoice with
+     * only its ID set.
+     * 
+     * @param listener The listener to add
+     */
+    public static void addInvoiceChangeListener(Consumer<Invoice> listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered change listener
+     * 
+     * @param listener The listener to remove
+     */
+    public static void removeInvoiceChangeListener(Consumer<Invoice> listener) {
+        changeListeners.remove(listener);
+    }
+    
+    /**
+     * Notify change listeners about an invoice
+     * 
+     * @param invoice The changed invoice
+     */
+    static void fireInvoiceChanged(Invoice invoice) {
+        for (Consumer<Invoice> listener : changeListeners) {
+            listener.accept(invoice);
+        }
+    }
+    
+    /**
+     * Notify change listeners about an invoice known only by ID
+     * 
+     * @param invoiceId The changed invoice's ID
+     */
+    private static void fireInvoiceChanged(int invoiceId) {
+        Invoice invoice = new Invoice();
+        invoice.setId(invoiceId);
+        fireInvoiceChanged(invoice);
+    }
+    
+    /**
+     * Get the invoices saved at the last successful load, for showing something
+     * while the current list is fetched
+     * 
+     * @return The saved invoices, or null if none are saved
+     */
+    public List<Invoice> getSavedInvoices() {
+        return SnapshotStore.getInstance().load(SnapshotStore.INVOICES);
+    }
+    
+    /**
+     * Get all invoices. While the server is unreachable, the invoices saved at the
+     * last successful load are returned instead.
      * 
      * @return List of all invoices
      */
     public List<Invoice> getAllInvoices() {
         try {
-            return invoiceService.findAllInvoices();
+            List<Invoice> invoices = invoiceService.findAllInvoices();
+            SnapshotStore.getInstance().save(SnapshotStore.INVOICES, invoices);
+            return invoices;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return null;
+            // Fall back to the last loaded list while the server is unreachable
+            return SnapshotStore.getInstance().loadOffline(SnapshotStore.INVOICES, ex);
         }
     }
     
@@ -99,9 +164,26 @@ public class InvoiceController {
      */
     public Invoice getInvoiceWithDetails(int id) {
         try {
-            Invoice searchInvoice = new Invoice();
-            searchInvoice.setId(id);
-            return invoiceService.getInvoiceWithDetails(searchInvoice);
+            // Only transferred again if something in the graph changed
+            return invoiceDetails.fetch(id, knownVersion -> invoiceService.getInvoiceWithDetailsIfModified(id, knownVersion));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Load what the invoice editor shows with one call
+     * 
+     * @param invoiceId The invoice being edited, or 0 for a new invoice
+     * @param clientId The selected client, or 0 for the default
+     * @param caseId The selected case, or 0 for the default
+     * @param includeClients Whether to include the list of all clients
+     * @return The editor context, or null if it could not be loaded
+     */
+    public InvoiceEditorContext getInvoiceEditorContext(int invoiceId, int clientId, int caseId, boolean includeClients) {
+        try {
+            return invoiceService.getInvoiceEditorContext(invoiceId, clientId, caseId, includeClients);
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -184,7 +266,7 @@ public class InvoiceController {
     }
     
     /**
-     * Create a new invoice
+     * Create a new invoice. On success the invoice's ID is set.
      * 
      * @param invoice The invoice to create
      * @return true if successful
@@ -201,6 +283,10 @@ public class InvoiceController {
             }
             
             Invoice result = invoiceService.createInvoice(invoice);
+            if (result != null) {
+                invoice.setId(result.getId());
+                fireInvoiceChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -220,7 +306,11 @@ public class InvoiceController {
             // Generate invoice number
             String invoiceNumber = generateNextInvoiceNumber();
             
-            return invoiceService.createInvoiceFromUnbilledTimeEntries(caseId, invoiceNumber, dueDate);
+            Invoice result = invoiceService.createInvoiceFromUnbilledTimeEntries(caseId, invoiceNumber, dueDate);
+            if (result != null) {
+                fireInvoiceChanged(result);
+            }
+            return result;
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -236,6 +326,9 @@ public class InvoiceController {
     public boolean updateInvoice(Invoice invoice) {
         try {
             Invoice result = invoiceService.updateInvoice(invoice);
+            if (result != null) {
+                fireInvoiceChanged(result);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -255,6 +348,9 @@ public class InvoiceController {
             Invoice searchInvoice = new Invoice();
             searchInvoice.setId(invoiceId);
             Invoice result = invoiceService.updateInvoiceStatus(searchInvoice, status);
+            if (result != null) {
+                fireInvoiceChanged(invoiceId);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -273,6 +369,9 @@ public class InvoiceController {
             Invoice searchInvoice = new Invoice();
             searchInvoice.setId(invoiceId);
             Invoice result = invoiceService.deleteInvoice(searchInvoice);
+            if (result != null) {
+                fireInvoiceChanged(invoiceId);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -289,6 +388,9 @@ public class InvoiceController {
     public boolean updateInvoicePaidAmount(int invoiceId) {
         try {
             Invoice result = invoiceService.updateInvoicePaidAmount(invoiceId);
+            if (result != null) {
+                fireInvoiceChanged(invoiceId);
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -296,6 +398,37 @@ public class InvoiceController {
         }
     }
     
+    /**
+     * Recalculate the paid amount and status of several invoices in one call
+     * 
+     * @param invoiceIds The invoice IDs
+     * @return The invoices that changed, or null if the call failed
+     */
+    public List<Invoice> recalculateInvoices(int[] invoiceIds) {
+        try {
+            List<Invoice> changed = invoiceService.recalculateInvoices(invoiceIds);
+            if (changed != null) {
+                for (Invoice invoice : changed) {
+                    fireInvoiceChanged(invoice);
+                }
+            }
+            return changed;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Recalculate the paid amount and status of every invoice, for example
+     * after a payment import or a data correction
+     * 
+     * @return The invoices that changed, or null if the call failed
+     */
+    public List<Invoice> recalculateAllInvoices() {
+        return recalculateInvoices(null);
+    }
+    
     /**
      * Get time entries for an invoice
      * 
@@ -359,6 +492,40 @@ public class InvoiceController {
         }
     }
     
+    /**
+     * Create an importer that matches bank statement lines to open invoices
+     * 
+     * @return The importer
+     */
+    public BankStatementImporter createBankStatementImporter() {
+        return new BankStatementImporter(invoiceService, paymentService);
+    }
+    
+    /**
+     * Record the payments for matched bank statement lines in one call
+     * 
+     * @param importer The importer that analysed the statement
+     * @param matches The matched lines to record
+     * @param source A note naming the statement
+     * @return The created payments in the same order, with null where one was rejected,
+     *         or null if the call failed
+     */
+    public List<Payment> importBankPayments(BankStatementImporter importer,
+            List<BankStatementImporter.LineMatch> matches, String source) {
+        try {
+            List<Payment> created = importer.importPayments(matches, source);
+            for (Payment payment : created) {
+                if (payment != null && payment.getInvoice() != null) {
+                    fireInvoiceChanged(payment.getInvoice());
+                }
+            }
+            return created;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
     /**
      * Delete a payment
      * 
@@ -370,6 +537,13 @@ public class InvoiceController {
             Payment searchPayment = new Payment();
             searchPayment.setId(paymentId);
             Payment result = paymentService.deletePayment(searchPayment);
+            if (result != null) {
+                if (result.getInvoice() != null) {
+                    // Bring the invoice's paid amount and status back in line
+                    recalculateInvoices(new int[] { result.getInvoice().getId() });
+                }
+                fireInvoiceChanged(result.getInvoice() != null ? result.getInvoice() : new Invoice());
+            }
             return result != null;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -401,4 +575,54 @@ public class InvoiceController {
             return "INV" + System.currentTimeMillis();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Create a billing run that invoices every case with unbilled time up to a date
+     * 
+     * @param throughDate Time entries dated on or before this date are billed
+     * @param dueDate The due date of the created invoices
+     * @param listener Progress listener, or null
+     * @return The run, ready to start
+     */
+    public BillingRun createBillingRun(LocalDate throughDate, LocalDate dueDate, BillingRunListener listener) {
+        return new BillingRun(invoiceService, timeEntryService, listener, throughDate, dueDate);
+    }
+    
+    /**
+     * Load the billing run that was interrupted before finishing, if any
+     * 
+     * @param listener Progress listener, or null
+     * @return The interrupted run, or null if there is none
+     */
+    public BillingRun resumeBillingRun(BillingRunListener listener) {
+        return BillingRun.loadInterrupted(invoiceService, timeEntryService, listener);
+    }
+    
+    /**
+     * Get the accounts-receivable aging report as of today. The report is
+     * cached until an invoice or payment changes. This call may block and
+     * should not be made on the event dispatch thread.
+     * 
+     * @return The report, or null if it could not be built
+     */
+    public ReceivablesAging.Report getAgingReport() {
+        try {
+            return getReceivablesAging().getReport(LocalDate.now());
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Get the aging engine shared by all controllers
+     */
+    private ReceivablesAging getReceivablesAging() {
+        synchronized (InvoiceController.class) {
+            if (receivablesAging == null) {
+                receivablesAging = new ReceivablesAging(invoiceService, paymentService);
+            }
+            return receivablesAging;
+        }
+    }
+}
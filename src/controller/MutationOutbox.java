@@ -0,0 +1,592 @@
+package controller;
+
+import model.Case;
+import model.Client;
+import model.Event;
+import model.Mutation;
+import model.MutationResult;
+import service.SyncService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable queue of creates and updates made while the server cannot be
+ * reached.
+ * 
+ * A queued {@link Mutation} is written to a local {@link AppendOnlyLog}
+ * before the editor is told it was saved. A background thread replays the
+ * queue in order through {@link SyncService} in batches, retrying every few
+ * seconds until the server answers. Each mutation carries an idempotency key,
+ * so a batch sent again after a lost reply is not applied twice, and the
+ * version of the entity it was made to, so an update that would overwrite
+ * someone else's change comes back as a conflict.
+ * 
+ * Updates to the same entity still waiting to be sent are merged into one.
+ * Conflicts and rejections are kept until the user overwrites the server's
+ * copy or discards the change.
+ * 
+ * While anything is queued, further changes are queued behind it as well so
+ * that they reach the server in the order they were made.
+ * 
+ * A record that can no longer be decoded, for example after a model class
+ * changed, is moved to a quarantine file beside the outbox instead of
+ * keeping the outbox from opening.
+ */
+public class MutationOutbox {
+    public static final int BATCH_SIZE = 25;
+    
+    private static final long RETRY_INTERVAL_MILLIS = 5000;
+    private static final byte RECORD_QUEUED = 1;
+    private static final byte RECORD_APPLIED = 2;
+    private static final byte RECORD_FAILED = 3;
+    private static final byte RECORD_DROPPED = 4;
+    
+    // RMI server configuration
+    private static final String RMI_HOST = "127.0.0.1";
+    private static final int RMI_PORT = 5555;
+    
+    private static MutationOutbox instance;
+    
+    private final Path outboxFile;
+    private final AppendOnlyLog log;
+    private final Map<String, Mutation> pending = new LinkedHashMap<>();
+    private final Map<String, Failure> failures = new LinkedHashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService drainExecutor;
+    private SyncService syncService;
+    private long appliedCount;
+    private double drainRate;
+    
+    /**
+     * A queued mutation the server did not apply, with the server's answer
+     */
+    public static class Failure {
+        private final Mutation mutation;
+        private final MutationResult result;
+        
+        Failure(Mutation mutation, MutationResult result) {
+            this.mutation = mutation;
+            this.result = result;
+        }
+        
+        public Mutation getMutation() {
+            return mutation;
+        }
+        
+        public MutationResult getResult() {
+            return result;
+        }
+        
+        public boolean isConflict() {
+            return MutationResult.CONFLICT.equals(result.getStatus());
+        }
+    }
+    
+    /**
+     * Get the outbox, opening it and resuming the replay of queued changes
+     * the first time
+     * 
+     * @return The outbox
+     * @throws IOException If the outbox file cannot be opened
+     */
+    public static synchronized MutationOutbox getInstance() throws IOException {
+        if (instance == null) {
+            instance = new MutationOutbox(getDefaultOutboxFile());
+        }
+        return instance;
+    }
+    
+    private MutationOutbox(Path file) throws IOException {
+        this.outboxFile = file;
+        this.log = new AppendOnlyLog(file);
+        for (byte[] record : log.getRecoveredRecords()) {
+            apply(record);
+        }
+        if (log.getRecoveredRecords().size() > pending.size() + 2 * failures.size()) {
+            compact();
+        }
+        
+        this.drainExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainExecutor.scheduleWithFixedDelay(this::drain, 0, RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Queue a change if a failed server call means the server cannot be
+     * reached. Other failures, including ones after which the server may
+     * have applied the change, are left to the caller.
+     * 
+     * @param failure The exception the direct server call threw
+     * @param operation {@link Mutation#CREATE} or {@link Mutation#UPDATE}
+     * @param entityType The entity type, such as {@link Mutation#CASE}
+     * @param entityId The entity's ID, or 0 for a new entity
+     * @param baseVersion The version of the entity the change was made to
+     * @param entity The changed entity
+     * @return true if the change was queued
+     */
+    public static boolean queueIfUnreachable(Exception failure, String operation, String entityType,
+                                             int entityId, long baseVersion, Serializable entity) {
+        if (!ServiceStubs.isUnreachable(failure)) {
+            return false;
+        }
+        SnapshotStore.getInstance().setOffline(true);
+        try {
+            getInstance().enqueue(operation, entityType, entityId, baseVersion, entity);
+            return true;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Queue a change instead of sending it directly if {@link #isQueueing()}
+     * says so. If the outbox file cannot be opened nothing is queued and the
+     * caller sends the change directly, so a broken outbox never blocks saves
+     * while the server is reachable.
+     * 
+     * @param operation {@link Mutation#CREATE} or {@link Mutation#UPDATE}
+     * @param entityType The entity type, such as {@link Mutation#CASE}
+     * @param entityId The entity's ID, or 0 for a new entity
+     * @param baseVersion The version of the entity the change was made to
+     * @param entity The changed entity
+     * @return true if the change was queued
+     * @throws IOException If the outbox is open but the change cannot be written to it
+     */
+    public static boolean enqueueIfQueueing(String operation, String entityType, int entityId,
+                                            long baseVersion, Serializable entity) throws IOException {
+        MutationOutbox outbox;
+        try {
+            outbox = getInstance();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return false;
+        }
+        if (!outbox.isQueueing()) {
+            return false;
+        }
+        outbox.enqueue(operation, entityType, entityId, baseVersion, entity);
+        return true;
+    }
+    
+    /**
+     * Check whether changes should be queued rather than sent directly: the
+     * server is known to be unreachable or earlier changes are still queued
+     * 
+     * @return true if changes should be queued
+     */
+    public synchronized boolean isQueueing() {
+        return !pending.isEmpty() || SnapshotStore.getInstance().isOffline();
+    }
+    
+    /**
+     * Queue a change. It is on disk when this returns and is sent to the
+     * server in the background.
+     * 
+     * @param operation {@link Mutation#CREATE} or {@link Mutation#UPDATE}
+     * @param entityType The entity type, such as {@link Mutation#CASE}
+     * @param entityId The entity's ID, or 0 for a new entity
+     * @param baseVersion The version of the entity the change was made to
+     * @param entity The changed entity
+     * @return The change's idempotency key
+     * @throws IOException If the change cannot be written to the outbox
+     */
+    public String enqueue(String operation, String entityType, int entityId, long baseVersion,
+                          Serializable entity) throws IOException {
+        Mutation mutation = new Mutation(UUID.randomUUID().toString(), operation, entityType,
+                                         entityId, baseVersion, entity);
+        
+        synchronized (this) {
+            // A later update to an entity replaces an earlier one not yet sent
+            Mutation superseded = null;
+            if (Mutation.UPDATE.equals(operation)) {
+                for (Mutation queued : pending.values()) {
+                    if (queued.isSameEntity(mutation) && Mutation.UPDATE.equals(queued.getOperation())
+                            && !inFlight.contains(queued.getIdempotencyKey())) {
+                        superseded = queued;
+                    }
+                }
+            }
+            if (superseded != null) {
+                mutation.setBaseVersion(superseded.getBaseVersion());
+            }
+            
+            commit(queuedRecord(mutation));
+            if (superseded != null) {
+                commit(keyRecord(RECORD_DROPPED, superseded.getIdempotencyKey()));
+            }
+        }
+        
+        fireChanged();
+        drainExecutor.execute(this::drain);
+        return mutation.getIdempotencyKey();
+    }
+    
+    /**
+     * Send a conflicting change again, replacing whatever is on the server now
+     * 
+     * @param idempotencyKey The failed change's key
+     * @throws IOException If the outbox cannot be written
+     */
+    public void overwrite(String idempotencyKey) throws IOException {
+        Failure failure;
+        synchronized (this) {
+            failure = failures.get(idempotencyKey);
+            if (failure == null) {
+                return;
+            }
+        }
+        
+        Mutation mutation = failure.getMutation();
+        enqueue(mutation.getOperation(), mutation.getEntityType(), mutation.getEntityId(),
+                failure.getResult().getCurrentVersion(), mutation.getEntity());
+        discard(idempotencyKey);
+    }
+    
+    /**
+     * Give up a change the server did not apply
+     * 
+     * @param idempotencyKey The failed change's key
+     * @throws IOException If the outbox cannot be written
+     */
+    public void discard(String idempotencyKey) throws IOException {
+        synchronized (this) {
+            if (!failures.containsKey(idempotencyKey)) {
+                return;
+            }
+            commit(keyRecord(RECORD_DROPPED, idempotencyKey));
+            compactIfEmpty();
+        }
+        fireChanged();
+    }
+    
+    /**
+     * Send queued changes now instead of waiting for the next retry
+     */
+    public void drainNow() {
+        drainExecutor.execute(this::drain);
+    }
+    
+    /**
+     * Get the number of changes waiting to be sent
+     * 
+     * @return The queue depth
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Get the changes the server did not apply
+     * 
+     * @return The failures, oldest first
+     */
+    public synchronized List<Failure> getFailures() {
+        return new ArrayList<>(failures.values());
+    }
+    
+    /**
+     * Get the number of changes applied since the client started
+     * 
+     * @return The applied count
+     */
+    public synchronized long getAppliedCount() {
+        return appliedCount;
+    }
+    
+    /**
+     * Get how fast the last batch was applied
+     * 
+     * @return Changes per second, or 0 before the first batch
+     */
+    public synchronized double getDrainRate() {
+        return drainRate;
+    }
+    
+    /**
+     * Register a listener called, on the calling or the drain thread,
+     * whenever the queue or its failures change
+     * 
+     * @param listener The listener to add
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered change listener
+     * 
+     * @param listener The listener to remove
+     */
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+    
+    private void fireChanged() {
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+    
+    /**
+     * Send queued changes in batches until none are left or the server
+     * cannot be reached. Runs on the drain thread only.
+     */
+    private void drain() {
+        while (true) {
+            List<Mutation> batch = new ArrayList<>();
+            synchronized (this) {
+                for (Mutation mutation : pending.values()) {
+                    batch.add(mutation);
+                    inFlight.add(mutation.getIdempotencyKey());
+                    if (batch.size() == BATCH_SIZE) {
+                        break;
+                    }
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            long started = System.nanoTime();
+            List<MutationResult> results = null;
+            try {
+                if (syncService == null) {
+                    Registry registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
+                    syncService = (SyncService) registry.lookup("syncService");
+                }
+                results = syncService.applyMutations(batch);
+                SnapshotStore.getInstance().setOffline(false);
+            } catch (Exception ex) {
+                // Look the service up again on the next attempt, in case the server restarted
+                syncService = null;
+                if (ServiceStubs.isUnreachable(ex)) {
+                    SnapshotStore.getInstance().setOffline(true);
+                } else {
+                    ex.printStackTrace();
+                }
+            }
+            
+            List<Serializable> changed = new ArrayList<>();
+            try {
+                synchronized (this) {
+                    if (results == null || results.size() != batch.size()) {
+                        return;
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        MutationResult result = results.get(i);
+                        if (result.isApplied()) {
+                            commit(appliedRecord(batch.get(i).getIdempotencyKey(), result.getCurrentVersion()));
+                            appliedCount++;
+                            if (result.getCurrent() != null) {
+                                changed.add(result.getCurrent());
+                            }
+                        } else {
+                            commit(failedRecord(batch.get(i).getIdempotencyKey(), result));
+                        }
+                    }
+                    double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+                    drainRate = seconds > 0 ? batch.size() / seconds : 0;
+                    compactIfEmpty();
+                }
+            } catch (IOException ex) {
+                // Unrecorded results are sent again, and the keys make that harmless
+                ex.printStackTrace();
+                return;
+            } finally {
+                synchronized (this) {
+                    for (Mutation mutation : batch) {
+                        inFlight.remove(mutation.getIdempotencyKey());
+                    }
+                }
+            }
+            
+            // Tell the entity's listeners, as a direct save would have
+            for (Serializable entity : changed) {
+                if (entity instanceof Case) {
+                    CaseController.fireCaseChanged((Case) entity);
+                } else if (entity instanceof Event) {
+                    EventController.fireEventChanged((Event) entity);
+                } else if (entity instanceof Client) {
+                    ClientController.fireClientChanged((Client) entity);
+                }
+            }
+            fireChanged();
+        }
+    }
+    
+    /**
+     * Write a record and apply it to the queue. Callers hold the lock.
+     */
+    private void commit(byte[] record) throws IOException {
+        log.append(record);
+        apply(record);
+    }
+    
+    /**
+     * Apply one record to the queue, when written or when read back on startup
+     */
+    private void apply(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte type = in.readByte();
+            if (type == RECORD_QUEUED) {
+                Mutation mutation;
+                try {
+                    mutation = (Mutation) new ObjectInputStream(in).readObject();
+                } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+                    quarantine(record, ex);
+                    return;
+                }
+                pending.put(mutation.getIdempotencyKey(), mutation);
+                return;
+            }
+            
+            String key = in.readUTF();
+            if (type == RECORD_APPLIED) {
+                long version = in.readLong();
+                Mutation applied = pending.remove(key);
+                if (applied != null) {
+                    // Later changes to the entity were made on top of this one
+                    for (Mutation queued : pending.values()) {
+                        if (queued.isSameEntity(applied) && queued.getBaseVersion() == applied.getBaseVersion()) {
+                            queued.setBaseVersion(version);
+                        }
+                    }
+                }
+            } else if (type == RECORD_FAILED) {
+                MutationResult result;
+                try {
+                    result = (MutationResult) new ObjectInputStream(in).readObject();
+                } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+                    // The change stays queued; sending it again returns the same answer
+                    quarantine(record, ex);
+                    return;
+                }
+                Mutation mutation = pending.remove(key);
+                if (mutation != null) {
+                    failures.put(key, new Failure(mutation, result));
+                }
+            } else if (type == RECORD_DROPPED) {
+                pending.remove(key);
+                failures.remove(key);
+            }
+        }
+    }
+    
+    /**
+     * Move a record that cannot be decoded out of the way. Its bytes are
+     * appended to a file beside the outbox so the change can still be
+     * recovered by hand, and the next compaction drops it from the outbox.
+     */
+    private void quarantine(byte[] record, Exception cause) throws IOException {
+        Path quarantineFile = outboxFile.resolveSibling(outboxFile.getFileName() + ".quarantine");
+        System.err.println("Moving unreadable outbox record to " + quarantineFile + ": " + cause);
+        try (OutputStream file = Files.newOutputStream(quarantineFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+             DataOutputStream out = new DataOutputStream(file)) {
+            out.writeInt(record.length);
+            out.write(record);
+        }
+    }
+    
+    /**
+     * Start a fresh outbox file once nothing in it is needed any more
+     */
+    private void compactIfEmpty() throws IOException {
+        if (pending.isEmpty() && failures.isEmpty()) {
+            log.rewrite(Collections.emptyList());
+        }
+    }
+    
+    /**
+     * Rewrite the outbox with only the queued changes and failures
+     */
+    private synchronized void compact() throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        for (Failure failure : failures.values()) {
+            records.add(queuedRecord(failure.getMutation()));
+            records.add(failedRecord(failure.getMutation().getIdempotencyKey(), failure.getResult()));
+        }
+        for (Mutation mutation : pending.values()) {
+            records.add(queuedRecord(mutation));
+        }
+        log.rewrite(records);
+    }
+    
+    private static byte[] queuedRecord(Mutation mutation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_QUEUED);
+            ObjectOutputStream objects = new ObjectOutputStream(out);
+            objects.writeObject(mutation);
+            objects.flush();
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] appliedRecord(String key, long version) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_APPLIED);
+            out.writeUTF(key);
+            out.writeLong(version);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] failedRecord(String key, MutationResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_FAILED);
+            out.writeUTF(key);
+            ObjectOutputStream objects = new ObjectOutputStream(out);
+            objects.writeObject(result);
+            objects.flush();
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] keyRecord(byte type, String key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeUTF(key);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static Path getDefaultOutboxFile() {
+        return Paths.get(System.getProperty("legalcase.outbox.file",
+            Paths.get(System.getProperty("user.home"), ".legalcase", "outbox.journal").toString()));
+    }
+}
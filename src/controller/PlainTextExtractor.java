@@ -0,0 +1,45 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Text extractor for plain text files, read as UTF-8.
+ * Invalid byte sequences are replaced rather than rejected, since older
+ * files are often saved in a legacy encoding.
+ */
+public class PlainTextExtractor implements TextExtractor {
+    private static final Set<String> EXTENSIONS = new HashSet<>(
+        Arrays.asList("TXT", "CSV", "LOG", "MD", "XML", "JSON"));
+    
+    @Override
+    public boolean supports(String extension) {
+        return EXTENSIONS.contains(extension);
+    }
+    
+    @Override
+    public String extract(Path file) throws IOException {
+        return decode(Files.readAllBytes(file));
+    }
+    
+    /**
+     * Decode bytes as UTF-8, replacing invalid sequences
+     * 
+     * @param bytes The bytes to decode
+     * @return The decoded text
+     */
+    static String decode(byte[] bytes) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return decoder.decode(ByteBuffer.wrap(bytes)).toString();
+    }
+}
@@ -0,0 +1,195 @@
+package controller;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compressed postings list for one term of the document text index.
+ * Each entry holds a document number, the term frequency and the term's
+ * positions in that document. Document numbers and positions are stored as
+ * gaps from the previous value in variable-length byte encoding, so common
+ * terms with dense postings take one or two bytes per value.
+ * Entries must be appended in increasing document number order.
+ */
+public class PostingsList {
+    private byte[] data = new byte[16];
+    private int length;
+    private int documentCount;
+    private int lastDocument = -1;
+    
+    /**
+     * Append the postings of one document
+     * 
+     * @param document The document number, greater than any added before
+     * @param positions The term positions in increasing order
+     * @param count The number of positions to use
+     */
+    public void add(int document, int[] positions, int count) {
+        if (document <= lastDocument) {
+            throw new IllegalArgumentException("Document " + document + " added out of order");
+        }
+        
+        writeVarInt(document - lastDocument);
+        writeVarInt(count);
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarInt(positions[i] - previous);
+            previous = positions[i];
+        }
+        
+        lastDocument = document;
+        documentCount++;
+    }
+    
+    /**
+     * Get the number of documents containing the term, including deleted ones
+     * 
+     * @return The document frequency
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+    
+    /**
+     * Get the encoded size of this list
+     * 
+     * @return The size in bytes
+     */
+    public int getSizeInBytes() {
+        return length;
+    }
+    
+    /**
+     * Create a cursor positioned before the first entry
+     * 
+     * @return A new cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+    
+    /**
+     * Write this list to an index file
+     * 
+     * @param out The output stream
+     * @throws IOException If writing fails
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(documentCount);
+        out.writeInt(lastDocument);
+        out.writeInt(length);
+        out.write(data, 0, length);
+    }
+    
+    /**
+     * Read a list written by {@link #write}
+     * 
+     * @param in The input stream
+     * @return The postings list
+     * @throws IOException If reading fails
+     */
+    public static PostingsList read(DataInputStream in) throws IOException {
+        PostingsList list = new PostingsList();
+        list.documentCount = in.readInt();
+        list.lastDocument = in.readInt();
+        list.length = in.readInt();
+        list.data = new byte[Math.max(16, list.length)];
+        in.readFully(list.data, 0, list.length);
+        return list;
+    }
+    
+    /**
+     * Append a non-negative value using seven bits per byte
+     */
+    private void writeVarInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+    
+    /**
+     * Forward-only reader over the entries of a postings list
+     */
+    public class Cursor {
+        private int offset;
+        private int document = -1;
+        private int frequency;
+        private int positionsOffset;
+        private final int end = length;
+        
+        /**
+         * Advance to the next entry
+         * 
+         * @return false if there are no more entries
+         */
+        public boolean next() {
+            if (offset >= end) {
+                return false;
+            }
+            
+            document += readVarInt();
+            frequency = readVarInt();
+            positionsOffset = offset;
+            for (int i = 0; i < frequency; i++) {
+                readVarInt();
+            }
+            return true;
+        }
+        
+        /**
+         * Advance to the first entry with a document number at or after the target
+         * 
+         * @param target The document number to reach
+         * @return false if there is no such entry
+         */
+        public boolean advanceTo(int target) {
+            while (document < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        public int document() { return document; }
+        
+        public int frequency() { return frequency; }
+        
+        /**
+         * Decode the positions of the current entry
+         * 
+         * @return The positions in increasing order
+         */
+        public int[] positions() {
+            int saved = offset;
+            offset = positionsOffset;
+            int[] positions = new int[frequency];
+            int position = 0;
+            for (int i = 0; i < frequency; i++) {
+                position += readVarInt();
+                positions[i] = position;
+            }
+            offset = saved;
+            return positions;
+        }
+        
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package controller;
+
+import model.Case;
+import model.Client;
+import model.Invoice;
+import model.Payment;
+import service.InvoiceService;
+import service.PaymentService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.rmi.RemoteException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Accounts-receivable aging: outstanding balances per client and per case,
+ * bucketed by how many days past due each invoice is.
+ * 
+ * Open invoices and their payments are each read once, page by page, with
+ * the two streams loaded at the same time. Payments are summed per invoice
+ * and the invoices are then reduced in parallel into per-client and per-case
+ * rows. All sums are exact cents held as longs.
+ * 
+ * The last report is kept until {@link InvoiceController} reports a change
+ * to an invoice or payment, the day rolls over, or it is older than
+ * {@link #MAX_REPORT_AGE_MILLIS}. The age limit covers changes made by
+ * other clients, which this client is never told about.
+ */
+public class ReceivablesAging {
+    public static final String[] BUCKET_NAMES = { "Current", "1-30", "31-60", "61-90", "90+" };
+    public static final int PAGE_SIZE = 5000;
+    public static final long MAX_REPORT_AGE_MILLIS = 60_000;
+    
+    private static final int[] BUCKET_LIMITS = { 0, 30, 60, 90 };
+    
+    private final InvoiceService invoiceService;
+    private final PaymentService paymentService;
+    private final ExecutorService loader;
+    private final Object cacheLock = new Object();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Report cached;
+    
+    /**
+     * One client's or case's outstanding balance by aging bucket
+     */
+    public static class Row {
+        private final int id;
+        private final String name;
+        private final long[] buckets = new long[BUCKET_NAMES.length];
+        private int invoiceCount;
+        
+        Row(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+        
+        public int getId() { return id; }
+        
+        public String getName() { return name; }
+        
+        public int getInvoiceCount() { return invoiceCount; }
+        
+        /**
+         * Get the balance in one bucket
+         * 
+         * @param bucket Index into BUCKET_NAMES
+         * @return The balance in cents
+         */
+        public long getBucket(int bucket) {
+            return buckets[bucket];
+        }
+        
+        /**
+         * Get the total outstanding balance
+         * 
+         * @return The balance in cents
+         */
+        public long getTotal() {
+            long total = 0;
+            for (long amount : buckets) {
+                total += amount;
+            }
+            return total;
+        }
+        
+        void add(int bucket, long balance) {
+            buckets[bucket] += balance;
+            invoiceCount++;
+        }
+        
+        void merge(Row other) {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            invoiceCount += other.invoiceCount;
+        }
+    }
+    
+    /**
+     * A finished aging report
+     */
+    public static class Report {
+        private final LocalDate asOf;
+        private final long createdMillis = System.currentTimeMillis();
+        private final List<Row> clientRows;
+        private final List<Row> caseRows;
+        private final Row totals;
+        
+        Report(LocalDate asOf, List<Row> clientRows, List<Row> caseRows, Row totals) {
+            this.asOf = asOf;
+            this.clientRows = Collections.unmodifiableList(clientRows);
+            this.caseRows = Collections.unmodifiableList(caseRows);
+            this.totals = totals;
+        }
+        
+        public LocalDate getAsOf() { return asOf; }
+        
+        /**
+         * Get the rows per client, largest balance first
+         */
+        public List<Row> getClientRows() { return clientRows; }
+        
+        /**
+         * Get the rows per case, largest balance first
+         */
+        public List<Row> getCaseRows() { return caseRows; }
+        
+        /**
+         * Get the totals over all open invoices
+         */
+        public Row getTotals() { return totals; }
+    }
+    
+    /**
+     * Per-thread partial result of the reduction
+     */
+    private static class Accumulator {
+        private final Map<Integer, Row> clients = new HashMap<>();
+        private final Map<Integer, Row> cases = new HashMap<>();
+        private final Row totals = new Row(0, "Total");
+        
+        void add(Invoice invoice, int bucket, long balance) {
+            Client client = invoice.getClient();
+            if (client != null) {
+                clients.computeIfAbsent(client.getId(), id -> new Row(id, client.getName())).add(bucket, balance);
+            }
+            Case legalCase = invoice.getCase();
+            if (legalCase != null) {
+                cases.computeIfAbsent(legalCase.getId(), id -> new Row(id,
+                    legalCase.getCaseNumber() + " - " + legalCase.getTitle())).add(bucket, balance);
+            }
+            totals.add(bucket, balance);
+        }
+        
+        void merge(Accumulator other) {
+            mergeRows(clients, other.clients);
+            mergeRows(cases, other.cases);
+            totals.merge(other.totals);
+        }
+        
+        private static void mergeRows(Map<Integer, Row> target, Map<Integer, Row> source) {
+            for (Row row : source.values()) {
+                Row existing = target.putIfAbsent(row.id, row);
+                if (existing != null) {
+                    existing.merge(row);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param invoiceService The remote invoice service
+     * @param paymentService The remote payment service
+     */
+    public ReceivablesAging(InvoiceService invoiceService, PaymentService paymentService) {
+        this.invoiceService = invoiceService;
+        this.paymentService = paymentService;
+        this.loader = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "aging-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        InvoiceController.addInvoiceChangeListener(invoice -> invalidate());
+    }
+    
+    /**
+     * Get the aging report as of a date, reusing the last one if nothing has
+     * changed since and it is recent enough. This call may block and should not be made on the event
+     * dispatch thread.
+     * 
+     * @param asOf The date days past due are counted to
+     * @return The report
+     * @throws RemoteException If the invoices or payments cannot be loaded
+     */
+    public synchronized Report getReport(LocalDate asOf) throws RemoteException {
+        Report current = cached;
+        if (current != null && current.getAsOf().equals(asOf)
+                && System.currentTimeMillis() - current.createdMillis < MAX_REPORT_AGE_MILLIS) {
+            return current;
+        }
+        
+        long startGeneration = generation.get();
+        Report report = buildReport(asOf);
+        synchronized (cacheLock) {
+            // A change during the load may or may not be included; do not keep it
+            if (generation.get() == startGeneration) {
+                cached = report;
+            }
+        }
+        return report;
+    }
+    
+    /**
+     * Drop the cached report
+     */
+    public void invalidate() {
+        synchronized (cacheLock) {
+            generation.incrementAndGet();
+            cached = null;
+        }
+    }
+    
+    /**
+     * Convert an amount to cents, rounding half up
+     * 
+     * @param amount The amount, or null
+     * @return The amount in cents
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    /**
+     * Find the aging bucket for a number of days past due
+     * 
+     * @param daysPastDue Days since the due date; zero or less is current
+     * @return Index into BUCKET_NAMES
+     */
+    public static int bucketFor(long daysPastDue) {
+        for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+            if (daysPastDue <= BUCKET_LIMITS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS.length;
+    }
+    
+    private Report buildReport(LocalDate asOf) throws RemoteException {
+        Future<List<Invoice>> invoicesFuture = loader.submit(this::loadOpenInvoices);
+        Future<List<Payment>> paymentsFuture = loader.submit(this::loadOpenInvoicePayments);
+        List<Invoice> invoices = await(invoicesFuture);
+        List<Payment> payments = await(paymentsFuture);
+        
+        ConcurrentMap<Integer, Long> paidByInvoice = payments.parallelStream()
+            .filter(payment -> payment.getInvoice() != null)
+            .collect(Collectors.groupingByConcurrent(payment -> payment.getInvoice().getId(),
+                Collectors.summingLong(payment -> toMinorUnits(payment.getAmount()))));
+        
+        Accumulator result = invoices.parallelStream().collect(Accumulator::new, (accumulator, invoice) -> {
+            long balance = toMinorUnits(invoice.getAmount()) - paidByInvoice.getOrDefault(invoice.getId(), 0L);
+            if (balance != 0) {
+                LocalDate dueDate = invoice.getDueDate() != null ? invoice.getDueDate() : invoice.getIssueDate();
+                long daysPastDue = dueDate != null ? ChronoUnit.DAYS.between(dueDate, asOf) : 0;
+                accumulator.add(invoice, bucketFor(daysPastDue), balance);
+            }
+        }, Accumulator::merge);
+        
+        return new Report(asOf, sortedRows(result.clients), sortedRows(result.cases), result.totals);
+    }
+    
+    private List<Invoice> loadOpenInvoices() throws RemoteException {
+        List<Invoice> invoices = new ArrayList<>();
+        int afterId = 0;
+        while (true) {
+            List<Invoice> page = invoiceService.findOpenInvoicesPage(afterId, PAGE_SIZE);
+            if (page == null || page.isEmpty()) {
+                return invoices;
+            }
+            invoices.addAll(page);
+            afterId = page.get(page.size() - 1).getId();
+            if (page.size() < PAGE_SIZE) {
+                return invoices;
+            }
+        }
+    }
+    
+    private List<Payment> loadOpenInvoicePayments() throws RemoteException {
+        List<Payment> payments = new ArrayList<>();
+        int afterId = 0;
+        while (true) {
+            List<Payment> page = paymentService.findOpenInvoicePaymentsPage(afterId, PAGE_SIZE);
+            if (page == null || page.isEmpty()) {
+                return payments;
+            }
+            payments.addAll(page);
+            afterId = page.get(page.size() - 1).getId();
+            if (page.size() < PAGE_SIZE) {
+                return payments;
+            }
+        }
+    }
+    
+    private static <T> T await(Future<T> future) throws RemoteException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while loading receivables", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RemoteException) {
+                throw (RemoteException) ex.getCause();
+            }
+            throw new RemoteException("Could not load receivables", ex.getCause());
+        }
+    }
+    
+    private static List<Row> sortedRows(Map<Integer, Row> rows) {
+        List<Row> sorted = new ArrayList<>(rows.values());
+        sorted.sort((a, b) -> Long.compare(b.getTotal(), a.getTotal()));
+        return sorted;
+    }
+}
@@ -0,0 +1,143 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Text extractor for RTF files. Control words are interpreted only as far as
+ * needed to recover the visible text: paragraph and tab breaks, escaped and
+ * hex-encoded characters, Unicode characters, and skipping of non-text groups
+ * such as font tables, stylesheets and embedded pictures.
+ */
+public class RtfTextExtractor implements TextExtractor {
+    private static final Charset ANSI = Charset.forName("windows-1252");
+    private static final Set<String> SKIPPED_DESTINATIONS = new HashSet<>(Arrays.asList(
+        "fonttbl", "colortbl", "stylesheet", "info", "pict", "object", "header", "footer",
+        "headerl", "headerr", "footerl", "footerr", "listtable", "listoverridetable", "themedata"));
+    
+    @Override
+    public boolean supports(String extension) {
+        return "RTF".equals(extension);
+    }
+    
+    @Override
+    public String extract(Path file) throws IOException {
+        byte[] rtf = Files.readAllBytes(file);
+        StringBuilder text = new StringBuilder(rtf.length / 2);
+        Deque<Boolean> groups = new ArrayDeque<>();
+        boolean skipping = false;
+        int unicodeSkip = 1;
+        int pendingSkip = 0;
+        int i = 0;
+        
+        while (i < rtf.length) {
+            char c = (char) (rtf[i] & 0xFF);
+            
+            if (c == '{') {
+                groups.push(skipping);
+                i++;
+                // {\* ...} marks a destination that readers may ignore
+                if (i + 1 < rtf.length && rtf[i] == '\\' && rtf[i + 1] == '*') {
+                    skipping = true;
+                    i += 2;
+                }
+            } else if (c == '}') {
+                skipping = groups.isEmpty() ? false : groups.pop();
+                i++;
+            } else if (c == '\\' && i + 1 < rtf.length) {
+                char next = (char) (rtf[i + 1] & 0xFF);
+                
+                if (next == '\\' || next == '{' || next == '}') {
+                    appendChar(text, next, skipping, pendingSkip);
+                    pendingSkip = Math.max(0, pendingSkip - 1);
+                    i += 2;
+                } else if (next == '\'' && i + 3 < rtf.length) {
+                    String hex = new String(rtf, i + 2, 2, ANSI);
+                    try {
+                        byte value = (byte) Integer.parseInt(hex, 16);
+                        appendChar(text, new String(new byte[] { value }, ANSI).charAt(0), skipping, pendingSkip);
+                    } catch (NumberFormatException ex) {
+                        // Malformed escape; drop it
+                    }
+                    pendingSkip = Math.max(0, pendingSkip - 1);
+                    i += 4;
+                } else if (Character.isLetter(next)) {
+                    int start = i + 1;
+                    int end = start;
+                    while (end < rtf.length && Character.isLetter((char) rtf[end])) {
+                        end++;
+                    }
+                    String word = new String(rtf, start, end - start, ANSI);
+                    
+                    int paramStart = end;
+                    if (end < rtf.length && (rtf[end] == '-' || Character.isDigit((char) rtf[end]))) {
+                        end++;
+                        while (end < rtf.length && Character.isDigit((char) rtf[end])) {
+                            end++;
+                        }
+                    }
+                    Integer param = end > paramStart ? parseParam(new String(rtf, paramStart, end - paramStart, ANSI)) : null;
+                    if (end < rtf.length && rtf[end] == ' ') {
+                        end++;
+                    }
+                    i = end;
+                    
+                    if (SKIPPED_DESTINATIONS.contains(word)) {
+                        skipping = true;
+                    } else if ("par".equals(word) || "line".equals(word) || "sect".equals(word) || "page".equals(word)) {
+                        appendChar(text, '\n', skipping, 0);
+                    } else if ("tab".equals(word) || "cell".equals(word)) {
+                        appendChar(text, '\t', skipping, 0);
+                    } else if ("uc".equals(word) && param != null) {
+                        unicodeSkip = param;
+                    } else if ("u".equals(word) && param != null) {
+                        appendChar(text, (char) (param < 0 ? param + 65536 : param), skipping, 0);
+                        // The fallback characters that follow are for readers without Unicode support
+                        pendingSkip = unicodeSkip;
+                    }
+                } else {
+                    // Control symbol such as \~ (non-breaking space) or \- (optional hyphen)
+                    if (next == '~') {
+                        appendChar(text, ' ', skipping, 0);
+                    }
+                    i += 2;
+                }
+            } else {
+                if (c != '\r' && c != '\n') {
+                    appendChar(text, c, skipping, pendingSkip);
+                    pendingSkip = Math.max(0, pendingSkip - 1);
+                }
+                i++;
+            }
+        }
+        
+        return text.toString();
+    }
+    
+    /**
+     * Append a character unless inside a skipped group or a Unicode fallback
+     */
+    private void appendChar(StringBuilder text, char c, boolean skipping, int pendingSkip) {
+        if (!skipping && pendingSkip == 0) {
+            text.append(c);
+        }
+    }
+    
+    /**
+     * Parse a control word parameter
+     */
+    private Integer parseParam(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
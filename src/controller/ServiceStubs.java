@@ -0,0 +1,141 @@
+package controller;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.ServerError;
+import java.rmi.ServerException;
+import java.rmi.UnknownHostException;
+import java.rmi.registry.Registry;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up RMI service stubs and remembers the last one found for each name.
+ * A controller created while the server cannot be reached gets the stub from
+ * an earlier lookup instead of failing, so dialogs still open and can queue
+ * changes or show saved data. Calls through such a stub fail until the server
+ * is back, which callers already handle like any other failed call.
+ * 
+ * Stubs are handed out wrapped, so controllers can keep them for their whole
+ * life. A stub goes stale when the server restarts and exports its services
+ * again; when a call through it cannot reach the server, the service is
+ * looked up again and the call is retried once on the fresh stub. Such a
+ * call never reached the server, so retrying it cannot apply it twice.
+ * 
+ * It also tells a call that could not reach the server apart from one the
+ * server failed, for the code that falls back to local data or queues work.
+ */
+class ServiceStubs {
+    private static final Map<String, Remote> lastFound = new ConcurrentHashMap<>();
+    
+    private ServiceStubs() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Look up a service, falling back to the last stub found for it when the
+     * registry cannot be reached
+     * 
+     * @param registry The registry
+     * @param name The service name
+     * @return The service stub
+     * @throws RemoteException If the registry cannot be reached and the service was never found
+     * @throws NotBoundException If the service is not registered
+     */
+    static Remote lookup(Registry registry, String name) throws RemoteException, NotBoundException {
+        Remote stub;
+        try {
+            stub = registry.lookup(name);
+            lastFound.put(name, stub);
+        } catch (RemoteException ex) {
+            stub = lastFound.get(name);
+            if (stub == null) {
+                throw ex;
+            }
+        }
+        
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> type = stub.getClass(); type != null; type = type.getSuperclass()) {
+            for (Class<?> implemented : type.getInterfaces()) {
+                interfaces.add(implemented);
+            }
+        }
+        return (Remote) Proxy.newProxyInstance(ServiceStubs.class.getClassLoader(),
+            interfaces.toArray(new Class<?>[0]), new Relookup(registry, name, stub));
+    }
+    
+    /**
+     * Check whether a failed call never reached the server, as opposed to
+     * failing on it. Causes are followed through wrapping exceptions, but not
+     * into a failure the server itself reported.
+     * 
+     * @param failure The exception a call threw
+     * @return true if the server could not be reached
+     */
+    static boolean isUnreachable(Throwable failure) {
+        for (Throwable ex = failure; ex != null; ex = ex.getCause()) {
+            if (ex instanceof ConnectException || ex instanceof ConnectIOException
+                    || ex instanceof UnknownHostException || ex instanceof NoSuchObjectException) {
+                return true;
+            }
+            if (ex instanceof ServerException || ex instanceof ServerError) {
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Forwards calls to the current stub and replaces it when it can no
+     * longer reach the server
+     */
+    private static class Relookup implements InvocationHandler {
+        private final Registry registry;
+        private final String name;
+        private volatile Remote stub;
+        
+        Relookup(Registry registry, String name, Remote stub) {
+            this.registry = registry;
+            this.name = name;
+            this.stub = stub;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Throwable failure;
+            try {
+                return method.invoke(stub, args);
+            } catch (InvocationTargetException ex) {
+                failure = ex.getCause();
+            }
+            if (!isUnreachable(failure)) {
+                throw failure;
+            }
+            
+            Remote fresh;
+            try {
+                fresh = registry.lookup(name);
+            } catch (RemoteException | NotBoundException ex) {
+                // Still down; report the original failure
+                throw failure;
+            }
+            lastFound.put(name, fresh);
+            stub = fresh;
+            try {
+                return method.invoke(fresh, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
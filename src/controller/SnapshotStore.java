@@ -0,0 +1,300 @@
+package controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local copy of the lists last loaded from the server, used to show data at
+ * once on startup and to keep the client usable read-only while the server
+ * cannot be reached.
+ * 
+ * Each list is stored compressed under a key in an {@link AppendOnlyLog};
+ * the latest record for a key wins, and the log is rewritten with only the
+ * latest records once superseded ones take up most of it. Saving only queues
+ * the list: a background thread serializes and writes it, so loading data
+ * from the server is not slowed down by the disk.
+ * 
+ * The store also tracks whether the server is reachable. Controllers report
+ * each successful load and each connection failure, and listeners registered
+ * with {@link #addConnectionListener(Consumer)} are told when that changes.
+ */
+public class SnapshotStore {
+    public static final String CASES = "cases";
+    public static final String CLIENTS = "clients";
+    public static final String ATTORNEYS = "attorneys";
+    public static final String INVOICES = "invoices";
+    
+    private static final long COMPACT_MIN_BYTES = 1024 * 1024;
+    
+    private static SnapshotStore instance;
+    
+    private final AppendOnlyLog log;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, ArrayList<?>> unsaved = new ConcurrentHashMap<>();
+    private final List<Consumer<Boolean>> connectionListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService writer;
+    private volatile boolean offline = false;
+    
+    /**
+     * A stored list: when it was loaded and its compressed serialized form
+     */
+    private static class Snapshot {
+        private final long savedAt;
+        private final byte[] data;
+        
+        Snapshot(long savedAt, byte[] data) {
+            this.savedAt = savedAt;
+            this.data = data;
+        }
+    }
+    
+    /**
+     * Get the store, reading the snapshot file the first time. If the file
+     * cannot be opened the store still works but keeps nothing between runs.
+     * 
+     * @return The store
+     */
+    public static synchronized SnapshotStore getInstance() {
+        if (instance == null) {
+            instance = new SnapshotStore(getDefaultSnapshotFile());
+        }
+        return instance;
+    }
+    
+    private SnapshotStore(Path file) {
+        AppendOnlyLog opened = null;
+        try {
+            opened = new AppendOnlyLog(file);
+            for (byte[] record : opened.getRecoveredRecords()) {
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+                    String key = in.readUTF();
+                    long savedAt = in.readLong();
+                    byte[] data = new byte[in.readInt()];
+                    in.readFully(data);
+                    snapshots.put(key, new Snapshot(savedAt, data));
+                }
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        this.log = opened;
+        
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Get the key under which a month of calendar events is stored
+     * 
+     * @param month The month
+     * @return The snapshot key
+     */
+    public static String eventMonthKey(YearMonth month) {
+        return "events:" + month;
+    }
+    
+    /**
+     * Store a list that was just loaded from the server. This also records
+     * that the server is reachable.
+     * 
+     * @param key The snapshot key
+     * @param values The loaded list
+     */
+    public void save(String key, List<?> values) {
+        setOffline(false);
+        if (values == null) {
+            return;
+        }
+        
+        // Only the latest list per key is written, however many arrive meanwhile
+        if (unsaved.put(key, new ArrayList<>(values)) == null) {
+            writer.execute(() -> write(key));
+        }
+    }
+    
+    /**
+     * Get the stored copy of a list
+     * 
+     * @param key The snapshot key
+     * @return A fresh copy of the list, or null if none is stored
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> load(String key) {
+        ArrayList<?> queued = unsaved.get(key);
+        if (queued != null) {
+            return new ArrayList<>((List<T>) queued);
+        }
+        
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new GZIPInputStream(new ByteArrayInputStream(snapshot.data)))) {
+            return (List<T>) in.readObject();
+        } catch (IOException | ClassNotFoundException ex) {
+            // Written by an incompatible version of the client
+            ex.printStackTrace();
+            snapshots.remove(key, snapshot);
+            return null;
+        }
+    }
+    
+    /**
+     * Handle a failed server call that loads a list. If the failure means the
+     * server cannot be reached, the stored copy is returned instead. Errors the
+     * server reported, and replies the client could not read, are not treated
+     * as being offline.
+     * 
+     * @param key The snapshot key
+     * @param failure The exception the call threw
+     * @return The stored list, or null if the failure was not a connection
+     *         problem or nothing is stored
+     */
+    public <T> List<T> loadOffline(String key, Exception failure) {
+        if (!ServiceStubs.isUnreachable(failure)) {
+            return null;
+        }
+        setOffline(true);
+        return load(key);
+    }
+    
+    /**
+     * Check whether the last server call failed to reach the server
+     * 
+     * @return true if the client is working from stored data
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+    
+    /**
+     * Register a listener told whether the client is offline each time that changes
+     * 
+     * @param listener The listener to add
+     */
+    public void addConnectionListener(Consumer<Boolean> listener) {
+        connectionListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered connection listener
+     * 
+     * @param listener The listener to remove
+     */
+    public void removeConnectionListener(Consumer<Boolean> listener) {
+        connectionListeners.remove(listener);
+    }
+    
+    /**
+     * Record whether the server could be reached, for server calls that do
+     * not go through {@link #save} or {@link #loadOffline}
+     * 
+     * @param nowOffline true if the server could not be reached
+     */
+    public void setOffline(boolean nowOffline) {
+        if (offline == nowOffline) {
+            return;
+        }
+        offline = nowOffline;
+        for (Consumer<Boolean> listener : connectionListeners) {
+            listener.accept(nowOffline);
+        }
+    }
+    
+    /**
+     * Serialize and store the queued list for a key. Runs on the writer thread.
+     */
+    private void write(String key) {
+        ArrayList<?> values = unsaved.get(key);
+        if (values == null) {
+            return;
+        }
+        
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(compressed))) {
+                out.writeObject(values);
+            }
+            Snapshot snapshot = new Snapshot(System.currentTimeMillis(), compressed.toByteArray());
+            if (log != null) {
+                log.append(toRecord(key, snapshot));
+            }
+            snapshots.put(key, snapshot);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        } finally {
+            // A newer list queued meanwhile gets its own write
+            if (!unsaved.remove(key, values)) {
+                writer.execute(() -> write(key));
+            }
+        }
+        
+        compactIfNeeded();
+    }
+    
+    /**
+     * Rewrite the log with only the latest record per key once older records
+     * take up more than half of it
+     */
+    private void compactIfNeeded() {
+        if (log == null) {
+            return;
+        }
+        try {
+            long live = 0;
+            for (Snapshot snapshot : snapshots.values()) {
+                live += snapshot.data.length;
+            }
+            long size = log.size();
+            if (size <= COMPACT_MIN_BYTES || size <= 2 * live) {
+                return;
+            }
+            
+            List<byte[]> records = new ArrayList<>();
+            for (Map.Entry<String, Snapshot> entry : snapshots.entrySet()) {
+                records.add(toRecord(entry.getKey(), entry.getValue()));
+            }
+            log.rewrite(records);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+    
+    private static byte[] toRecord(String key, Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(key);
+            out.writeLong(snapshot.savedAt);
+            out.writeInt(snapshot.data.length);
+            out.write(snapshot.data);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static Path getDefaultSnapshotFile() {
+        return Paths.get(System.getProperty("legalcase.snapshot.file",
+            Paths.get(System.getProperty("user.home"), ".legalcase", "snapshot.log").toString()));
+    }
+}
@@ -0,0 +1,29 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Extracts searchable plain text from a document file.
+ * Implementations are registered with {@link DocumentTextIndex}, which picks
+ * the first one that supports a document's file extension.
+ */
+public interface TextExtractor {
+    
+    /**
+     * Check if this extractor handles files with the given extension
+     * 
+     * @param extension The upper-case file extension, without the dot
+     * @return true if supported
+     */
+    boolean supports(String extension);
+    
+    /**
+     * Extract the text content of a file
+     * 
+     * @param file The file to read
+     * @return The plain text
+     * @throws IOException If the file cannot be read
+     */
+    String extract(Path file) throws IOException;
+}
@@ -7,6 +7,7 @@ import service.TimeEntryService;
 import service.AttorneyService;
 import service.CaseService;
 
+import java.io.IOException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.util.List;
@@ -35,9 +36,9 @@ public class TimeEntryController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stubs
-            timeEntryService = (TimeEntryService) registry.lookup("timeEntryService");
-            attorneyService = (AttorneyService) registry.lookup("attorneyService");
-            caseService = (CaseService) registry.lookup("caseService");
+            timeEntryService = (TimeEntryService) ServiceStubs.lookup(registry, "timeEntryService");
+            attorneyService = (AttorneyService) ServiceStubs.lookup(registry, "attorneyService");
+            caseService = (CaseService) ServiceStubs.lookup(registry, "caseService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -45,6 +46,18 @@ public class TimeEntryController {
         }
     }
     
+    /**
+     * Look up the time entry service on its own, for background work that
+     * must keep running when the server restarts
+     * 
+     * @return The service stub
+     * @throws Exception If the server cannot be reached
+     */
+    static TimeEntryService lookupTimeEntryService() throws Exception {
+        Registry registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
+        return (TimeEntryService) registry.lookup("timeEntryService");
+    }
+    
     /**
      * Get all time entries
      * 
@@ -185,10 +198,13 @@ public class TimeEntryController {
     }
     
     /**
-     * Create a new time entry
+     * Create a new time entry. The entry is written to the local journal and
+     * sent to the server in the background, so this returns as soon as it is
+     * safely on disk, even while the server is unreachable. If the journal
+     * cannot be used, the entry is sent to the server directly.
      * 
      * @param timeEntry The time entry to create
-     * @return true if successful
+     * @return true if the entry was recorded or created
      */
     public boolean createTimeEntry(TimeEntry timeEntry) {
         try {
@@ -205,6 +221,14 @@ public class TimeEntryController {
                 }
             }
             
+            try {
+                TimeEntryJournal.getInstance().record(timeEntry);
+                return true;
+            } catch (IOException journalFailure) {
+                // Without the journal the entry is only saved while the server is reachable
+                journalFailure.printStackTrace();
+            }
+            
             TimeEntry result = timeEntryService.createTimeEntry(timeEntry);
             return result != null;
         } catch (Exception ex) {
@@ -248,6 +272,40 @@ public class TimeEntryController {
         }
     }
     
+    /**
+     * Mark several time entries as billed in one call. Nothing is marked
+     * unless every entry can be.
+     * 
+     * @param timeEntryIds The time entry IDs
+     * @param invoiceId The invoice ID
+     * @return One TimeEntry.BILLING_* outcome per ID, or null if the call failed
+     */
+    public String[] markTimeEntriesAsBilled(int[] timeEntryIds, int invoiceId) {
+        try {
+            return timeEntryService.markTimeEntriesAsBilled(timeEntryIds, invoiceId);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Take several time entries off an invoice in one call. Nothing is
+     * unmarked unless every entry can be.
+     * 
+     * @param timeEntryIds The time entry IDs
+     * @param invoiceId The invoice the entries are billed on
+     * @return One TimeEntry.BILLING_* outcome per ID, or null if the call failed
+     */
+    public String[] unmarkTimeEntriesAsBilled(int[] timeEntryIds, int invoiceId) {
+        try {
+            return timeEntryService.unmarkTimeEntriesAsBilled(timeEntryIds, invoiceId);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
     /**
      * Delete a time entry
      * 
@@ -0,0 +1,355 @@
+package controller;
+
+import model.TimeEntry;
+import service.TimeEntryService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind store for new time entries.
+ * 
+ * Recording an entry only appends it to a local {@link AppendOnlyLog}, so it
+ * takes as long as a disk write and works while the server is unreachable. A
+ * background thread sends pending entries to the server in batches, each
+ * entry with an idempotency key generated when it was recorded: if a batch is
+ * resent because the reply was lost, the server returns the entries it
+ * already created instead of billing the time twice.
+ * 
+ * The journal holds three kinds of records: a recorded entry, an
+ * acknowledgement that the server created it, and a rejection. On startup
+ * the entries without an acknowledgement or rejection are sent again. Entries
+ * the server rejects are kept in the journal until the user dismisses them,
+ * and the main window shows both the pending and the rejected entries, so
+ * no recorded time is silently lost. A record that can no longer be decoded,
+ * for example after a model class changed, is moved to a quarantine file
+ * beside the journal instead of making the journal unreadable.
+ */
+public class TimeEntryJournal {
+    public static final int BATCH_SIZE = 50;
+    
+    private static final long SYNC_DELAY_MILLIS = 200;
+    private static final long RETRY_INTERVAL_MILLIS = 5000;
+    private static final byte RECORD_ENTRY = 1;
+    private static final byte RECORD_ACK = 2;
+    private static final byte RECORD_REJECT = 3;
+    
+    private static TimeEntryJournal instance;
+    
+    private final Path journalFile;
+    private final AppendOnlyLog log;
+    private final Map<String, TimeEntry> pending = new LinkedHashMap<>();
+    private final Map<String, TimeEntry> rejected = new LinkedHashMap<>();
+    private final ScheduledExecutorService syncExecutor;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private TimeEntryService timeEntryService;
+    
+    /**
+     * Get the journal, opening it and resuming the sync of pending entries
+     * the first time
+     * 
+     * @return The journal
+     * @throws IOException If the journal file cannot be opened
+     */
+    public static synchronized TimeEntryJournal getInstance() throws IOException {
+        if (instance == null) {
+            instance = new TimeEntryJournal(getDefaultJournalFile());
+        }
+        return instance;
+    }
+    
+    private TimeEntryJournal(Path journalFile) throws IOException {
+        this.journalFile = journalFile;
+        this.log = new AppendOnlyLog(journalFile);
+        for (byte[] record : log.getRecoveredRecords()) {
+            replay(record);
+        }
+        // A rejected entry takes two records; anything beyond that is an acknowledged entry
+        if (log.getRecoveredRecords().size() > pending.size() + 2 * rejected.size()) {
+            compact();
+        }
+        
+        this.syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "time-entry-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.scheduleWithFixedDelay(this::sync, 0, RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Record a new time entry. It is on disk when this returns and is sent
+     * to the server in the background.
+     * 
+     * @param timeEntry The time entry
+     * @return The entry's idempotency key
+     * @throws IOException If the entry cannot be written to the journal
+     */
+    public String record(TimeEntry timeEntry) throws IOException {
+        String key = UUID.randomUUID().toString();
+        synchronized (this) {
+            // Under the lock so a compaction cannot rewrite the log between the two
+            log.append(entryRecord(key, timeEntry));
+            pending.put(key, timeEntry);
+        }
+        
+        fireChanged();
+        syncExecutor.schedule(this::sync, SYNC_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return key;
+    }
+    
+    /**
+     * Get the number of recorded entries not yet created on the server
+     * 
+     * @return The pending count
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Get the recorded entries not yet created on the server
+     * 
+     * @return The pending entries, oldest first
+     */
+    public synchronized List<TimeEntry> getPendingEntries() {
+        return new ArrayList<>(pending.values());
+    }
+    
+    /**
+     * Get the entries the server refused to create
+     * 
+     * @return The rejected entries by idempotency key, oldest first
+     */
+    public synchronized Map<String, TimeEntry> getRejectedEntries() {
+        return new LinkedHashMap<>(rejected);
+    }
+    
+    /**
+     * Remove a rejected entry from the journal once the user has seen it
+     * 
+     * @param key The entry's idempotency key
+     * @throws IOException If the journal cannot be rewritten
+     */
+    public void dismissRejected(String key) throws IOException {
+        synchronized (this) {
+            if (rejected.remove(key) == null) {
+                return;
+            }
+            compact();
+        }
+        fireChanged();
+    }
+    
+    /**
+     * Send pending entries now instead of waiting for the next retry
+     */
+    public void syncNow() {
+        syncExecutor.execute(this::sync);
+    }
+    
+    /**
+     * Register a listener called, on the calling or the sync thread, whenever
+     * entries are recorded, acknowledged, rejected or dismissed
+     * 
+     * @param listener The listener to add
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered change listener
+     * 
+     * @param listener The listener to remove
+     */
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+    
+    private void fireChanged() {
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+    
+    /**
+     * Send pending entries in batches until none are left or the server
+     * cannot be reached. Runs on the sync thread only.
+     */
+    private void sync() {
+        while (true) {
+            List<String> keys;
+            List<TimeEntry> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                keys = new ArrayList<>();
+                batch = new ArrayList<>();
+                for (Map.Entry<String, TimeEntry> entry : pending.entrySet()) {
+                    keys.add(entry.getKey());
+                    batch.add(entry.getValue());
+                    if (keys.size() == BATCH_SIZE) {
+                        break;
+                    }
+                }
+            }
+            
+            List<TimeEntry> created;
+            try {
+                if (timeEntryService == null) {
+                    timeEntryService = TimeEntryController.lookupTimeEntryService();
+                }
+                created = timeEntryService.createTimeEntries(batch, keys.toArray(new String[0]));
+            } catch (Exception ex) {
+                // Server unreachable or restarted; look it up again on the next attempt
+                timeEntryService = null;
+                return;
+            }
+            if (created == null) {
+                return;
+            }
+            
+            try {
+                acknowledge(keys, created);
+            } catch (IOException ex) {
+                // Unacknowledged entries are sent again, and the keys make that harmless
+                ex.printStackTrace();
+                return;
+            } finally {
+                fireChanged();
+            }
+        }
+    }
+    
+    /**
+     * Record the server's answers for a batch, written as one group so the
+     * whole batch costs a single force to disk
+     */
+    private synchronized void acknowledge(List<String> keys, List<TimeEntry> created) throws IOException {
+        List<byte[]> records = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            TimeEntry result = i < created.size() ? created.get(i) : null;
+            records.add(result != null
+                ? resultRecord(RECORD_ACK, keys.get(i), result.getId())
+                : resultRecord(RECORD_REJECT, keys.get(i), 0));
+        }
+        log.append(records);
+        
+        for (int i = 0; i < keys.size(); i++) {
+            TimeEntry entry = pending.remove(keys.get(i));
+            boolean accepted = i < created.size() && created.get(i) != null;
+            if (!accepted && entry != null) {
+                rejected.put(keys.get(i), entry);
+            }
+        }
+        if (pending.isEmpty()) {
+            compact();
+        }
+    }
+    
+    /**
+     * Apply one record read back from the journal
+     */
+    private void replay(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte type = in.readByte();
+            String key = in.readUTF();
+            if (type == RECORD_ENTRY) {
+                TimeEntry entry;
+                try {
+                    entry = (TimeEntry) new ObjectInputStream(in).readObject();
+                } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+                    quarantine(key, record, ex);
+                    return;
+                }
+                pending.put(key, entry);
+            } else if (type == RECORD_ACK) {
+                pending.remove(key);
+            } else if (type == RECORD_REJECT) {
+                TimeEntry entry = pending.remove(key);
+                if (entry != null) {
+                    rejected.put(key, entry);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Move a recorded entry that cannot be decoded out of the way. Its bytes
+     * are appended to a file beside the journal so the time can still be
+     * recovered by hand, and the next compaction drops it from the journal.
+     */
+    private void quarantine(String key, byte[] record, Exception cause) throws IOException {
+        Path quarantineFile = journalFile.resolveSibling(journalFile.getFileName() + ".quarantine");
+        System.err.println("Moving unreadable time entry " + key + " to " + quarantineFile + ": " + cause);
+        try (OutputStream file = Files.newOutputStream(quarantineFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+             DataOutputStream out = new DataOutputStream(file)) {
+            out.writeInt(record.length);
+            out.write(record);
+        }
+    }
+    
+    /**
+     * Rewrite the journal with only the entries still needed
+     */
+    private synchronized void compact() throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        for (Map.Entry<String, TimeEntry> entry : rejected.entrySet()) {
+            records.add(entryRecord(entry.getKey(), entry.getValue()));
+            records.add(resultRecord(RECORD_REJECT, entry.getKey(), 0));
+        }
+        for (Map.Entry<String, TimeEntry> entry : pending.entrySet()) {
+            records.add(entryRecord(entry.getKey(), entry.getValue()));
+        }
+        log.rewrite(records);
+    }
+    
+    private static byte[] entryRecord(String key, TimeEntry timeEntry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_ENTRY);
+            out.writeUTF(key);
+            ObjectOutputStream objects = new ObjectOutputStream(out);
+            objects.writeObject(timeEntry);
+            objects.flush();
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] resultRecord(byte type, String key, int timeEntryId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeUTF(key);
+            out.writeInt(timeEntryId);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static Path getDefaultJournalFile() {
+        return Paths.get(System.getProperty("legalcase.timeentry.journal",
+            Paths.get(System.getProperty("user.home"), ".legalcase", "time-entries.journal").toString()));
+    }
+}
@@ -0,0 +1,17 @@
+package controller;
+
+/**
+ * Receives progress updates for a document transfer.
+ * Called on the thread performing the transfer.
+ */
+public interface TransferListener {
+    
+    /**
+     * Called after each chunk has been transferred
+     * 
+     * @param transferredBytes Bytes transferred so far
+     * @param totalBytes Total size of the transfer
+     * @param bytesPerSecond Average throughput since the transfer started
+     */
+    void onProgress(long transferredBytes, long totalBytes, double bytesPerSecond);
+}
@@ -27,7 +27,7 @@ public class UserController {
             registry = LocateRegistry.getRegistry(RMI_HOST, RMI_PORT);
             
             // Get service stub
-            userService = (UserService) registry.lookup("userService");
+            userService = (UserService) ServiceStubs.lookup(registry, "userService");
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -1,14 +1,17 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents an attorney in the legal system.
  */
-public class Attorney implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Attorney implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
@@ -110,6 +113,38 @@ public class Attorney implements Serializable {
         return getFullName();
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeString(attorneyId);
+        writer.writeString(firstName);
+        writer.writeString(lastName);
+        writer.writeString(email);
+        writer.writeString(phone);
+        writer.writeString(specialization);
+        writer.writeString(barNumber);
+        writer.writeDouble(hourlyRate);
+        writer.writeRefList(cases);
+        writer.writeRefList(timeEntries);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        attorneyId = reader.readString();
+        firstName = reader.readString();
+        lastName = reader.readString();
+        email = reader.readString();
+        phone = reader.readString();
+        specialization = reader.readString();
+        barNumber = reader.readString();
+        hourlyRate = reader.readDouble();
+        cases = reader.readRefList(Case.class);
+        timeEntries = reader.readRefList(TimeEntry.class);
+    }
+    
     @Override
     public String toString() {
         return "Attorney [id=" + id + ", attorneyId=" + attorneyId + ", name=" + getFullName() + 
@@ -0,0 +1,69 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Checksums of the fixed-size blocks of a stored file, used to find which
+ * parts of a new revision the server already has. Each block has a weak
+ * rolling checksum, cheap to slide over the new file one byte at a time,
+ * and a strong checksum (the first 8 bytes of its SHA-256) that confirms a
+ * weak match. The last block may be shorter than blockSize.
+ */
+public class BlockSignature implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private String contentHash;
+    
+    private long fileSize;
+    
+    private int blockSize;
+    
+    private int[] weakSums;
+    
+    private long[] strongSums;
+    
+    /**
+     * Default constructor
+     */
+    public BlockSignature() {
+    }
+    
+    /**
+     * Constructor with all fields
+     */
+    public BlockSignature(String contentHash, long fileSize, int blockSize, int[] weakSums, long[] strongSums) {
+        this.contentHash = contentHash;
+        this.fileSize = fileSize;
+        this.blockSize = blockSize;
+        this.weakSums = weakSums;
+        this.strongSums = strongSums;
+    }
+    
+    // Getters and Setters
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+    
+    public int getBlockSize() { return blockSize; }
+    public void setBlockSize(int blockSize) { this.blockSize = blockSize; }
+    
+    public int[] getWeakSums() { return weakSums; }
+    public void setWeakSums(int[] weakSums) { this.weakSums = weakSums; }
+    
+    public long[] getStrongSums() { return strongSums; }
+    public void setStrongSums(long[] strongSums) { this.strongSums = strongSums; }
+    
+    /**
+     * Get the number of blocks
+     */
+    public int getBlockCount() {
+        return weakSums != null ? weakSums.length : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "BlockSignature [contentHash=" + contentHash + ", blocks=" + getBlockCount() + ", blockSize=" + blockSize + "]";
+    }
+}
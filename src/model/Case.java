@@ -1,6 +1,9 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,11 +12,14 @@ import java.util.List;
  * Represents a legal case in the system.
  * Contains case details and relationships to clients, attorneys, documents, etc.
  */
-public class Case implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Case implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
+    // Assigned by the server and increased on every update; 0 until saved
+    private long version;
+    
     private String caseNumber;
     
     private String title;
@@ -67,6 +73,9 @@ public class Case implements Serializable {
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
     public String getCaseNumber() { return caseNumber; }
     public void setCaseNumber(String caseNumber) { this.caseNumber = caseNumber; }
     
@@ -165,6 +174,52 @@ public class Case implements Serializable {
         return totalHours;
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeVarLong(version);
+        writer.writeString(caseNumber);
+        writer.writeString(title);
+        writer.writeString(caseType);
+        writer.writeString(status);
+        writer.writeString(description);
+        writer.writeDate(fileDate);
+        writer.writeDate(closingDate);
+        writer.writeString(court);
+        writer.writeString(judge);
+        writer.writeString(opposingParty);
+        writer.writeString(opposingCounsel);
+        writer.writeRef(client);
+        writer.writeRefList(attorneys);
+        writer.writeRefList(documents);
+        writer.writeRefList(events);
+        writer.writeRefList(timeEntries);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        version = reader.readVarLong();
+        caseNumber = reader.readString();
+        title = reader.readString();
+        caseType = reader.readString();
+        status = reader.readString();
+        description = reader.readString();
+        fileDate = reader.readDate();
+        closingDate = reader.readDate();
+        court = reader.readString();
+        judge = reader.readString();
+        opposingParty = reader.readString();
+        opposingCounsel = reader.readString();
+        client = reader.readRef(Client.class);
+        attorneys = reader.readRefList(Attorney.class);
+        documents = reader.readRefList(Document.class);
+        events = reader.readRefList(Event.class);
+        timeEntries = reader.readRefList(TimeEntry.class);
+    }
+    
     @Override
     public String toString() {
         return "Case [id=" + id + ", caseNumber=" + caseNumber + ", title=" + title + 
@@ -1,6 +1,9 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,11 +12,14 @@ import java.util.List;
  * Represents a client in the legal system.
  * Can be either an individual or an organization.
  */
-public class Client implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Client implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
+    // Assigned by the server and increased on every update; 0 until saved
+    private long version;
+    
     private String clientId;
     
     private String name;
@@ -52,6 +58,9 @@ public class Client implements Serializable {
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
     public String getClientId() { return clientId; }
     public void setClientId(String clientId) { this.clientId = clientId; }
     
@@ -114,6 +123,38 @@ public class Client implements Serializable {
         }
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeVarLong(version);
+        writer.writeString(clientId);
+        writer.writeString(name);
+        writer.writeString(contactPerson);
+        writer.writeString(email);
+        writer.writeString(phone);
+        writer.writeString(address);
+        writer.writeString(clientType);
+        writer.writeDate(registrationDate);
+        writer.writeRefList(cases);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        version = reader.readVarLong();
+        clientId = reader.readString();
+        name = reader.readString();
+        contactPerson = reader.readString();
+        email = reader.readString();
+        phone = reader.readString();
+        address = reader.readString();
+        clientType = reader.readString();
+        registrationDate = reader.readDate();
+        cases = reader.readRefList(Case.class);
+    }
+    
     @Override
     public String toString() {
         return "Client [id=" + id + ", clientId=" + clientId + ", name=" + name + 
@@ -0,0 +1,64 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * The answer to a fetch made with the version the client already has. If
+ * that version is still current the answer is only a small not-modified
+ * marker and the client reuses its copy; otherwise it carries the new value
+ * and its version.
+ */
+public class ConditionalResult<T extends Serializable> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    // Version the client sends when it has no copy yet
+    public static final long NO_VERSION = -1;
+    
+    private boolean notModified;
+    
+    private T value;
+    
+    private long version;
+    
+    /**
+     * Default constructor
+     */
+    public ConditionalResult() {
+    }
+    
+    /**
+     * Create the marker for a copy that is still current
+     */
+    public static <T extends Serializable> ConditionalResult<T> notModified(long version) {
+        ConditionalResult<T> result = new ConditionalResult<>();
+        result.notModified = true;
+        result.version = version;
+        return result;
+    }
+    
+    /**
+     * Create an answer carrying a new value, or no value if it does not exist
+     */
+    public static <T extends Serializable> ConditionalResult<T> of(T value, long version) {
+        ConditionalResult<T> result = new ConditionalResult<>();
+        result.value = value;
+        result.version = version;
+        return result;
+    }
+    
+    // Getters and Setters
+    public boolean isNotModified() { return notModified; }
+    public void setNotModified(boolean notModified) { this.notModified = notModified; }
+    
+    public T getValue() { return value; }
+    public void setValue(T value) { this.value = value; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
+    @Override
+    public String toString() {
+        return notModified ? "ConditionalResult [NOT_MODIFIED, version=" + version + "]"
+                           : "ConditionalResult [version=" + version + ", value=" + value + "]";
+    }
+}
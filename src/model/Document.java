@@ -1,13 +1,16 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 
 /**
  * Represents a legal document in the system.
  */
-public class Document implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Document implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
@@ -31,6 +34,10 @@ public class Document implements Serializable {
     
     private String status;
     
+    private String contentHash;  // SHA-256 of the file, hex encoded
+    
+    private long fileSize;
+    
     /**
      * Default constructor
      */
@@ -84,6 +91,12 @@ public class Document implements Serializable {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+    
     /**
      * Check if the document is active
      */
@@ -118,6 +131,42 @@ public class Document implements Serializable {
         return title;
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeString(documentId);
+        writer.writeString(title);
+        writer.writeString(description);
+        writer.writeString(documentType);
+        writer.writeString(filePath);
+        writer.writeDate(dateAdded);
+        writer.writeDate(documentDate);
+        writer.writeRef(associatedCase);
+        writer.writeVarInt(createdBy);
+        writer.writeString(status);
+        writer.writeString(contentHash);
+        writer.writeVarLong(fileSize);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        documentId = reader.readString();
+        title = reader.readString();
+        description = reader.readString();
+        documentType = reader.readString();
+        filePath = reader.readString();
+        dateAdded = reader.readDate();
+        documentDate = reader.readDate();
+        associatedCase = reader.readRef(Case.class);
+        createdBy = reader.readVarInt();
+        status = reader.readString();
+        contentHash = reader.readString();
+        fileSize = reader.readVarLong();
+    }
+    
     @Override
     public String toString() {
         return "Document [id=" + id + ", documentId=" + documentId + ", title=" + title + 
@@ -0,0 +1,42 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * A document found by a full-text content search, with its relevance score
+ * and an excerpt of the text around the match.
+ */
+public class DocumentSearchResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private Document document;
+    
+    private double score;
+    
+    private String snippet;
+    
+    /**
+     * Default constructor
+     */
+    public DocumentSearchResult() {
+    }
+    
+    /**
+     * Constructor with all fields
+     */
+    public DocumentSearchResult(Document document, double score, String snippet) {
+        this.document = document;
+        this.score = score;
+        this.snippet = snippet;
+    }
+    
+    // Getters and Setters
+    public Document getDocument() { return document; }
+    public void setDocument(Document document) { this.document = document; }
+    
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+}
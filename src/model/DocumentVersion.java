@@ -0,0 +1,91 @@
+package model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One revision of a document's content. The server stores a revision as a
+ * binary delta against the previous one, so storedBytes is usually far
+ * smaller than fileSize; the content can always be read back in full by its
+ * content hash.
+ */
+public class DocumentVersion implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private int documentId;
+    
+    private int versionNumber;
+    
+    private String contentHash;  // SHA-256 of this revision, hex encoded
+    
+    private String baseHash;  // Content hash of the revision the delta applies to, or null if stored in full
+    
+    private long fileSize;
+    
+    private long storedBytes;
+    
+    private LocalDateTime createdAt;
+    
+    private int createdBy;
+    
+    private String comment;
+    
+    /**
+     * Default constructor
+     */
+    public DocumentVersion() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Constructor with essential fields
+     */
+    public DocumentVersion(int documentId, String contentHash, long fileSize, String comment) {
+        this();
+        this.documentId = documentId;
+        this.contentHash = contentHash;
+        this.fileSize = fileSize;
+        this.comment = comment;
+    }
+    
+    // Getters and Setters
+    public int getDocumentId() { return documentId; }
+    public void setDocumentId(int documentId) { this.documentId = documentId; }
+    
+    public int getVersionNumber() { return versionNumber; }
+    public void setVersionNumber(int versionNumber) { this.versionNumber = versionNumber; }
+    
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
+    public String getBaseHash() { return baseHash; }
+    public void setBaseHash(String baseHash) { this.baseHash = baseHash; }
+    
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+    
+    public long getStoredBytes() { return storedBytes; }
+    public void setStoredBytes(long storedBytes) { this.storedBytes = storedBytes; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public int getCreatedBy() { return createdBy; }
+    public void setCreatedBy(int createdBy) { this.createdBy = createdBy; }
+    
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+    
+    /**
+     * Check if this revision is stored as a delta against an earlier one
+     */
+    public boolean isDelta() {
+        return baseHash != null;
+    }
+    
+    @Override
+    public String toString() {
+        return "DocumentVersion [documentId=" + documentId + ", version=" + versionNumber +
+               ", contentHash=" + contentHash + ", size=" + fileSize + ", stored=" + storedBytes + "]";
+    }
+}
@@ -1,18 +1,25 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 /**
  * Represents an event or deadline in the legal system.
  * Can be associated with a specific case.
  */
-public class Event implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Event implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
+    // Assigned by the server and increased on every update; 0 until saved
+    private long version;
+    
     private String eventId;
     
     private String title;
@@ -61,6 +68,9 @@ public class Event implements Serializable {
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
     public String getEventId() { return eventId; }
     public void setEventId(String eventId) { this.eventId = eventId; }
     
@@ -112,6 +122,34 @@ public class Event implements Serializable {
                && !("Completed".equalsIgnoreCase(status) || "Cancelled".equalsIgnoreCase(status));
     }
     
+    /**
+     * Get the moment the event starts. Events without a start time begin at midnight.
+     */
+    public LocalDateTime getStartDateTime() {
+        if (eventDate == null) {
+            return null;
+        }
+        return eventDate.atTime(startTime != null ? startTime : LocalTime.MIDNIGHT);
+    }
+    
+    /**
+     * Get the moment the event ends. Events without a start time run for the whole day,
+     * and an end time before the start time means the event runs past midnight.
+     */
+    public LocalDateTime getEndDateTime() {
+        if (eventDate == null) {
+            return null;
+        }
+        if (startTime == null) {
+            return eventDate.plusDays(1).atStartOfDay();
+        }
+        if (endTime == null) {
+            return eventDate.atTime(startTime);
+        }
+        LocalDateTime end = eventDate.atTime(endTime);
+        return endTime.isBefore(startTime) ? end.plusDays(1) : end;
+    }
+    
     /**
      * Get a formatted display string for the event
      */
@@ -120,6 +158,44 @@ public class Event implements Serializable {
         return title + " (" + dateStr + " - " + eventType + ")";
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeVarLong(version);
+        writer.writeString(eventId);
+        writer.writeString(title);
+        writer.writeString(description);
+        writer.writeString(eventType);
+        writer.writeDate(eventDate);
+        writer.writeTime(startTime);
+        writer.writeTime(endTime);
+        writer.writeString(location);
+        writer.writeString(status);
+        writer.writeRef(associatedCase);
+        writer.writeBoolean(reminderSet);
+        writer.writeVarInt(reminderDays);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        version = reader.readVarLong();
+        eventId = reader.readString();
+        title = reader.readString();
+        description = reader.readString();
+        eventType = reader.readString();
+        eventDate = reader.readDate();
+        startTime = reader.readTime();
+        endTime = reader.readTime();
+        location = reader.readString();
+        status = reader.readString();
+        associatedCase = reader.readRef(Case.class);
+        reminderSet = reader.readBoolean();
+        reminderDays = reader.readVarInt();
+    }
+    
     @Override
     public String toString() {
         return "Event [id=" + id + ", eventId=" + eventId + ", title=" + title + 
@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * A model class identified by a server-assigned ID, which lets the wire
+ * format send a relation to it as a reference instead of the whole object.
+ */
+interface Identified {
+    int getId();
+    
+    void setId(int id);
+}
@@ -1,6 +1,9 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -10,11 +13,14 @@ import java.util.List;
  * Represents an invoice in the legal system.
  * Used for billing clients for legal services.
  */
-public class Invoice implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Invoice implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
+    // Assigned by the server and increased on every update; 0 until saved
+    private long version;
+    
     private String invoiceNumber;
     
     private Client client;
@@ -70,6 +76,9 @@ public class Invoice implements Serializable {
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
     public String getInvoiceNumber() { return invoiceNumber; }
     public void setInvoiceNumber(String invoiceNumber) { this.invoiceNumber = invoiceNumber; }
     
@@ -205,6 +214,42 @@ public class Invoice implements Serializable {
         }
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeVarLong(version);
+        writer.writeString(invoiceNumber);
+        writer.writeRef(client);
+        writer.writeRef(legalCase);
+        writer.writeDate(issueDate);
+        writer.writeDate(dueDate);
+        writer.writeDecimal(amount);
+        writer.writeDecimal(amountPaid);
+        writer.writeString(status);
+        writer.writeString(notes);
+        writer.writeRefList(timeEntries);
+        writer.writeRefList(payments);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        version = reader.readVarLong();
+        invoiceNumber = reader.readString();
+        client = reader.readRef(Client.class);
+        legalCase = reader.readRef(Case.class);
+        issueDate = reader.readDate();
+        dueDate = reader.readDate();
+        amount = reader.readDecimal();
+        amountPaid = reader.readDecimal();
+        status = reader.readString();
+        notes = reader.readString();
+        timeEntries = reader.readRefList(TimeEntry.class);
+        payments = reader.readRefList(Payment.class);
+    }
+    
     @Override
     public String toString() {
         return "Invoice [id=" + id + ", invoiceNumber=" + invoiceNumber + 
@@ -0,0 +1,57 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the invoice editor shows, loaded with one service call: the
+ * clients to choose from, the selected client's cases, the time entries of
+ * the selected case and, depending on the request, the invoice being edited
+ * or the next free invoice number.
+ */
+public class InvoiceEditorContext implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<Client> clients = new ArrayList<>();
+
+    private Invoice invoice;
+
+    private String nextInvoiceNumber;
+
+    private int clientId;
+
+    private List<Case> cases = new ArrayList<>();
+
+    private int caseId;
+
+    private List<TimeEntry> timeEntries = new ArrayList<>();
+
+    /**
+     * Default constructor
+     */
+    public InvoiceEditorContext() {
+    }
+
+    // Getters and Setters
+    public List<Client> getClients() { return clients; }
+    public void setClients(List<Client> clients) { this.clients = clients; }
+
+    public Invoice getInvoice() { return invoice; }
+    public void setInvoice(Invoice invoice) { this.invoice = invoice; }
+
+    public String getNextInvoiceNumber() { return nextInvoiceNumber; }
+    public void setNextInvoiceNumber(String nextInvoiceNumber) { this.nextInvoiceNumber = nextInvoiceNumber; }
+
+    public int getClientId() { return clientId; }
+    public void setClientId(int clientId) { this.clientId = clientId; }
+
+    public List<Case> getCases() { return cases; }
+    public void setCases(List<Case> cases) { this.cases = cases; }
+
+    public int getCaseId() { return caseId; }
+    public void setCaseId(int caseId) { this.caseId = caseId; }
+
+    public List<TimeEntry> getTimeEntries() { return timeEntries; }
+    public void setTimeEntries(List<TimeEntry> timeEntries) { this.timeEntries = timeEntries; }
+}
@@ -0,0 +1,118 @@
+package model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A relation received as a list of IDs. The entities are looked up the first
+ * time the list is used, in the identity map of the stream it was read from,
+ * so every entity that came in the same response is shared rather than
+ * copied. IDs of entities the response did not include are left out of the
+ * list, so no blank placeholder ever reaches the user interface; they are
+ * kept aside and written back with the list, so sending the owning entity
+ * again does not drop them. Load the owner through its controller to get
+ * the complete list.
+ */
+final class LazyRefList<T extends Identified> extends AbstractList<T> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final Class<T> type;
+    
+    // Set until the list is first used
+    private int[] ids;
+    private Map<Integer, Identified> identities;
+    
+    private List<T> entities;
+    private int[] unresolvedIds;
+    
+    LazyRefList(Class<T> type, int[] ids, Map<Integer, Identified> identities) {
+        this.type = type;
+        this.ids = ids;
+        this.identities = identities;
+    }
+    
+    /**
+     * Get the IDs of the relation, including those of entities that were not
+     * in the response, without resolving them
+     */
+    synchronized int[] getIds() {
+        if (entities == null) {
+            return ids;
+        }
+        int[] current = new int[entities.size() + unresolvedIds.length];
+        for (int i = 0; i < entities.size(); i++) {
+            current[i] = entities.get(i).getId();
+        }
+        System.arraycopy(unresolvedIds, 0, current, entities.size(), unresolvedIds.length);
+        return current;
+    }
+    
+    /**
+     * Check if every entity of the relation was in the response, so the
+     * list holds the whole relation
+     */
+    boolean isComplete() {
+        resolve();
+        synchronized (this) {
+            return unresolvedIds.length == 0;
+        }
+    }
+    
+    private synchronized List<T> resolve() {
+        if (entities == null) {
+            entities = new ArrayList<>(ids.length);
+            int[] missing = new int[ids.length];
+            int missingCount = 0;
+            for (int id : ids) {
+                Identified entity = identities.get(id);
+                if (type.isInstance(entity)) {
+                    entities.add(type.cast(entity));
+                } else {
+                    missing[missingCount++] = id;
+                }
+            }
+            unresolvedIds = Arrays.copyOf(missing, missingCount);
+            ids = null;
+            identities = null;
+        }
+        return entities;
+    }
+    
+    @Override
+    public T get(int index) {
+        return resolve().get(index);
+    }
+    
+    @Override
+    public int size() {
+        return resolve().size();
+    }
+    
+    @Override
+    public T set(int index, T element) {
+        return resolve().set(index, element);
+    }
+    
+    @Override
+    public void add(int index, T element) {
+        resolve().add(index, element);
+        modCount++;
+    }
+    
+    @Override
+    public T remove(int index) {
+        T removed = resolve().remove(index);
+        modCount++;
+        return removed;
+    }
+    
+    // Anything serializing the list directly gets a plain copy
+    private Object writeReplace() {
+        return new ArrayList<>(resolve());
+    }
+}
@@ -0,0 +1,102 @@
+package model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A create or update made on the client and queued until the server can
+ * apply it. The idempotency key lets the server recognise a mutation it has
+ * already applied when a batch is sent again, and the base version is the
+ * version of the entity the change was made to, so an update that would
+ * overwrite someone else's change is reported as a conflict instead.
+ */
+public class Mutation implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    // Operations
+    public static final String CREATE = "Create";
+    public static final String UPDATE = "Update";
+    
+    // Entity types
+    public static final String CASE = "Case";
+    public static final String CLIENT = "Client";
+    public static final String EVENT = "Event";
+    
+    private String idempotencyKey;
+    
+    private String operation;
+    
+    private String entityType;
+    
+    private int entityId;
+    
+    private long baseVersion;
+    
+    private Serializable entity;
+    
+    private LocalDateTime queuedAt;
+    
+    /**
+     * Default constructor
+     */
+    public Mutation() {
+        this.queuedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Constructor with essential fields
+     */
+    public Mutation(String idempotencyKey, String operation, String entityType, int entityId,
+                    long baseVersion, Serializable entity) {
+        this();
+        this.idempotencyKey = idempotencyKey;
+        this.operation = operation;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.baseVersion = baseVersion;
+        this.entity = entity;
+    }
+    
+    // Getters and Setters
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+    
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+    
+    public int getEntityId() { return entityId; }
+    public void setEntityId(int entityId) { this.entityId = entityId; }
+    
+    public long getBaseVersion() { return baseVersion; }
+    public void setBaseVersion(long baseVersion) { this.baseVersion = baseVersion; }
+    
+    public Serializable getEntity() { return entity; }
+    public void setEntity(Serializable entity) { this.entity = entity; }
+    
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public void setQueuedAt(LocalDateTime queuedAt) { this.queuedAt = queuedAt; }
+    
+    /**
+     * Check if this mutation changes the same saved entity as another
+     */
+    public boolean isSameEntity(Mutation other) {
+        return entityId > 0 && entityId == other.entityId && entityType.equals(other.entityType);
+    }
+    
+    /**
+     * Gets a short description of the change for display
+     */
+    public String getDescription() {
+        String name = entity != null ? entity.toString() : entityType;
+        return operation + " " + entityType + (entityId > 0 ? " #" + entityId : "") + ": " + name;
+    }
+    
+    @Override
+    public String toString() {
+        return "Mutation [key=" + idempotencyKey + ", operation=" + operation + ", entityType=" + entityType +
+               ", entityId=" + entityId + ", baseVersion=" + baseVersion + "]";
+    }
+}
@@ -0,0 +1,66 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * The server's answer to one queued {@link Mutation}.
+ */
+public class MutationResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    // Outcomes
+    public static final String APPLIED = "Applied";
+    public static final String CONFLICT = "Conflict";
+    public static final String REJECTED = "Rejected";
+    
+    private String idempotencyKey;
+    
+    private String status;
+    
+    // The entity as saved when applied, or as it is now on the server after a conflict
+    private Serializable current;
+    
+    private long currentVersion;
+    
+    private int entityId;
+    
+    private String message;
+    
+    /**
+     * Default constructor
+     */
+    public MutationResult() {
+    }
+    
+    // Getters and Setters
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public Serializable getCurrent() { return current; }
+    public void setCurrent(Serializable current) { this.current = current; }
+    
+    public long getCurrentVersion() { return currentVersion; }
+    public void setCurrentVersion(long currentVersion) { this.currentVersion = currentVersion; }
+    
+    public int getEntityId() { return entityId; }
+    public void setEntityId(int entityId) { this.entityId = entityId; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    /**
+     * Check if the mutation was applied
+     */
+    public boolean isApplied() {
+        return APPLIED.equals(status);
+    }
+    
+    @Override
+    public String toString() {
+        return "MutationResult [key=" + idempotencyKey + ", status=" + status +
+               ", currentVersion=" + currentVersion + ", message=" + message + "]";
+    }
+}
@@ -1,14 +1,17 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
  * Represents a payment made by a client for an invoice.
  */
-public class Payment implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Payment implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
@@ -91,6 +94,34 @@ public class Payment implements Serializable {
         return paymentMethod + " payment of " + amount + " on " + paymentDate + 
                (reference != null && !reference.isEmpty() ? " (Ref: " + reference + ")" : "");
     }
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeString(paymentId);
+        writer.writeRef(invoice);
+        writer.writeRef(client);
+        writer.writeDate(paymentDate);
+        writer.writeDecimal(amount);
+        writer.writeString(paymentMethod);
+        writer.writeString(reference);
+        writer.writeString(notes);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        paymentId = reader.readString();
+        invoice = reader.readRef(Invoice.class);
+        client = reader.readRef(Client.class);
+        paymentDate = reader.readDate();
+        amount = reader.readDecimal();
+        paymentMethod = reader.readString();
+        reference = reader.readString();
+        notes = reader.readString();
+    }
+    
     @Override
     public String toString() {
         return "Payment [id=" + id + ", paymentId=" + paymentId + ", invoiceId=" + 
@@ -1,6 +1,9 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 import java.math.BigDecimal;
 
@@ -8,8 +11,8 @@ import java.math.BigDecimal;
  * Represents a time entry for billing purposes.
  * Records time spent on a case by an attorney.
  */
-public class TimeEntry implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class TimeEntry implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
@@ -32,6 +35,12 @@ public class TimeEntry implements Serializable {
     
     private Invoice invoice; // If billed, reference to invoice
     
+    // Outcomes of marking time entries as billed or unbilled
+    public static final String BILLING_MARKED = "Marked";
+    public static final String BILLING_UNMARKED = "Unmarked";
+    public static final String BILLING_ALREADY_BILLED = "Already Billed";
+    public static final String BILLING_NOT_FOUND = "Not Found";
+    
     /**
      * Default constructor
      */
@@ -116,6 +125,38 @@ public class TimeEntry implements Serializable {
         return String.format("%d:%02d", wholeHours, minutes);
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeString(entryId);
+        writer.writeRef(associatedCase);
+        writer.writeRef(attorney);
+        writer.writeDate(entryDate);
+        writer.writeDouble(hours);
+        writer.writeString(description);
+        writer.writeString(activityCode);
+        writer.writeDecimal(hourlyRate);
+        writer.writeBoolean(billed);
+        writer.writeRef(invoice);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        entryId = reader.readString();
+        associatedCase = reader.readRef(Case.class);
+        attorney = reader.readRef(Attorney.class);
+        entryDate = reader.readDate();
+        hours = reader.readDouble();
+        description = reader.readString();
+        activityCode = reader.readString();
+        hourlyRate = reader.readDecimal();
+        billed = reader.readBoolean();
+        invoice = reader.readRef(Invoice.class);
+    }
+    
     @Override
     public String toString() {
         return "TimeEntry [id=" + id + ", entryId=" + entryId + ", case=" + 
@@ -0,0 +1,67 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Server-side state of a chunked document upload.
+ * Returned after every chunk so the client always knows how many bytes the
+ * server has accepted and can resume from there after a dropped connection.
+ */
+public class UploadSession implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private String sessionId;
+    
+    private String fileName;
+    
+    private long fileSize;
+    
+    private int chunkSize;
+    
+    private long receivedBytes;
+    
+    /**
+     * Default constructor
+     */
+    public UploadSession() {
+    }
+    
+    /**
+     * Constructor with essential fields
+     */
+    public UploadSession(String sessionId, String fileName, long fileSize, int chunkSize) {
+        this.sessionId = sessionId;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.chunkSize = chunkSize;
+    }
+    
+    // Getters and Setters
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+    
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+    
+    public long getReceivedBytes() { return receivedBytes; }
+    public void setReceivedBytes(long receivedBytes) { this.receivedBytes = receivedBytes; }
+    
+    /**
+     * Check if the server has received the whole file
+     */
+    public boolean isComplete() {
+        return receivedBytes >= fileSize;
+    }
+    
+    @Override
+    public String toString() {
+        return "UploadSession [sessionId=" + sessionId + ", fileName=" + fileName + 
+               ", received=" + receivedBytes + "/" + fileSize + "]";
+    }
+}
@@ -1,14 +1,17 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
  * Represents a user in the legal case management system.
  */
-public class User implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class User implements Externalizable, Identified {
+    private static final long serialVersionUID = 3L;
     
     private int id;
     
@@ -164,6 +167,36 @@ public class User implements Serializable {
         return lastLogin == null;
     }
     
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.Writer writer = WireFormat.writer(out);
+        writer.writeId(this);
+        writer.writeString(username);
+        writer.writeString(passwordHash);
+        writer.writeString(passwordSalt);
+        writer.writeString(email);
+        writer.writeString(fullName);
+        writer.writeString(role);
+        writer.writeDate(registrationDate);
+        writer.writeDateTime(lastLogin);
+        writer.writeBoolean(active);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        WireFormat.Reader reader = WireFormat.reader(in);
+        id = reader.readId(this);
+        username = reader.readString();
+        passwordHash = reader.readString();
+        passwordSalt = reader.readString();
+        email = reader.readString();
+        fullName = reader.readString();
+        role = reader.readString();
+        registrationDate = reader.readDate();
+        lastLogin = reader.readDateTime();
+        active = reader.readBoolean();
+    }
+    
     @Override
     public String toString() {
         return "User [id=" + id + ", username=" + username + ", fullName=" + fullName + 
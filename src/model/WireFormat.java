@@ -0,0 +1,461 @@
+package model;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Compact encoding used by the model classes' writeExternal and readExternal.
+ * Integers are written as varints, dates as epoch days, money as an unscaled
+ * long with its scale, and strings through a table kept per stream so that a
+ * value repeated across a list (a status, a case type, an activity code) is
+ * sent once and afterwards referred to by its index.
+ * 
+ * The string table lives as long as the stream it belongs to. Both ends add
+ * strings in the order objects are written and read, so their indexes agree
+ * without the table itself ever being sent.
+ * 
+ * Related entities are written in full the first time they appear in a
+ * stream and as an ID after that. Only entities written at the top level of
+ * a stream send their lists in full; the entities those lists pull in send
+ * their own lists as IDs, so one case no longer drags in its attorneys'
+ * other cases and everything under them. On the reading side each stream
+ * keeps an identity map, and ID lists are resolved against it when first
+ * used (see {@link LazyRefList}); an ID the stream did not carry is left out
+ * of the list rather than turned into an entity with no details.
+ */
+final class WireFormat {
+    // Long strings are rarely repeated and are not worth keeping in the table
+    private static final int MAX_TABLE_STRING_LENGTH = 128;
+    private static final int MAX_TABLE_SIZE = 4096;
+    
+    // String tags; a tag from STRING_FIRST_INDEX up refers to a table entry
+    private static final int STRING_NULL = 0;
+    private static final int STRING_LITERAL = 1;
+    private static final int STRING_NEW = 2;
+    private static final int STRING_FIRST_INDEX = 3;
+    
+    // Decimal tags
+    private static final int DECIMAL_NULL = 0;
+    private static final int DECIMAL_LONG = 1;
+    private static final int DECIMAL_TEXT = 2;
+    
+    // Reference tags
+    private static final int REF_NULL = 0;
+    private static final int REF_OBJECT = 1;
+    private static final int REF_ID = 2;
+    
+    // List tags
+    private static final int LIST_NULL = 0;
+    private static final int LIST_OBJECTS = 1;
+    private static final int LIST_IDS = 2;
+    
+    // State by stream; dropped once the stream is no longer used
+    private static final Map<ObjectOutput, WriteState> writeStates =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<ObjectInput, ReadState> readStates =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    
+    private static class WriteState {
+        private final Map<String, Integer> strings = new HashMap<>();
+        
+        // IDs of the entities written so far, by class
+        private final Map<Class<?>, Set<Integer>> written = new HashMap<>();
+        
+        // How many related entities deep the writer currently is
+        private int depth;
+    }
+    
+    private static class ReadState {
+        private final List<String> strings = new ArrayList<>();
+        
+        private final Map<Class<?>, Map<Integer, Identified>> identities = new HashMap<>();
+        
+        private Map<Integer, Identified> identities(Class<?> type) {
+            return identities.computeIfAbsent(type, key -> new HashMap<>());
+        }
+    }
+    
+    private WireFormat() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Get the writer for a stream, creating its state on first use
+     */
+    static Writer writer(ObjectOutput out) {
+        return new Writer(out, writeStates.computeIfAbsent(out, key -> new WriteState()));
+    }
+    
+    /**
+     * Get the reader for a stream, creating its state on first use
+     */
+    static Reader reader(ObjectInput in) {
+        return new Reader(in, readStates.computeIfAbsent(in, key -> new ReadState()));
+    }
+    
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    /**
+     * Writes values to one stream
+     */
+    static final class Writer {
+        private final ObjectOutput out;
+        private final WriteState state;
+        private final Map<String, Integer> strings;
+        
+        private Writer(ObjectOutput out, WriteState state) {
+            this.out = out;
+            this.state = state;
+            this.strings = state.strings;
+        }
+        
+        /**
+         * Write the ID of the entity being written; comes first in writeExternal
+         */
+        void writeId(Identified entity) throws IOException {
+            int id = entity.getId();
+            writeVarInt(id);
+            if (id > 0) {
+                state.written.computeIfAbsent(entity.getClass(), key -> new HashSet<>()).add(id);
+            }
+        }
+        
+        void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+        
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+        
+        void writeBoolean(boolean value) throws IOException {
+            out.writeBoolean(value);
+        }
+        
+        void writeDouble(double value) throws IOException {
+            out.writeDouble(value);
+        }
+        
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(STRING_NULL);
+                return;
+            }
+            
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(STRING_FIRST_INDEX + index);
+                return;
+            }
+            
+            if (value.length() <= MAX_TABLE_STRING_LENGTH && strings.size() < MAX_TABLE_SIZE) {
+                strings.put(value, strings.size());
+                writeVarInt(STRING_NEW);
+            } else {
+                writeVarInt(STRING_LITERAL);
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+        
+        void writeDate(LocalDate value) throws IOException {
+            writeVarLong(value == null ? 0 : zigZag(value.toEpochDay()) + 1);
+        }
+        
+        void writeTime(LocalTime value) throws IOException {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            // Whole seconds in the common case; nanos follow only when present
+            int nano = value.getNano();
+            writeVarLong((((long) value.toSecondOfDay() << 1) | (nano != 0 ? 1 : 0)) + 1);
+            if (nano != 0) {
+                writeVarInt(nano);
+            }
+        }
+        
+        void writeDateTime(LocalDateTime value) throws IOException {
+            writeDate(value != null ? value.toLocalDate() : null);
+            if (value != null) {
+                writeTime(value.toLocalTime());
+            }
+        }
+        
+        void writeDecimal(BigDecimal value) throws IOException {
+            if (value == null) {
+                writeVarInt(DECIMAL_NULL);
+            } else if (value.unscaledValue().bitLength() < 64) {
+                writeVarInt(DECIMAL_LONG);
+                writeVarLong(zigZag(value.scale()));
+                writeVarLong(zigZag(value.unscaledValue().longValue()));
+            } else {
+                writeVarInt(DECIMAL_TEXT);
+                writeString(value.unscaledValue().toString());
+                writeVarLong(zigZag(value.scale()));
+            }
+        }
+        
+        /**
+         * Write a related entity, as its ID if it was already written
+         */
+        void writeRef(Identified entity) throws IOException {
+            if (entity == null) {
+                writeVarInt(REF_NULL);
+            } else if (isWritten(entity)) {
+                writeVarInt(REF_ID);
+                writeVarInt(entity.getId());
+            } else {
+                writeVarInt(REF_OBJECT);
+                writeRelated(entity);
+            }
+        }
+        
+        /**
+         * Write a list of related entities, in full for a top-level entity
+         * and as IDs otherwise
+         */
+        void writeRefList(List<? extends Identified> list) throws IOException {
+            if (list == null) {
+                writeVarInt(LIST_NULL);
+                return;
+            }
+            
+            // A relation received as IDs is written in full at the top level
+            // once all of it is known; otherwise its IDs are passed on unchanged
+            if (list instanceof LazyRefList && (state.depth > 0 || !((LazyRefList<?>) list).isComplete())) {
+                writeIds(((LazyRefList<?>) list).getIds());
+            } else if (state.depth > 0 && isSaved(list)) {
+                int[] ids = new int[list.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = list.get(i).getId();
+                }
+                writeIds(ids);
+            } else {
+                writeVarInt(LIST_OBJECTS);
+                writeVarInt(list.size());
+                for (Identified entity : list) {
+                    writeRelated(entity);
+                }
+            }
+        }
+        
+        private void writeIds(int[] ids) throws IOException {
+            writeVarInt(LIST_IDS);
+            writeVarInt(ids.length);
+            for (int id : ids) {
+                writeVarInt(id);
+            }
+        }
+        
+        private void writeRelated(Identified entity) throws IOException {
+            state.depth++;
+            try {
+                out.writeObject(entity);
+            } finally {
+                state.depth--;
+            }
+        }
+        
+        private boolean isWritten(Identified entity) {
+            Set<Integer> ids = state.written.get(entity.getClass());
+            return ids != null && entity.getId() > 0 && ids.contains(entity.getId());
+        }
+        
+        // Unsaved entities have no ID to refer to them by
+        private boolean isSaved(List<? extends Identified> list) {
+            for (Identified entity : list) {
+                if (entity == null || entity.getId() <= 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Reads values written by a {@link Writer} from one stream
+     */
+    static final class Reader {
+        private final ObjectInput in;
+        private final ReadState state;
+        private final List<String> strings;
+        
+        private Reader(ObjectInput in, ReadState state) {
+            this.in = in;
+            this.state = state;
+            this.strings = state.strings;
+        }
+        
+        /**
+         * Read the ID of the entity being read and add it to the identity map
+         */
+        int readId(Identified entity) throws IOException {
+            int id = readVarInt();
+            if (id > 0) {
+                state.identities(entity.getClass()).put(id, entity);
+            }
+            return id;
+        }
+        
+        int readVarInt() throws IOException {
+            return (int) readVarLong();
+        }
+        
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Varint is too long");
+        }
+        
+        boolean readBoolean() throws IOException {
+            return in.readBoolean();
+        }
+        
+        double readDouble() throws IOException {
+            return in.readDouble();
+        }
+        
+        String readString() throws IOException {
+            int tag = readVarInt();
+            if (tag == STRING_NULL) {
+                return null;
+            }
+            if (tag >= STRING_FIRST_INDEX) {
+                int index = tag - STRING_FIRST_INDEX;
+                if (index >= strings.size()) {
+                    throw new StreamCorruptedException("Unknown string index " + index);
+                }
+                return strings.get(index);
+            }
+            
+            int length = readVarInt();
+            if (length < 0) {
+                throw new StreamCorruptedException("Negative string length " + length);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            if (tag == STRING_NEW) {
+                strings.add(value);
+            }
+            return value;
+        }
+        
+        LocalDate readDate() throws IOException {
+            long value = readVarLong();
+            return value == 0 ? null : LocalDate.ofEpochDay(unZigZag(value - 1));
+        }
+        
+        LocalTime readTime() throws IOException {
+            long value = readVarLong();
+            if (value == 0) {
+                return null;
+            }
+            value--;
+            LocalTime time = LocalTime.ofSecondOfDay(value >>> 1);
+            return (value & 1) != 0 ? time.withNano(readVarInt()) : time;
+        }
+        
+        LocalDateTime readDateTime() throws IOException {
+            LocalDate date = readDate();
+            return date != null ? LocalDateTime.of(date, readTime()) : null;
+        }
+        
+        BigDecimal readDecimal() throws IOException {
+            int tag = readVarInt();
+            switch (tag) {
+                case DECIMAL_NULL:
+                    return null;
+                case DECIMAL_LONG:
+                    int scale = (int) unZigZag(readVarLong());
+                    return BigDecimal.valueOf(unZigZag(readVarLong()), scale);
+                case DECIMAL_TEXT:
+                    BigInteger unscaled = new BigInteger(readString());
+                    return new BigDecimal(unscaled, (int) unZigZag(readVarLong()));
+                default:
+                    throw new StreamCorruptedException("Unknown decimal tag " + tag);
+            }
+        }
+        
+        <T extends Identified> T readRef(Class<T> type) throws IOException, ClassNotFoundException {
+            int tag = readVarInt();
+            switch (tag) {
+                case REF_NULL:
+                    return null;
+                case REF_OBJECT:
+                    return type.cast(in.readObject());
+                case REF_ID:
+                    int id = readVarInt();
+                    Identified entity = state.identities(type).get(id);
+                    if (!type.isInstance(entity)) {
+                        throw new StreamCorruptedException("Reference to " + type.getSimpleName() + " " + id + " before it was read");
+                    }
+                    return type.cast(entity);
+                default:
+                    throw new StreamCorruptedException("Unknown reference tag " + tag);
+            }
+        }
+        
+        <T extends Identified> List<T> readRefList(Class<T> type) throws IOException, ClassNotFoundException {
+            int tag = readVarInt();
+            if (tag == LIST_NULL) {
+                return null;
+            }
+            
+            int size = readVarInt();
+            if (size < 0) {
+                throw new StreamCorruptedException("Negative list size " + size);
+            }
+            if (tag == LIST_IDS) {
+                int[] ids = new int[size];
+                for (int i = 0; i < size; i++) {
+                    ids[i] = readVarInt();
+                }
+                return new LazyRefList<>(type, ids, state.identities(type));
+            }
+            if (tag != LIST_OBJECTS) {
+                throw new StreamCorruptedException("Unknown list tag " + tag);
+            }
+            
+            List<T> list = new ArrayList<>(Math.min(size, 1024));
+            for (int i = 0; i < size; i++) {
+                list.add(type.cast(in.readObject()));
+            }
+            return list;
+        }
+    }
+}
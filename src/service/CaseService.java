@@ -5,6 +5,7 @@ import java.rmi.RemoteException;
 import java.time.LocalDate;
 import java.util.List;
 import model.Case;
+import model.ConditionalResult;
 
 /**
  * Remote service interface for Case operations
@@ -81,6 +82,14 @@ public interface CaseService extends Remote {
      */
     Case getCaseWithDetails(Case legalCase) throws RemoteException;
     
+    /**
+     * Gets a case with all its details unless the client's copy is current.
+     * The version covers the case and everything returned with it, so it
+     * changes when any of them changes. Returns a not-modified marker when
+     * knownVersion is still the current version.
+     */
+    ConditionalResult<Case> getCaseWithDetailsIfModified(int caseId, long knownVersion) throws RemoteException;
+    
     /**
      * Assigns an attorney to a case
      */
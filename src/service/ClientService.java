@@ -4,6 +4,7 @@ import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.util.List;
 import model.Client;
+import model.ConditionalResult;
 
 /**
  * Remote service interface for Client operations
@@ -59,4 +60,11 @@ public interface ClientService extends Remote {
      * Gets a client with all their cases loaded
      */
     Client getClientWithCases(Client client) throws RemoteException;
+    
+    /**
+     * Gets a client with all their cases unless the client's copy is current.
+     * The version covers the client and its cases. Returns a not-modified
+     * marker when knownVersion is still the current version.
+     */
+    ConditionalResult<Client> getClientWithCasesIfModified(int clientId, long knownVersion) throws RemoteException;
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.time.LocalDate;
 import java.util.List;
+import model.BlockSignature;
 import model.Document;
+import model.DocumentVersion;
+import model.UploadSession;
 
 /**
  * Remote service interface for Document operations
@@ -36,6 +39,12 @@ public interface DocumentService extends Remote {
      */
     Document findDocumentById(Document document) throws RemoteException;
     
+    /**
+     * Finds documents by ID in one call. IDs of documents that no longer
+     * exist are left out; the order of the result is not specified.
+     */
+    List<Document> findDocumentsByIds(int[] ids) throws RemoteException;
+    
     /**
      * Finds a document by document ID
      */
@@ -70,4 +79,115 @@ public interface DocumentService extends Remote {
      * Gets a document with its case information
      */
     Document getDocumentWithCase(Document document) throws RemoteException;
-}
\ No newline at end of file
+    
+    /**
+     * Checks whether a file with the given SHA-256 content hash is already stored
+     */
+    boolean hasBlob(String contentHash) throws RemoteException;
+    
+    /**
+     * Creates a document record referencing an already stored file, without transferring it.
+     * Returns null if no file with the content hash is stored.
+     */
+    Document createDocumentFromBlob(String contentHash, Document document) throws RemoteException;
+    
+    /**
+     * Gets document storage statistics: logical bytes referenced by documents,
+     * bytes actually stored, and the number of stored files and documents
+     */
+    java.util.Map<String, Object> getStorageStatistics() throws RemoteException;
+    
+    /**
+     * Starts a chunked upload session for a document file. The server stores
+     * the file under its SHA-256 content hash and verifies it on commit.
+     */
+    UploadSession beginUpload(String contentHash, String fileName, long fileSize, int chunkSize) throws RemoteException;
+    
+    /**
+     * Appends a chunk to an upload session after verifying its CRC32 checksum.
+     * The offset must equal the bytes already received; a chunk at any other
+     * offset or with a bad checksum is discarded and the session is returned unchanged.
+     */
+    UploadSession uploadChunk(String sessionId, long offset, byte[] data, long checksum) throws RemoteException;
+    
+    /**
+     * Gets the current state of an upload session, used to resume after a dropped connection
+     */
+    UploadSession getUploadSession(String sessionId) throws RemoteException;
+    
+    /**
+     * Completes an upload session and creates the document record for the stored file
+     */
+    Document commitUpload(String sessionId, Document document) throws RemoteException;
+    
+    /**
+     * Completes an upload session and stores the file without creating a document record.
+     * Returns the verified content hash.
+     */
+    String commitBlob(String sessionId) throws RemoteException;
+    
+    /**
+     * Creates document records in one call. Each document must reference a
+     * stored file through its content hash. Returns the created documents in
+     * the same order, with null for any document that could not be created.
+     */
+    List<Document> createDocuments(List<Document> documents) throws RemoteException;
+    
+    /**
+     * Abandons an upload session and discards the partially received file
+     */
+    void abortUpload(String sessionId) throws RemoteException;
+    
+    /**
+     * Gets the size in bytes of a document's stored file
+     */
+    long getDocumentSize(int documentId) throws RemoteException;
+    
+    /**
+     * Reads up to length bytes of a document's stored file starting at offset.
+     * Returns an empty array at the end of the file.
+     */
+    byte[] downloadChunk(int documentId, long offset, int length) throws RemoteException;
+    
+    /**
+     * Gets the revisions of a document, oldest first
+     */
+    List<DocumentVersion> findDocumentVersions(int documentId) throws RemoteException;
+    
+    /**
+     * Gets the block checksums of a stored file, so a client can send a new
+     * revision as a delta against it. Returns null if no file with the content hash is stored.
+     */
+    BlockSignature getBlockSignature(String contentHash, int blockSize) throws RemoteException;
+    
+    /**
+     * Starts a chunked upload session for a delta that turns the stored file
+     * baseHash into a new file with content hash targetHash. The delta is sent
+     * with uploadChunk like any other upload.
+     */
+    UploadSession beginDeltaUpload(String baseHash, String targetHash, long deltaSize, int chunkSize) throws RemoteException;
+    
+    /**
+     * Completes a delta upload: applies the delta to its base, verifies the
+     * result against the target hash and adds it as the document's newest
+     * revision, which also becomes the document's current content.
+     */
+    DocumentVersion commitVersion(String sessionId, DocumentVersion version) throws RemoteException;
+    
+    /**
+     * Adds an already stored file as the document's newest revision.
+     * Returns null if no file with the version's content hash is stored.
+     */
+    DocumentVersion createVersionFromBlob(DocumentVersion version) throws RemoteException;
+    
+    /**
+     * Gets the size in bytes of a stored file, reconstructing it from its deltas if needed
+     */
+    long getBlobSize(String contentHash) throws RemoteException;
+    
+    /**
+     * Reads up to length bytes of a stored file starting at offset.
+     * Returns an empty array at the end of the file.
+     */
+    byte[] downloadBlobChunk(String contentHash, long offset, int length) throws RemoteException;
+}
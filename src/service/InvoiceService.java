@@ -4,7 +4,9 @@ import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.time.LocalDate;
 import java.util.List;
+import model.ConditionalResult;
 import model.Invoice;
+import model.InvoiceEditorContext;
 
 /**
  * Remote service interface for Invoice operations
@@ -76,16 +78,61 @@ public interface InvoiceService extends Remote {
      */
     Invoice getInvoiceWithDetails(Invoice invoice) throws RemoteException;
     
+    /**
+     * Gets an invoice with all related details unless the client's copy is
+     * current. The version covers the invoice and everything returned with
+     * it. Returns a not-modified marker when knownVersion is still the
+     * current version.
+     */
+    ConditionalResult<Invoice> getInvoiceWithDetailsIfModified(int invoiceId, long knownVersion) throws RemoteException;
+    
     /**
      * Updates the paid amount for an invoice based on payments
      */
     Invoice updateInvoicePaidAmount(int invoiceId) throws RemoteException;
     
+    /**
+     * Re-derives the paid amount and status of many invoices in one set-based
+     * pass, with the same rules as updateInvoicePaidAmount: draft and cancelled
+     * invoices keep their status, the others become Paid, Partially Paid,
+     * Overdue or Issued. A null array recalculates every invoice. Returns only
+     * the invoices whose paid amount or status changed.
+     */
+    List<Invoice> recalculateInvoices(int[] invoiceIds) throws RemoteException;
+    
     /**
      * Creates a new invoice from unbilled time entries for a case
      */
     Invoice createInvoiceFromUnbilledTimeEntries(int caseId, String invoiceNumber, LocalDate dueDate) throws RemoteException;
     
+    /**
+     * Creates draft invoices in one call. Each invoice lists the time entries
+     * it bills; the invoice is created and its entries are marked as billed in
+     * one transaction, and an invoice number is assigned when none is set.
+     * Returns the created invoices in the same order, with null for any invoice
+     * that could not be created, including one whose entries are already billed.
+     */
+    List<Invoice> createDraftInvoices(List<Invoice> invoices) throws RemoteException;
+    
+    /**
+     * Finds one page of open invoices: issued and not paid in full or cancelled.
+     * Invoices are ordered by ID, starting after the given ID, with client and
+     * case loaded but without time entries or payments.
+     */
+    List<Invoice> findOpenInvoicesPage(int afterId, int limit) throws RemoteException;
+    
+    /**
+     * Loads everything the invoice editor shows in one call.
+     * 
+     * With an invoice ID the invoice is returned with details, its client and
+     * case are selected, and all of the case's time entries are included.
+     * Without one (0) the next invoice number is generated and only unbilled
+     * time entries are included. A client or case ID of 0 selects the invoice's
+     * client and case, or else the first client and the client's first case.
+     * The client list is only filled when includeClients is set.
+     */
+    InvoiceEditorContext getInvoiceEditorContext(int invoiceId, int clientId, int caseId, boolean includeClients) throws RemoteException;
+    
     /**
      * Generates the next invoice number
      */
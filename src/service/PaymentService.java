@@ -17,6 +17,14 @@ public interface PaymentService extends Remote {
      */
     Payment createPayment(Payment payment) throws RemoteException;
     
+    /**
+     * Creates many payments in one call, for example from a bank statement.
+     * Payment IDs are assigned where none is set, and the paid amount and
+     * status of each affected invoice are updated once. Returns the created
+     * payments in the same order, with null for any payment that was rejected.
+     */
+    List<Payment> createPayments(List<Payment> payments) throws RemoteException;
+    
     /**
      * Updates an existing payment
      */
@@ -62,6 +70,12 @@ public interface PaymentService extends Remote {
      */
     List<Payment> findAllPayments() throws RemoteException;
     
+    /**
+     * Finds one page of the payments made against open invoices, ordered by ID
+     * and starting after the given ID. Each payment's invoice has only its ID set.
+     */
+    List<Payment> findOpenInvoicePaymentsPage(int afterId, int limit) throws RemoteException;
+    
     /**
      * Gets a payment with invoice and client information
      */
@@ -0,0 +1,22 @@
+package service;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+import model.Mutation;
+import model.MutationResult;
+
+/**
+ * Remote service interface for replaying changes queued on the client
+ */
+public interface SyncService extends Remote {
+    
+    /**
+     * Applies queued mutations in order and returns one result per mutation,
+     * in the same order. A mutation whose idempotency key was already applied
+     * returns its original result without being applied again. An update
+     * whose base version is not the entity's current version is not applied
+     * and returns a conflict with the current entity.
+     */
+    List<MutationResult> applyMutations(List<Mutation> mutations) throws RemoteException;
+}
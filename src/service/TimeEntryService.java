@@ -17,6 +17,15 @@ public interface TimeEntryService extends Remote {
      */
     TimeEntry createTimeEntry(TimeEntry timeEntry) throws RemoteException;
     
+    /**
+     * Creates time entries in one call. Each entry has an idempotency key at
+     * the same index; an entry whose key the server has seen before is not
+     * created again and the earlier entry is returned instead, so a batch can
+     * be resent safely after a failure. Returns the entries in the same order,
+     * with null for any entry that was rejected.
+     */
+    List<TimeEntry> createTimeEntries(List<TimeEntry> timeEntries, String[] idempotencyKeys) throws RemoteException;
+    
     /**
      * Updates an existing time entry
      */
@@ -32,6 +41,23 @@ public interface TimeEntryService extends Remote {
      */
     TimeEntry markTimeEntryAsBilled(TimeEntry timeEntry, int invoiceId) throws RemoteException;
     
+    /**
+     * Marks time entries as billed on an invoice in one transaction: either
+     * every entry is marked or none is. Returns one outcome per ID, in the
+     * same order, using the TimeEntry.BILLING_* constants. An entry already
+     * billed on the same invoice counts as marked.
+     */
+    String[] markTimeEntriesAsBilled(int[] timeEntryIds, int invoiceId) throws RemoteException;
+    
+    /**
+     * Takes time entries off an invoice and marks them unbilled in one
+     * transaction: either every entry is unmarked or none is. Returns one
+     * outcome per ID, in the same order, using the TimeEntry.BILLING_*
+     * constants. An entry that is already unbilled counts as unmarked; one
+     * billed on a different invoice is reported as already billed.
+     */
+    String[] unmarkTimeEntriesAsBilled(int[] timeEntryIds, int invoiceId) throws RemoteException;
+    
     /**
      * Finds a time entry by ID
      */
@@ -62,6 +88,12 @@ public interface TimeEntryService extends Remote {
      */
     List<TimeEntry> findUnbilledTimeEntriesByCase(int caseId) throws RemoteException;
     
+    /**
+     * Finds all unbilled time entries dated on or before a date, across all
+     * cases, with each entry's case and client loaded
+     */
+    List<TimeEntry> findUnbilledTimeEntries(LocalDate throughDate) throws RemoteException;
+    
     /**
      * Finds time entries by invoice ID
      */
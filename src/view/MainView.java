@@ -10,9 +10,17 @@ import model.User;
 import controller.UserController;
 import controller.CaseController;
 import controller.ClientController;
+import controller.EventReminderScheduler;
+import controller.FolderWatchIngester;
+import controller.MutationOutbox;
+import controller.TimeEntryJournal;
+import controller.SnapshotStore;
 import view.util.UIConstants;
+import view.util.DesktopNotifier;
 import view.util.IconManager;
 import view.util.SwingUtils;
+import view.components.OutboxDialog;
+import view.components.TimeEntryJournalDialog;
 import view.clients.ClientsPanel;
 import view.cases.CasesPanel;
 import view.attorneys.AttorneysPanel;
@@ -30,6 +38,7 @@ public class MainView extends JFrame {
     private UserController userController;
     private CaseController caseController;
     private ClientController clientController;
+    private EventReminderScheduler reminderScheduler;
     
     // Content panels
     private JPanel dashboardPanel;
@@ -58,7 +67,11 @@ public class MainView extends JFrame {
     
     // Status components
     private JLabel statusLabel;
+    private JLabel connectionLabel;
+    private JLabel outboxLabel;
+    private JLabel timeEntriesLabel;
     private JLabel dateTimeLabel;
+    private Timer reconnectTimer;
     
     /**
      * Constructor
@@ -73,6 +86,30 @@ public class MainView extends JFrame {
         
         initializeUI();
         loadDashboardData();
+        startEventReminders();
+        
+        // Only watches when the user has switched folder ingestion on
+        FolderWatchIngester.getInstance().start();
+        
+        SnapshotStore.getInstance().addConnectionListener(
+            offline -> SwingUtilities.invokeLater(() -> updateConnectionStatus(offline)));
+        updateConnectionStatus(SnapshotStore.getInstance().isOffline());
+        
+        try {
+            MutationOutbox.getInstance().addChangeListener(() -> SwingUtilities.invokeLater(this::updateOutboxStatus));
+            updateOutboxStatus();
+        } catch (Exception e) {
+            // Changes are then only saved while the server is reachable
+            e.printStackTrace();
+        }
+        
+        try {
+            TimeEntryJournal.getInstance().addChangeListener(() -> SwingUtilities.invokeLater(this::updateTimeEntryStatus));
+            updateTimeEntryStatus();
+        } catch (Exception e) {
+            // Time entries are then sent to the server directly
+            e.printStackTrace();
+        }
     }
     
     /**
@@ -652,15 +689,153 @@ public class MainView extends JFrame {
         statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 0));
         statusBar.add(statusLabel, BorderLayout.WEST);
         
+        // Shown only while the server cannot be reached
+        connectionLabel = new JLabel("Offline: showing saved data. Changes are queued and sent when the server is reachable.");
+        connectionLabel.setFont(UIConstants.SMALL_FONT);
+        connectionLabel.setForeground(UIConstants.ERROR_COLOR);
+        connectionLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        connectionLabel.setVisible(false);
+        statusBar.add(connectionLabel, BorderLayout.CENTER);
+        
+        // Unsent changes, shown only while there are any
+        outboxLabel = new JLabel();
+        outboxLabel.setFont(UIConstants.SMALL_FONT);
+        outboxLabel.setForeground(UIConstants.SECONDARY_COLOR);
+        outboxLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        outboxLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 15));
+        outboxLabel.setVisible(false);
+        outboxLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                showOutbox();
+            }
+        });
+        
+        // Unsent or rejected time entries, shown only while there are any
+        timeEntriesLabel = new JLabel();
+        timeEntriesLabel.setFont(UIConstants.SMALL_FONT);
+        timeEntriesLabel.setForeground(UIConstants.SECONDARY_COLOR);
+        timeEntriesLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        timeEntriesLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 15));
+        timeEntriesLabel.setVisible(false);
+        timeEntriesLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                showTimeEntryJournal();
+            }
+        });
+        
         // Current date/time
         dateTimeLabel = new JLabel(LocalDate.now().toString());
         dateTimeLabel.setFont(UIConstants.SMALL_FONT);
         dateTimeLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 10));
-        statusBar.add(dateTimeLabel, BorderLayout.EAST);
+        
+        JPanel eastPanel = new JPanel(new BorderLayout());
+        eastPanel.setOpaque(false);
+        eastPanel.add(timeEntriesLabel, BorderLayout.WEST);
+        eastPanel.add(outboxLabel, BorderLayout.CENTER);
+        eastPanel.add(dateTimeLabel, BorderLayout.EAST);
+        statusBar.add(eastPanel, BorderLayout.EAST);
         
         return statusBar;
     }
     
+    /**
+     * Show or hide the offline notice. While offline, the dashboard is
+     * reloaded every 30 seconds, which clears the notice once the server
+     * answers again.
+     * 
+     * @param offline true if the server cannot be reached
+     */
+    private void updateConnectionStatus(boolean offline) {
+        connectionLabel.setVisible(offline);
+        
+        if (offline && reconnectTimer == null) {
+            reconnectTimer = new Timer(30000, e -> loadDashboardData());
+            reconnectTimer.start();
+        } else if (!offline && reconnectTimer != null) {
+            reconnectTimer.stop();
+            reconnectTimer = null;
+        }
+    }
+    
+    /**
+     * Show the outbox queue depth and drain rate, and how many changes the
+     * server did not apply
+     */
+    private void updateOutboxStatus() {
+        try {
+            MutationOutbox outbox = MutationOutbox.getInstance();
+            int pending = outbox.getPendingCount();
+            int failed = outbox.getFailures().size();
+            
+            StringBuilder text = new StringBuilder();
+            if (pending > 0) {
+                text.append(pending).append(pending == 1 ? " change" : " changes").append(" waiting to sync");
+                if (outbox.getDrainRate() > 0) {
+                    text.append(String.format(" (%.1f/s)", outbox.getDrainRate()));
+                }
+            }
+            if (failed > 0) {
+                text.append(text.length() > 0 ? ", " : "").append(failed).append(" need attention");
+            }
+            outboxLabel.setText(text.toString());
+            outboxLabel.setForeground(failed > 0 ? UIConstants.ERROR_COLOR : UIConstants.SECONDARY_COLOR);
+            outboxLabel.setVisible(text.length() > 0);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Open the list of unsent and failed changes
+     */
+    private void showOutbox() {
+        try {
+            new OutboxDialog(this, MutationOutbox.getInstance()).setVisible(true);
+        } catch (Exception e) {
+            SwingUtils.showErrorMessage(this, "Error opening the outbox: " + e.getMessage(), "Outbox Error");
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Show how many time entries are waiting to be sent and how many the
+     * server rejected
+     */
+    private void updateTimeEntryStatus() {
+        try {
+            TimeEntryJournal journal = TimeEntryJournal.getInstance();
+            int pending = journal.getPendingCount();
+            int rejected = journal.getRejectedEntries().size();
+            
+            StringBuilder text = new StringBuilder();
+            if (pending > 0) {
+                text.append(pending).append(pending == 1 ? " time entry" : " time entries").append(" waiting to sync");
+            }
+            if (rejected > 0) {
+                text.append(text.length() > 0 ? ", " : "").append(rejected).append(" rejected");
+            }
+            timeEntriesLabel.setText(text.toString());
+            timeEntriesLabel.setForeground(rejected > 0 ? UIConstants.ERROR_COLOR : UIConstants.SECONDARY_COLOR);
+            timeEntriesLabel.setVisible(text.length() > 0);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Open the list of unsent and rejected time entries
+     */
+    private void showTimeEntryJournal() {
+        try {
+            new TimeEntryJournalDialog(this, TimeEntryJournal.getInstance()).setVisible(true);
+        } catch (Exception e) {
+            SwingUtils.showErrorMessage(this, "Error opening the time entries: " + e.getMessage(), "Time Entry Error");
+            e.printStackTrace();
+        }
+    }
+    
     /**
      * Update the status message
      * 
@@ -750,6 +925,18 @@ public class MainView extends JFrame {
         worker.execute();
     }
     
+    /**
+     * Start local reminders for upcoming events. Reminders follow the calendar's
+     * event controller so edits made in the calendar reschedule them.
+     */
+    private void startEventReminders() {
+        reminderScheduler = new EventReminderScheduler(
+            calendarPanel.getEventController(),
+            DesktopNotifier::showEventReminder
+        );
+        reminderScheduler.start();
+    }
+    
     /**
      * Show user profile dialog
      */
@@ -849,6 +1036,8 @@ public class MainView extends JFrame {
         );
         
         if (option == JOptionPane.YES_OPTION) {
+            reminderScheduler.shutdown();
+            FolderWatchIngester.getInstance().stop();
             dispose();
             SwingUtilities.invokeLater(() -> {
                 LoginView loginView = new LoginView();
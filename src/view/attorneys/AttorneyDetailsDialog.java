@@ -9,6 +9,7 @@ import java.util.List;
 import model.Attorney;
 import model.Case;
 import controller.AttorneyController;
+import controller.CaseController;
 import view.util.UIConstants;
 import view.components.CustomTable;
 import view.cases.CaseDetailsDialog;
@@ -20,6 +21,7 @@ import view.util.SwingUtils;
 public class AttorneyDetailsDialog extends JDialog {
     private Attorney attorney;
     private AttorneyController attorneyController;
+    private CaseController caseController;
     
     private JPanel attorneyInfoPanel;
     private JPanel casesPanel;
@@ -39,6 +41,7 @@ public class AttorneyDetailsDialog extends JDialog {
         
         this.attorney = attorney;
         this.attorneyController = new AttorneyController();
+        this.caseController = new CaseController();
         
         initializeUI();
         loadAttorneyData();
@@ -376,8 +379,12 @@ public class AttorneyDetailsDialog extends JDialog {
             }
             
             if (selectedCase != null) {
+                // The list only carries the case's own fields; load its details
+                Case caseWithDetails = caseController.getCaseWithDetails(selectedCase.getId());
+                
                 // Open case details dialog
-                CaseDetailsDialog dialog = new CaseDetailsDialog(getOwner(), selectedCase);
+                CaseDetailsDialog dialog = new CaseDetailsDialog(getOwner(),
+                    caseWithDetails != null ? caseWithDetails : selectedCase);
                 dialog.setVisible(true);
                 
                 // Refresh attorney data after returning from case details
@@ -35,7 +35,7 @@ public class AttorneysPanel extends JPanel {
         this.attorneyController = new AttorneyController();
         
         initializeUI();
-        loadAttorneys();
+        loadAttorneysOnStartup();
     }
     
     /**
@@ -214,18 +214,7 @@ public class AttorneysPanel extends JPanel {
             }
             
             // Populate table
-            for (Attorney attorney : attorneys) {
-                Object[] row = {
-                    attorney.getAttorneyId(),
-                    attorney.getFullName(),
-                    attorney.getSpecialization() != null ? attorney.getSpecialization() : "",
-                    attorney.getBarNumber() != null ? attorney.getBarNumber() : "",
-                    attorney.getEmail(),
-                    attorney.getPhone() != null ? attorney.getPhone() : "",
-                    String.format("$%.2f", attorney.getHourlyRate())
-                };
-                attorneysTable.addRow(row);
-            }
+            addAttorneyRows(attorneys);
             
             // Display a message if no attorneys found
             if (attorneys.isEmpty() && (searchText == null || searchText.isEmpty())) {
@@ -249,6 +238,68 @@ public class AttorneysPanel extends JPanel {
         }
     }
     
+    /**
+     * Show the attorneys saved at the last load straight away, then replace them
+     * with the server's list once it has loaded in the background
+     */
+    private void loadAttorneysOnStartup() {
+        List<Attorney> saved = attorneyController.getSavedAttorneys();
+        if (saved == null || saved.isEmpty()) {
+            loadAttorneys();
+            return;
+        }
+        attorneysTable.clearTable();
+        addAttorneyRows(saved);
+        
+        SwingWorker<List<Attorney>, Void> worker = new SwingWorker<List<Attorney>, Void>() {
+            @Override
+            protected List<Attorney> doInBackground() throws Exception {
+                return attorneyController.getAllAttorneys();
+            }
+            
+            @Override
+            protected void done() {
+                // A search run meanwhile has already replaced the saved rows
+                String searchText = filterPanel.getSearchText();
+                if (searchText != null && !searchText.isEmpty()) {
+                    return;
+                }
+                
+                try {
+                    List<Attorney> attorneys = get();
+                    if (attorneys != null) {
+                        attorneysTable.clearTable();
+                        addAttorneyRows(attorneys);
+                        updateButtonStates();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    /**
+     * Add a table row for each of the given attorneys
+     * 
+     * @param attorneys The attorneys to show
+     */
+    private void addAttorneyRows(List<Attorney> attorneys) {
+        for (Attorney attorney : attorneys) {
+            Object[] row = {
+                attorney.getAttorneyId(),
+                attorney.getFullName(),
+                attorney.getSpecialization() != null ? attorney.getSpecialization() : "",
+                attorney.getBarNumber() != null ? attorney.getBarNumber() : "",
+                attorney.getEmail(),
+                attorney.getPhone() != null ? attorney.getPhone() : "",
+                String.format("$%.2f", attorney.getHourlyRate())
+            };
+            attorneysTable.addRow(row);
+        }
+    }
+    
     /**
      * Update the enabled state of buttons based on table selection
      */
@@ -15,7 +15,9 @@ import java.util.ArrayList;
 
 import model.Event;
 import model.Case;
+import controller.EventCalendarCache;
 import controller.EventController;
+import controller.EventIntervalIndex;
 import controller.CaseController;
 import view.util.UIConstants;
 import view.components.TableFilterPanel;
@@ -27,6 +29,7 @@ import view.util.SwingUtils;
 public class CalendarPanel extends JPanel {
     private EventController eventController;
     private CaseController caseController;
+    private EventCalendarCache eventCache;
     private LocalDate currentDate;
     private LocalDate selectedDate;
     private JPanel calendarGrid;
@@ -45,6 +48,7 @@ public class CalendarPanel extends JPanel {
     public CalendarPanel() {
         this.eventController = new EventController();
         this.caseController = new CaseController();
+        this.eventCache = new EventCalendarCache(eventController);
         this.currentDate = LocalDate.now();
         this.selectedDate = currentDate;
         this.eventsByDate = new HashMap<>();
@@ -53,6 +57,15 @@ public class CalendarPanel extends JPanel {
         loadEvents();
     }
     
+    /**
+     * Get the event controller shared by the calendar and its dialogs
+     * 
+     * @return The event controller
+     */
+    public EventController getEventController() {
+        return eventController;
+    }
+    
     /**
      * Initialize the user interface components
      */
@@ -110,7 +123,7 @@ public class CalendarPanel extends JPanel {
         prevMonthButton.setFocusPainted(false);
         prevMonthButton.addActionListener(e -> {
             currentDate = currentDate.minusMonths(1);
-            updateCalendarView();
+            loadEvents();
         });
         
         monthYearLabel = new JLabel();
@@ -123,7 +136,7 @@ public class CalendarPanel extends JPanel {
         nextMonthButton.setFocusPainted(false);
         nextMonthButton.addActionListener(e -> {
             currentDate = currentDate.plusMonths(1);
-            updateCalendarView();
+            loadEvents();
         });
         
         JButton todayButton = new JButton("Today");
@@ -132,8 +145,7 @@ public class CalendarPanel extends JPanel {
         todayButton.addActionListener(e -> {
             currentDate = LocalDate.now();
             selectedDate = currentDate;
-            updateCalendarView();
-            loadEventsForSelectedDate();
+            loadEvents();
         });
         
         // Add "New Event" button
@@ -535,49 +547,89 @@ public class CalendarPanel extends JPanel {
     }
     
     /**
-     * Load events from the database
+     * Load events for the current month. Months already in the event cache are
+     * shown immediately; otherwise the month is fetched in the background,
+     * showing its saved events from an earlier load meanwhile.
      */
     private void loadEvents() {
-        try {
-            // Clear existing events
-            eventsByDate.clear();
-            
-            // Get start and end date for the current month view
-            YearMonth yearMonth = YearMonth.of(currentDate.getYear(), currentDate.getMonth());
-            LocalDate startDate = yearMonth.atDay(1);
-            LocalDate endDate = yearMonth.atEndOfMonth();
-            
-            // Expand range to include days from previous/next month that appear in the view
-            int firstDayOfWeek = startDate.getDayOfWeek().getValue() % 7; // Adjust for Sunday start
-            startDate = startDate.minusDays(firstDayOfWeek);
-            
-            int lastDayOfWeek = endDate.getDayOfWeek().getValue() % 7;
-            endDate = endDate.plusDays(6 - lastDayOfWeek);
-            
-            // Get events for the date range
-            List<Event> events = eventController.findEventsByDateRange(startDate, endDate);
+        YearMonth yearMonth = YearMonth.from(currentDate);
+        
+        EventIntervalIndex cached = eventCache.getCachedMonth(yearMonth);
+        if (cached != null) {
+            showMonthEvents(yearMonth, cached);
+            return;
+        }
+        
+        // Show the new month straight away and fill in its events once loaded
+        EventIntervalIndex saved = eventCache.getSavedMonth(yearMonth);
+        if (saved != null) {
+            showMonthEvents(yearMonth, saved);
+        } else {
+            updateCalendarView();
+        }
+        
+        SwingWorker<EventIntervalIndex, Void> worker = new SwingWorker<EventIntervalIndex, Void>() {
+            @Override
+            protected EventIntervalIndex doInBackground() throws Exception {
+                return eventCache.getMonth(yearMonth);
+            }
             
-            // Organize events by date
-            for (Event event : events) {
-                LocalDate eventDate = event.getEventDate();
-                if (eventDate != null) {
-                    List<Event> dateEvents = eventsByDate.computeIfAbsent(eventDate, k -> new ArrayList<>());
-                    dateEvents.add(event);
+            @Override
+            protected void done() {
+                // Ignore months the user has already navigated away from
+                if (!yearMonth.equals(YearMonth.from(currentDate))) {
+                    return;
+                }
+                
+                try {
+                    EventIntervalIndex index = get();
+                    if (index == null) {
+                        SwingUtils.showErrorMessage(
+                            CalendarPanel.this,
+                            "Error loading events from the server.",
+                            "Database Error"
+                        );
+                        return;
+                    }
+                    showMonthEvents(yearMonth, index);
+                } catch (Exception e) {
+                    SwingUtils.showErrorMessage(
+                        CalendarPanel.this,
+                        "Error loading events: " + e.getMessage(),
+                        "Database Error"
+                    );
+                    e.printStackTrace();
                 }
             }
-            
-            // Update calendar and event list
-            updateCalendarView();
-            loadEventsForSelectedDate();
-            
-        } catch (Exception e) {
-            SwingUtils.showErrorMessage(
-                this,
-                "Error loading events: " + e.getMessage(),
-                "Database Error"
-            );
-            e.printStackTrace();
+        };
+        
+        worker.execute();
+    }
+    
+    /**
+     * Organize a month's events by day, refresh the view and prefetch the
+     * neighbouring months
+     * 
+     * @param yearMonth The month being shown
+     * @param index The month's event index
+     */
+    private void showMonthEvents(YearMonth yearMonth, EventIntervalIndex index) {
+        eventsByDate.clear();
+        
+        // Events spanning midnight appear on every day they touch
+        for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+            LocalDate date = yearMonth.atDay(day);
+            List<Event> dayEvents = index.findOnDate(date);
+            if (!dayEvents.isEmpty()) {
+                eventsByDate.put(date, dayEvents);
+            }
         }
+        
+        // Update calendar and event list
+        updateCalendarView();
+        loadEventsForSelectedDate();
+        
+        eventCache.prefetchAdjacent(yearMonth);
     }
     
     /**
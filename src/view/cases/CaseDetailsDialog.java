@@ -4,6 +4,7 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.File;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -12,11 +13,14 @@ import model.Attorney;
 import model.Document;
 import model.Event;
 import model.TimeEntry;
+import controller.CaseBundleExporter;
 import controller.CaseController;
+import controller.DocumentController;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 import view.components.CustomTable;
 import view.components.StatusIndicator;
+import view.components.TransferProgressDialog;
 
 /**
  * Dialog for viewing case details.
@@ -36,6 +40,7 @@ public class CaseDetailsDialog extends JDialog {
     
     private JButton closeButton;
     private JButton editButton;
+    private JButton exportButton;
     
     /**
      * Constructor
@@ -503,10 +508,16 @@ public class CaseDetailsDialog extends JDialog {
         editButton.setFont(UIConstants.NORMAL_FONT);
         editButton.addActionListener(e -> editCase());
         
+        exportButton = new JButton("Export Case Bundle");
+        exportButton.setFont(UIConstants.NORMAL_FONT);
+        exportButton.addActionListener(e -> exportCaseBundle());
+        
         closeButton = new JButton("Close");
         closeButton.setFont(UIConstants.NORMAL_FONT);
         closeButton.addActionListener(e -> dispose());
         
+        buttonPanel.add(exportButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(editButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(closeButton);
@@ -865,4 +876,64 @@ public class CaseDetailsDialog extends JDialog {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Export all documents, events and time entries of this case into a ZIP file
+     */
+    private void exportCaseBundle() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Case Bundle");
+        fileChooser.setSelectedFile(new File(legalCase.getCaseNumber().replaceAll("[\\\\/:*?\"<>|]", "_") + ".zip"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith(".zip")) {
+            file = new File(file.getPath() + ".zip");
+        }
+        if (file.exists() && !SwingUtils.showConfirmDialog(this,
+                "File already exists. Do you want to overwrite it?", "Confirm Overwrite")) {
+            return;
+        }
+        File outputFile = file;
+        
+        TransferProgressDialog progressDialog = new TransferProgressDialog(
+            this, "Exporting Case Bundle", "Collecting documents for " + legalCase.getCaseNumber() + "...");
+        CaseBundleExporter exporter = new CaseBundleExporter(new DocumentController(), caseController,
+            progressDialog, CaseBundleExporter.DEFAULT_PARALLELISM);
+        progressDialog.setCancelAction(exporter::cancel);
+        
+        SwingWorker<CaseBundleExporter.Summary, Void> worker = new SwingWorker<CaseBundleExporter.Summary, Void>() {
+            @Override
+            protected CaseBundleExporter.Summary doInBackground() throws Exception {
+                return exporter.export(legalCase, outputFile);
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    CaseBundleExporter.Summary summary = get();
+                    StringBuilder message = new StringBuilder(String.format(
+                        "Exported %d documents (%s) to %s.",
+                        summary.getDocumentCount(), SwingUtils.formatBytes(summary.getBundleBytes()), outputFile.getName()));
+                    if (!summary.getMissingDocuments().isEmpty()) {
+                        message.append("\n\nThese documents could not be downloaded and are listed as missing in index.csv:");
+                        for (String title : summary.getMissingDocuments()) {
+                            message.append("\n  ").append(title);
+                        }
+                    }
+                    SwingUtils.showInfoMessage(CaseDetailsDialog.this, message.toString(), "Export Complete");
+                } catch (Exception e) {
+                    if (!exporter.isCancelled()) {
+                        SwingUtils.showErrorMessage(CaseDetailsDialog.this,
+                            "Error exporting case bundle: " + e.getMessage(), "Export Error");
+                        e.printStackTrace();
+                    }
+                }
+            }
+        };
+        progressDialog.showWhile(worker);
+    }
+}
@@ -36,7 +36,7 @@ public class CasesPanel extends JPanel {
         this.caseController = new CaseController();
         
         initializeUI();
-        loadCases();
+        loadCasesOnStartup();
     }
     
     /**
@@ -244,23 +244,7 @@ public class CasesPanel extends JPanel {
             }
             
             // Populate table
-            for (Case legalCase : cases) {
-                // Get client name (would be populated from client object in a full implementation)
-                String clientName = legalCase.getClient() != null ? 
-                                   legalCase.getClient().getName() : 
-                                   "Client #" + legalCase.getId();
-                
-                Object[] row = {
-                    legalCase.getCaseNumber(),
-                    legalCase.getTitle(),
-                    legalCase.getCaseType(),
-                    legalCase.getStatus(),
-                    clientName,
-                    legalCase.getFileDate() != null ? legalCase.getFileDate().toString() : "",
-                    legalCase.getCourt() != null ? legalCase.getCourt() : ""
-                };
-                casesTable.addRow(row);
-            }
+            addCaseRows(cases);
             
             // Display a message if no cases found
             if (cases.isEmpty() && (searchText == null || searchText.isEmpty())) {
@@ -284,6 +268,73 @@ public class CasesPanel extends JPanel {
         }
     }
     
+    /**
+     * Show the cases saved at the last load straight away, then replace them
+     * with the server's list once it has loaded in the background
+     */
+    private void loadCasesOnStartup() {
+        List<Case> saved = caseController.getSavedCases();
+        if (saved == null || saved.isEmpty()) {
+            loadCases();
+            return;
+        }
+        casesTable.clearTable();
+        addCaseRows(saved);
+        
+        SwingWorker<List<Case>, Void> worker = new SwingWorker<List<Case>, Void>() {
+            @Override
+            protected List<Case> doInBackground() throws Exception {
+                return caseController.getAllCases();
+            }
+            
+            @Override
+            protected void done() {
+                // A search run meanwhile has already replaced the saved rows
+                String searchText = filterPanel.getSearchText();
+                if (searchText != null && !searchText.isEmpty()) {
+                    return;
+                }
+                
+                try {
+                    List<Case> cases = get();
+                    if (cases != null) {
+                        casesTable.clearTable();
+                        addCaseRows(cases);
+                        updateButtonStates();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    /**
+     * Add a table row for each of the given cases
+     * 
+     * @param cases The cases to show
+     */
+    private void addCaseRows(List<Case> cases) {
+        for (Case legalCase : cases) {
+            // Get client name (would be populated from client object in a full implementation)
+            String clientName = legalCase.getClient() != null ? 
+                               legalCase.getClient().getName() : 
+                               "Client #" + legalCase.getId();
+            
+            Object[] row = {
+                legalCase.getCaseNumber(),
+                legalCase.getTitle(),
+                legalCase.getCaseType(),
+                legalCase.getStatus(),
+                clientName,
+                legalCase.getFileDate() != null ? legalCase.getFileDate().toString() : "",
+                legalCase.getCourt() != null ? legalCase.getCourt() : ""
+            };
+            casesTable.addRow(row);
+        }
+    }
+    
     /**
      * Update the enabled state of buttons based on table selection
      */
@@ -8,6 +8,7 @@ import java.util.List;
 
 import model.Client;
 import model.Case;
+import controller.CaseController;
 import controller.ClientController;
 import view.util.UIConstants;
 import view.components.CustomTable;
@@ -19,6 +20,7 @@ import view.cases.CaseDetailsDialog;
 public class ClientDetailsDialog extends JDialog {
     private Client client;
     private ClientController clientController;
+    private CaseController caseController;
     
     private JPanel clientInfoPanel;
     private JPanel casesPanel;
@@ -38,6 +40,7 @@ public class ClientDetailsDialog extends JDialog {
         
         this.client = client;
         this.clientController = new ClientController();
+        this.caseController = new CaseController();
         
         initializeUI();
         loadClientData();
@@ -397,8 +400,12 @@ public class ClientDetailsDialog extends JDialog {
             }
             
             if (selectedCase != null) {
+                // The list only carries the case's own fields; load its details
+                Case caseWithDetails = caseController.getCaseWithDetails(selectedCase.getId());
+                
                 // Open case details dialog
-                CaseDetailsDialog dialog = new CaseDetailsDialog(getOwner(), selectedCase);
+                CaseDetailsDialog dialog = new CaseDetailsDialog(getOwner(),
+                    caseWithDetails != null ? caseWithDetails : selectedCase);
                 dialog.setVisible(true);
                 
                 // Refresh client data after returning from case details
@@ -35,7 +35,7 @@ public class ClientsPanel extends JPanel {
         this.clientController = new ClientController();
         
         initializeUI();
-        loadClients();
+        loadClientsOnStartup();
     }
     
     /**
@@ -214,18 +214,7 @@ public class ClientsPanel extends JPanel {
             }
             
             // Populate table
-            for (Client client : clients) {
-                Object[] row = {
-                    client.getClientId(),
-                    client.getName(),
-                    client.getClientType(),
-                    client.getContactPerson() != null ? client.getContactPerson() : "",
-                    client.getEmail(),
-                    client.getPhone() != null ? client.getPhone() : "",
-                    client.getRegistrationDate() != null ? client.getRegistrationDate().toString() : ""
-                };
-                clientsTable.addRow(row);
-            }
+            addClientRows(clients);
             
             // Display a message if no clients found
             if (clients.isEmpty() && (searchText == null || searchText.isEmpty())) {
@@ -249,6 +238,68 @@ public class ClientsPanel extends JPanel {
         }
     }
     
+    /**
+     * Show the clients saved at the last load straight away, then replace them
+     * with the server's list once it has loaded in the background
+     */
+    private void loadClientsOnStartup() {
+        List<Client> saved = clientController.getSavedClients();
+        if (saved == null || saved.isEmpty()) {
+            loadClients();
+            return;
+        }
+        clientsTable.clearTable();
+        addClientRows(saved);
+        
+        SwingWorker<List<Client>, Void> worker = new SwingWorker<List<Client>, Void>() {
+            @Override
+            protected List<Client> doInBackground() throws Exception {
+                return clientController.getAllClients();
+            }
+            
+            @Override
+            protected void done() {
+                // A search run meanwhile has already replaced the saved rows
+                String searchText = filterPanel.getSearchText();
+                if (searchText != null && !searchText.isEmpty()) {
+                    return;
+                }
+                
+                try {
+                    List<Client> clients = get();
+                    if (clients != null) {
+                        clientsTable.clearTable();
+                        addClientRows(clients);
+                        updateButtonStates();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    /**
+     * Add a table row for each of the given clients
+     * 
+     * @param clients The clients to show
+     */
+    private void addClientRows(List<Client> clients) {
+        for (Client client : clients) {
+            Object[] row = {
+                client.getClientId(),
+                client.getName(),
+                client.getClientType(),
+                client.getContactPerson() != null ? client.getContactPerson() : "",
+                client.getEmail(),
+                client.getPhone() != null ? client.getPhone() : "",
+                client.getRegistrationDate() != null ? client.getRegistrationDate().toString() : ""
+            };
+            clientsTable.addRow(row);
+        }
+    }
+    
     /**
      * Update the enabled state of buttons based on table selection
      */
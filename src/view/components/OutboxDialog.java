@@ -0,0 +1,180 @@
+package view.components;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.MutationOutbox;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog showing the changes waiting to be sent to the server and the ones
+ * the server did not apply. A conflicting change can be sent again to
+ * overwrite the server's copy; any failed change can be discarded.
+ */
+public class OutboxDialog extends JDialog {
+    private static final DateTimeFormatter QUEUED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    private final MutationOutbox outbox;
+    private final Runnable changeListener = () -> SwingUtilities.invokeLater(this::refresh);
+    
+    private JLabel summaryLabel;
+    private CustomTable failuresTable;
+    private JButton overwriteButton;
+    private JButton discardButton;
+    private List<MutationOutbox.Failure> failures = new ArrayList<>();
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     * @param outbox The outbox to show
+     */
+    public OutboxDialog(Window parent, MutationOutbox outbox) {
+        super(parent, "Unsent Changes", ModalityType.APPLICATION_MODAL);
+        
+        this.outbox = outbox;
+        
+        initializeUI();
+        refresh();
+        outbox.addChangeListener(changeListener);
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(800, 420);
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+        
+        summaryLabel = SwingUtils.createLabel("");
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(15, 20, 5, 20));
+        add(summaryLabel, BorderLayout.NORTH);
+        
+        failuresTable = new CustomTable(new String[] { "Queued", "Change", "Problem" });
+        failuresTable.setColumnWidth(0, 120);
+        failuresTable.setColumnWidth(1, 380);
+        failuresTable.setColumnWidth(2, 260);
+        failuresTable.addSelectionListener(e -> updateButtonStates());
+        
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(5, 20, 10, 20));
+        tablePanel.add(failuresTable, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        
+        JButton sendButton = new JButton("Send Now");
+        sendButton.setFont(UIConstants.NORMAL_FONT);
+        sendButton.addActionListener(e -> outbox.drainNow());
+        
+        overwriteButton = new JButton("Keep My Change");
+        overwriteButton.setFont(UIConstants.NORMAL_FONT);
+        overwriteButton.setBackground(UIConstants.SECONDARY_COLOR);
+        overwriteButton.setForeground(Color.WHITE);
+        overwriteButton.addActionListener(e -> overwriteSelected());
+        
+        discardButton = new JButton("Discard Change");
+        discardButton.setFont(UIConstants.NORMAL_FONT);
+        discardButton.addActionListener(e -> discardSelected());
+        
+        JButton closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> dispose());
+        
+        buttonPanel.add(sendButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(overwriteButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(discardButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    @Override
+    public void dispose() {
+        outbox.removeChangeListener(changeListener);
+        super.dispose();
+    }
+    
+    /**
+     * Show the current queue depth, drain rate and failed changes
+     */
+    private void refresh() {
+        failures = outbox.getFailures();
+        summaryLabel.setText(String.format(
+            "%d changes waiting to be sent, %d sent this session (last batch %.1f per second), %d need attention.",
+            outbox.getPendingCount(), outbox.getAppliedCount(), outbox.getDrainRate(), failures.size()));
+        
+        failuresTable.clearTable();
+        for (MutationOutbox.Failure failure : failures) {
+            String problem = failure.isConflict()
+                ? "Changed on the server since you loaded it"
+                : failure.getResult().getMessage();
+            failuresTable.addRow(new Object[] {
+                failure.getMutation().getQueuedAt().format(QUEUED_FORMAT),
+                failure.getMutation().getDescription(),
+                problem != null ? problem : failure.getResult().getStatus()
+            });
+        }
+        updateButtonStates();
+    }
+    
+    private void updateButtonStates() {
+        MutationOutbox.Failure selected = getSelectedFailure();
+        overwriteButton.setEnabled(selected != null && selected.isConflict());
+        discardButton.setEnabled(selected != null);
+    }
+    
+    private MutationOutbox.Failure getSelectedFailure() {
+        int row = failuresTable.getSelectedRow();
+        return row >= 0 && row < failures.size() ? failures.get(row) : null;
+    }
+    
+    /**
+     * Send the selected conflicting change again over the server's copy
+     */
+    private void overwriteSelected() {
+        MutationOutbox.Failure failure = getSelectedFailure();
+        if (failure == null || !SwingUtils.showConfirmDialog(this,
+                "Replace the server's copy with your change?\n" + failure.getMutation().getDescription(),
+                "Keep My Change")) {
+            return;
+        }
+        
+        try {
+            outbox.overwrite(failure.getMutation().getIdempotencyKey());
+        } catch (Exception e) {
+            SwingUtils.showErrorMessage(this, "Error queueing the change: " + e.getMessage(), "Outbox Error");
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Drop the selected failed change
+     */
+    private void discardSelected() {
+        MutationOutbox.Failure failure = getSelectedFailure();
+        if (failure == null || !SwingUtils.showConfirmDialog(this,
+                "Discard this change? It will not be saved.\n" + failure.getMutation().getDescription(),
+                "Discard Change")) {
+            return;
+        }
+        
+        try {
+            outbox.discard(failure.getMutation().getIdempotencyKey());
+        } catch (Exception e) {
+            SwingUtils.showErrorMessage(this, "Error discarding the change: " + e.getMessage(), "Outbox Error");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package view.components;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import controller.TimeEntryJournal;
+import model.TimeEntry;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog showing the time entries recorded locally that the server has not
+ * created yet, and the ones it rejected. A rejected entry stays in the list
+ * until it is dismissed, so the time can be entered again by hand.
+ */
+public class TimeEntryJournalDialog extends JDialog {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    
+    private final TimeEntryJournal journal;
+    private final Runnable changeListener = () -> SwingUtilities.invokeLater(this::refresh);
+    
+    private JLabel summaryLabel;
+    private CustomTable entriesTable;
+    private JButton dismissButton;
+    
+    // Idempotency key of each row, or null for a pending entry
+    private List<String> rowKeys = new ArrayList<>();
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     * @param journal The journal to show
+     */
+    public TimeEntryJournalDialog(Window parent, TimeEntryJournal journal) {
+        super(parent, "Unsent Time Entries", ModalityType.APPLICATION_MODAL);
+        
+        this.journal = journal;
+        
+        initializeUI();
+        refresh();
+        journal.addChangeListener(changeListener);
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(800, 420);
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+        
+        summaryLabel = SwingUtils.createLabel("");
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(15, 20, 5, 20));
+        add(summaryLabel, BorderLayout.NORTH);
+        
+        entriesTable = new CustomTable(new String[] { "Status", "Date", "Case", "Attorney", "Hours", "Description" });
+        entriesTable.setColumnWidth(0, 90);
+        entriesTable.setColumnWidth(1, 90);
+        entriesTable.setColumnWidth(2, 120);
+        entriesTable.setColumnWidth(3, 140);
+        entriesTable.setColumnWidth(4, 60);
+        entriesTable.setColumnWidth(5, 260);
+        entriesTable.addSelectionListener(e -> updateButtonStates());
+        
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(5, 20, 10, 20));
+        tablePanel.add(entriesTable, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        
+        JButton sendButton = new JButton("Send Now");
+        sendButton.setFont(UIConstants.NORMAL_FONT);
+        sendButton.addActionListener(e -> journal.syncNow());
+        
+        dismissButton = new JButton("Dismiss");
+        dismissButton.setFont(UIConstants.NORMAL_FONT);
+        dismissButton.addActionListener(e -> dismissSelected());
+        
+        JButton closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> dispose());
+        
+        buttonPanel.add(sendButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(dismissButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    @Override
+    public void dispose() {
+        journal.removeChangeListener(changeListener);
+        super.dispose();
+    }
+    
+    /**
+     * Show the pending entries followed by the rejected ones
+     */
+    private void refresh() {
+        List<TimeEntry> pending = journal.getPendingEntries();
+        Map<String, TimeEntry> rejected = journal.getRejectedEntries();
+        summaryLabel.setText(String.format(
+            "%d time entries waiting to be sent, %d rejected by the server.",
+            pending.size(), rejected.size()));
+        
+        entriesTable.clearTable();
+        rowKeys = new ArrayList<>();
+        for (TimeEntry entry : pending) {
+            addEntryRow("Waiting", entry);
+            rowKeys.add(null);
+        }
+        for (Map.Entry<String, TimeEntry> entry : rejected.entrySet()) {
+            addEntryRow("Rejected", entry.getValue());
+            rowKeys.add(entry.getKey());
+        }
+        updateButtonStates();
+    }
+    
+    private void addEntryRow(String status, TimeEntry entry) {
+        entriesTable.addRow(new Object[] {
+            status,
+            entry.getEntryDate() != null ? entry.getEntryDate().format(DATE_FORMAT) : "",
+            entry.getCase() != null ? entry.getCase().getCaseNumber() : "",
+            entry.getAttorney() != null ? entry.getAttorney().getFullName() : "",
+            entry.getFormattedHours(),
+            entry.getDescription()
+        });
+    }
+    
+    private void updateButtonStates() {
+        dismissButton.setEnabled(getSelectedRejectedKey() != null);
+    }
+    
+    private String getSelectedRejectedKey() {
+        int row = entriesTable.getSelectedRow();
+        return row >= 0 && row < rowKeys.size() ? rowKeys.get(row) : null;
+    }
+    
+    /**
+     * Remove the selected rejected entry from the journal
+     */
+    private void dismissSelected() {
+        String key = getSelectedRejectedKey();
+        if (key == null || !SwingUtils.showConfirmDialog(this,
+                "Dismiss this rejected time entry? It will not be sent again.",
+                "Dismiss Time Entry")) {
+            return;
+        }
+        
+        try {
+            journal.dismissRejected(key);
+        } catch (Exception e) {
+            SwingUtils.showErrorMessage(this, "Error dismissing the time entry: " + e.getMessage(), "Time Entry Error");
+            e.printStackTrace();
+        }
+    }
+}
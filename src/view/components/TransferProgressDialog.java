@@ -0,0 +1,118 @@
+package view.components;
+
+import javax.swing.*;
+import java.awt.*;
+
+import controller.TransferListener;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Modal dialog showing the progress and throughput of a file transfer,
+ * with a button to cancel it.
+ */
+public class TransferProgressDialog extends JDialog implements TransferListener {
+    private JLabel progressLabel;
+    private JProgressBar progressBar;
+    private JButton cancelButton;
+    private Runnable cancelAction;
+    private boolean cancelled = false;
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     * @param title The dialog title
+     * @param message The message shown until the first progress update
+     */
+    public TransferProgressDialog(Window parent, String title, String message) {
+        super(parent, title, ModalityType.APPLICATION_MODAL);
+        
+        initializeUI(message);
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI(String message) {
+        setSize(420, 150);
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        
+        JPanel progressPanel = new JPanel(new BorderLayout(0, 10));
+        progressPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        
+        progressLabel = new JLabel(message);
+        progressLabel.setFont(UIConstants.NORMAL_FONT);
+        
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        
+        cancelButton = new JButton("Cancel");
+        cancelButton.setFont(UIConstants.NORMAL_FONT);
+        cancelButton.addActionListener(e -> cancel());
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.add(cancelButton);
+        
+        progressPanel.add(progressLabel, BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(buttonPanel, BorderLayout.SOUTH);
+        add(progressPanel);
+    }
+    
+    /**
+     * Set the action run when the user cancels the transfer
+     * 
+     * @param cancelAction The cancel action
+     */
+    public void setCancelAction(Runnable cancelAction) {
+        this.cancelAction = cancelAction;
+    }
+    
+    /**
+     * Check if the user cancelled the transfer
+     * 
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Run a worker performing the transfer and show this dialog until the
+     * worker disposes it. The worker's done() method is expected to call dispose().
+     * 
+     * @param worker The worker performing the transfer
+     */
+    public void showWhile(SwingWorker<?, ?> worker) {
+        worker.execute();
+        if (!worker.isDone()) {
+            setVisible(true);
+        }
+    }
+    
+    @Override
+    public void onProgress(long transferredBytes, long totalBytes, double bytesPerSecond) {
+        SwingUtilities.invokeLater(() -> {
+            if (cancelled) {
+                return;
+            }
+            progressBar.setValue(totalBytes > 0 ? (int) (transferredBytes * 100 / totalBytes) : 100);
+            progressLabel.setText(String.format("%s of %s (%s/s)",
+                SwingUtils.formatBytes(transferredBytes), SwingUtils.formatBytes(totalBytes), SwingUtils.formatBytes((long) bytesPerSecond)));
+        });
+    }
+    
+    /**
+     * Cancel the transfer
+     */
+    private void cancel() {
+        cancelled = true;
+        cancelButton.setEnabled(false);
+        progressLabel.setText("Cancelling...");
+        if (cancelAction != null) {
+            cancelAction.run();
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package view.documents;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Document;
+import model.Case;
+import controller.BulkImportListener;
+import controller.CaseController;
+import controller.CaseNumberMatcher;
+import controller.DocumentBulkImporter;
+import controller.DocumentController;
+import view.components.CustomTable;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog for importing many files as documents at once, for example a
+ * discovery production. Files and folders are added to a list, every file is
+ * filed under the same case, type and status, and the import shows overall
+ * progress and throughput along with the outcome of each file.
+ */
+public class BulkImportDialog extends JDialog {
+    private JComboBox<CaseItem> caseCombo;
+    private JCheckBox detectCaseCheckBox;
+    private JComboBox<String> documentTypeCombo;
+    private JComboBox<String> statusCombo;
+    private CustomTable filesTable;
+    private JProgressBar progressBar;
+    private JLabel progressLabel;
+    private JButton addButton;
+    private JButton clearButton;
+    private JButton importButton;
+    private JButton closeButton;
+    
+    private final List<File> files = new ArrayList<>();
+    private final Map<File, Integer> rowsByFile = new HashMap<>();
+    private DocumentController documentController;
+    private CaseController caseController;
+    private volatile DocumentBulkImporter importer;
+    private boolean importing;
+    private int finishedFiles;
+    private int failedFiles;
+    private boolean documentsImported = false;
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     */
+    public BulkImportDialog(Window parent) {
+        super(parent, "Bulk Import Documents", ModalityType.APPLICATION_MODAL);
+        
+        this.documentController = new DocumentController();
+        this.caseController = new CaseController();
+        
+        initializeUI();
+        loadCases();
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(800, 600);
+        setMinimumSize(new Dimension(650, 450));
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                close();
+            }
+        });
+        setLayout(new BorderLayout());
+        
+        add(createOptionsPanel(), BorderLayout.NORTH);
+        
+        // File list
+        filesTable = new CustomTable(new String[] { "File", "Size", "Status" });
+        filesTable.setColumnWidth(0, 380);
+        filesTable.setColumnWidth(1, 90);
+        filesTable.setColumnWidth(2, 250);
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(0, 20, 10, 20));
+        tablePanel.add(filesTable, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        add(createBottomPanel(), BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Create the panel with the settings applied to every imported document
+     * 
+     * @return The options panel
+     */
+    private JPanel createOptionsPanel() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 20, 10, 20));
+        
+        GridBagConstraints labelConstraints = new GridBagConstraints();
+        labelConstraints.gridx = 0;
+        labelConstraints.gridy = GridBagConstraints.RELATIVE;
+        labelConstraints.anchor = GridBagConstraints.WEST;
+        labelConstraints.insets = new Insets(5, 5, 5, 10);
+        
+        GridBagConstraints fieldConstraints = new GridBagConstraints();
+        fieldConstraints.gridx = 1;
+        fieldConstraints.gridy = GridBagConstraints.RELATIVE;
+        fieldConstraints.fill = GridBagConstraints.HORIZONTAL;
+        fieldConstraints.weightx = 1.0;
+        fieldConstraints.insets = new Insets(5, 0, 5, 5);
+        
+        JLabel caseLabel = new JLabel("Associated Case:*");
+        caseLabel.setFont(UIConstants.LABEL_FONT);
+        panel.add(caseLabel, labelConstraints);
+        caseCombo = new JComboBox<>();
+        caseCombo.setFont(UIConstants.NORMAL_FONT);
+        panel.add(caseCombo, fieldConstraints);
+        
+        JLabel typeLabel = new JLabel("Document Type:*");
+        typeLabel.setFont(UIConstants.LABEL_FONT);
+        panel.add(typeLabel, labelConstraints);
+        documentTypeCombo = new JComboBox<>(documentController.getDocumentTypes());
+        documentTypeCombo.setFont(UIConstants.NORMAL_FONT);
+        panel.add(documentTypeCombo, fieldConstraints);
+        
+        JLabel statusLabel = new JLabel("Status:");
+        statusLabel.setFont(UIConstants.LABEL_FONT);
+        panel.add(statusLabel, labelConstraints);
+        statusCombo = new JComboBox<>(new String[]{"Active", "Archived", "Draft", "Pending"});
+        statusCombo.setFont(UIConstants.NORMAL_FONT);
+        panel.add(statusCombo, fieldConstraints);
+        
+        detectCaseCheckBox = new JCheckBox("Assign files to the case whose case number or client ID they mention", true);
+        detectCaseCheckBox.setFont(UIConstants.NORMAL_FONT);
+        panel.add(new JLabel(), labelConstraints);
+        panel.add(detectCaseCheckBox, fieldConstraints);
+        
+        return panel;
+    }
+    
+    /**
+     * Create the panel with the progress display and buttons
+     * 
+     * @return The bottom panel
+     */
+    private JPanel createBottomPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        
+        progressLabel = new JLabel("Add files or folders to import.");
+        progressLabel.setFont(UIConstants.NORMAL_FONT);
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        
+        JPanel progressPanel = new JPanel(new BorderLayout(0, 5));
+        progressPanel.add(progressLabel, BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        panel.add(progressPanel, BorderLayout.CENTER);
+        
+        addButton = new JButton("Add Files or Folders...");
+        addButton.setFont(UIConstants.NORMAL_FONT);
+        addButton.addActionListener(e -> addFiles());
+        
+        clearButton = new JButton("Clear");
+        clearButton.setFont(UIConstants.NORMAL_FONT);
+        clearButton.addActionListener(e -> clearFiles());
+        
+        importButton = new JButton("Import");
+        importButton.setFont(UIConstants.NORMAL_FONT);
+        importButton.setBackground(UIConstants.SECONDARY_COLOR);
+        importButton.setForeground(Color.WHITE);
+        importButton.setEnabled(false);
+        importButton.addActionListener(e -> startImport());
+        
+        closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> close());
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.add(addButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(clearButton);
+        buttonPanel.add(Box.createHorizontalStrut(30));
+        buttonPanel.add(importButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(closeButton);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        
+        return panel;
+    }
+    
+    /**
+     * Load cases for the combo box
+     */
+    private void loadCases() {
+        try {
+            List<Case> cases = caseController.getAllCases();
+            caseCombo.removeAllItems();
+            
+            for (Case legalCase : cases) {
+                caseCombo.addItem(new CaseItem(legalCase));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            SwingUtils.showErrorMessage(this, "Error loading cases: " + e.getMessage(), "Database Error");
+        }
+    }
+    
+    /**
+     * Let the user pick files and folders and add them to the list
+     */
+    private void addFiles() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        fileChooser.setMultiSelectionEnabled(true);
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        for (File file : DocumentBulkImporter.collectFiles(Arrays.asList(fileChooser.getSelectedFiles()))) {
+            if (!rowsByFile.containsKey(file)) {
+                rowsByFile.put(file, files.size());
+                files.add(file);
+                filesTable.addRow(new Object[] { file.getPath(), SwingUtils.formatBytes(file.length()), "Waiting" });
+            }
+        }
+        
+        long totalBytes = 0;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        progressLabel.setText(files.size() + " files, " + SwingUtils.formatBytes(totalBytes) + " ready to import.");
+        importButton.setText("Import");
+        importButton.setEnabled(!files.isEmpty());
+    }
+    
+    /**
+     * Remove all files from the list
+     */
+    private void clearFiles() {
+        files.clear();
+        rowsByFile.clear();
+        filesTable.clearTable();
+        progressBar.setValue(0);
+        progressLabel.setText("Add files or folders to import.");
+        importButton.setText("Import");
+        importButton.setEnabled(false);
+    }
+    
+    /**
+     * Import the listed files in the background
+     */
+    private void startImport() {
+        if (caseCombo.getSelectedItem() == null) {
+            SwingUtils.showErrorMessage(this, "Please select an associated case.", "Validation Error");
+            return;
+        }
+        
+        Document template = new Document();
+        template.setCase(((CaseItem) caseCombo.getSelectedItem()).getCase());
+        template.setDocumentType((String) documentTypeCombo.getSelectedItem());
+        template.setStatus((String) statusCombo.getSelectedItem());
+        template.setCreatedBy(1); // Default to user ID 1, as for single uploads
+        boolean detectCase = detectCaseCheckBox.isSelected();
+        
+        List<File> importFiles = new ArrayList<>(files);
+        finishedFiles = 0;
+        failedFiles = 0;
+        importing = true;
+        setEditable(false);
+        closeButton.setText("Cancel");
+        
+        SwingWorker<List<DocumentBulkImporter.FileResult>, DocumentBulkImporter.FileResult> worker =
+                new SwingWorker<List<DocumentBulkImporter.FileResult>, DocumentBulkImporter.FileResult>() {
+            @Override
+            protected List<DocumentBulkImporter.FileResult> doInBackground() throws Exception {
+                importer = documentController.createBulkImporter(new BulkImportListener() {
+                    @Override
+                    public void onProgress(long transferredBytes, long totalBytes, double bytesPerSecond) {
+                        SwingUtilities.invokeLater(() -> showProgress(transferredBytes, totalBytes, bytesPerSecond));
+                    }
+                    
+                    @Override
+                    public void onFileUploaded(DocumentBulkImporter.FileResult result) {
+                        publish(result);
+                    }
+                });
+                if (detectCase) {
+                    importer.setCaseMatcher(CaseNumberMatcher.getInstance());
+                }
+                return importer.importFiles(importFiles, template);
+            }
+            
+            @Override
+            protected void process(List<DocumentBulkImporter.FileResult> results) {
+                for (DocumentBulkImporter.FileResult result : results) {
+                    finishedFiles++;
+                    if (result.getError() != null) {
+                        failedFiles++;
+                        setFileStatus(result.getFile(), "Failed: " + result.getError());
+                    } else {
+                        String status = result.isDeduplicated() ? "Already stored" : "Uploaded";
+                        if (result.isRouted()) {
+                            status += ", case " + result.getDocument().getCase().getCaseNumber();
+                        }
+                        setFileStatus(result.getFile(), status);
+                    }
+                }
+            }
+            
+            @Override
+            protected void done() {
+                importing = false;
+                importer = null;
+                closeButton.setText("Close");
+                try {
+                    showResults(get());
+                } catch (Exception e) {
+                    SwingUtils.showErrorMessage(BulkImportDialog.this, "Error importing documents: " + e.getMessage(), "Import Error");
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        worker.execute();
+    }
+    
+    /**
+     * Show overall progress and throughput
+     */
+    private void showProgress(long transferredBytes, long totalBytes, double bytesPerSecond) {
+        progressBar.setValue(totalBytes > 0 ? (int) (transferredBytes * 100 / totalBytes) : 100);
+        progressLabel.setText(String.format("%d of %d files, %s of %s (%s/s)%s",
+            finishedFiles, files.size(),
+            SwingUtils.formatBytes(transferredBytes), SwingUtils.formatBytes(totalBytes),
+            SwingUtils.formatBytes((long) bytesPerSecond),
+            failedFiles > 0 ? ", " + failedFiles + " failed" : ""));
+    }
+    
+    /**
+     * Show the final outcome of each file and a summary
+     */
+    private void showResults(List<DocumentBulkImporter.FileResult> results) {
+        int imported = 0;
+        for (DocumentBulkImporter.FileResult result : results) {
+            if (result.isSuccess()) {
+                imported++;
+                setFileStatus(result.getFile(), "Imported as " + result.getDocument().getDocumentId());
+            } else {
+                setFileStatus(result.getFile(), "Failed: " + result.getError());
+            }
+        }
+        
+        documentsImported = imported > 0;
+        progressBar.setValue(100);
+        progressLabel.setText(imported + " of " + results.size() + " files imported"
+            + (imported < results.size() ? ", " + (results.size() - imported) + " failed." : "."));
+        
+        // Keep only the failed files so they can be retried
+        List<File> failed = new ArrayList<>();
+        for (DocumentBulkImporter.FileResult result : results) {
+            if (!result.isSuccess()) {
+                failed.add(result.getFile());
+            }
+        }
+        files.retainAll(failed);
+        rowsByFile.keySet().retainAll(failed);
+        setEditable(true);
+        importButton.setEnabled(!files.isEmpty());
+        importButton.setText(files.isEmpty() ? "Import" : "Retry Failed");
+    }
+    
+    /**
+     * Set the status cell of a file's row
+     */
+    private void setFileStatus(File file, String status) {
+        Integer row = rowsByFile.get(file);
+        if (row != null) {
+            filesTable.getTableModel().setValueAt(status, row, 2);
+        }
+    }
+    
+    /**
+     * Enable or disable the controls that change the import
+     */
+    private void setEditable(boolean editable) {
+        caseCombo.setEnabled(editable);
+        documentTypeCombo.setEnabled(editable);
+        statusCombo.setEnabled(editable);
+        detectCaseCheckBox.setEnabled(editable);
+        addButton.setEnabled(editable);
+        clearButton.setEnabled(editable);
+        importButton.setEnabled(editable);
+    }
+    
+    /**
+     * Cancel a running import, or close the dialog
+     */
+    private void close() {
+        if (importing) {
+            DocumentBulkImporter running = importer;
+            if (running != null && SwingUtils.showConfirmDialog(this,
+                    "Cancel the import? Files already uploaded will not be added as documents.", "Cancel Import")) {
+                running.cancel();
+            }
+            return;
+        }
+        dispose();
+    }
+    
+    /**
+     * Check if any documents were imported
+     * 
+     * @return true if at least one document was created
+     */
+    public boolean isDocumentsImported() {
+        return documentsImported;
+    }
+    
+    /**
+     * Helper class to represent cases in the combo box
+     */
+    private class CaseItem {
+        private Case legalCase;
+        
+        public CaseItem(Case legalCase) {
+            this.legalCase = legalCase;
+        }
+        
+        public Case getCase() {
+            return legalCase;
+        }
+        
+        @Override
+        public String toString() {
+            return legalCase.getCaseNumber() + " - " + legalCase.getTitle();
+        }
+    }
+}
@@ -5,19 +5,35 @@ import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import model.Document;
 import model.Case;
 import controller.DocumentController;
+import controller.DocumentDownloader;
+import controller.DocumentPreviewCache;
 import controller.CaseController;
 import view.util.UIConstants;
+import view.components.TransferProgressDialog;
 import view.cases.CaseDetailsDialog;
 
 /**
  * Dialog for viewing document details.
  */
 public class DocumentDetailsDialog extends JDialog {
+    private static final int PREVIEW_BYTES = 8 * 1024;
+    private static final long MAX_PREVIEW_FETCH_BYTES = 5L * 1024 * 1024;
+    private static final Set<String> TEXT_EXTENSIONS = new HashSet<>(
+        Arrays.asList("TXT", "CSV", "HTML", "HTM", "RTF", "XML", "MD", "LOG", "JSON"));
+    
     private Document document;
     private DocumentController documentController;
     private CaseController caseController;
@@ -26,6 +42,10 @@ public class DocumentDetailsDialog extends JDialog {
     private JButton closeButton;
     private JButton editButton;
     private JButton downloadButton;
+    private JButton openButton;
+    private JButton versionsButton;
+    private JTextArea previewArea;
+    private JLabel thumbnailLabel;
     
     /**
      * Constructor
@@ -42,13 +62,14 @@ public class DocumentDetailsDialog extends JDialog {
         
         initializeUI();
         loadDocumentData();
+        loadPreview();
     }
     
     /**
      * Initialize the user interface components
      */
     private void initializeUI() {
-        setSize(700, 500);
+        setSize(750, 720);
         setMinimumSize(new Dimension(600, 400));
         setLocationRelativeTo(getParent());
         setLayout(new BorderLayout());
@@ -64,6 +85,7 @@ public class DocumentDetailsDialog extends JDialog {
         // Create document info panel
         documentInfoPanel = createDocumentInfoPanel();
         contentPanel.add(documentInfoPanel, BorderLayout.CENTER);
+        contentPanel.add(createPreviewPanel(), BorderLayout.SOUTH);
         
         add(contentPanel, BorderLayout.CENTER);
         
@@ -208,6 +230,35 @@ public class DocumentDetailsDialog extends JDialog {
         return panel;
     }
     
+    /**
+     * Create the panel showing the start of the document's content
+     * 
+     * @return The preview panel
+     */
+    private JPanel createPreviewPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(BorderFactory.createEmptyBorder(0, 20, 15, 20));
+        
+        panel.add(createFieldLabel("Preview:"), BorderLayout.NORTH);
+        
+        previewArea = new JTextArea(12, 30);
+        previewArea.setEditable(false);
+        previewArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        previewArea.setText("Loading preview...");
+        JScrollPane previewScroll = new JScrollPane(previewArea);
+        previewScroll.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        panel.add(previewScroll, BorderLayout.CENTER);
+        
+        thumbnailLabel = new JLabel();
+        thumbnailLabel.setPreferredSize(new Dimension(DocumentPreviewCache.PREVIEW_WIDTH, DocumentPreviewCache.PREVIEW_HEIGHT));
+        thumbnailLabel.setVerticalAlignment(SwingConstants.TOP);
+        thumbnailLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 10));
+        panel.add(thumbnailLabel, BorderLayout.WEST);
+        
+        return panel;
+    }
+    
     /**
      * Create a field label with consistent styling
      * 
@@ -238,6 +289,14 @@ public class DocumentDetailsDialog extends JDialog {
         downloadButton.setFont(UIConstants.NORMAL_FONT);
         downloadButton.addActionListener(e -> downloadDocument());
         
+        openButton = new JButton("Open Document");
+        openButton.setFont(UIConstants.NORMAL_FONT);
+        openButton.addActionListener(e -> DocumentOpener.open(this, documentController, document, this::loadPreview));
+        
+        versionsButton = new JButton("Versions");
+        versionsButton.setFont(UIConstants.NORMAL_FONT);
+        versionsButton.addActionListener(e -> showVersions());
+        
         editButton = new JButton("Edit Document");
         editButton.setFont(UIConstants.NORMAL_FONT);
         editButton.addActionListener(e -> editDocument());
@@ -246,8 +305,12 @@ public class DocumentDetailsDialog extends JDialog {
         closeButton.setFont(UIConstants.NORMAL_FONT);
         closeButton.addActionListener(e -> dispose());
         
+        buttonPanel.add(openButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(downloadButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(versionsButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(editButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(closeButton);
@@ -318,6 +381,56 @@ public class DocumentDetailsDialog extends JDialog {
         }
     }
     
+    /**
+     * Load the preview thumbnail and a text preview of the document in the
+     * background. The start of the file is mapped from the local document
+     * cache; small documents that are not cached yet are fetched into it first.
+     */
+    private void loadPreview() {
+        DocumentPreviewCache.getInstance().requestPreview(document).thenAccept(image ->
+            SwingUtilities.invokeLater(() -> thumbnailLabel.setIcon(new ImageIcon(image))));
+        
+        if (!TEXT_EXTENSIONS.contains(document.getFileExtension())) {
+            previewArea.setText("No preview available for this file type.");
+            return;
+        }
+        if (document.getFileSize() > MAX_PREVIEW_FETCH_BYTES) {
+            previewArea.setText("File is too large to preview. Use Open Document instead.");
+            return;
+        }
+        
+        SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() throws Exception {
+                ByteBuffer content = documentController.readDocumentPreview(document, PREVIEW_BYTES);
+                if (content == null) {
+                    return null;
+                }
+                
+                // A preview may cut a multi-byte character in half; replace it rather than fail
+                CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                CharBuffer text = decoder.decode(content);
+                return text.toString();
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    String text = get();
+                    previewArea.setText(text != null ? text : "Preview could not be loaded.");
+                    previewArea.setCaretPosition(0);
+                } catch (Exception e) {
+                    previewArea.setText("Preview could not be loaded.");
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        worker.execute();
+    }
+    
     /**
      * Find a component by name within a parent container
      * 
@@ -348,7 +461,10 @@ public class DocumentDetailsDialog extends JDialog {
     private void viewCase() {
         try {
             if (document.getCase() != null) {
-                CaseDetailsDialog dialog = new CaseDetailsDialog(getOwner(), document.getCase());
+                // The document only carries the case's own fields; load its details
+                Case caseWithDetails = caseController.getCaseWithDetails(document.getCase().getId());
+                CaseDetailsDialog dialog = new CaseDetailsDialog(getOwner(),
+                    caseWithDetails != null ? caseWithDetails : document.getCase());
                 dialog.setVisible(true);
             } else {
                 JOptionPane.showMessageDialog(
@@ -396,6 +512,19 @@ public class DocumentDetailsDialog extends JDialog {
         }
     }
     
+    /**
+     * Show the version history, reloading the document if a new version was uploaded
+     */
+    private void showVersions() {
+        DocumentVersionsDialog dialog = new DocumentVersionsDialog(this, document, documentController);
+        dialog.setVisible(true);
+        
+        if (dialog.isVersionAdded()) {
+            loadDocumentData();
+            loadPreview();
+        }
+    }
+    
     /**
      * Download this document
      */
@@ -408,46 +537,68 @@ public class DocumentDetailsDialog extends JDialog {
             int result = fileChooser.showSaveDialog(this);
             
             if (result == JFileChooser.APPROVE_OPTION) {
-                File outputFile = fileChooser.getSelectedFile();
-                
-                // Get document content and save to file
-                byte[] content = documentController.getDocumentContent(document.getId());
-                if (content != null) {
-                    try {
-                        java.nio.file.Files.write(outputFile.toPath(), content);
+                saveDocumentTo(fileChooser.getSelectedFile());
+            }
+            
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(
+                this,
+                "Error downloading document: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE
+            );
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Stream this document to a local file in the background while showing progress
+     * 
+     * @param outputFile The file to save to
+     */
+    private void saveDocumentTo(File outputFile) {
+        TransferProgressDialog progressDialog = new TransferProgressDialog(
+            this, "Downloading Document", "Downloading " + document.getTitle() + "...");
+        DocumentDownloader downloader = documentController.createDownloader(progressDialog);
+        progressDialog.setCancelAction(downloader::cancel);
+        
+        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return documentController.downloadDocument(document, outputFile, downloader);
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    if (get()) {
                         JOptionPane.showMessageDialog(
-                            this,
+                            DocumentDetailsDialog.this,
                             "Document downloaded successfully.",
                             "Success",
                             JOptionPane.INFORMATION_MESSAGE
                         );
-                    } catch (Exception e) {
+                    } else if (!progressDialog.isCancelled()) {
                         JOptionPane.showMessageDialog(
-                            this,
-                            "Error saving document: " + e.getMessage(),
+                            DocumentDetailsDialog.this,
+                            "Could not download document content.",
                             "Download Error",
                             JOptionPane.ERROR_MESSAGE
                         );
-                        e.printStackTrace();
                     }
-                } else {
+                } catch (Exception e) {
                     JOptionPane.showMessageDialog(
-                        this,
-                        "Could not read document content.",
+                        DocumentDetailsDialog.this,
+                        "Error saving document: " + e.getMessage(),
                         "Download Error",
                         JOptionPane.ERROR_MESSAGE
                     );
+                    e.printStackTrace();
                 }
             }
-            
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(
-                this,
-                "Error downloading document: " + e.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE
-            );
-            e.printStackTrace();
-        }
+        };
+        
+        progressDialog.showWhile(worker);
     }
 }
\ No newline at end of file
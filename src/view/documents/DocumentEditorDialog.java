@@ -13,9 +13,12 @@ import java.util.List;
 import model.Document;
 import model.Case;
 import controller.DocumentController;
+import controller.DocumentUploader;
 import controller.CaseController;
+import controller.CaseNumberMatcher;
 import view.util.UIConstants;
 import view.components.DateChooser;
+import view.components.TransferProgressDialog;
 
 /**
  * Dialog for adding or editing a document.
@@ -57,6 +60,9 @@ public class DocumentEditorDialog extends JDialog {
         
         initializeUI();
         loadDocumentData();
+        if (document == null && uploadFile != null) {
+            suggestCase();
+        }
     }
     
     /**
@@ -266,6 +272,40 @@ public class DocumentEditorDialog extends JDialog {
         }
     }
     
+    /**
+     * Preselect the case whose case number or client ID appears in the
+     * uploaded file's name or content, unless the user picked a case already
+     */
+    private void suggestCase() {
+        Object initialSelection = caseCombo.getSelectedItem();
+        SwingWorker<Case, Void> worker = new SwingWorker<Case, Void>() {
+            @Override
+            protected Case doInBackground() throws Exception {
+                return CaseNumberMatcher.getInstance().suggestCase(uploadFile);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    Case suggested = get();
+                    if (suggested == null || caseCombo.getSelectedItem() != initialSelection) {
+                        return;
+                    }
+                    for (int i = 0; i < caseCombo.getItemCount(); i++) {
+                        if (caseCombo.getItemAt(i).getCase().getId() == suggested.getId()) {
+                            caseCombo.setSelectedIndex(i);
+                            break;
+                        }
+                    }
+                } catch (Exception e) {
+                    // The suggestion is optional; keep the default selection
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+    
     /**
      * Load document data into form fields if editing an existing document
      */
@@ -417,15 +457,15 @@ public class DocumentEditorDialog extends JDialog {
                 document.setCreatedBy(1); // Default to user ID 1 for now
             }
             
-            boolean success;
             if (document.getId() == 0) {
-                // Create new document and upload file
-                success = documentController.createDocument(document, uploadFile);
-            } else {
-                // Update existing document
-                success = documentController.updateDocument(document);
+                // Create new document and upload file in the background
+                uploadDocument();
+                return;
             }
             
+            // Update existing document
+            boolean success = documentController.updateDocument(document);
+            
             if (success) {
                 documentSaved = true;
                 dispose();
@@ -439,6 +479,42 @@ public class DocumentEditorDialog extends JDialog {
         }
     }
     
+    /**
+     * Stream the selected file to the server while showing upload progress.
+     * The upload can be cancelled from the progress dialog.
+     */
+    private void uploadDocument() {
+        TransferProgressDialog progressDialog = new TransferProgressDialog(
+            this, "Uploading Document", "Uploading " + uploadFile.getName() + "...");
+        DocumentUploader uploader = documentController.createUploader(progressDialog);
+        progressDialog.setCancelAction(uploader::cancel);
+        
+        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return documentController.createDocument(document, uploadFile, uploader);
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    if (get()) {
+                        documentSaved = true;
+                        dispose();
+                    } else if (!progressDialog.isCancelled()) {
+                        showError("Failed to upload document. Please try again.");
+                    }
+                } catch (Exception e) {
+                    showError("Error uploading document: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        progressDialog.showWhile(worker);
+    }
+    
     /**
      * Check if document was saved
      * 
@@ -0,0 +1,87 @@
+package view.documents;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+
+import model.Document;
+import controller.DocumentController;
+import controller.DocumentDownloader;
+import view.components.TransferProgressDialog;
+import view.util.SwingUtils;
+
+/**
+ * Opens documents in their default desktop application. Documents are
+ * fetched into the local document cache first, so opening the same
+ * document again does not download it a second time.
+ */
+public class DocumentOpener {
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private DocumentOpener() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Fetch a document in the background while showing progress, then open it
+     * 
+     * @param parent The parent component
+     * @param documentController The document controller
+     * @param document The document to open
+     * @param onFinished Called on the event dispatch thread once the fetch ends, or null
+     */
+    public static void open(Component parent, DocumentController documentController, Document document, Runnable onFinished) {
+        if (!Desktop.isDesktopSupported() || !Desktop.getDesktop().isSupported(Desktop.Action.OPEN)) {
+            SwingUtils.showErrorMessage(
+                parent,
+                "Opening documents is not supported on this system. Use Download instead.",
+                "Open Document"
+            );
+            return;
+        }
+        
+        TransferProgressDialog progressDialog = new TransferProgressDialog(
+            SwingUtilities.getWindowAncestor(parent), "Opening Document", "Fetching " + document.getTitle() + "...");
+        DocumentDownloader downloader = documentController.createDownloader(progressDialog);
+        progressDialog.setCancelAction(downloader::cancel);
+        
+        SwingWorker<File, Void> worker = new SwingWorker<File, Void>() {
+            @Override
+            protected File doInBackground() throws Exception {
+                return documentController.fetchDocument(document, downloader);
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    File file = get();
+                    if (file != null) {
+                        Desktop.getDesktop().open(file);
+                    } else if (!progressDialog.isCancelled()) {
+                        SwingUtils.showErrorMessage(
+                            parent,
+                            "Could not fetch document content.",
+                            "Open Document"
+                        );
+                    }
+                } catch (Exception e) {
+                    SwingUtils.showErrorMessage(
+                        parent,
+                        "Error opening document: " + e.getMessage(),
+                        "Open Document"
+                    );
+                    e.printStackTrace();
+                }
+                
+                if (onFinished != null) {
+                    onFinished.run();
+                }
+            }
+        };
+        
+        progressDialog.showWhile(worker);
+    }
+}
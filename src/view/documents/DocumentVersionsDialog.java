@@ -0,0 +1,248 @@
+package view.documents;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Document;
+import model.DocumentVersion;
+import controller.DocumentController;
+import controller.DocumentDownloader;
+import controller.DocumentVersionUploader;
+import view.components.CustomTable;
+import view.components.TransferProgressDialog;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog listing the versions of a document, for uploading a new version
+ * and downloading earlier ones.
+ */
+public class DocumentVersionsDialog extends JDialog {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    private final Document document;
+    private final DocumentController documentController;
+    private final List<DocumentVersion> versions = new ArrayList<>();
+    
+    private CustomTable versionsTable;
+    private JButton uploadButton;
+    private JButton downloadButton;
+    private boolean versionAdded = false;
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     * @param document The document
+     * @param documentController The document controller
+     */
+    public DocumentVersionsDialog(Window parent, Document document, DocumentController documentController) {
+        super(parent, "Versions of " + document.getTitle(), ModalityType.APPLICATION_MODAL);
+        
+        this.document = document;
+        this.documentController = documentController;
+        
+        initializeUI();
+        loadVersions();
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(720, 420);
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+        
+        versionsTable = new CustomTable(new String[] { "Version", "Created", "Size", "Stored As", "Comment" });
+        versionsTable.setColumnWidth(0, 60);
+        versionsTable.setColumnWidth(1, 130);
+        versionsTable.setColumnWidth(2, 80);
+        versionsTable.setColumnWidth(3, 130);
+        versionsTable.setColumnWidth(4, 280);
+        versionsTable.addSelectionListener(e -> downloadButton.setEnabled(versionsTable.getSelectedRow() >= 0));
+        
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(15, 20, 10, 20));
+        tablePanel.add(versionsTable, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        
+        uploadButton = new JButton("Upload New Version...");
+        uploadButton.setFont(UIConstants.NORMAL_FONT);
+        uploadButton.setBackground(UIConstants.SECONDARY_COLOR);
+        uploadButton.setForeground(Color.WHITE);
+        uploadButton.addActionListener(e -> uploadVersion());
+        
+        downloadButton = new JButton("Download Version...");
+        downloadButton.setFont(UIConstants.NORMAL_FONT);
+        downloadButton.setEnabled(false);
+        downloadButton.addActionListener(e -> downloadVersion());
+        
+        JButton closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> dispose());
+        
+        buttonPanel.add(uploadButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(downloadButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Check if a new version was uploaded while the dialog was open
+     * 
+     * @return true if the document's content changed
+     */
+    public boolean isVersionAdded() {
+        return versionAdded;
+    }
+    
+    /**
+     * Load the versions into the table, newest first
+     */
+    private void loadVersions() {
+        versions.clear();
+        versionsTable.clearTable();
+        
+        List<DocumentVersion> loaded = documentController.getDocumentVersions(document.getId());
+        if (loaded == null) {
+            SwingUtils.showErrorMessage(this, "Could not load the document's versions.", "Database Error");
+            return;
+        }
+        
+        for (int i = loaded.size() - 1; i >= 0; i--) {
+            DocumentVersion version = loaded.get(i);
+            versions.add(version);
+            String storedAs = version.isDelta()
+                ? "Changes, " + SwingUtils.formatBytes(version.getStoredBytes())
+                : "Full copy";
+            versionsTable.addRow(new Object[] {
+                version.getVersionNumber(),
+                version.getCreatedAt() != null ? version.getCreatedAt().format(DATE_TIME_FORMAT) : "",
+                SwingUtils.formatBytes(version.getFileSize()),
+                storedAs,
+                version.getComment() != null ? version.getComment() : ""
+            });
+        }
+    }
+    
+    /**
+     * Let the user pick a file and upload it as the newest version
+     */
+    private void uploadVersion() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Upload New Version");
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        
+        String comment = JOptionPane.showInputDialog(this, "Describe the changes in this version (optional):",
+            "Version Comment", JOptionPane.QUESTION_MESSAGE);
+        if (comment == null) {
+            return;
+        }
+        
+        TransferProgressDialog progressDialog = new TransferProgressDialog(
+            this, "Uploading Version", "Comparing " + file.getName() + " with the current version...");
+        DocumentVersionUploader uploader = documentController.createVersionUploader(progressDialog);
+        progressDialog.setCancelAction(uploader::cancel);
+        
+        SwingWorker<DocumentVersion, Void> worker = new SwingWorker<DocumentVersion, Void>() {
+            @Override
+            protected DocumentVersion doInBackground() throws Exception {
+                return documentController.uploadNewVersion(document, file, comment.trim().isEmpty() ? null : comment.trim(), uploader);
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    DocumentVersion version = get();
+                    if (version != null) {
+                        versionAdded = true;
+                        loadVersions();
+                        SwingUtils.showInfoMessage(DocumentVersionsDialog.this, String.format(
+                            "Version %d uploaded. Sent %s of %s.", version.getVersionNumber(),
+                            SwingUtils.formatBytes(uploader.getTransferredBytes()), SwingUtils.formatBytes(file.length())),
+                            "Success");
+                    } else if (!progressDialog.isCancelled()) {
+                        SwingUtils.showErrorMessage(DocumentVersionsDialog.this,
+                            "Could not upload the new version. It may be identical to the current version.", "Upload Error");
+                    }
+                } catch (Exception e) {
+                    SwingUtils.showErrorMessage(DocumentVersionsDialog.this,
+                        "Error uploading version: " + e.getMessage(), "Upload Error");
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        progressDialog.showWhile(worker);
+    }
+    
+    /**
+     * Save the selected version to a local file
+     */
+    private void downloadVersion() {
+        int selectedRow = versionsTable.getSelectedRow();
+        if (selectedRow < 0) {
+            return;
+        }
+        DocumentVersion version = versions.get(selectedRow);
+        
+        JFileChooser fileChooser = new JFileChooser();
+        String name = new File(document.getFilePath()).getName();
+        int dot = name.lastIndexOf('.');
+        String suggestedName = dot > 0
+            ? name.substring(0, dot) + " v" + version.getVersionNumber() + name.substring(dot)
+            : name + " v" + version.getVersionNumber();
+        fileChooser.setSelectedFile(new File(suggestedName));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File outputFile = fileChooser.getSelectedFile();
+        
+        TransferProgressDialog progressDialog = new TransferProgressDialog(
+            this, "Downloading Version", "Downloading version " + version.getVersionNumber() + "...");
+        DocumentDownloader downloader = documentController.createDownloader(progressDialog);
+        progressDialog.setCancelAction(downloader::cancel);
+        
+        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return documentController.downloadVersion(version, outputFile, downloader);
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    if (get()) {
+                        SwingUtils.showInfoMessage(DocumentVersionsDialog.this, "Version downloaded successfully.", "Success");
+                    } else if (!progressDialog.isCancelled()) {
+                        SwingUtils.showErrorMessage(DocumentVersionsDialog.this, "Could not download the version.", "Download Error");
+                    }
+                } catch (Exception e) {
+                    SwingUtils.showErrorMessage(DocumentVersionsDialog.this,
+                        "Error saving version: " + e.getMessage(), "Download Error");
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        progressDialog.showWhile(worker);
+    }
+}
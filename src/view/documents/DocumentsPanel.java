@@ -5,18 +5,28 @@ import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.event.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.io.File;
+import java.awt.image.BufferedImage;
 
 import model.Document;
+import model.DocumentSearchResult;
 import model.Case;
 import controller.DocumentController;
+import controller.DocumentDownloader;
+import controller.DocumentPreviewCache;
 import controller.CaseController;
 import view.components.CustomTable;
 import view.components.TableFilterPanel;
 import view.components.StatusIndicator;
+import view.components.TransferProgressDialog;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 
@@ -24,16 +34,30 @@ import view.util.SwingUtils;
  * Panel for document management in the Legal Case Management System.
  */
 public class DocumentsPanel extends JPanel {
+    private static final int MAX_CONTENT_RESULTS = 100;
+    private static final int PREVIEW_COLUMN = 7;
+    private static final int PREVIEW_ROW_HEIGHT = 48;
+    
     private DocumentController documentController;
     private CaseController caseController;
     private CustomTable documentsTable;
     private DocumentFilterPanel filterPanel;
+    private JLabel storageLabel;
+    private JLabel snippetLabel;
+    private final Map<String, String> contentSnippets = new HashMap<>();
+    private final Map<String, Document> loadedDocuments = new HashMap<>();
+    private final Map<String, Icon> previewIcons = new HashMap<>();
+    private final Set<String> requestedPreviews = new HashSet<>();
+    private final DocumentPreviewCache previewCache = DocumentPreviewCache.getInstance();
     
     private JButton addButton;
+    private JButton bulkImportButton;
+    private JButton watchFoldersButton;
     private JButton editButton;
     private JButton deleteButton;
     private JButton viewDetailsButton;
     private JButton downloadButton;
+    private JButton openButton;
     
     /**
      * Constructor
@@ -84,6 +108,13 @@ public class DocumentsPanel extends JPanel {
         titleLabel.setForeground(UIConstants.PRIMARY_COLOR);
         titlePanel.add(titleLabel);
         
+        // Storage summary
+        storageLabel = new JLabel();
+        storageLabel.setFont(UIConstants.SMALL_FONT);
+        storageLabel.setForeground(Color.GRAY);
+        titlePanel.add(Box.createHorizontalStrut(20));
+        titlePanel.add(storageLabel);
+        
         headerPanel.add(titlePanel, BorderLayout.NORTH);
         
         // Filter panel
@@ -105,7 +136,7 @@ public class DocumentsPanel extends JPanel {
         
         // Create table
         String[] columnNames = {
-            "Document ID", "Title", "Type", "Case", "Date Added", "Document Date", "Status"
+            "Document ID", "Title", "Type", "Case", "Date Added", "Document Date", "Status", "Preview"
         };
         documentsTable = new CustomTable(columnNames);
         
@@ -117,6 +148,8 @@ public class DocumentsPanel extends JPanel {
         documentsTable.setColumnWidth(4, 100);  // Date Added
         documentsTable.setColumnWidth(5, 100);  // Document Date
         documentsTable.setColumnWidth(6, 80);   // Status
+        documentsTable.setColumnWidth(7, 60);   // Preview
+        documentsTable.getTable().setRowHeight(PREVIEW_ROW_HEIGHT);
         
         // Add double-click listener to open document details
         documentsTable.getTable().addMouseListener(new MouseAdapter() {
@@ -129,7 +162,10 @@ public class DocumentsPanel extends JPanel {
         });
         
         // Enable/disable buttons based on selection
-        documentsTable.addSelectionListener(e -> updateButtonStates());
+        documentsTable.addSelectionListener(e -> {
+            updateButtonStates();
+            updateSnippet();
+        });
         
         // Add a custom renderer for the Status column
         documentsTable.setColumnRenderer(6, (table, value, isSelected, hasFocus, row, column) -> {
@@ -144,8 +180,28 @@ public class DocumentsPanel extends JPanel {
             return indicator;
         });
         
+        // Previews are only requested for rows being painted, so they load as rows scroll into view
+        documentsTable.setColumnRenderer(PREVIEW_COLUMN, (table, value, isSelected, hasFocus, row, column) -> {
+            JLabel label = new JLabel();
+            label.setHorizontalAlignment(SwingConstants.CENTER);
+            label.setOpaque(true);
+            label.setBackground(isSelected ? table.getSelectionBackground() : Color.WHITE);
+            if (value != null) {
+                label.setIcon(getPreviewIcon(value.toString()));
+            }
+            return label;
+        });
+        
         tablePanel.add(documentsTable, BorderLayout.CENTER);
         
+        // Excerpt of the selected document's matching text for content searches
+        snippetLabel = new JLabel();
+        snippetLabel.setFont(UIConstants.SMALL_FONT);
+        snippetLabel.setForeground(Color.DARK_GRAY);
+        snippetLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+        snippetLabel.setVisible(false);
+        tablePanel.add(snippetLabel, BorderLayout.SOUTH);
+        
         return tablePanel;
     }
     
@@ -171,6 +227,10 @@ public class DocumentsPanel extends JPanel {
         downloadButton.setFont(UIConstants.NORMAL_FONT);
         downloadButton.addActionListener(e -> downloadSelectedDocument());
         
+        openButton = new JButton("Open");
+        openButton.setFont(UIConstants.NORMAL_FONT);
+        openButton.addActionListener(e -> openSelectedDocument());
+        
         viewDetailsButton = new JButton("View Details");
         viewDetailsButton.setFont(UIConstants.NORMAL_FONT);
         viewDetailsButton.addActionListener(e -> viewDocumentDetails());
@@ -189,9 +249,22 @@ public class DocumentsPanel extends JPanel {
         addButton.setForeground(Color.WHITE);
         addButton.addActionListener(e -> uploadNewDocument());
         
+        bulkImportButton = new JButton("Bulk Import");
+        bulkImportButton.setFont(UIConstants.NORMAL_FONT);
+        bulkImportButton.addActionListener(e -> bulkImportDocuments());
+        
+        watchFoldersButton = new JButton("Watched Folders");
+        watchFoldersButton.setFont(UIConstants.NORMAL_FONT);
+        watchFoldersButton.addActionListener(e -> {
+            new WatchFoldersDialog(SwingUtilities.getWindowAncestor(this)).setVisible(true);
+            loadDocuments();
+        });
+        
         // Add buttons to panel
         buttonPanel.add(refreshButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(openButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(downloadButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(viewDetailsButton);
@@ -200,9 +273,14 @@ public class DocumentsPanel extends JPanel {
         buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(deleteButton);
         buttonPanel.add(Box.createHorizontalStrut(30));
+        buttonPanel.add(watchFoldersButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(bulkImportButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(addButton);
         
         // Initialize button states
+        openButton.setEnabled(false);
         downloadButton.setEnabled(false);
         viewDetailsButton.setEnabled(false);
         editButton.setEnabled(false);
@@ -219,6 +297,10 @@ public class DocumentsPanel extends JPanel {
             // Clear existing data
             documentsTable.clearTable();
             documentsTable.clearFilters();
+            contentSnippets.clear();
+            loadedDocuments.clear();
+            previewIcons.clear();
+            requestedPreviews.clear();
             
             // Get documents from controller
             List<Document> documents;
@@ -229,6 +311,15 @@ public class DocumentsPanel extends JPanel {
             if (searchText != null && !searchText.isEmpty()) {
                 if ("Title".equals(filterType)) {
                     documents = documentController.findDocumentsByText(searchText);
+                } else if ("Content".equals(filterType)) {
+                    // Ranked full-text search; keep the relevance order
+                    documents = new ArrayList<>();
+                    for (DocumentSearchResult result : documentController.searchDocumentContent(searchText, MAX_CONTENT_RESULTS)) {
+                        documents.add(result.getDocument());
+                        if (result.getSnippet() != null) {
+                            contentSnippets.put(result.getDocument().getDocumentId(), result.getSnippet());
+                        }
+                    }
                 } else if ("Type".equals(filterType)) {
                     documents = documentController.findDocumentsByType(searchText);
                 } else if ("Case".equals(filterType)) {
@@ -246,6 +337,7 @@ public class DocumentsPanel extends JPanel {
                 }
             } else {
                 documents = documentController.getAllDocuments();
+                documentController.updateContentIndex(documents);
             }
             
             // Load case information for documents
@@ -267,8 +359,10 @@ public class DocumentsPanel extends JPanel {
                     caseInfo,
                     document.getDateAdded().format(dateFormatter),
                     document.getDocumentDate() != null ? document.getDocumentDate().format(dateFormatter) : "N/A",
-                    document.getStatus()
+                    document.getStatus(),
+                    document.getDocumentId()
                 };
+                loadedDocuments.put(document.getDocumentId(), document);
                 documentsTable.addRow(row);
             }
             
@@ -283,6 +377,8 @@ public class DocumentsPanel extends JPanel {
             
             // Update button states
             updateButtonStates();
+            updateSnippet();
+            updateStorageSummary();
             
         } catch (Exception e) {
             SwingUtils.showErrorMessage(
@@ -294,11 +390,113 @@ public class DocumentsPanel extends JPanel {
         }
     }
     
+    /**
+     * Load storage statistics in the background and show how much space and
+     * transfer deduplication has saved, along with the local document cache usage
+     */
+    private void updateStorageSummary() {
+        SwingWorker<Map<String, Object>, Void> worker = new SwingWorker<Map<String, Object>, Void>() {
+            @Override
+            protected Map<String, Object> doInBackground() throws Exception {
+                return documentController.getStorageStatistics();
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    Map<String, Object> stats = get();
+                    if (stats == null) {
+                        storageLabel.setText("");
+                        return;
+                    }
+                    
+                    long logicalBytes = ((Number) stats.get("logicalBytes")).longValue();
+                    long storedBytes = ((Number) stats.get("storedBytes")).longValue();
+                    String summary = "Storage: " + SwingUtils.formatBytes(storedBytes) + " for "
+                            + SwingUtils.formatBytes(logicalBytes) + " of documents ("
+                            + SwingUtils.formatBytes(Math.max(0, logicalBytes - storedBytes)) + " saved)";
+                    
+                    long transferSaved = DocumentController.getTransferBytesSaved();
+                    if (transferSaved > 0) {
+                        summary += ", " + SwingUtils.formatBytes(transferSaved) + " of uploads skipped this session";
+                    }
+                    
+                    Map<String, Object> cacheStats = documentController.getCacheStatistics();
+                    summary += String.format(" | Local cache: %d files, %s of %s, %.0f%% hit rate",
+                            ((Number) cacheStats.get("entryCount")).intValue(),
+                            SwingUtils.formatBytes(((Number) cacheStats.get("usedBytes")).longValue()),
+                            SwingUtils.formatBytes(((Number) cacheStats.get("maxBytes")).longValue()),
+                            ((Number) cacheStats.get("hitRate")).doubleValue() * 100);
+                    storageLabel.setText(summary);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        worker.execute();
+    }
+    
+    /**
+     * Get the preview thumbnail for a table row. If the preview is not ready
+     * yet it is requested in the background and the table is repainted when
+     * it arrives; a failed request is tried again on a later repaint.
+     * 
+     * @param documentId The document ID of the row
+     * @return The thumbnail, or null while it is loading
+     */
+    private Icon getPreviewIcon(String documentId) {
+        Icon icon = previewIcons.get(documentId);
+        Document document = loadedDocuments.get(documentId);
+        if (icon != null || document == null) {
+            return icon;
+        }
+        
+        BufferedImage preview = previewCache.getCachedPreview(document);
+        if (preview == null) {
+            if (requestedPreviews.add(documentId)) {
+                previewCache.requestPreview(document).whenComplete((image, failure) -> SwingUtilities.invokeLater(() -> {
+                    // Allow another request on a later repaint, in case this one failed
+                    // or the image is evicted from memory before the row is painted
+                    requestedPreviews.remove(documentId);
+                    if (failure == null && image != null) {
+                        documentsTable.repaint();
+                    }
+                }));
+            }
+            return null;
+        }
+        
+        int height = PREVIEW_ROW_HEIGHT - 6;
+        int width = Math.max(1, preview.getWidth() * height / preview.getHeight());
+        icon = new ImageIcon(preview.getScaledInstance(width, height, Image.SCALE_SMOOTH));
+        previewIcons.put(documentId, icon);
+        return icon;
+    }
+    
+    /**
+     * Show the content search excerpt of the selected document, if there is one
+     */
+    private void updateSnippet() {
+        int selectedRow = documentsTable.getSelectedRow();
+        String snippet = selectedRow != -1
+            ? contentSnippets.get(documentsTable.getValueAt(selectedRow, 0).toString()) : null;
+        
+        if (snippet != null) {
+            snippetLabel.setText("Match: " + snippet);
+            snippetLabel.setVisible(true);
+        } else {
+            snippetLabel.setText("");
+            snippetLabel.setVisible(false);
+        }
+    }
+    
     /**
      * Update the enabled state of buttons based on table selection
      */
     private void updateButtonStates() {
         boolean hasSelection = documentsTable.getSelectedRow() != -1;
+        openButton.setEnabled(hasSelection);
         downloadButton.setEnabled(hasSelection);
         viewDetailsButton.setEnabled(hasSelection);
         editButton.setEnabled(hasSelection);
@@ -341,6 +539,18 @@ public class DocumentsPanel extends JPanel {
         }
     }
     
+    /**
+     * Import many files or folders at once
+     */
+    private void bulkImportDocuments() {
+        BulkImportDialog dialog = new BulkImportDialog(SwingUtilities.getWindowAncestor(this));
+        dialog.setVisible(true);
+        
+        if (dialog.isDocumentsImported()) {
+            loadDocuments();
+        }
+    }
+    
     /**
      * Upload a new document
      * This method is public so it can be called from other panels, like MainView
@@ -472,6 +682,22 @@ public class DocumentsPanel extends JPanel {
         }
     }
     
+    /**
+     * Open the selected document in its default application
+     */
+    private void openSelectedDocument() {
+        int selectedRow = documentsTable.getSelectedRow();
+        if (selectedRow == -1) {
+            return;
+        }
+        
+        String documentId = documentsTable.getValueAt(selectedRow, 0).toString();
+        Document document = documentController.getDocumentByDocumentId(documentId);
+        if (document != null) {
+            DocumentOpener.open(this, documentController, document, this::updateStorageSummary);
+        }
+    }
+    
     /**
      * Download the selected document
      */
@@ -495,33 +721,7 @@ public class DocumentsPanel extends JPanel {
                 int result = fileChooser.showSaveDialog(this);
                 
                 if (result == JFileChooser.APPROVE_OPTION) {
-                    File outputFile = fileChooser.getSelectedFile();
-                    
-                    // Get document content and save to file
-                    byte[] content = documentController.getDocumentContent(document.getId());
-                    if (content != null) {
-                        try {
-                            java.nio.file.Files.write(outputFile.toPath(), content);
-                            SwingUtils.showInfoMessage(
-                                this,
-                                "Document downloaded successfully.",
-                                "Success"
-                            );
-                        } catch (Exception e) {
-                            SwingUtils.showErrorMessage(
-                                this,
-                                "Error saving document: " + e.getMessage(),
-                                "Download Error"
-                            );
-                            e.printStackTrace();
-                        }
-                    } else {
-                        SwingUtils.showErrorMessage(
-                            this,
-                            "Could not read document content.",
-                            "Download Error"
-                        );
-                    }
+                    downloadDocument(document, fileChooser.getSelectedFile());
                 }
             }
             
@@ -535,6 +735,55 @@ public class DocumentsPanel extends JPanel {
         }
     }
     
+    /**
+     * Stream a document to a local file in the background while showing progress
+     * 
+     * @param document The document to download
+     * @param outputFile The file to save to
+     */
+    private void downloadDocument(Document document, File outputFile) {
+        TransferProgressDialog progressDialog = new TransferProgressDialog(
+            SwingUtilities.getWindowAncestor(this), "Downloading Document", "Downloading " + document.getTitle() + "...");
+        DocumentDownloader downloader = documentController.createDownloader(progressDialog);
+        progressDialog.setCancelAction(downloader::cancel);
+        
+        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return documentController.downloadDocument(document, outputFile, downloader);
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    if (get()) {
+                        SwingUtils.showInfoMessage(
+                            DocumentsPanel.this,
+                            "Document downloaded successfully.",
+                            "Success"
+                        );
+                    } else if (!progressDialog.isCancelled()) {
+                        SwingUtils.showErrorMessage(
+                            DocumentsPanel.this,
+                            "Could not download document content.",
+                            "Download Error"
+                        );
+                    }
+                } catch (Exception e) {
+                    SwingUtils.showErrorMessage(
+                        DocumentsPanel.this,
+                        "Error saving document: " + e.getMessage(),
+                        "Download Error"
+                    );
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        progressDialog.showWhile(worker);
+    }
+    
     /**
      * Custom filter panel for documents
      */
@@ -544,7 +793,7 @@ public class DocumentsPanel extends JPanel {
          */
         public DocumentFilterPanel() {
             super(
-                new String[]{"All", "Title", "Type", "Case"},
+                new String[]{"All", "Title", "Content", "Type", "Case"},
                     
                 searchText -> loadDocuments(),
                 () -> {
@@ -0,0 +1,209 @@
+package view.documents;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import model.Case;
+import controller.CaseController;
+import controller.DocumentController;
+import controller.FolderWatchIngester;
+import view.components.CustomTable;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog for configuring the folders watched for new documents, such as
+ * scanner output folders, and for following the ingestion queue.
+ */
+public class WatchFoldersDialog extends JDialog {
+    private static final int REFRESH_INTERVAL_MILLIS = 1000;
+    
+    private final FolderWatchIngester ingester = FolderWatchIngester.getInstance();
+    private final List<FolderWatchIngester.WatchedFolder> folders;
+    private CaseController caseController;
+    private DocumentController documentController;
+    
+    private CustomTable foldersTable;
+    private JCheckBox enabledCheckBox;
+    private JLabel statisticsLabel;
+    private Timer refreshTimer;
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     */
+    public WatchFoldersDialog(Window parent) {
+        super(parent, "Watched Folders", ModalityType.APPLICATION_MODAL);
+        
+        this.caseController = new CaseController();
+        this.documentController = new DocumentController();
+        this.folders = ingester.getFolders();
+        
+        initializeUI();
+        loadFolders();
+        refreshStatistics();
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(750, 400);
+        setMinimumSize(new Dimension(600, 300));
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+        
+        // Options and statistics
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBorder(BorderFactory.createEmptyBorder(15, 20, 10, 20));
+        
+        enabledCheckBox = new JCheckBox("Import new files from these folders automatically", ingester.isEnabled());
+        enabledCheckBox.setFont(UIConstants.NORMAL_FONT);
+        enabledCheckBox.addActionListener(e -> ingester.setEnabled(enabledCheckBox.isSelected()));
+        headerPanel.add(enabledCheckBox, BorderLayout.NORTH);
+        
+        statisticsLabel = new JLabel();
+        statisticsLabel.setFont(UIConstants.SMALL_FONT);
+        statisticsLabel.setForeground(Color.GRAY);
+        statisticsLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+        headerPanel.add(statisticsLabel, BorderLayout.SOUTH);
+        add(headerPanel, BorderLayout.NORTH);
+        
+        // Folder list
+        foldersTable = new CustomTable(new String[] { "Folder", "Case", "Document Type" });
+        foldersTable.setColumnWidth(0, 330);
+        foldersTable.setColumnWidth(1, 220);
+        foldersTable.setColumnWidth(2, 120);
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(0, 20, 10, 20));
+        tablePanel.add(foldersTable, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        // Buttons
+        JButton addButton = new JButton("Add Folder...");
+        addButton.setFont(UIConstants.NORMAL_FONT);
+        addButton.addActionListener(e -> addFolder());
+        
+        JButton removeButton = new JButton("Remove Folder");
+        removeButton.setFont(UIConstants.NORMAL_FONT);
+        removeButton.addActionListener(e -> removeSelectedFolder());
+        
+        JButton closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> dispose());
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        buttonPanel.add(addButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(removeButton);
+        buttonPanel.add(Box.createHorizontalStrut(30));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+        
+        refreshTimer = new Timer(REFRESH_INTERVAL_MILLIS, e -> refreshStatistics());
+        refreshTimer.start();
+    }
+    
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+        super.dispose();
+    }
+    
+    /**
+     * Show the configured folders
+     */
+    private void loadFolders() {
+        foldersTable.clearTable();
+        for (FolderWatchIngester.WatchedFolder folder : folders) {
+            foldersTable.addRow(new Object[] {
+                folder.getDirectory().toString(), folder.getCaseLabel(), folder.getDocumentType()
+            });
+        }
+    }
+    
+    /**
+     * Show queue depth, ingested and failed counts and ingestion lag
+     */
+    private void refreshStatistics() {
+        Map<String, Object> stats = ingester.getStatistics();
+        String state = ingester.isRunning() ? "Watching" : ingester.isEnabled() ? "Not watching (no folders)" : "Off";
+        statisticsLabel.setText(String.format("%s | Queue: %d files | Imported: %d | Failed: %d | Lag: last %.1f s, average %.1f s",
+            state,
+            ((Number) stats.get("queueDepth")).intValue(),
+            ((Number) stats.get("ingestedCount")).longValue(),
+            ((Number) stats.get("failedCount")).longValue(),
+            ((Number) stats.get("lastLagMillis")).longValue() / 1000.0,
+            ((Number) stats.get("averageLagMillis")).longValue() / 1000.0));
+    }
+    
+    /**
+     * Choose a folder and the case its documents are filed under
+     */
+    private void addFolder() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File directory = fileChooser.getSelectedFile();
+        
+        List<Case> cases;
+        try {
+            cases = caseController.getAllCases();
+        } catch (Exception e) {
+            SwingUtils.showErrorMessage(this, "Error loading cases: " + e.getMessage(), "Database Error");
+            e.printStackTrace();
+            return;
+        }
+        
+        List<String> caseLabels = new ArrayList<>();
+        for (Case legalCase : cases) {
+            caseLabels.add(legalCase.getCaseNumber() + " - " + legalCase.getTitle());
+        }
+        JComboBox<String> caseCombo = new JComboBox<>(caseLabels.toArray(new String[0]));
+        JComboBox<String> typeCombo = new JComboBox<>(documentController.getDocumentTypes());
+        
+        JPanel panel = new JPanel(new GridLayout(0, 1, 0, 5));
+        panel.add(new JLabel("File documents from " + directory.getName() + " under case:"));
+        panel.add(caseCombo);
+        panel.add(new JLabel("Document type:"));
+        panel.add(typeCombo);
+        
+        int option = JOptionPane.showConfirmDialog(this, panel, "Add Watched Folder",
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (option != JOptionPane.OK_OPTION || caseCombo.getSelectedIndex() < 0) {
+            return;
+        }
+        
+        Case legalCase = cases.get(caseCombo.getSelectedIndex());
+        folders.add(new FolderWatchIngester.WatchedFolder(directory.toPath(), legalCase.getId(),
+            (String) caseCombo.getSelectedItem(), (String) typeCombo.getSelectedItem()));
+        ingester.setFolders(folders);
+        ingester.start();
+        loadFolders();
+    }
+    
+    /**
+     * Stop watching the selected folder
+     */
+    private void removeSelectedFolder() {
+        int selectedRow = foldersTable.getSelectedRow();
+        if (selectedRow == -1) {
+            return;
+        }
+        
+        folders.remove(selectedRow);
+        ingester.setFolders(folders);
+        loadFolders();
+    }
+}
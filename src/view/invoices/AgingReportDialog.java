@@ -0,0 +1,171 @@
+package view.invoices;
+
+import javax.swing.*;
+import java.awt.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+import controller.InvoiceController;
+import controller.ReceivablesAging;
+import view.components.CustomTable;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog showing outstanding balances by client and by case, bucketed by
+ * days past due.
+ */
+public class AgingReportDialog extends JDialog {
+    private final InvoiceController invoiceController;
+    
+    private CustomTable clientTable;
+    private CustomTable caseTable;
+    private JLabel totalsLabel;
+    private JButton refreshButton;
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     * @param invoiceController The invoice controller
+     */
+    public AgingReportDialog(Window parent, InvoiceController invoiceController) {
+        super(parent, "Accounts Receivable Aging", ModalityType.APPLICATION_MODAL);
+        
+        this.invoiceController = invoiceController;
+        
+        initializeUI();
+        loadReport();
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(900, 560);
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+        
+        totalsLabel = SwingUtils.createBoldLabel("Loading...");
+        totalsLabel.setBorder(BorderFactory.createEmptyBorder(15, 20, 5, 20));
+        add(totalsLabel, BorderLayout.NORTH);
+        
+        clientTable = createAgingTable("Client");
+        caseTable = createAgingTable("Case");
+        
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.setFont(UIConstants.NORMAL_FONT);
+        tabbedPane.addTab("By Client", clientTable);
+        tabbedPane.addTab("By Case", caseTable);
+        
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(5, 20, 10, 20));
+        tablePanel.add(tabbedPane, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        
+        refreshButton = new JButton("Refresh");
+        refreshButton.setFont(UIConstants.NORMAL_FONT);
+        refreshButton.addActionListener(e -> loadReport());
+        
+        JButton closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> dispose());
+        
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Create a table with a name column, one column per bucket and a total
+     */
+    private CustomTable createAgingTable(String nameColumn) {
+        String[] columns = new String[ReceivablesAging.BUCKET_NAMES.length + 3];
+        columns[0] = nameColumn;
+        columns[1] = "Invoices";
+        System.arraycopy(ReceivablesAging.BUCKET_NAMES, 0, columns, 2, ReceivablesAging.BUCKET_NAMES.length);
+        columns[columns.length - 1] = "Total";
+        
+        CustomTable table = new CustomTable(columns, true);
+        table.setColumnWidth(0, 240);
+        table.setColumnWidth(1, 70);
+        return table;
+    }
+    
+    /**
+     * Load the report in the background
+     */
+    private void loadReport() {
+        refreshButton.setEnabled(false);
+        totalsLabel.setText("Loading...");
+        
+        SwingWorker<ReceivablesAging.Report, Void> worker = new SwingWorker<ReceivablesAging.Report, Void>() {
+            @Override
+            protected ReceivablesAging.Report doInBackground() throws Exception {
+                return invoiceController.getAgingReport();
+            }
+            
+            @Override
+            protected void done() {
+                refreshButton.setEnabled(true);
+                try {
+                    ReceivablesAging.Report report = get();
+                    if (report == null) {
+                        totalsLabel.setText("The report could not be loaded.");
+                        SwingUtils.showErrorMessage(AgingReportDialog.this,
+                            "Could not load open invoices and payments.", "Database Error");
+                        return;
+                    }
+                    showRows(clientTable, report.getClientRows());
+                    showRows(caseTable, report.getCaseRows());
+                    
+                    ReceivablesAging.Row totals = report.getTotals();
+                    StringBuilder text = new StringBuilder("Outstanding as of ")
+                        .append(SwingUtils.formatLocalDate(report.getAsOf())).append(": ")
+                        .append(formatMinorUnits(totals.getTotal()))
+                        .append(" on ").append(totals.getInvoiceCount()).append(" invoices");
+                    for (int i = 0; i < ReceivablesAging.BUCKET_NAMES.length; i++) {
+                        text.append(i == 0 ? " (" : ", ").append(ReceivablesAging.BUCKET_NAMES[i]).append(" ")
+                            .append(formatMinorUnits(totals.getBucket(i)));
+                    }
+                    totalsLabel.setText(text.append(")").toString());
+                } catch (Exception e) {
+                    totalsLabel.setText("The report could not be loaded.");
+                    SwingUtils.showErrorMessage(AgingReportDialog.this,
+                        "Error loading aging report: " + e.getMessage(), "Database Error");
+                    e.printStackTrace();
+                }
+            }
+        };
+        
+        worker.execute();
+    }
+    
+    /**
+     * Fill a table with report rows
+     */
+    private void showRows(CustomTable table, List<ReceivablesAging.Row> rows) {
+        table.clearTable();
+        for (ReceivablesAging.Row row : rows) {
+            Object[] values = new Object[ReceivablesAging.BUCKET_NAMES.length + 3];
+            values[0] = row.getName();
+            values[1] = row.getInvoiceCount();
+            for (int i = 0; i < ReceivablesAging.BUCKET_NAMES.length; i++) {
+                values[i + 2] = formatMinorUnits(row.getBucket(i));
+            }
+            values[values.length - 1] = formatMinorUnits(row.getTotal());
+            table.addRow(values);
+        }
+    }
+    
+    private static String formatMinorUnits(long amount) {
+        return SwingUtils.formatMoney(BigDecimal.valueOf(amount, 2).doubleValue());
+    }
+}
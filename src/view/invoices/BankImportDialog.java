@@ -0,0 +1,247 @@
+package view.invoices;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.List;
+
+import controller.BankStatementImporter;
+import controller.InvoiceController;
+import model.Payment;
+import view.components.CustomTable;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog for importing payments from a bank statement. The statement's
+ * credits are matched to open invoices and shown for review before the
+ * payments are recorded.
+ */
+public class BankImportDialog extends JDialog {
+    private final InvoiceController invoiceController;
+    private final BankStatementImporter importer;
+    
+    private CustomTable linesTable;
+    private JLabel summaryLabel;
+    private JButton chooseButton;
+    private JButton importButton;
+    
+    private File statementFile;
+    private BankStatementImporter.Analysis analysis;
+    private boolean paymentsImported = false;
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     * @param invoiceController The invoice controller
+     */
+    public BankImportDialog(Window parent, InvoiceController invoiceController) {
+        super(parent, "Import Bank Statement", ModalityType.APPLICATION_MODAL);
+        
+        this.invoiceController = invoiceController;
+        this.importer = invoiceController.createBankStatementImporter();
+        
+        initializeUI();
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(900, 560);
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+        
+        summaryLabel = SwingUtils.createLabel("Choose a CSV or OFX statement to match its credits to open invoices.");
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(15, 20, 5, 20));
+        add(summaryLabel, BorderLayout.NORTH);
+        
+        linesTable = new CustomTable(new String[] { "Line", "Date", "Amount", "Description", "Invoice", "Match" });
+        linesTable.setColumnWidth(0, 50);
+        linesTable.setColumnWidth(1, 90);
+        linesTable.setColumnWidth(2, 90);
+        linesTable.setColumnWidth(3, 300);
+        linesTable.setColumnWidth(4, 110);
+        linesTable.setColumnWidth(5, 220);
+        
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(5, 20, 10, 20));
+        tablePanel.add(linesTable, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        
+        chooseButton = new JButton("Choose Statement...");
+        chooseButton.setFont(UIConstants.NORMAL_FONT);
+        chooseButton.addActionListener(e -> chooseStatement());
+        
+        importButton = new JButton("Record Matched Payments");
+        importButton.setFont(UIConstants.NORMAL_FONT);
+        importButton.setBackground(UIConstants.SECONDARY_COLOR);
+        importButton.setForeground(Color.WHITE);
+        importButton.setEnabled(false);
+        importButton.addActionListener(e -> importPayments());
+        
+        JButton closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> dispose());
+        
+        buttonPanel.add(chooseButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(importButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Check if any payments were recorded while the dialog was open
+     * 
+     * @return true if the invoice list should be refreshed
+     */
+    public boolean isPaymentsImported() {
+        return paymentsImported;
+    }
+    
+    /**
+     * Let the user pick a statement and match it in the background
+     */
+    private void chooseStatement() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Choose Bank Statement");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Bank statements (CSV, OFX, QFX)", "csv", "ofx", "qfx"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        
+        chooseButton.setEnabled(false);
+        importButton.setEnabled(false);
+        linesTable.clearTable();
+        summaryLabel.setText("Matching " + file.getName() + "...");
+        
+        SwingWorker<BankStatementImporter.Analysis, Void> worker = new SwingWorker<BankStatementImporter.Analysis, Void>() {
+            @Override
+            protected BankStatementImporter.Analysis doInBackground() throws Exception {
+                return importer.analyze(file);
+            }
+            
+            @Override
+            protected void done() {
+                chooseButton.setEnabled(true);
+                try {
+                    statementFile = file;
+                    analysis = get();
+                    showAnalysis();
+                } catch (Exception e) {
+                    analysis = null;
+                    summaryLabel.setText("The statement could not be read.");
+                    SwingUtils.showErrorMessage(BankImportDialog.this,
+                        "Error reading statement: " + e.getMessage(), "Import Error");
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    /**
+     * Show matched lines first, then the lines left for manual recording
+     */
+    private void showAnalysis() {
+        linesTable.clearTable();
+        for (BankStatementImporter.LineMatch match : analysis.getMatched()) {
+            addLine(match, match.getInvoice().getInvoiceNumber(), match.getMethod());
+        }
+        for (BankStatementImporter.LineMatch match : analysis.getUnmatched()) {
+            addLine(match, "", match.getProblem());
+        }
+        
+        summaryLabel.setText(String.format(
+            "%d credits matched, %d unmatched, %d other lines skipped. Read in %d ms (%,.0f lines/s).",
+            analysis.getMatched().size(), analysis.getUnmatched().size(), analysis.getSkippedLines(),
+            analysis.getElapsedMillis(), analysis.getLinesPerSecond()));
+        importButton.setEnabled(!analysis.getMatched().isEmpty());
+    }
+    
+    private void addLine(BankStatementImporter.LineMatch match, String invoiceNumber, String result) {
+        BankStatementImporter.StatementLine line = match.getLine();
+        linesTable.addRow(new Object[] {
+            line.getLineNumber(),
+            SwingUtils.formatLocalDate(line.getDate()),
+            SwingUtils.formatMoney(BigDecimal.valueOf(line.getAmountMinorUnits(), 2).doubleValue()),
+            line.getDescription(),
+            invoiceNumber,
+            result
+        });
+    }
+    
+    /**
+     * Record all matched payments with one call
+     */
+    private void importPayments() {
+        List<BankStatementImporter.LineMatch> matches = analysis.getMatched();
+        if (!SwingUtils.showConfirmDialog(this,
+                "Record " + matches.size() + " payments from " + statementFile.getName() + "?",
+                "Confirm Import")) {
+            return;
+        }
+        
+        chooseButton.setEnabled(false);
+        importButton.setEnabled(false);
+        summaryLabel.setText("Recording payments...");
+        
+        SwingWorker<List<Payment>, Void> worker = new SwingWorker<List<Payment>, Void>() {
+            @Override
+            protected List<Payment> doInBackground() throws Exception {
+                return invoiceController.importBankPayments(importer, matches, statementFile.getName());
+            }
+            
+            @Override
+            protected void done() {
+                chooseButton.setEnabled(true);
+                try {
+                    List<Payment> created = get();
+                    if (created == null) {
+                        importButton.setEnabled(true);
+                        summaryLabel.setText("The payments could not be recorded.");
+                        SwingUtils.showErrorMessage(BankImportDialog.this,
+                            "Could not record the payments. Nothing was imported.", "Import Error");
+                        return;
+                    }
+                    
+                    int recorded = 0;
+                    for (Payment payment : created) {
+                        if (payment != null) {
+                            recorded++;
+                        }
+                    }
+                    paymentsImported = recorded > 0;
+                    analysis = null;
+                    summaryLabel.setText(recorded + " payments recorded.");
+                    if (recorded < matches.size()) {
+                        SwingUtils.showErrorMessage(BankImportDialog.this, String.format(
+                            "%d of %d payments were recorded. The others were rejected by the server "
+                            + "and should be recorded manually.", recorded, matches.size()), "Import Incomplete");
+                    } else {
+                        SwingUtils.showInfoMessage(BankImportDialog.this,
+                            recorded + " payments recorded successfully.", "Import Complete");
+                    }
+                } catch (Exception e) {
+                    importButton.setEnabled(true);
+                    SwingUtils.showErrorMessage(BankImportDialog.this,
+                        "Error recording payments: " + e.getMessage(), "Import Error");
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+}
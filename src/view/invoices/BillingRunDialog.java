@@ -0,0 +1,286 @@
+package view.invoices;
+
+import javax.swing.*;
+import java.awt.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import controller.BillingRun;
+import controller.BillingRunListener;
+import controller.InvoiceController;
+import view.components.CustomTable;
+import view.components.DateChooser;
+import view.util.SwingUtils;
+import view.util.UIConstants;
+
+/**
+ * Dialog for the month-end billing run: creates draft invoices for every
+ * case with unbilled time up to a date, and resumes an interrupted run.
+ */
+public class BillingRunDialog extends JDialog implements BillingRunListener {
+    private final InvoiceController invoiceController;
+    
+    private DateChooser throughDateChooser;
+    private DateChooser dueDateChooser;
+    private JLabel statusLabel;
+    private JProgressBar progressBar;
+    private CustomTable resultsTable;
+    private JButton startButton;
+    private JButton resumeButton;
+    private JButton cancelButton;
+    private JButton closeButton;
+    
+    private BillingRun interruptedRun;
+    private BillingRun activeRun;
+    private boolean invoicesCreated = false;
+    
+    /**
+     * Constructor
+     * 
+     * @param parent The parent window
+     * @param invoiceController The invoice controller
+     */
+    public BillingRunDialog(Window parent, InvoiceController invoiceController) {
+        super(parent, "Billing Run", ModalityType.APPLICATION_MODAL);
+        
+        this.invoiceController = invoiceController;
+        
+        initializeUI();
+        checkInterruptedRun();
+    }
+    
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(760, 520);
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                if (activeRun == null) {
+                    dispose();
+                }
+            }
+        });
+        setLayout(new BorderLayout());
+        
+        JPanel optionsPanel = new JPanel(new GridBagLayout());
+        optionsPanel.setBorder(BorderFactory.createEmptyBorder(15, 20, 5, 20));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.anchor = GridBagConstraints.WEST;
+        gbc.insets = new Insets(5, 5, 5, 5);
+        
+        LocalDate today = LocalDate.now();
+        throughDateChooser = new DateChooser(today.withDayOfMonth(1).minusDays(1));
+        dueDateChooser = new DateChooser(today.plusDays(30));
+        
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        optionsPanel.add(SwingUtils.createLabel("Bill Time Through:"), gbc);
+        gbc.gridx = 1;
+        optionsPanel.add(throughDateChooser, gbc);
+        gbc.gridx = 2;
+        optionsPanel.add(SwingUtils.createLabel("Invoices Due:"), gbc);
+        gbc.gridx = 3;
+        optionsPanel.add(dueDateChooser, gbc);
+        
+        statusLabel = SwingUtils.createLabel("Creates a draft invoice for every case with unbilled time.");
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.gridwidth = 4;
+        optionsPanel.add(statusLabel, gbc);
+        
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        gbc.gridy = 2;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weightx = 1.0;
+        optionsPanel.add(progressBar, gbc);
+        add(optionsPanel, BorderLayout.NORTH);
+        
+        resultsTable = new CustomTable(new String[] { "Case #", "Case", "Entries", "Amount", "Result" });
+        resultsTable.setColumnWidth(0, 100);
+        resultsTable.setColumnWidth(1, 220);
+        resultsTable.setColumnWidth(2, 70);
+        resultsTable.setColumnWidth(3, 100);
+        resultsTable.setColumnWidth(4, 220);
+        
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(5, 20, 10, 20));
+        tablePanel.add(resultsTable, BorderLayout.CENTER);
+        add(tablePanel, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        
+        resumeButton = new JButton("Resume Interrupted Run");
+        resumeButton.setFont(UIConstants.NORMAL_FONT);
+        resumeButton.setEnabled(false);
+        resumeButton.addActionListener(e -> startRun(interruptedRun));
+        
+        startButton = new JButton("Start Billing Run");
+        startButton.setFont(UIConstants.NORMAL_FONT);
+        startButton.setBackground(UIConstants.SECONDARY_COLOR);
+        startButton.setForeground(Color.WHITE);
+        startButton.addActionListener(e -> startNewRun());
+        
+        cancelButton = new JButton("Stop");
+        cancelButton.setFont(UIConstants.NORMAL_FONT);
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> {
+            if (activeRun != null) {
+                activeRun.cancel();
+                cancelButton.setEnabled(false);
+                statusLabel.setText("Stopping after the invoices already sent...");
+            }
+        });
+        
+        closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> dispose());
+        
+        buttonPanel.add(resumeButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(startButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(cancelButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Check if any invoices were created while the dialog was open
+     * 
+     * @return true if the invoice list should be refreshed
+     */
+    public boolean isInvoicesCreated() {
+        return invoicesCreated;
+    }
+    
+    /**
+     * Offer to resume a run that did not finish
+     */
+    private void checkInterruptedRun() {
+        interruptedRun = invoiceController.resumeBillingRun(this);
+        if (interruptedRun != null) {
+            resumeButton.setEnabled(true);
+            statusLabel.setText(String.format(
+                "Run %s for time through %s was interrupted after %d of %d cases.",
+                interruptedRun.getRunId(), SwingUtils.formatLocalDate(interruptedRun.getThroughDate()),
+                interruptedRun.getCompletedCaseCount(), interruptedRun.getPlannedCaseCount()));
+        }
+    }
+    
+    /**
+     * Start a run with the selected dates
+     */
+    private void startNewRun() {
+        LocalDate throughDate = throughDateChooser.getDate();
+        LocalDate dueDate = dueDateChooser.getDate();
+        if (throughDate == null || dueDate == null) {
+            SwingUtils.showErrorMessage(this, "Please select both dates.", "Validation Error");
+            return;
+        }
+        if (interruptedRun != null && !SwingUtils.showConfirmDialog(this,
+                "An interrupted run has not finished. Starting a new run discards it; "
+                + "its remaining cases will be included if their time falls in the new period.\n\nContinue?",
+                "Confirm Billing Run")) {
+            return;
+        }
+        startRun(invoiceController.createBillingRun(throughDate, dueDate, this));
+    }
+    
+    /**
+     * Run the billing in the background and show the results as they arrive
+     */
+    private void startRun(BillingRun run) {
+        activeRun = run;
+        interruptedRun = null;
+        resultsTable.clearTable();
+        startButton.setEnabled(false);
+        resumeButton.setEnabled(false);
+        closeButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setString("");
+        statusLabel.setText("Loading unbilled time entries...");
+        
+        SwingWorker<List<BillingRun.CaseResult>, Void> worker = new SwingWorker<List<BillingRun.CaseResult>, Void>() {
+            @Override
+            protected List<BillingRun.CaseResult> doInBackground() throws Exception {
+                return run.run(BillingRun.DEFAULT_PARALLELISM);
+            }
+            
+            @Override
+            protected void done() {
+                activeRun = null;
+                closeButton.setEnabled(true);
+                cancelButton.setEnabled(false);
+                startButton.setEnabled(true);
+                try {
+                    List<BillingRun.CaseResult> results = get();
+                    int created = 0;
+                    for (BillingRun.CaseResult result : results) {
+                        if (result.isSuccess()) {
+                            created++;
+                        }
+                    }
+                    if (created > 0) {
+                        invoicesCreated = true;
+                    }
+                    
+                    if (run.getCompletedCaseCount() < run.getPlannedCaseCount()) {
+                        statusLabel.setText(String.format("%d invoices created. %d cases remain; resume the run to bill them.",
+                            created, run.getPlannedCaseCount() - run.getCompletedCaseCount()));
+                        checkInterruptedRun();
+                    } else if (results.isEmpty()) {
+                        statusLabel.setText("No unbilled time found.");
+                    } else {
+                        statusLabel.setText(String.format("%d draft invoices created, totalling %s.",
+                            created, formatMinorUnits(run.getBilledMinorUnits())));
+                    }
+                } catch (Exception e) {
+                    statusLabel.setText("The billing run failed.");
+                    SwingUtils.showErrorMessage(BillingRunDialog.this,
+                        "Error during billing run: " + e.getMessage(), "Billing Error");
+                    e.printStackTrace();
+                    checkInterruptedRun();
+                }
+            }
+        };
+        
+        worker.execute();
+    }
+    
+    @Override
+    public void onProgress(int completedCases, int totalCases, long billedMinorUnits) {
+        SwingUtilities.invokeLater(() -> {
+            progressBar.setValue(totalCases > 0 ? completedCases * 100 / totalCases : 100);
+            progressBar.setString(completedCases + " of " + totalCases + " cases");
+            statusLabel.setText("Billed " + formatMinorUnits(billedMinorUnits) + " so far...");
+        });
+    }
+    
+    @Override
+    public void onCaseBilled(BillingRun.CaseResult result) {
+        SwingUtilities.invokeLater(() -> resultsTable.addRow(new Object[] {
+            result.getCase().getCaseNumber(),
+            result.getCase().getTitle(),
+            result.getEntryCount(),
+            formatMinorUnits(result.getAmountMinorUnits()),
+            result.isSuccess() ? "Invoice " + result.getInvoice().getInvoiceNumber() : result.getError()
+        }));
+    }
+    
+    private static String formatMinorUnits(long amount) {
+        return SwingUtils.formatMoney(BigDecimal.valueOf(amount, 2).doubleValue());
+    }
+}
@@ -8,15 +8,16 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import model.Invoice;
 import model.Client;
 import model.Case;
 import model.TimeEntry;
+import model.InvoiceEditorContext;
 import controller.InvoiceController;
-import controller.ClientController;
-import controller.CaseController;
 import controller.TimeEntryController;
 import javax.swing.table.TableCellRenderer;
 import view.util.UIConstants;
@@ -30,8 +31,6 @@ import view.util.SwingUtils;
 public class InvoiceEditorDialog extends JDialog {
     private Invoice invoice;
     private InvoiceController invoiceController;
-    private ClientController clientController;
-    private CaseController caseController;
     private TimeEntryController timeEntryController;
     
     private JTextField invoiceNumberField;
@@ -45,11 +44,13 @@ public class InvoiceEditorDialog extends JDialog {
     
     private CustomTable timeEntriesTable;
     private List<TimeEntry> selectedTimeEntries;
+    private List<TimeEntry> originalTimeEntries = new ArrayList<>();
     
     private JButton saveButton;
     private JButton cancelButton;
     
     private boolean invoiceSaved = false;
+    private boolean loadingContext = false;
     
     /**
      * Constructor for creating a new invoice
@@ -71,8 +72,6 @@ public class InvoiceEditorDialog extends JDialog {
         
         this.invoice = invoice;
         this.invoiceController = new InvoiceController();
-        this.clientController = new ClientController();
-        this.caseController = new CaseController();
         this.timeEntryController = new TimeEntryController();
         
         this.selectedTimeEntries = new ArrayList<>();
@@ -403,175 +402,166 @@ public class InvoiceEditorDialog extends JDialog {
     }
     
     /**
-     * Load data for the form
+     * Load data for the form with a single call
      */
     private void loadData() {
+        InvoiceEditorContext context = invoiceController.getInvoiceEditorContext(
+            invoice != null ? invoice.getId() : 0, 0, 0, true);
+        if (context == null) {
+            showError("Error loading data: the invoice details could not be loaded.");
+            return;
+        }
+        
+        loadingContext = true;
         try {
             // Load client list
-            loadClientCombo();
+            clientCombo.removeAllItems();
+            for (Client client : context.getClients()) {
+                clientCombo.addItem(new ComboItem(client.getId(), client.getName()));
+            }
             
-            // Generate invoice number for new invoices
-            if (invoice == null) {
-                generateInvoiceNumber();
-            } else {
+            if (context.getInvoice() != null) {
                 // Load existing invoice data
-                loadInvoiceData();
+                loadInvoiceData(context.getInvoice());
+            } else if (context.getNextInvoiceNumber() != null) {
+                invoiceNumberField.setText(context.getNextInvoiceNumber());
+            } else {
+                invoiceNumberField.setText("INV" + System.currentTimeMillis());
             }
+            
+            applyContext(context);
         } catch (Exception e) {
             showError("Error loading data: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            loadingContext = false;
+        }
+    }
+    
+    /**
+     * Fill the form fields from the invoice being edited
+     * 
+     * @param fullInvoice The invoice with its details
+     */
+    private void loadInvoiceData(Invoice fullInvoice) {
+        this.invoice = fullInvoice;
+        
+        // Populate form fields
+        invoiceNumberField.setText(invoice.getInvoiceNumber());
+        
+        // Dates
+        if (invoice.getIssueDate() != null) {
+            issueDateChooser.setDate(invoice.getIssueDate());
+        }
+        
+        if (invoice.getDueDate() != null) {
+            dueDateChooser.setDate(invoice.getDueDate());
+        }
+        
+        // Amount
+        if (invoice.getAmount() != null) {
+            amountField.setText(invoice.getAmount().toString());
+        }
+        
+        // Status
+        statusCombo.setSelectedItem(invoice.getStatus());
+        
+        // Notes
+        if (invoice.getNotes() != null) {
+            notesArea.setText(invoice.getNotes());
+        }
+        
+        // Time entries already on the invoice
+        if (invoice.getTimeEntries() != null) {
+            this.selectedTimeEntries = new ArrayList<>(invoice.getTimeEntries());
+            this.originalTimeEntries = new ArrayList<>(invoice.getTimeEntries());
         }
     }
     
     /**
-     * Load the client dropdown
+     * Show a context's cases and time entries and select its client and case.
+     * Selecting them here does not trigger further loads.
+     * 
+     * @param context The loaded editor context
      */
-    private void loadClientCombo() {
+    private void applyContext(InvoiceEditorContext context) {
+        boolean wasLoading = loadingContext;
+        loadingContext = true;
         try {
-            // Clear existing items
-            clientCombo.removeAllItems();
-            
-            // Get all clients
-            List<Client> clients = clientController.getAllClients();
+            selectItem(clientCombo, context.getClientId());
             
-            // Add clients to combo box
-            for (Client client : clients) {
-                clientCombo.addItem(new ComboItem(client.getId(), client.getName()));
+            caseCombo.removeAllItems();
+            for (Case legalCase : context.getCases()) {
+                caseCombo.addItem(new ComboItem(legalCase.getId(), 
+                    legalCase.getCaseNumber() + " - " + legalCase.getTitle()));
             }
+            selectItem(caseCombo, context.getCaseId());
             
-        } catch (Exception e) {
-            showError("Error loading clients: " + e.getMessage());
-            e.printStackTrace();
+            showTimeEntries(context.getTimeEntries());
+        } finally {
+            loadingContext = wasLoading;
         }
     }
     
     /**
-     * Generate a new invoice number
+     * Select the combo item with an ID, if present
      */
-    private void generateInvoiceNumber() {
-        try {
-            String invoiceNumber = invoiceController.generateNextInvoiceNumber();
-            invoiceNumberField.setText(invoiceNumber);
-        } catch (Exception e) {
-            e.printStackTrace();
-            invoiceNumberField.setText("INV" + System.currentTimeMillis());
+    private void selectItem(JComboBox<ComboItem> combo, int id) {
+        for (int i = 0; i < combo.getItemCount(); i++) {
+            if (combo.getItemAt(i).getId() == id) {
+                combo.setSelectedIndex(i);
+                return;
+            }
         }
     }
     
     /**
-     * Load existing invoice data when editing
+     * Load the cases and time entries for a new selection with one call
+     * 
+     * @param clientId The selected client
+     * @param caseId The selected case, or 0 for the client's first case
      */
-    private void loadInvoiceData() {
-        try {
-            // Get invoice with full details
-            Invoice fullInvoice = invoiceController.getInvoiceWithDetails(invoice.getId());
-            this.invoice = fullInvoice;
-            
-            // Populate form fields
-            invoiceNumberField.setText(invoice.getInvoiceNumber());
-            
-            // Select client
-            for (int i = 0; i < clientCombo.getItemCount(); i++) {
-                ComboItem item = clientCombo.getItemAt(i);
-                if (item.getId() == invoice.getClient().getId()) {
-                    clientCombo.setSelectedIndex(i);
-                    break;
-                }
-            }
-            
-            // Load and select case
-            loadCaseCombo(invoice.getClient().getId());
-            for (int i = 0; i < caseCombo.getItemCount(); i++) {
-                ComboItem item = caseCombo.getItemAt(i);
-                if (item.getId() == invoice.getCase().getId()) {
-                    caseCombo.setSelectedIndex(i);
-                    break;
-                }
-            }
-            
-            // Dates
-            if (invoice.getIssueDate() != null) {
-                issueDateChooser.setDate(invoice.getIssueDate());
-            }
-            
-            if (invoice.getDueDate() != null) {
-                dueDateChooser.setDate(invoice.getDueDate());
-            }
-            
-            // Amount
-            if (invoice.getAmount() != null) {
-                amountField.setText(invoice.getAmount().toString());
-            }
-            
-            // Status
-            statusCombo.setSelectedItem(invoice.getStatus());
-            
-            // Notes
-            if (invoice.getNotes() != null) {
-                notesArea.setText(invoice.getNotes());
-            }
-            
-            // Load time entries
-            if (invoice.getTimeEntries() != null) {
-                this.selectedTimeEntries = new ArrayList<>(invoice.getTimeEntries());
-            }
-            
-            // Load time entries for case
-            loadTimeEntries(invoice.getCase().getId());
-            
-        } catch (Exception e) {
-            showError("Error loading invoice data: " + e.getMessage());
-            e.printStackTrace();
+    private void loadContext(int clientId, int caseId) {
+        InvoiceEditorContext context = invoiceController.getInvoiceEditorContext(
+            invoice != null ? invoice.getId() : 0, clientId, caseId, false);
+        if (context == null) {
+            showError("Error loading cases and time entries.");
+            return;
         }
+        applyContext(context);
     }
     
     /**
      * Handler for client selection
      */
     private void clientSelected() {
+        if (loadingContext) {
+            return;
+        }
+        
         ComboItem selectedClient = (ComboItem) clientCombo.getSelectedItem();
         if (selectedClient != null) {
-            // Load cases for the selected client
-            loadCaseCombo(selectedClient.getId());
+            // Load cases for the selected client and time entries for its first case
+            loadContext(selectedClient.getId(), 0);
         } else {
             // Clear case combo
             caseCombo.removeAllItems();
         }
     }
     
-    /**
-     * Load the case dropdown for a client
-     * 
-     * @param clientId The client ID
-     */
-    private void loadCaseCombo(int clientId) {
-        try {
-            // Clear existing items
-            caseCombo.removeAllItems();
-            
-            // Get cases for the client
-            List<Case> cases = caseController.findCasesByClient(clientId);
-            
-            // Add cases to combo box
-            for (Case legalCase : cases) {
-                caseCombo.addItem(new ComboItem(legalCase.getId(), 
-                    legalCase.getCaseNumber() + " - " + legalCase.getTitle()));
-            }
-            
-        } catch (Exception e) {
-            showError("Error loading cases: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
     /**
      * Handler for case selection
      */
     private void caseSelected() {
+        if (loadingContext) {
+            return;
+        }
+        
+        ComboItem selectedClient = (ComboItem) clientCombo.getSelectedItem();
         ComboItem selectedCase = (ComboItem) caseCombo.getSelectedItem();
-        if (selectedCase != null) {
+        if (selectedClient != null && selectedCase != null) {
             // Load time entries for the selected case
-            loadTimeEntries(selectedCase.getId());
+            loadContext(selectedClient.getId(), selectedCase.getId());
         } else {
             // Clear time entries table
             timeEntriesTable.clearTable();
@@ -579,26 +569,15 @@ public class InvoiceEditorDialog extends JDialog {
     }
     
     /**
-     * Load time entries for a case
+     * Show time entries in the table, ticking those already on the invoice
      * 
-     * @param caseId The case ID
+     * @param timeEntries The case's time entries
      */
-    private void loadTimeEntries(int caseId) {
+    private void showTimeEntries(List<TimeEntry> timeEntries) {
         try {
             // Clear existing items
             timeEntriesTable.clearTable();
             
-            // Get unbilled time entries for the case
-            List<TimeEntry> timeEntries;
-            
-            // If editing an existing invoice, get all time entries for the case
-            if (invoice != null && invoice.getId() > 0) {
-                timeEntries = timeEntryController.getCaseTimeEntries(caseId);
-            } else {
-                // Otherwise, only get unbilled entries
-                timeEntries = timeEntryController.getUnbilledTimeEntries(caseId);
-            }
-            
             // Add time entries to table
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
             
@@ -894,11 +873,14 @@ public class InvoiceEditorDialog extends JDialog {
             
             if (success) {
                 invoiceSaved = true;
-                SwingUtils.showInfoMessage(
-                    this,
-                    "Invoice has been saved successfully.",
-                    "Invoice Saved"
-                );
+                boolean released = releaseRemovedTimeEntries(newInvoice.getId());
+                if (markTimeEntriesBilled(newInvoice.getId()) && released) {
+                    SwingUtils.showInfoMessage(
+                        this,
+                        "Invoice has been saved successfully.",
+                        "Invoice Saved"
+                    );
+                }
                 dispose();
             } else {
                 showError("Failed to save invoice. Please try again.");
@@ -910,6 +892,101 @@ public class InvoiceEditorDialog extends JDialog {
         }
     }
     
+    /**
+     * Mark the selected time entries as billed on the saved invoice, in one call
+     * 
+     * @param invoiceId The invoice ID
+     * @return true if every entry was marked
+     */
+    private boolean markTimeEntriesBilled(int invoiceId) {
+        if (selectedTimeEntries.isEmpty()) {
+            return true;
+        }
+        
+        int[] ids = new int[selectedTimeEntries.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = selectedTimeEntries.get(i).getId();
+        }
+        
+        String[] outcomes = timeEntryController.markTimeEntriesAsBilled(ids, invoiceId);
+        if (outcomes == null) {
+            SwingUtils.showErrorMessage(this, "The invoice was saved, but its time entries could not be marked as billed. "
+                + "Open the invoice and save it again to retry.", "Billing Error");
+            return false;
+        }
+        
+        StringBuilder problems = new StringBuilder();
+        for (int i = 0; i < ids.length && i < outcomes.length; i++) {
+            if (!TimeEntry.BILLING_MARKED.equals(outcomes[i])) {
+                TimeEntry entry = selectedTimeEntries.get(i);
+                problems.append("\n").append(entry.getEntryDate()).append(" ")
+                    .append(entry.getFormattedHours()).append(": ").append(outcomes[i]);
+            }
+        }
+        if (problems.length() > 0) {
+            SwingUtils.showErrorMessage(this, "The invoice was saved, but no time entries were marked as billed "
+                + "because some could not be:" + problems, "Billing Error");
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Mark the time entries taken off an existing invoice as unbilled again,
+     * so they can go on another invoice. All removed entries are unmarked in
+     * one atomic call, so either all of them are released or none is.
+     * 
+     * @param invoiceId The ID of the saved invoice
+     * @return true if every removed entry was released
+     */
+    private boolean releaseRemovedTimeEntries(int invoiceId) {
+        Set<Integer> selectedIds = new HashSet<>();
+        for (TimeEntry entry : selectedTimeEntries) {
+            selectedIds.add(entry.getId());
+        }
+        
+        List<TimeEntry> removed = new ArrayList<>();
+        for (TimeEntry entry : originalTimeEntries) {
+            if (!selectedIds.contains(entry.getId())) {
+                removed.add(entry);
+            }
+        }
+        if (removed.isEmpty()) {
+            return true;
+        }
+        
+        int[] ids = new int[removed.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = removed.get(i).getId();
+        }
+        
+        String[] outcomes = timeEntryController.unmarkTimeEntriesAsBilled(ids, invoiceId);
+        if (outcomes == null) {
+            SwingUtils.showErrorMessage(this, "The invoice was saved, but the time entries removed from it "
+                + "are still marked as billed. Open the invoice and save it again to retry.", "Billing Error");
+            return false;
+        }
+        
+        StringBuilder problems = new StringBuilder();
+        for (int i = 0; i < ids.length && i < outcomes.length; i++) {
+            if (!TimeEntry.BILLING_UNMARKED.equals(outcomes[i])) {
+                TimeEntry entry = removed.get(i);
+                problems.append("\n").append(entry.getEntryDate()).append(" ")
+                    .append(entry.getFormattedHours()).append(": ").append(outcomes[i]);
+            }
+        }
+        if (problems.length() > 0) {
+            SwingUtils.showErrorMessage(this, "The invoice was saved, but no removed time entries were released "
+                + "because some could not be:" + problems, "Billing Error");
+            return false;
+        }
+        for (TimeEntry entry : removed) {
+            entry.setInvoice(null);
+            entry.setBilled(false);
+        }
+        return true;
+    }
+    
     /**
      * Check if an invoice was saved
      * 
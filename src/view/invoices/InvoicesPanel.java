@@ -38,7 +38,7 @@ public class InvoicesPanel extends JPanel {
         this.invoiceController = new InvoiceController();
         
         initializeUI();
-        loadInvoices();
+        loadInvoicesOnStartup();
     }
     
     /**
@@ -178,6 +178,23 @@ public class InvoicesPanel extends JPanel {
         deleteButton.setFont(UIConstants.NORMAL_FONT);
         deleteButton.addActionListener(e -> deleteSelectedInvoice());
         
+        JButton recalculateButton = new JButton("Recalculate");
+        recalculateButton.setFont(UIConstants.NORMAL_FONT);
+        recalculateButton.setToolTipText("Recalculate paid amounts and statuses of all invoices");
+        recalculateButton.addActionListener(e -> recalculateInvoices());
+        
+        JButton bankImportButton = new JButton("Import Statement");
+        bankImportButton.setFont(UIConstants.NORMAL_FONT);
+        bankImportButton.addActionListener(e -> importBankStatement());
+        
+        JButton agingButton = new JButton("Aging Report");
+        agingButton.setFont(UIConstants.NORMAL_FONT);
+        agingButton.addActionListener(e -> showAgingReport());
+        
+        JButton billingRunButton = new JButton("Billing Run");
+        billingRunButton.setFont(UIConstants.NORMAL_FONT);
+        billingRunButton.addActionListener(e -> openBillingRun());
+        
         addButton = new JButton("Create Invoice");
         addButton.setFont(UIConstants.NORMAL_FONT);
         addButton.setBackground(UIConstants.SECONDARY_COLOR);
@@ -187,6 +204,8 @@ public class InvoicesPanel extends JPanel {
         // Add buttons to panel
         buttonPanel.add(refreshButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(recalculateButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(viewDetailsButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(recordPaymentButton);
@@ -195,6 +214,12 @@ public class InvoicesPanel extends JPanel {
         buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(deleteButton);
         buttonPanel.add(Box.createHorizontalStrut(30));
+        buttonPanel.add(bankImportButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(agingButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(billingRunButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(addButton);
         
         // Initialize button states
@@ -261,30 +286,7 @@ public class InvoicesPanel extends JPanel {
             }
             
             // Populate table
-            for (Invoice invoice : invoices) {
-                // Get the client and case information
-                String clientName = invoice.getClient() != null ? 
-                    invoice.getClient().getName() : "Client " + invoice.getId();
-                    
-                String caseNumber = invoice.getCase() != null ? 
-                    invoice.getCase().getCaseNumber() : "Case " + invoice.getCase().getId();
-                
-                // Calculate balance
-                BigDecimal balance = invoice.getAmount().subtract(invoice.getAmountPaid());
-                
-                Object[] row = {
-                    invoice.getInvoiceNumber(),
-                    clientName,
-                    caseNumber,
-                    invoice.getIssueDate().toString(),
-                    invoice.getDueDate().toString(),
-                    SwingUtils.formatMoney(invoice.getAmount().doubleValue()),
-                    SwingUtils.formatMoney(invoice.getAmountPaid().doubleValue()),
-                    SwingUtils.formatMoney(balance.doubleValue()),
-                    invoice.getStatus()
-                };
-                invoicesTable.addRow(row);
-            }
+            addInvoiceRows(invoices);
             
             // Display a message if no invoices found
             if (invoices.isEmpty() && (searchText == null || searchText.isEmpty()) && 
@@ -309,6 +311,80 @@ public class InvoicesPanel extends JPanel {
         }
     }
     
+    /**
+     * Show the invoices saved at the last load straight away, then replace them
+     * with the server's list once it has loaded in the background
+     */
+    private void loadInvoicesOnStartup() {
+        List<Invoice> saved = invoiceController.getSavedInvoices();
+        if (saved == null || saved.isEmpty()) {
+            loadInvoices();
+            return;
+        }
+        invoicesTable.clearTable();
+        addInvoiceRows(saved);
+        
+        SwingWorker<List<Invoice>, Void> worker = new SwingWorker<List<Invoice>, Void>() {
+            @Override
+            protected List<Invoice> doInBackground() throws Exception {
+                return invoiceController.getAllInvoices();
+            }
+            
+            @Override
+            protected void done() {
+                // A search run meanwhile has already replaced the saved rows
+                String searchText = filterPanel.getSearchText();
+                if (searchText != null && !searchText.isEmpty()) {
+                    return;
+                }
+                
+                try {
+                    List<Invoice> invoices = get();
+                    if (invoices != null) {
+                        invoicesTable.clearTable();
+                        addInvoiceRows(invoices);
+                        updateButtonStates();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    /**
+     * Add a table row for each of the given invoices
+     * 
+     * @param invoices The invoices to show
+     */
+    private void addInvoiceRows(List<Invoice> invoices) {
+        for (Invoice invoice : invoices) {
+            // Get the client and case information
+            String clientName = invoice.getClient() != null ? 
+                invoice.getClient().getName() : "Client " + invoice.getId();
+                
+            String caseNumber = invoice.getCase() != null ? 
+                invoice.getCase().getCaseNumber() : "Case " + invoice.getCase().getId();
+            
+            // Calculate balance
+            BigDecimal balance = invoice.getAmount().subtract(invoice.getAmountPaid());
+            
+            Object[] row = {
+                invoice.getInvoiceNumber(),
+                clientName,
+                caseNumber,
+                invoice.getIssueDate().toString(),
+                invoice.getDueDate().toString(),
+                SwingUtils.formatMoney(invoice.getAmount().doubleValue()),
+                SwingUtils.formatMoney(invoice.getAmountPaid().doubleValue()),
+                SwingUtils.formatMoney(balance.doubleValue()),
+                invoice.getStatus()
+            };
+            invoicesTable.addRow(row);
+        }
+    }
+    
     /**
      * Update the enabled state of buttons based on table selection
      */
@@ -398,6 +474,101 @@ public class InvoicesPanel extends JPanel {
         }
     }
     
+    /**
+     * Recalculate the paid amount and status of every invoice on the server
+     */
+    private void recalculateInvoices() {
+        if (!SwingUtils.showConfirmDialog(this,
+                "Recalculate the paid amount and status of all invoices from their payments?",
+                "Confirm Recalculation")) {
+            return;
+        }
+        
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        SwingWorker<List<Invoice>, Void> worker = new SwingWorker<List<Invoice>, Void>() {
+            @Override
+            protected List<Invoice> doInBackground() throws Exception {
+                return invoiceController.recalculateAllInvoices();
+            }
+            
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    List<Invoice> changed = get();
+                    if (changed == null) {
+                        SwingUtils.showErrorMessage(InvoicesPanel.this,
+                            "Could not recalculate invoices.", "Database Error");
+                        return;
+                    }
+                    SwingUtils.showInfoMessage(InvoicesPanel.this,
+                        changed.isEmpty() ? "All invoices were already up to date."
+                            : changed.size() + " invoices were updated.",
+                        "Recalculation Complete");
+                    if (!changed.isEmpty()) {
+                        loadInvoices();
+                    }
+                } catch (Exception e) {
+                    SwingUtils.showErrorMessage(InvoicesPanel.this,
+                        "Error recalculating invoices: " + e.getMessage(), "Database Error");
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    /**
+     * Record payments from a bank statement
+     */
+    private void importBankStatement() {
+        BankImportDialog dialog = new BankImportDialog(
+            SwingUtilities.getWindowAncestor(this),
+            invoiceController
+        );
+        dialog.setVisible(true);
+        
+        if (dialog.isPaymentsImported()) {
+            loadInvoices();
+        }
+    }
+    
+    /**
+     * Show outstanding balances by days past due
+     */
+    private void showAgingReport() {
+        AgingReportDialog dialog = new AgingReportDialog(
+            SwingUtilities.getWindowAncestor(this),
+            invoiceController
+        );
+        dialog.setVisible(true);
+    }
+    
+    /**
+     * Open the billing run for invoicing all cases with unbilled time
+     */
+    private void openBillingRun() {
+        try {
+            BillingRunDialog dialog = new BillingRunDialog(
+                SwingUtilities.getWindowAncestor(this),
+                invoiceController
+            );
+            dialog.setVisible(true);
+            
+            if (dialog.isInvoicesCreated()) {
+                loadInvoices();
+            }
+            
+        } catch (Exception e) {
+            SwingUtils.showErrorMessage(
+                this,
+                "Error running billing: " + e.getMessage(),
+                "Database Error"
+            );
+            e.printStackTrace();
+        }
+    }
+    
     /**
      * Create a new invoice
      */
@@ -0,0 +1,91 @@
+package view.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+
+import model.Event;
+
+/**
+ * Shows desktop notifications through the system tray, falling back to a
+ * non-modal dialog on platforms without tray support.
+ */
+public class DesktopNotifier {
+    private static TrayIcon trayIcon;
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private DesktopNotifier() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Show a reminder for an upcoming event. Safe to call from any thread.
+     * 
+     * @param event The event to remind about
+     */
+    public static void showEventReminder(Event event) {
+        StringBuilder message = new StringBuilder();
+        message.append(event.getEventDate().format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy")));
+        if (event.getStartTime() != null) {
+            message.append(" at ").append(event.getStartTime().format(DateTimeFormatter.ofPattern("h:mm a")));
+        }
+        if (event.getLocation() != null && !event.getLocation().isEmpty()) {
+            message.append("\n").append(event.getLocation());
+        }
+        
+        showNotification("Reminder: " + event.getTitle(), message.toString());
+    }
+    
+    /**
+     * Show a desktop notification. Safe to call from any thread.
+     * 
+     * @param title Notification title
+     * @param message Notification message
+     */
+    public static void showNotification(String title, String message) {
+        SwingUtilities.invokeLater(() -> {
+            TrayIcon icon = getTrayIcon();
+            if (icon != null) {
+                icon.displayMessage(title, message, TrayIcon.MessageType.INFO);
+                return;
+            }
+            
+            JOptionPane pane = new JOptionPane(message, JOptionPane.INFORMATION_MESSAGE);
+            JDialog dialog = pane.createDialog(null, title);
+            dialog.setModal(false);
+            dialog.setAlwaysOnTop(true);
+            dialog.setVisible(true);
+        });
+    }
+    
+    /**
+     * Get the application tray icon, installing it on first use
+     * 
+     * @return The tray icon, or null if the system tray is unavailable
+     */
+    private static TrayIcon getTrayIcon() {
+        if (trayIcon != null) {
+            return trayIcon;
+        }
+        if (!SystemTray.isSupported()) {
+            return null;
+        }
+        
+        try {
+            ImageIcon image = IconManager.getIcon(IconManager.ICON_CALENDAR);
+            if (image == null) {
+                return null;
+            }
+            
+            TrayIcon icon = new TrayIcon(image.getImage(), "Legal Case Management System");
+            icon.setImageAutoSize(true);
+            SystemTray.getSystemTray().add(icon);
+            trayIcon = icon;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return trayIcon;
+    }
+}
@@ -194,6 +194,25 @@ public class SwingUtils {
         return String.format("$%,.2f", amount);
     }
     
+    /**
+     * Format a byte count for display
+     * 
+     * @param bytes Number of bytes
+     * @return Human-readable size
+     */
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        if (bytes < 1024L * 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+        }
+        return String.format("%.2f GB", bytes / (1024.0 * 1024.0 * 1024.0));
+    }
+    
     /**
      * Show an error message dialog
      * 
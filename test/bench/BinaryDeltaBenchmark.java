@@ -0,0 +1,119 @@
+package bench;
+
+import controller.BinaryDelta;
+import model.BlockSignature;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures delta uploads of a new document version: the signature of the
+ * base file, encoding the delta, and rebuilding the new version from it,
+ * along with how much smaller the delta is than the whole file.
+ * 
+ * Each new version is the base file with a few small insertions, deletions
+ * and overwrites spread through it, like an edited filing. The rebuilt file
+ * is compared with the new version to make sure the delta is correct.
+ * 
+ *   ant compile-test
+ *   java -cp build/classes:build/test/classes bench.BinaryDeltaBenchmark
+ * 
+ * Arguments are the file sizes to try in MiB (default 1, 16 and 64).
+ */
+public class BinaryDeltaBenchmark {
+    private static final int EDITS = 6;
+    
+    public static void main(String[] args) throws Exception {
+        int[] sizes = { 1, 16, 64 };
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        
+        Path base = Files.createTempFile("delta-base", ".bin");
+        Path target = Files.createTempFile("delta-target", ".bin");
+        try {
+            for (int mib : sizes) {
+                Random random = new Random(mib);
+                byte[] original = new byte[mib * 1024 * 1024];
+                random.nextBytes(original);
+                byte[] edited = edit(original, random);
+                Files.write(base, original);
+                Files.write(target, edited);
+                int blockSize = BinaryDelta.chooseBlockSize(original.length);
+                
+                // Warm up
+                BinaryDelta.encode(BinaryDelta.signature(base, "base", blockSize), target, new ByteArrayOutputStream());
+                
+                long start = System.nanoTime();
+                BlockSignature signature = BinaryDelta.signature(base, "base", blockSize);
+                long signed = System.nanoTime();
+                ByteArrayOutputStream delta = new ByteArrayOutputStream();
+                long literalBytes = BinaryDelta.encode(signature, target, delta);
+                long encoded = System.nanoTime();
+                ByteArrayOutputStream rebuilt = new ByteArrayOutputStream(edited.length);
+                try (OutputStream out = new BufferedOutputStream(rebuilt)) {
+                    BinaryDelta.apply(base, new ByteArrayInputStream(delta.toByteArray()), out);
+                }
+                long applied = System.nanoTime();
+                
+                if (!Arrays.equals(rebuilt.toByteArray(), edited)) {
+                    throw new IllegalStateException("The rebuilt file differs from the new version");
+                }
+                System.out.printf("%3d MiB, %5d byte blocks: delta %7d bytes (%.2f%% of the file, %d literal),"
+                        + " signature %5.0f ms, encode %5.0f ms, apply %5.0f ms%n",
+                    mib, blockSize, delta.size(), 100.0 * delta.size() / edited.length, literalBytes,
+                    (signed - start) / 1e6, (encoded - signed) / 1e6, (applied - encoded) / 1e6);
+            }
+        } finally {
+            Files.deleteIfExists(base);
+            Files.deleteIfExists(target);
+        }
+    }
+    
+    /**
+     * Apply a few small insertions, deletions and overwrites at random places
+     */
+    private static byte[] edit(byte[] original, Random random) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(original.length + 4096);
+        int[] positions = new int[EDITS];
+        for (int i = 0; i < EDITS; i++) {
+            positions[i] = random.nextInt(original.length - 1024);
+        }
+        Arrays.sort(positions);
+        
+        int copied = 0;
+        for (int i = 0; i < EDITS; i++) {
+            int position = Math.max(positions[i], copied);
+            out.write(original, copied, position - copied);
+            byte[] change = new byte[100 + random.nextInt(400)];
+            random.nextBytes(change);
+            switch (i % 3) {
+                case 0:
+                    // Insert
+                    out.write(change, 0, change.length);
+                    copied = position;
+                    break;
+                case 1:
+                    // Delete
+                    copied = position + change.length;
+                    break;
+                default:
+                    // Overwrite
+                    out.write(change, 0, change.length);
+                    copied = position + change.length;
+                    break;
+            }
+        }
+        out.write(original, copied, original.length - copied);
+        return out.toByteArray();
+    }
+}
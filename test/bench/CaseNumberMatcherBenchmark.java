@@ -0,0 +1,138 @@
+package bench;
+
+import controller.CaseNumberMatcher;
+import model.Case;
+import model.Client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures routing a document to its case with {@link CaseNumberMatcher}
+ * against checking the text for each case number and client ID in turn
+ * with String.contains.
+ * 
+ * The matcher is filled directly with generated open cases, so no server
+ * is needed. Each document is generated text that mentions one case
+ * number and one client ID somewhere in it.
+ * 
+ *   ant compile-test
+ *   java -cp build/classes:build/test/classes bench.CaseNumberMatcherBenchmark
+ * 
+ * Arguments are the number of documents per run (default 200), the size of
+ * each document in KiB (default 32) and the case counts to try (default
+ * 100, 1000 and 10000).
+ */
+public class CaseNumberMatcherBenchmark {
+    public static void main(String[] args) throws Exception {
+        int documents = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int kib = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int[] caseCounts = { 100, 1000, 10000 };
+        if (args.length > 2) {
+            caseCounts = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                caseCounts[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+        
+        for (int caseCount : caseCounts) {
+            List<Case> cases = createCases(caseCount);
+            CaseNumberMatcher matcher = new CaseNumberMatcher();
+            for (Case legalCase : cases) {
+                matcher.updateCase(legalCase);
+            }
+            List<String> texts = createTexts(cases, documents, kib * 1024);
+            
+            // Warm up; the matcher is cheap enough to run over every text
+            for (String text : texts) {
+                matcher.findMatches(text);
+            }
+            for (int i = 0; i < 3; i++) {
+                containsScan(cases, texts.get(i % texts.size()));
+            }
+            
+            long start = System.nanoTime();
+            int found = 0;
+            for (String text : texts) {
+                found += matcher.findMatches(text).size();
+            }
+            double matcherMillis = (System.nanoTime() - start) / (documents * 1e6);
+            
+            start = System.nanoTime();
+            int contained = 0;
+            for (String text : texts) {
+                contained += containsScan(cases, text);
+            }
+            double containsMillis = (System.nanoTime() - start) / (documents * 1e6);
+            
+            System.out.printf("%6d cases: matcher %7.3f ms/doc (%d found)   contains %8.3f ms/doc (%d found)%n",
+                caseCount, matcherMillis, found, containsMillis, contained);
+        }
+    }
+    
+    private static List<Case> createCases(int count) {
+        List<Case> cases = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Client client = new Client();
+            client.setId(i / 4 + 1);
+            client.setClientId(String.format("CL-%05d", i / 4));
+            
+            Case legalCase = new Case();
+            legalCase.setId(i + 1);
+            legalCase.setCaseNumber(String.format("CV-2026-%05d", i));
+            legalCase.setStatus("Open");
+            legalCase.setClient(client);
+            cases.add(legalCase);
+        }
+        return cases;
+    }
+    
+    /**
+     * Generate texts of ordinary words with one case number and one client ID placed at random
+     */
+    private static List<String> createTexts(List<Case> cases, int count, int length) {
+        String[] words = { "the", "court", "motion", "filed", "plaintiff", "defendant", "hearing",
+                           "exhibit", "counsel", "order", "2026", "page", "section", "agreement" };
+        Random random = new Random(7);
+        List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Case legalCase = cases.get(random.nextInt(cases.size()));
+            StringBuilder text = new StringBuilder(length + 64);
+            int caseAt = random.nextInt(length);
+            int clientAt = random.nextInt(length);
+            while (text.length() < length) {
+                if (text.length() >= caseAt && caseAt >= 0) {
+                    text.append(legalCase.getCaseNumber()).append(' ');
+                    caseAt = -1;
+                }
+                if (text.length() >= clientAt && clientAt >= 0) {
+                    text.append(legalCase.getClient().getClientId()).append(' ');
+                    clientAt = -1;
+                }
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            texts.add(text.toString());
+        }
+        return texts;
+    }
+    
+    /**
+     * Look for every case number and client ID with String.contains, as a
+     * loop over the cases would
+     */
+    private static int containsScan(List<Case> cases, String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        int found = 0;
+        for (Case legalCase : cases) {
+            if (lower.contains(legalCase.getCaseNumber().toLowerCase(Locale.ROOT))) {
+                found++;
+            }
+            if (lower.contains(legalCase.getClient().getClientId().toLowerCase(Locale.ROOT))) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,100 @@
+package bench;
+
+import controller.DocumentDownloader;
+import service.DocumentService;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+
+/**
+ * Compares the two ways of saving a document to disk: reading the whole
+ * content into one array and writing it, as the download actions used to,
+ * and streaming it in chunks with {@link DocumentDownloader}.
+ * 
+ * The document service is a local stub that serves generated bytes, so the
+ * numbers leave out the network and show the client's own cost: time and
+ * peak heap use for each approach.
+ * 
+ *   ant compile-test
+ *   java -cp build/classes:build/test/classes bench.DocumentDownloadBenchmark
+ * 
+ * Arguments are the document size in MiB (default 256) and the number of
+ * timed runs of each approach (default 3).
+ */
+public class DocumentDownloadBenchmark {
+    public static void main(String[] args) throws Exception {
+        long size = (args.length > 0 ? Long.parseLong(args[0]) : 256) * 1024 * 1024;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        
+        DocumentService service = stubService(size);
+        File target = File.createTempFile("download", ".bin");
+        try {
+            System.out.printf("document: %d MiB%n", size / (1024 * 1024));
+            for (int run = 0; run < runs; run++) {
+                resetPeakHeap();
+                long start = System.nanoTime();
+                byte[] content = new byte[(int) size];
+                fill(content, 0);
+                Files.write(target.toPath(), content);
+                content = null;
+                report("whole file", start, size);
+                
+                resetPeakHeap();
+                start = System.nanoTime();
+                new DocumentDownloader(service, null).download(1, target);
+                report("chunked   ", start, size);
+            }
+        } finally {
+            target.delete();
+        }
+    }
+    
+    /**
+     * A document service that only answers the two calls a download makes
+     */
+    private static DocumentService stubService(long size) {
+        return (DocumentService) Proxy.newProxyInstance(DocumentService.class.getClassLoader(),
+            new Class<?>[] { DocumentService.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDocumentSize":
+                        return size;
+                    case "downloadChunk":
+                        long offset = (Long) args[1];
+                        byte[] chunk = new byte[(int) Math.min((Integer) args[2], size - offset)];
+                        fill(chunk, offset);
+                        return chunk;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    private static void fill(byte[] data, long offset) {
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (offset + i);
+        }
+    }
+    
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+    }
+    
+    private static void report(String label, long start, long size) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("%s %7.0f ms %7.1f MiB/s, peak heap %5d MiB%n",
+            label, seconds * 1000, size / seconds / (1024 * 1024), peak / (1024 * 1024));
+    }
+}
@@ -0,0 +1,137 @@
+package bench;
+
+import controller.DocumentTextIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Measures search over the document content index against the linear scan
+ * it replaces, in which every document's text is checked for the query words.
+ * 
+ * Documents are generated from a fixed vocabulary with a skewed word
+ * distribution, so some words occur in most documents and others in few,
+ * as in real filings. The index is built in a temporary directory and
+ * deleted afterwards.
+ * 
+ *   ant compile-test
+ *   java -cp build/classes:build/test/classes bench.DocumentTextIndexBenchmark
+ * 
+ * Arguments are the number of documents (default 100000), words per document
+ * (default 200) and timed repetitions of each query (default 50).
+ */
+public class DocumentTextIndexBenchmark {
+    private static final int VOCABULARY = 20000;
+    private static final String[] QUERIES = { "w17", "w3 w250", "w1200", "\"w5 w6\"", "w19999" };
+    
+    public static void main(String[] args) throws Exception {
+        int documents = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int words = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        
+        Path directory = Files.createTempDirectory("index-bench");
+        try {
+            DocumentTextIndex index = new DocumentTextIndex(directory.resolve("documents.idx"));
+            List<String> texts = new ArrayList<>(documents);
+            Random random = new Random(42);
+            
+            long start = System.nanoTime();
+            for (int id = 1; id <= documents; id++) {
+                String text = createText(random, words);
+                texts.add(text.toLowerCase(Locale.ROOT));
+                index.addDocument(id, null, text);
+            }
+            System.out.printf("indexed %d documents of %d words in %.1f s%n",
+                documents, words, (System.nanoTime() - start) / 1e9);
+            
+            for (String query : QUERIES) {
+                for (int i = 0; i < 3; i++) {
+                    index.search(query, 20);
+                    scan(texts, query);
+                }
+                
+                start = System.nanoTime();
+                int hits = 0;
+                for (int i = 0; i < repetitions; i++) {
+                    hits = index.search(query, 20).size();
+                }
+                double indexMillis = (System.nanoTime() - start) / (repetitions * 1e6);
+                
+                start = System.nanoTime();
+                int matches = 0;
+                int scans = Math.max(1, repetitions / 10);
+                for (int i = 0; i < scans; i++) {
+                    matches = scan(texts, query);
+                }
+                double scanMillis = (System.nanoTime() - start) / (scans * 1e6);
+                
+                System.out.printf("%-10s index %8.3f ms (%d hits)   scan %8.1f ms (%d matches)%n",
+                    query, indexMillis, hits, scanMillis, matches);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(DocumentTextIndexBenchmark::delete);
+            }
+        }
+    }
+    
+    /**
+     * Generate a text whose word frequencies fall off roughly as 1/rank
+     */
+    private static String createText(Random random, int words) {
+        StringBuilder text = new StringBuilder(words * 7);
+        for (int i = 0; i < words; i++) {
+            int rank = (int) Math.pow(VOCABULARY, random.nextDouble());
+            text.append(i % 15 == 0 ? "W" : "w").append(rank - 1).append(i % 12 == 11 ? ". " : " ");
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Count the documents containing every query word, the way a search
+     * without an index has to
+     */
+    private static int scan(List<String> texts, String query) {
+        String[] terms = query.replace("\"", "").split(" ");
+        int matches = 0;
+        for (String text : texts) {
+            boolean all = true;
+            for (String term : terms) {
+                if (!containsWord(text, term)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+    
+    private static boolean containsWord(String text, String word) {
+        for (int from = text.indexOf(word); from >= 0; from = text.indexOf(word, from + 1)) {
+            int end = from + word.length();
+            if ((from == 0 || !Character.isLetterOrDigit(text.charAt(from - 1)))
+                    && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void delete(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package bench;
+
+import controller.ReceivablesAging;
+import model.Case;
+import model.Client;
+import model.Invoice;
+import model.Payment;
+import service.InvoiceService;
+import service.PaymentService;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures building the receivables aging report over a large book of open
+ * invoices, against a straightforward single-threaded reduction in
+ * BigDecimal over the same data.
+ * 
+ * The invoice and payment services are local stubs that page through
+ * generated data held in memory, so the numbers leave out the network and
+ * show the client's own cost. The report cache is cleared before each run,
+ * and the two totals are compared to make sure the reductions agree.
+ * 
+ *   ant compile-test
+ *   java -cp build/classes:build/test/classes bench.ReceivablesAgingBenchmark
+ * 
+ * Arguments are the number of open invoices (default 200000) and timed runs
+ * (default 10).
+ */
+public class ReceivablesAgingBenchmark {
+    private static final int CLIENTS = 2000;
+    private static final int CASES_PER_CLIENT = 4;
+    
+    public static void main(String[] args) throws Exception {
+        int invoiceCount = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        
+        LocalDate asOf = LocalDate.of(2026, 10, 1);
+        List<Invoice> invoices = new ArrayList<>(invoiceCount);
+        List<Payment> payments = new ArrayList<>();
+        createData(invoiceCount, asOf, invoices, payments);
+        System.out.printf("%d open invoices, %d payments, %d clients, %d cases%n",
+            invoices.size(), payments.size(), CLIENTS, CLIENTS * CASES_PER_CLIENT);
+        
+        ReceivablesAging aging = new ReceivablesAging(invoiceService(invoices), paymentService(payments));
+        for (int i = 0; i < 3; i++) {
+            aging.invalidate();
+            aging.getReport(asOf);
+            bigDecimalReduction(invoices, payments, asOf);
+        }
+        
+        long reportNanos = 0;
+        long baselineNanos = 0;
+        long total = 0;
+        BigDecimal baselineTotal = BigDecimal.ZERO;
+        for (int i = 0; i < runs; i++) {
+            aging.invalidate();
+            long start = System.nanoTime();
+            total = aging.getReport(asOf).getTotals().getTotal();
+            long reported = System.nanoTime();
+            baselineTotal = bigDecimalReduction(invoices, payments, asOf);
+            reportNanos += reported - start;
+            baselineNanos += System.nanoTime() - reported;
+        }
+        
+        if (baselineTotal.movePointRight(2).longValueExact() != total) {
+            throw new IllegalStateException("The report total differs from the baseline");
+        }
+        System.out.printf("report   %7.1f ms (total %d cents, including paging through the stubs)%n",
+            reportNanos / (runs * 1e6), total);
+        System.out.printf("baseline %7.1f ms (total %s)%n", baselineNanos / (runs * 1e6), baselineTotal);
+        System.out.printf("%d processors%n", Runtime.getRuntime().availableProcessors());
+    }
+    
+    private static void createData(int invoiceCount, LocalDate asOf, List<Invoice> invoices, List<Payment> payments) {
+        List<Case> cases = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            Client client = new Client();
+            client.setId(c + 1);
+            client.setName("Client " + c);
+            for (int k = 0; k < CASES_PER_CLIENT; k++) {
+                Case legalCase = new Case();
+                legalCase.setId(c * CASES_PER_CLIENT + k + 1);
+                legalCase.setCaseNumber("CV-" + legalCase.getId());
+                legalCase.setTitle("Matter " + legalCase.getId());
+                legalCase.setClient(client);
+                cases.add(legalCase);
+            }
+        }
+        
+        Random random = new Random(41);
+        int paymentId = 1;
+        for (int i = 0; i < invoiceCount; i++) {
+            Case legalCase = cases.get(random.nextInt(cases.size()));
+            Invoice invoice = new Invoice();
+            invoice.setId(i + 1);
+            invoice.setClient(legalCase.getClient());
+            invoice.setCase(legalCase);
+            invoice.setIssueDate(asOf.minusDays(random.nextInt(180)));
+            invoice.setDueDate(invoice.getIssueDate().plusDays(30));
+            invoice.setAmount(BigDecimal.valueOf(5000 + random.nextInt(500000), 2));
+            invoices.add(invoice);
+            
+            // About a third are partly paid
+            if (random.nextInt(3) == 0) {
+                Payment payment = new Payment();
+                payment.setId(paymentId++);
+                payment.setAmount(invoice.getAmount().divide(BigDecimal.valueOf(2 + random.nextInt(3)), 2,
+                    RoundingMode.HALF_UP));
+                payment.setInvoice(invoice);
+                payments.add(payment);
+            }
+        }
+    }
+    
+    /**
+     * The reduction without the report's optimizations: one thread, BigDecimal sums
+     */
+    private static BigDecimal bigDecimalReduction(List<Invoice> invoices, List<Payment> payments, LocalDate asOf) {
+        Map<Integer, BigDecimal> paid = new HashMap<>();
+        for (Payment payment : payments) {
+            paid.merge(payment.getInvoice().getId(), payment.getAmount(), BigDecimal::add);
+        }
+        
+        Map<Integer, BigDecimal[]> clients = new HashMap<>();
+        Map<Integer, BigDecimal[]> cases = new HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Invoice invoice : invoices) {
+            BigDecimal balance = invoice.getAmount().subtract(paid.getOrDefault(invoice.getId(), BigDecimal.ZERO));
+            if (balance.signum() == 0) {
+                continue;
+            }
+            int bucket = ReceivablesAging.bucketFor(ChronoUnit.DAYS.between(invoice.getDueDate(), asOf));
+            add(clients, invoice.getClient().getId(), bucket, balance);
+            add(cases, invoice.getCase().getId(), bucket, balance);
+            total = total.add(balance);
+        }
+        return total;
+    }
+    
+    private static void add(Map<Integer, BigDecimal[]> rows, int id, int bucket, BigDecimal balance) {
+        BigDecimal[] row = rows.computeIfAbsent(id, key -> {
+            BigDecimal[] buckets = new BigDecimal[ReceivablesAging.BUCKET_NAMES.length];
+            Arrays.fill(buckets, BigDecimal.ZERO);
+            return buckets;
+        });
+        row[bucket] = row[bucket].add(balance);
+    }
+    
+    private static InvoiceService invoiceService(List<Invoice> invoices) {
+        return (InvoiceService) Proxy.newProxyInstance(InvoiceService.class.getClassLoader(),
+            new Class<?>[] { InvoiceService.class }, (proxy, method, args) -> {
+                if (!method.getName().equals("findOpenInvoicesPage")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                // IDs are 1..n in order, so the page after an ID starts at that index
+                int from = Math.min((Integer) args[0], invoices.size());
+                return new ArrayList<>(invoices.subList(from, Math.min(from + (Integer) args[1], invoices.size())));
+            });
+    }
+    
+    private static PaymentService paymentService(List<Payment> payments) {
+        return (PaymentService) Proxy.newProxyInstance(PaymentService.class.getClassLoader(),
+            new Class<?>[] { PaymentService.class }, (proxy, method, args) -> {
+                if (!method.getName().equals("findOpenInvoicePaymentsPage")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                int from = Math.min((Integer) args[0], payments.size());
+                return new ArrayList<>(payments.subList(from, Math.min(from + (Integer) args[1], payments.size())));
+            });
+    }
+}
@@ -0,0 +1,167 @@
+package bench;
+
+import model.Attorney;
+import model.Case;
+import model.Client;
+import model.Document;
+import model.Event;
+import model.TimeEntry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the serialized size of model objects and the time to write and
+ * read them, as RMI does for every service call.
+ * 
+ * The data set resembles a findAllCases response: 40 cases over 10 clients
+ * and 5 attorneys, each case with 8 events, 4 documents and 25 time entries.
+ * A single case from it stands in for a getCaseWithDetails response; since
+ * its attorneys and client link back to their other cases, its size shows
+ * how much of the graph one case pulls in.
+ * Only public model API is used, so the same class runs against any build of
+ * the model package. To compare two versions, compile the application at
+ * each commit and run this class against each build:
+ * 
+ *   ant compile-test
+ *   java -cp build/classes:build/test/classes bench.WireFormatBenchmark
+ * 
+ * Arguments are the number of timed iterations (default 5000) and warm-up
+ * iterations (default 300).
+ */
+public class WireFormatBenchmark {
+    private static final int CASES = 40;
+    private static final int CLIENTS = 10;
+    private static final int ATTORNEYS = 5;
+    
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        
+        List<Case> cases = createCases();
+        byte[] allCases = serialize(cases);
+        System.out.printf("findAllCases payload: %d bytes%n", allCases.length);
+        System.out.printf("getCaseWithDetails payload: %d bytes%n", serialize(cases.get(CASES / 2)).length);
+        
+        for (int i = 0; i < warmup; i++) {
+            deserialize(serialize(cases));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serialize(cases);
+        }
+        long written = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            deserialize(allCases);
+        }
+        long read = System.nanoTime();
+        System.out.printf("write %.3f ms, read %.3f ms per call%n",
+            (written - start) / (iterations * 1e6), (read - written) / (iterations * 1e6));
+    }
+    
+    /**
+     * Build the data set with all relations linked in both directions
+     */
+    private static List<Case> createCases() {
+        List<Attorney> attorneys = new ArrayList<>();
+        for (int a = 0; a < ATTORNEYS; a++) {
+            Attorney attorney = new Attorney();
+            attorney.setId(a + 1);
+            attorney.setAttorneyId("ATT-" + a);
+            attorney.setFirstName("First" + a);
+            attorney.setLastName("Last" + a);
+            attorney.setEmail("attorney" + a + "@firm.example");
+            attorney.setSpecialization(a % 2 == 0 ? "Litigation" : "Corporate");
+            attorney.setHourlyRate(250 + a * 25);
+            attorneys.add(attorney);
+        }
+        
+        List<Client> clients = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            Client client = new Client();
+            client.setId(c + 1);
+            client.setName("Client " + c);
+            client.setClientType("Organization");
+            client.setEmail("client" + c + "@example.com");
+            client.setAddress("12 Main Street, Springfield");
+            clients.add(client);
+        }
+        
+        List<Case> cases = new ArrayList<>();
+        int id = 1;
+        for (int c = 0; c < CASES; c++) {
+            Case legalCase = new Case();
+            legalCase.setId(c + 1);
+            legalCase.setCaseNumber("CASE-2026-" + c);
+            legalCase.setTitle("Matter number " + c);
+            legalCase.setCaseType(c % 3 == 0 ? "Civil" : "Criminal");
+            legalCase.setDescription("A longer description of the matter that is not repeated " + c);
+            legalCase.setCourt("District Court");
+            legalCase.setJudge("Judge Smith");
+            
+            Client client = clients.get(c % CLIENTS);
+            legalCase.setClient(client);
+            client.getCases().add(legalCase);
+            legalCase.addAttorney(attorneys.get(c % ATTORNEYS));
+            legalCase.addAttorney(attorneys.get((c + 1) % ATTORNEYS));
+            
+            for (int e = 0; e < 8; e++) {
+                Event event = new Event();
+                event.setId(id++);
+                event.setEventId("EV-" + id);
+                event.setTitle("Hearing");
+                event.setEventType("Court Date");
+                event.setEventDate(LocalDate.of(2026, 1 + e, 10));
+                event.setStartTime(LocalTime.of(9, 30));
+                event.setEndTime(LocalTime.of(11, 0));
+                event.setLocation("Courtroom 4");
+                legalCase.addEvent(event);
+            }
+            for (int d = 0; d < 4; d++) {
+                Document document = new Document();
+                document.setId(id++);
+                document.setDocumentId("DOC-" + id);
+                document.setTitle("Filing " + d);
+                document.setDocumentType("Pleading");
+                document.setFilePath("/docs/" + c + "/" + d + ".pdf");
+                document.setFileSize(123456);
+                legalCase.addDocument(document);
+            }
+            for (int t = 0; t < 25; t++) {
+                TimeEntry timeEntry = new TimeEntry();
+                timeEntry.setId(id++);
+                timeEntry.setEntryId("TE-" + id);
+                timeEntry.setAttorney(attorneys.get(t % ATTORNEYS));
+                timeEntry.setHours(0.25 * (1 + t % 8));
+                timeEntry.setDescription("Research and drafting");
+                timeEntry.setActivityCode("L120");
+                timeEntry.setHourlyRate(new BigDecimal("250.00"));
+                legalCase.addTimeEntry(timeEntry);
+            }
+            cases.add(legalCase);
+        }
+        return cases;
+    }
+    
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static Object deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+}